@@ -1,5 +1,14 @@
 package io.github.xermaor.milvus.plus.config;
 
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionPolicy;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionRule;
+import io.github.xermaor.milvus.plus.core.load.LoadBudget;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResiliencePolicy;
+import io.github.xermaor.milvus.plus.core.expiry.ExpiryConfig;
+import io.github.xermaor.milvus.plus.core.spool.FsyncPolicy;
+import io.github.xermaor.milvus.plus.core.spool.SpoolConfig;
 import io.milvus.v2.client.ConnectConfig;
 import io.milvus.v2.client.RetryConfig;
 import org.jetbrains.annotations.NotNull;
@@ -7,7 +16,10 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -24,12 +36,28 @@ public class MilvusConfigurationProperties {
     private final Boolean banner;
     @NestedConfigurationProperty
     private final RetryConfiguration retryConfig;
+    @NestedConfigurationProperty
+    private final LoadConfiguration load;
+    private final Map<String, DatasourceConfiguration> datasources;
+    @NestedConfigurationProperty
+    private final ReadWriteConfiguration readWrite;
+    @NestedConfigurationProperty
+    private final ResilienceConfiguration resilience;
+    @NestedConfigurationProperty
+    private final AdmissionConfiguration admission;
+    @NestedConfigurationProperty
+    private final SpoolConfiguration spool;
+    @NestedConfigurationProperty
+    private final ExpiryConfiguration expiry;
 
     @ConstructorBinding
     public MilvusConfigurationProperties(
             ConnectConfiguration connectConfig, Boolean enable,
             List<String> packages, Boolean openLog, String logLevel,
-            Boolean banner, RetryConfiguration retryConfig) {
+            Boolean banner, RetryConfiguration retryConfig, LoadConfiguration load,
+            Map<String, DatasourceConfiguration> datasources, ReadWriteConfiguration readWrite,
+            ResilienceConfiguration resilience, AdmissionConfiguration admission, SpoolConfiguration spool,
+            ExpiryConfiguration expiry) {
         this.connectConfig = connectConfig != null ? connectConfig : new ConnectConfiguration(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
         this.enable = enable != null ? enable : false;
         this.packages = packages != null ? packages : List.of();
@@ -40,6 +68,13 @@ public class MilvusConfigurationProperties {
                 null, null, null,
                 null, null, null
         );
+        this.load = load != null ? load : new LoadConfiguration(null, null, null, null, null);
+        this.datasources = datasources != null ? datasources : Map.of();
+        this.readWrite = readWrite != null ? readWrite : new ReadWriteConfiguration(null, null);
+        this.resilience = resilience != null ? resilience : new ResilienceConfiguration(null, null, null, null, null, null, null, null, null, null);
+        this.admission = admission != null ? admission : new AdmissionConfiguration(null, null, null, null);
+        this.spool = spool != null ? spool : new SpoolConfiguration(null, null, null, null, null, null, null);
+        this.expiry = expiry != null ? expiry : new ExpiryConfiguration(null, null, null, null);
     }
 
     public ConnectConfiguration getConnectConfig() {
@@ -70,6 +105,34 @@ public class MilvusConfigurationProperties {
         return retryConfig;
     }
 
+    public LoadConfiguration getLoad() {
+        return load;
+    }
+
+    public Map<String, DatasourceConfiguration> getDatasources() {
+        return datasources;
+    }
+
+    public ReadWriteConfiguration getReadWrite() {
+        return readWrite;
+    }
+
+    public ResilienceConfiguration getResilience() {
+        return resilience;
+    }
+
+    public AdmissionConfiguration getAdmission() {
+        return admission;
+    }
+
+    public SpoolConfiguration getSpool() {
+        return spool;
+    }
+
+    public ExpiryConfiguration getExpiry() {
+        return expiry;
+    }
+
     @Override
     public String toString() {
         return "MilvusConfigurationProperties{" +
@@ -80,6 +143,13 @@ public class MilvusConfigurationProperties {
                 ", logLevel='" + logLevel + '\'' +
                 ", banner=" + banner +
                 ", retryConfig=" + retryConfig +
+                ", load=" + load +
+                ", datasources=" + datasources +
+                ", readWrite=" + readWrite +
+                ", resilience=" + resilience +
+                ", admission=" + admission +
+                ", spool=" + spool +
+                ", expiry=" + expiry +
                 '}';
     }
 
@@ -208,4 +278,240 @@ public class MilvusConfigurationProperties {
                     '}';
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 按需加载配置，启用后集合和分区在首次查询时加载，超出预算时释放最久未访问的
+     *
+     * @param enable         是否启用按需加载
+     * @param maxLoaded      最多同时加载的集合或分区数
+     * @param maxMemoryBytes 预估内存上限（字节）
+     * @param bytesPerRow    预估每行占用的内存（字节）
+     * @param pinned         固定加载的集合或分区，格式为 collection 或 collection:partition
+     */
+    public record LoadConfiguration(Boolean enable, Integer maxLoaded, Long maxMemoryBytes, Long bytesPerRow,
+                                    List<String> pinned) {
+        @ConstructorBinding
+        public LoadConfiguration(Boolean enable, Integer maxLoaded, Long maxMemoryBytes, Long bytesPerRow,
+                                 List<String> pinned) {
+            this.enable = enable != null ? enable : false;
+            this.maxLoaded = maxLoaded != null ? maxLoaded : 0;
+            this.maxMemoryBytes = maxMemoryBytes != null ? maxMemoryBytes : 0L;
+            this.bytesPerRow = bytesPerRow != null ? bytesPerRow : 0L;
+            this.pinned = pinned != null ? pinned : List.of();
+        }
+
+        public LoadBudget toLoadBudget() {
+            return enable ? new LoadBudget(maxLoaded, maxMemoryBytes, bytesPerRow) : null;
+        }
+    }
+
+    /**
+     * 读写分离配置，查询请求发往读端点，插入、更新、删除发往写端点，为空时使用主连接
+     *
+     * @param readers 读端点连接配置
+     * @param writers 写端点连接配置
+     */
+    public record ReadWriteConfiguration(List<ConnectConfiguration> readers, List<ConnectConfiguration> writers) {
+        @ConstructorBinding
+        public ReadWriteConfiguration(List<ConnectConfiguration> readers, List<ConnectConfiguration> writers) {
+            this.readers = readers != null ? readers : List.of();
+            this.writers = writers != null ? writers : List.of();
+        }
+    }
+
+    /**
+     * 容错配置，作用于查询构建器的终端操作和 IVecMService 的数据操作
+     *
+     * @param enable                  是否启用
+     * @param readDeadlineMs          读操作截止时间（毫秒），不大于 0 时不限制
+     * @param writeDeadlineMs         写操作截止时间（毫秒），不大于 0 时不限制
+     * @param maxAttempts             可重试操作的最大尝试次数
+     * @param backoffMs               首次重试前的退避时间（毫秒）
+     * @param maxBackoffMs            退避时间上限（毫秒）
+     * @param hedge                   读操作是否启用对冲
+     * @param hedgeMinDelayMs         对冲延迟下限（毫秒）
+     * @param breakerFailureThreshold 端点连续失败多少次后熔断，不大于 0 时不熔断
+     * @param breakerOpenMs           熔断持续时间（毫秒）
+     */
+    public record ResilienceConfiguration(Boolean enable, Long readDeadlineMs, Long writeDeadlineMs,
+                                          Integer maxAttempts, Long backoffMs, Long maxBackoffMs,
+                                          Boolean hedge, Long hedgeMinDelayMs,
+                                          Integer breakerFailureThreshold, Long breakerOpenMs) {
+        @ConstructorBinding
+        public ResilienceConfiguration(Boolean enable, Long readDeadlineMs, Long writeDeadlineMs,
+                                       Integer maxAttempts, Long backoffMs, Long maxBackoffMs,
+                                       Boolean hedge, Long hedgeMinDelayMs,
+                                       Integer breakerFailureThreshold, Long breakerOpenMs) {
+            this.enable = enable != null ? enable : false;
+            this.readDeadlineMs = readDeadlineMs != null ? readDeadlineMs : 0L;
+            this.writeDeadlineMs = writeDeadlineMs != null ? writeDeadlineMs : 0L;
+            this.maxAttempts = maxAttempts != null ? maxAttempts : 3;
+            this.backoffMs = backoffMs != null ? backoffMs : 50L;
+            this.maxBackoffMs = maxBackoffMs != null ? maxBackoffMs : 1000L;
+            this.hedge = hedge != null ? hedge : false;
+            this.hedgeMinDelayMs = hedgeMinDelayMs != null ? hedgeMinDelayMs : 20L;
+            this.breakerFailureThreshold = breakerFailureThreshold != null ? breakerFailureThreshold : 5;
+            this.breakerOpenMs = breakerOpenMs != null ? breakerOpenMs : 10000L;
+        }
+
+        public ResiliencePolicy toReadPolicy() {
+            return enable ? toPolicy(readDeadlineMs, hedge) : null;
+        }
+
+        public ResiliencePolicy toWritePolicy() {
+            return enable ? toPolicy(writeDeadlineMs, false) : null;
+        }
+
+        private ResiliencePolicy toPolicy(long deadlineMs, boolean hedge) {
+            return new ResiliencePolicy(deadlineMs > 0 ? Duration.ofMillis(deadlineMs) : null, maxAttempts,
+                    Duration.ofMillis(backoffMs), Duration.ofMillis(maxBackoffMs),
+                    hedge, Duration.ofMillis(hedgeMinDelayMs),
+                    breakerFailureThreshold, Duration.ofMillis(breakerOpenMs));
+        }
+    }
+
+    /**
+     * 准入控制配置，按集合、操作类型和租户做令牌桶限速和并发限制
+     *
+     * @param enable    是否启用
+     * @param policy    超出配额时的处理方式：BLOCK、TIMEOUT、FAIL_FAST
+     * @param timeoutMs TIMEOUT 策略下的最长等待时间（毫秒）
+     * @param rules     准入规则
+     */
+    public record AdmissionConfiguration(Boolean enable, AdmissionPolicy policy, Long timeoutMs,
+                                         List<AdmissionRuleConfiguration> rules) {
+        @ConstructorBinding
+        public AdmissionConfiguration(Boolean enable, AdmissionPolicy policy, Long timeoutMs,
+                                      List<AdmissionRuleConfiguration> rules) {
+            this.enable = enable != null ? enable : false;
+            this.policy = policy != null ? policy : AdmissionPolicy.TIMEOUT;
+            this.timeoutMs = timeoutMs != null ? timeoutMs : 1000L;
+            this.rules = rules != null ? rules : List.of();
+        }
+
+        public AdmissionController toAdmissionController() {
+            if (!enable || rules.isEmpty()) {
+                return null;
+            }
+            return new AdmissionController(rules.stream().map(AdmissionRuleConfiguration::toRule).toList(),
+                    policy, Duration.ofMillis(timeoutMs));
+        }
+    }
+
+    /**
+     * 写入暂存配置，集群不可用时插入和更新写入本地磁盘，恢复后回放
+     *
+     * @param enable          是否启用
+     * @param directory       暂存目录
+     * @param segmentBytes    单个段文件大小
+     * @param fsyncPolicy     刷盘策略：ALWAYS、INTERVAL、NEVER
+     * @param fsyncIntervalMs INTERVAL 策略下的刷盘间隔（毫秒）
+     * @param drainBatchRows  回放时单批最多行数
+     * @param drainIntervalMs 回放检查间隔（毫秒）
+     */
+    public record SpoolConfiguration(Boolean enable, String directory, Integer segmentBytes, FsyncPolicy fsyncPolicy,
+                                     Long fsyncIntervalMs, Integer drainBatchRows, Long drainIntervalMs) {
+        @ConstructorBinding
+        public SpoolConfiguration(Boolean enable, String directory, Integer segmentBytes, FsyncPolicy fsyncPolicy,
+                                  Long fsyncIntervalMs, Integer drainBatchRows, Long drainIntervalMs) {
+            this.enable = enable != null ? enable : false;
+            this.directory = directory != null ? directory : "milvus-plus-spool";
+            this.segmentBytes = segmentBytes != null ? segmentBytes : 64 * 1024 * 1024;
+            this.fsyncPolicy = fsyncPolicy != null ? fsyncPolicy : FsyncPolicy.INTERVAL;
+            this.fsyncIntervalMs = fsyncIntervalMs != null ? fsyncIntervalMs : 1000L;
+            this.drainBatchRows = drainBatchRows != null ? drainBatchRows : 5000;
+            this.drainIntervalMs = drainIntervalMs != null ? drainIntervalMs : 5000L;
+        }
+
+        public SpoolConfig toSpoolConfig() {
+            if (!enable) {
+                return null;
+            }
+            return new SpoolConfig(Path.of(directory), segmentBytes, fsyncPolicy, Duration.ofMillis(fsyncIntervalMs),
+                    drainBatchRows, Duration.ofMillis(drainIntervalMs));
+        }
+    }
+
+    /**
+     * 行级过期任务配置，用于声明了 ttlField 的集合
+     *
+     * @param intervalMs    扫描间隔（毫秒）
+     * @param chunkSize     每次删除的行数
+     * @param rowsPerSecond 每秒最多删除的行数，0 表示不限速
+     * @param compact       删除后是否触发压缩
+     */
+    public record ExpiryConfiguration(Long intervalMs, Integer chunkSize, Double rowsPerSecond, Boolean compact) {
+        @ConstructorBinding
+        public ExpiryConfiguration(Long intervalMs, Integer chunkSize, Double rowsPerSecond, Boolean compact) {
+            this.intervalMs = intervalMs != null ? intervalMs : 60_000L;
+            this.chunkSize = chunkSize != null ? chunkSize : 1000;
+            this.rowsPerSecond = rowsPerSecond != null ? rowsPerSecond : 1000D;
+            this.compact = compact != null ? compact : true;
+        }
+
+        public ExpiryConfig toExpiryConfig() {
+            return new ExpiryConfig(Duration.ofMillis(intervalMs), chunkSize, rowsPerSecond, compact);
+        }
+    }
+
+    /**
+     * @param collection       集合名，为空或 * 时匹配所有集合
+     * @param operation        操作类型，为空时匹配所有操作
+     * @param permitsPerSecond 每秒放行的请求数
+     * @param burst            令牌桶容量
+     * @param maxInFlight      最多同时进行的请求数
+     * @param perTenant        是否按租户分别计数
+     */
+    public record AdmissionRuleConfiguration(String collection, OperationType operation, Double permitsPerSecond,
+                                             Integer burst, Integer maxInFlight, Boolean perTenant) {
+        @ConstructorBinding
+        public AdmissionRuleConfiguration(String collection, OperationType operation, Double permitsPerSecond,
+                                          Integer burst, Integer maxInFlight, Boolean perTenant) {
+            this.collection = collection;
+            this.operation = operation;
+            this.permitsPerSecond = permitsPerSecond != null ? permitsPerSecond : 0d;
+            this.burst = burst != null ? burst : 0;
+            this.maxInFlight = maxInFlight != null ? maxInFlight : 0;
+            this.perTenant = perTenant != null ? perTenant : false;
+        }
+
+        public AdmissionRule toRule() {
+            return new AdmissionRule(collection, operation, permitsPerSecond, burst, maxInFlight, perTenant);
+        }
+    }
+
+    /**
+     * 命名数据源配置，实体通过 {@code @MilvusCollection(datasource = "...")} 指定所属数据源。
+     * 读写分离、容错、准入控制、写入暂存和过期任务的含义与默认数据源的同名配置相同，只作用于该数据源，
+     * 未配置时不启用（过期任务使用默认配置）；按需加载沿用全局的 load 配置
+     *
+     * @param connectConfig 连接配置
+     * @param retryConfig   重试配置
+     * @param readWrite     读写分离配置
+     * @param resilience    容错配置
+     * @param admission     准入控制配置
+     * @param spool         写入暂存配置，暂存目录不能与其他数据源相同
+     * @param expiry        行级过期任务配置
+     */
+    public record DatasourceConfiguration(ConnectConfiguration connectConfig, RetryConfiguration retryConfig,
+                                          ReadWriteConfiguration readWrite, ResilienceConfiguration resilience,
+                                          AdmissionConfiguration admission, SpoolConfiguration spool,
+                                          ExpiryConfiguration expiry) {
+        @ConstructorBinding
+        public DatasourceConfiguration(ConnectConfiguration connectConfig, RetryConfiguration retryConfig,
+                                       ReadWriteConfiguration readWrite, ResilienceConfiguration resilience,
+                                       AdmissionConfiguration admission, SpoolConfiguration spool,
+                                       ExpiryConfiguration expiry) {
+            this.connectConfig = connectConfig != null ? connectConfig : new ConnectConfiguration(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+            this.retryConfig = retryConfig != null ? retryConfig : new RetryConfiguration(
+                    null, null, null,
+                    null, null, null
+            );
+            this.readWrite = readWrite != null ? readWrite : new ReadWriteConfiguration(null, null);
+            this.resilience = resilience != null ? resilience : new ResilienceConfiguration(null, null, null, null, null, null, null, null, null, null);
+            this.admission = admission != null ? admission : new AdmissionConfiguration(null, null, null, null);
+            this.spool = spool != null ? spool : new SpoolConfiguration(null, null, null, null, null, null, null);
+            this.expiry = expiry != null ? expiry : new ExpiryConfiguration(null, null, null, null);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package io.github.xermaor.milvus.plus.config;
 
+import io.github.xermaor.milvus.plus.service.MilvusClientBuilder;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
 import io.github.xermaor.milvus.plus.service.MilvusInit;
+import io.github.xermaor.milvus.plus.service.NamedMilvusClientBuilder;
 import io.milvus.v2.client.MilvusClientV2;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @EnableConfigurationProperties(MilvusConfigurationProperties.class)
 public class MilvusPlusAutoConfiguration {
 
     public static MilvusInit milvusInit;
+    public static MilvusDatasources datasources;
 
     @Bean
     @ConditionalOnMissingBean(MilvusClientV2.class)
@@ -18,6 +25,43 @@ public class MilvusPlusAutoConfiguration {
     public MilvusClientV2 milvusClientV2(MilvusConfigurationProperties properties) {
         milvusInit = new MilvusInit(properties);
         milvusInit.initialize();
+        Map<String, MilvusClientBuilder> builders = new LinkedHashMap<>();
+        builders.put(MilvusDatasources.DEFAULT, milvusInit);
+        properties.getDatasources().forEach((name, config) -> {
+            MilvusClientV2 client = createClient(config.connectConfig(), config);
+            NamedMilvusClientBuilder builder = new NamedMilvusClientBuilder(name, client,
+                    properties.getPackages().toArray(new String[0]),
+                    properties.getLoad().toLoadBudget(), properties.getLoad().pinned())
+                    .readWrite(config.readWrite().readers().stream().map(c -> createClient(c, config)).toList(),
+                            config.readWrite().writers().stream().map(c -> createClient(c, config)).toList())
+                    .resilience(config.resilience().toReadPolicy(), config.resilience().toWritePolicy())
+                    .admission(config.admission().toAdmissionController())
+                    .spool(config.spool().toSpoolConfig())
+                    .expiry(config.expiry().toExpiryConfig());
+            builder.initialize();
+            builders.put(name, builder);
+        });
+        datasources = new MilvusDatasources(builders);
         return milvusInit.getClient();
     }
+
+    private static MilvusClientV2 createClient(MilvusConfigurationProperties.ConnectConfiguration connectConfig,
+                                               MilvusConfigurationProperties.DatasourceConfiguration config) {
+        MilvusClientV2 client = new MilvusClientV2(connectConfig.toConnectConfig());
+        client.retryConfig(config.retryConfig().toRetryConfig());
+        return client;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MilvusDatasources.class)
+    @ConditionalOnProperty(prefix = "milvus", name = "enable", havingValue = "true")
+    public MilvusDatasources milvusDatasources(MilvusClientV2 milvusClientV2) {
+        return datasources;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "milvus", name = "enable", havingValue = "true")
+    public static MilvusRepositoryRegistrar milvusRepositoryRegistrar() {
+        return new MilvusRepositoryRegistrar();
+    }
 }
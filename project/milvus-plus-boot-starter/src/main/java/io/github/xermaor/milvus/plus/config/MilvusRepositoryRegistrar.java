@@ -0,0 +1,51 @@
+package io.github.xermaor.milvus.plus.config;
+
+import io.github.xermaor.milvus.plus.core.repository.MilvusRepositories;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.util.StringUtils;
+
+/**
+ * 把 milvus-plus-processor 在构建期生成的仓库注册为 bean，按仓库接口注入。
+ * <p>
+ * 仓库实现在首次注入时以实体所属数据源的客户端创建，之后的调用不经过代理。
+ */
+public class MilvusRepositoryRegistrar implements BeanDefinitionRegistryPostProcessor, BeanFactoryAware, BeanClassLoaderAware {
+
+    private BeanFactory beanFactory;
+    private ClassLoader classLoader;
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        MilvusRepositories.discover(classLoader).forEach((repository, implementation) -> register(registry, repository, implementation));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    private <R> void register(BeanDefinitionRegistry registry, Class<R> repository, Class<?> implementation) {
+        String beanName = StringUtils.uncapitalize(repository.getSimpleName());
+        if (registry.containsBeanDefinition(beanName)) {
+            return;
+        }
+        registry.registerBeanDefinition(beanName, new RootBeanDefinition(repository,
+                () -> MilvusRepositories.create(repository, implementation, beanFactory.getBean(MilvusDatasources.class))));
+    }
+}
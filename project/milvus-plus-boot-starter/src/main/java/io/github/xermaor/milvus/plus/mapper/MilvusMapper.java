@@ -1,7 +1,9 @@
 package io.github.xermaor.milvus.plus.mapper;
 
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.config.MilvusPlusAutoConfiguration;
 import io.github.xermaor.milvus.plus.core.mapper.BaseMilvusMapper;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
 import io.milvus.v2.client.MilvusClientV2;
 
 
@@ -10,4 +12,14 @@ public class MilvusMapper<T> extends BaseMilvusMapper<T> {
     public MilvusClientV2 getClient() {
         return MilvusPlusAutoConfiguration.milvusInit.getClient();
     }
+
+    @Override
+    public EntityMetadataRegistry getMetadataRegistry() {
+        return MilvusPlusAutoConfiguration.milvusInit.getMetadataRegistry();
+    }
+
+    @Override
+    public MilvusDatasources getDatasources() {
+        return MilvusPlusAutoConfiguration.datasources;
+    }
 }
@@ -4,6 +4,8 @@ import io.github.xermaor.milvus.plus.config.MilvusConfigurationProperties;
 import io.github.xermaor.milvus.plus.logger.LogLevelController;
 import io.milvus.v2.client.MilvusClientV2;
 
+import java.util.List;
+
 public class MilvusInit extends AbstractMilvusClientBuilder {
 
     private final MilvusConfigurationProperties properties;
@@ -21,6 +23,15 @@ public class MilvusInit extends AbstractMilvusClientBuilder {
                 properties.getLogLevel()
         );
         this.packages = properties.getPackages().toArray(new String[0]);
+        this.loadBudget = properties.getLoad().toLoadBudget();
+        this.pinned = properties.getLoad().pinned();
+        this.readClients = createClients(properties.getReadWrite().readers());
+        this.writeClients = createClients(properties.getReadWrite().writers());
+        this.readPolicy = properties.getResilience().toReadPolicy();
+        this.writePolicy = properties.getResilience().toWritePolicy();
+        this.admissionController = properties.getAdmission().toAdmissionController();
+        this.spoolConfig = properties.getSpool().toSpoolConfig();
+        this.expiryConfig = properties.getExpiry().toExpiryConfig();
         this.initClient();
         super.initialize();
     }
@@ -30,6 +41,14 @@ public class MilvusInit extends AbstractMilvusClientBuilder {
         this.client.retryConfig(properties.getRetryConfig().toRetryConfig());
     }
 
+    private List<MilvusClientV2> createClients(List<MilvusConfigurationProperties.ConnectConfiguration> configs) {
+        return configs.stream().map(config -> {
+            MilvusClientV2 milvusClient = new MilvusClientV2(config.toConnectConfig());
+            milvusClient.retryConfig(properties.getRetryConfig().toRetryConfig());
+            return milvusClient;
+        }).toList();
+    }
+
     public void maybePrintBanner() {
         if (properties.getBanner()) {
             printBanner();
@@ -1,6 +1,7 @@
 package io.github.xermaor.milvus.plus.service;
 
 import io.github.xermaor.milvus.plus.config.MilvusPlusAutoConfiguration;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.core.conditions.LambdaDeleteWrapper;
 import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
 import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
@@ -24,6 +25,11 @@ public class MilvusService implements IAMService, ICMService, IVecMService {
         return MilvusPlusAutoConfiguration.milvusInit.getClient();
     }
 
+    @Override
+    public EntityMetadataRegistry getMetadataRegistry() {
+        return MilvusPlusAutoConfiguration.milvusInit.getMetadataRegistry();
+    }
+
     public <T> MilvusResp<List<MilvusResult<T>>> getById(Class<T> entityClass, Object... ids) {
         BaseMilvusMapper<T> mapper = getBaseMilvusMapper();
         LambdaQueryWrapper<T> lambda = mapper.lambda(entityClass, new LambdaQueryWrapper<>());
@@ -89,6 +95,16 @@ public class MilvusService implements IAMService, ICMService, IVecMService {
             public MilvusClientV2 getClient() {
                 return client;
             }
+
+            @Override
+            public EntityMetadataRegistry getMetadataRegistry() {
+                return MilvusService.this.getMetadataRegistry();
+            }
+
+            @Override
+            public MilvusDatasources getDatasources() {
+                return MilvusPlusAutoConfiguration.datasources;
+            }
         };
     }
 
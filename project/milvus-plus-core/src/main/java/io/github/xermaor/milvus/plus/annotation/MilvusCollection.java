@@ -1,6 +1,8 @@
 package io.github.xermaor.milvus.plus.annotation;
 
 
+import io.github.xermaor.milvus.plus.core.rolling.RollingPeriod;
+import io.github.xermaor.milvus.plus.core.tenant.TenantStrategy;
 import io.milvus.v2.common.ConsistencyLevel;
 
 import java.lang.annotation.ElementType;
@@ -40,4 +42,47 @@ public @interface MilvusCollection {
      */
     boolean enableDynamicField() default false;
 
+    /**
+     * 所属数据源名称，为空时使用默认数据源
+     */
+    String datasource() default "";
+
+    /**
+     * 滚动周期，不为 NONE 时按周期写入 {@code name_周期后缀} 集合，{@link #name()} 作为指向当前周期集合的别名
+     */
+    RollingPeriod rolling() default RollingPeriod.NONE;
+
+    /**
+     * 滚动集合保留的集合数（含当前周期），超出的旧集合被释放并删除；0 表示不删除
+     */
+    int retention() default 0;
+
+    /**
+     * 滚动集合的时间字段，保存毫秒时间戳；写入按该字段路由到周期集合，查询按该字段的范围条件只搜索重叠的集合。
+     * 为空时按写入时刻路由
+     */
+    String timeField() default "";
+
+    /**
+     * 多租户隔离策略，不为 NONE 时按 {@link io.github.xermaor.milvus.plus.core.tenant.TenantContext} 中的租户改写请求
+     */
+    TenantStrategy tenancy() default TenantStrategy.NONE;
+
+    /**
+     * 租户字段，{@link TenantStrategy#PARTITION_KEY} 策略下保存租户标识，应声明为分区键
+     */
+    String tenantField() default "";
+
+    /**
+     * 数据存活时间（秒），0 表示不过期。
+     * 未设置 {@link #ttlField()} 时写入集合属性 {@code collection.ttl.seconds}，由服务端按写入时间过期；
+     * 设置后由后台任务按该字段分块清除过期的行。不再写入集合属性时，启动时会删除已存在集合上的该属性
+     */
+    long ttl() default 0;
+
+    /**
+     * 行级过期的时间字段，保存毫秒时间戳，字段值早于当前时间减去 {@link #ttl()} 的行被清除
+     */
+    String ttlField() default "";
+
 }
\ No newline at end of file
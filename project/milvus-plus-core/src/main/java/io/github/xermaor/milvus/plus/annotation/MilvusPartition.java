@@ -1,5 +1,7 @@
 package io.github.xermaor.milvus.plus.annotation;
 
+import io.github.xermaor.milvus.plus.core.partition.PartitionRouter;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -14,5 +16,23 @@ public @interface MilvusPartition {
     /**
      * 分区的名称
      */
-    String[] name();
-}
\ No newline at end of file
+    String[] name() default {};
+
+    /**
+     * 分区映射字段（Milvus 字段名）。
+     * <p>
+     * 设置后约定该字段值为 v 的数据写入名为 {@code prefix + v} 的分区，
+     * 查询条件以等值或 IN 限定该字段时会自动只检索对应分区
+     */
+    String field() default "";
+
+    /**
+     * 分区名前缀，与 {@link #field()} 配合使用
+     */
+    String prefix() default "";
+
+    /**
+     * 分区路由，插入时按实体计算所属分区，需要有无参构造方法
+     */
+    Class<? extends PartitionRouter> router() default PartitionRouter.class;
+}
@@ -0,0 +1,35 @@
+package io.github.xermaor.milvus.plus.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明式仓库接口，由 milvus-plus-processor 在编译时生成实现类 {@code <接口名>Impl}。
+ * <p>
+ * 方法按名称推导请求：
+ * <ul>
+ *     <li>{@code searchBy<向量字段>[And<条件>...]}：向量搜索，参数依次为查询向量、各条件的值和 topK，
+ *     返回 {@code List<实体>} 或 {@code List<MilvusResult<实体>>}</li>
+ *     <li>{@code findBy<条件>[And<条件>...]}：标量查询，可在最后追加一个 limit 参数，返回 {@code List<实体>}</li>
+ *     <li>{@code countBy<条件>[And<条件>...]}：计数，返回 {@code long}</li>
+ * </ul>
+ * 条件为实体属性名加可选的运算后缀：GreaterThan、GreaterThanEqual、LessThan、LessThanEqual、Not、In、NotIn，
+ * 没有后缀时为等于。查询向量可以是 {@code float[]}、{@code List<Float>} 或 {@code BaseVector}。
+ * 实体需要有无参构造器，非 public 字段通过 setter 赋值；租户隔离和时间滚动的实体不支持生成仓库。
+ * <pre>{@code
+ * @MilvusRepository(Face.class)
+ * public interface FaceRepository {
+ *     List<Face> searchByVectorAndAgeGreaterThan(float[] vector, int age, int topK);
+ * }
+ * }</pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MilvusRepository {
+    /**
+     * 实体类，需要带有 {@link MilvusCollection} 注解
+     */
+    Class<?> value();
+}
@@ -0,0 +1,26 @@
+package io.github.xermaor.milvus.plus.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 按字段值路由分区，插入时字段值为 v 的实体写入名为 {@code prefix + v} 的分区，分区不存在时自动创建
+ *
+ * @author xermao
+ **/
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PartitionRoute {
+
+    /**
+     * 分区名前缀
+     */
+    String prefix() default "";
+
+    /**
+     * 日期格式，字段为日期或时间类型时按该格式生成分区名，例如 {@code yyyyMM} 按月分区
+     */
+    String pattern() default "";
+}
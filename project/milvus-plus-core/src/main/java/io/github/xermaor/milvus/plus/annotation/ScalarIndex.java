@@ -0,0 +1,45 @@
+package io.github.xermaor.milvus.plus.annotation;
+
+import io.milvus.v2.common.IndexParam;
+
+import java.lang.annotation.*;
+
+/**
+ * 标量索引声明，用于加速过滤条件，可在同一字段上重复声明（如 JSON 字段的多个路径）。
+ * <p>
+ * 支持 {@link IndexParam.IndexType#INVERTED}、{@link IndexParam.IndexType#BITMAP}、
+ * {@link IndexParam.IndexType#STL_SORT}、{@link IndexParam.IndexType#TRIE} 以及 AUTOINDEX。
+ * 集合创建时一并创建；集合已存在时会补建缺失的标量索引。
+ *
+ * @author xermao
+ **/
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(ScalarIndexes.class)
+public @interface ScalarIndex {
+    /**
+     * 索引类型
+     */
+    IndexParam.IndexType indexType() default IndexParam.IndexType.INVERTED;
+
+    /**
+     * 索引名称，默认为字段名，同一字段声明多个索引时默认为字段名加索引类型，如 tag_bitmap；
+     * 声明 JSON 路径时默认由路径生成，如 {@code meta["tag"]} 对应 meta_tag。同一集合内索引名称必须唯一
+     */
+    String indexName() default "";
+
+    /**
+     * JSON 字段的索引路径，例如 {@code meta["tag"]}，仅对 JSON 字段有效
+     */
+    String jsonPath() default "";
+
+    /**
+     * JSON 路径值的类型，例如 varchar、double、bool、array_varchar，声明 JSON 路径时必填
+     */
+    String jsonCastType() default "";
+
+    /**
+     * 指定额外的参数
+     */
+    ExtraParam[] extraParams() default {};
+}
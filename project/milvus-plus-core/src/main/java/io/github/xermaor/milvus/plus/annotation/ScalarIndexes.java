@@ -0,0 +1,17 @@
+package io.github.xermaor.milvus.plus.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link ScalarIndex} 的容器注解
+ *
+ * @author xermao
+ **/
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ScalarIndexes {
+    ScalarIndex[] value();
+}
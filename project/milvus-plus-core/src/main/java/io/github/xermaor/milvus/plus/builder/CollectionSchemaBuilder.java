@@ -10,6 +10,7 @@ import io.milvus.v2.service.index.request.CreateIndexReq;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author xermao
@@ -22,6 +23,7 @@ public class CollectionSchemaBuilder {
     private String description;
     private ConsistencyLevel consistencyLevel = ConsistencyLevel.BOUNDED;
     private Boolean enableDynamicField = false;
+    private Map<String, String> properties = Map.of();
 
 
     public CollectionSchemaBuilder(Boolean enableDynamicField, String collectionName, MilvusClientV2 wrapper) {
@@ -59,6 +61,10 @@ public class CollectionSchemaBuilder {
         this.consistencyLevel = level;
     }
 
+    public void addProperties(Map<String, String> properties) {
+        this.properties = properties == null ? Map.of() : properties;
+    }
+
     public CreateCollectionReq.FieldSchema getField(String fileName) {
         return schema.getField(fileName);
     }
@@ -70,6 +76,7 @@ public class CollectionSchemaBuilder {
                 .collectionSchema(this.schema)
                 .consistencyLevel(this.consistencyLevel)
                 .enableDynamicField(this.enableDynamicField)
+                .properties(this.properties)
                 .build();
         wrapper.createCollection(req);
     }
@@ -1,14 +1,26 @@
 package io.github.xermaor.milvus.plus.cache;
 
+import io.github.xermaor.milvus.plus.core.tenant.TenantStrategy;
 import io.github.xermaor.milvus.plus.model.MilvusEntity;
 
 /**
+ * 实体元数据，解析完成后不可变
+ *
+ * @param collectionName 集合名
+ * @param propertyCache  属性与字段的映射
+ * @param milvusEntity   集合定义
+ * @param autoID         是否由框架生成主键
+ * @param primaryKey     主键字段名
+ * @param tenancy        租户隔离方式
+ * @param tenantField    租户字段名，未声明时为空字符串
  * @author xermao
  **/
-
 public record ConversionCache(
         String collectionName,
         PropertyCache propertyCache,
         MilvusEntity milvusEntity,
-        boolean autoID
+        boolean autoID,
+        String primaryKey,
+        TenantStrategy tenancy,
+        String tenantField
 ) {}
@@ -0,0 +1,53 @@
+package io.github.xermaor.milvus.plus.cache;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.converter.MilvusConverter;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+
+import java.util.Optional;
+
+/**
+ * 实体元数据注册表。
+ * <p>
+ * 以 {@link ClassValue} 按类缓存解析后的不可变 {@link ConversionCache}：查找不经过类名字符串，
+ * 缓存随类（及其类加载器）一起回收，热重载后的新类会重新解析，不会读到旧类的元数据。
+ * 每个 {@code MilvusClientBuilder} 持有自己的注册表，没有构建器上下文的场景使用 {@link #shared()}。
+ */
+public final class EntityMetadataRegistry {
+
+    private static final EntityMetadataRegistry SHARED = new EntityMetadataRegistry();
+
+    private final ClassValue<Optional<ConversionCache>> metadata = new ClassValue<>() {
+        @Override
+        protected Optional<ConversionCache> computeValue(Class<?> type) {
+            return type.isAnnotationPresent(MilvusCollection.class)
+                    ? Optional.of(MilvusConverter.analyze(type))
+                    : Optional.empty();
+        }
+    };
+
+    /**
+     * 没有构建器上下文时使用的注册表
+     */
+    public static EntityMetadataRegistry shared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取实体元数据
+     *
+     * @param entityType 带有 {@link MilvusCollection} 注解的实体类
+     * @return 实体元数据
+     */
+    public ConversionCache get(Class<?> entityType) {
+        return find(entityType).orElseThrow(() -> new MilvusPlusException(
+                "Entity type " + entityType.getName() + " is not annotated with @MilvusCollection."));
+    }
+
+    /**
+     * 查找实体元数据，非实体类返回空
+     */
+    public Optional<ConversionCache> find(Class<?> entityType) {
+        return metadata.get(entityType);
+    }
+}
@@ -1,17 +1,32 @@
 package io.github.xermaor.milvus.plus.cache;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
+ * 属性与集合字段的映射。解析期间可写，解析完成后通过 {@link #freeze()} 得到只读副本再发布
+ *
  * @author xermao
  **/
 public class PropertyCache {
 
-    public final Map<String, String> functionToPropertyMap = new HashMap<>(); //属性名称->集合属性名称
-    public final Map<String, Boolean> nullableToPropertyMap = new HashMap<>(); //属性名称->是否允许为空
-    public final Map<String, String> methodToPropertyMap = new HashMap<>(); //属性get方法名称->集合属性名称
-    private final Map<String, String> propertyToFunctionMap = new HashMap<>(); // 集合属性名称->属性名称
+    public final Map<String, String> functionToPropertyMap; //属性名称->集合属性名称
+    public final Map<String, Boolean> nullableToPropertyMap; //属性名称->是否允许为空
+    public final Map<String, String> methodToPropertyMap; //属性get方法名称->集合属性名称
+    private final Map<String, String> propertyToFunctionMap; // 集合属性名称->属性名称
+
+    public PropertyCache() {
+        this(new LinkedHashMap<>(), new LinkedHashMap<>(), new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    private PropertyCache(Map<String, String> functionToPropertyMap, Map<String, Boolean> nullableToPropertyMap,
+                          Map<String, String> methodToPropertyMap, Map<String, String> propertyToFunctionMap) {
+        this.functionToPropertyMap = functionToPropertyMap;
+        this.nullableToPropertyMap = nullableToPropertyMap;
+        this.methodToPropertyMap = methodToPropertyMap;
+        this.propertyToFunctionMap = propertyToFunctionMap;
+    }
 
     public void putFunctionToProperty(String function, String property) {
         functionToPropertyMap.put(function, property);
@@ -22,4 +37,16 @@ public class PropertyCache {
     public String findKeyByValue(String value) {
         return propertyToFunctionMap.get(value);
     }
+
+    /**
+     * 创建只读副本，映射保持插入顺序
+     */
+    public PropertyCache freeze() {
+        return new PropertyCache(frozen(functionToPropertyMap), frozen(nullableToPropertyMap),
+                frozen(methodToPropertyMap), frozen(propertyToFunctionMap));
+    }
+
+    private static <V> Map<String, V> frozen(Map<String, V> map) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
 }
@@ -2,9 +2,8 @@ package io.github.xermaor.milvus.plus.converter;
 
 import io.github.xermaor.milvus.plus.annotation.*;
 import io.github.xermaor.milvus.plus.builder.CollectionSchemaBuilder;
-import io.github.xermaor.milvus.plus.cache.CollectionToPrimaryCache;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
-import io.github.xermaor.milvus.plus.cache.MilvusCache;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.cache.PropertyCache;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import io.github.xermaor.milvus.plus.model.MilvusEntity;
@@ -16,9 +15,14 @@ import io.milvus.v2.common.ConsistencyLevel;
 import io.milvus.v2.common.DataType;
 import io.milvus.v2.common.IndexParam;
 import io.milvus.v2.service.collection.request.AddFieldReq;
+import io.milvus.v2.service.collection.request.AlterCollectionPropertiesReq;
 import io.milvus.v2.service.collection.request.CreateCollectionReq;
+import io.milvus.v2.service.collection.request.DescribeCollectionReq;
+import io.milvus.v2.service.collection.request.DropCollectionPropertiesReq;
 import io.milvus.v2.service.collection.request.GetLoadStateReq;
 import io.milvus.v2.service.collection.request.LoadCollectionReq;
+import io.milvus.v2.service.index.request.CreateIndexReq;
+import io.milvus.v2.service.index.request.ListIndexesReq;
 import io.milvus.v2.service.partition.request.CreatePartitionReq;
 import io.milvus.v2.service.partition.request.HasPartitionReq;
 import io.milvus.v2.service.partition.request.LoadPartitionsReq;
@@ -48,21 +52,43 @@ public class MilvusConverter {
     private static final String BM25_SUFFIX = "_bm25_emb";
     private static final String GET_PREFIX = "get";
     private static final String IS_PREFIX = "is";
+    private static final Set<IndexParam.IndexType> SCALAR_INDEX_TYPES = EnumSet.of(
+            IndexParam.IndexType.INVERTED, IndexParam.IndexType.BITMAP, IndexParam.IndexType.STL_SORT,
+            IndexParam.IndexType.TRIE, IndexParam.IndexType.AUTOINDEX);
+    private static final String JSON_PATH = "json_path";
+    private static final String JSON_CAST_TYPE = "json_cast_type";
+    private static final String COLLECTION_TTL = "collection.ttl.seconds";
 
     /**
-     * 将Java实体类转换为MilvusEntity对象
+     * 将Java实体类转换为MilvusEntity对象，没有构建器上下文时使用共享注册表
      *
      * @param entityClass 需要转换的Java实体类的Class对象
      * @return 转换后的MilvusEntity对象
-     * @throws IllegalArgumentException 如果实体类没有@MilvusCollection注解
+     * @throws MilvusPlusException 如果实体类没有@MilvusCollection注解
      */
     public static MilvusEntity convert(Class<?> entityClass) {
-        // 检查缓存
-        ConversionCache cache = MilvusCache.milvusCache.get(entityClass.getName());
-        if (Objects.nonNull(cache)) {
-            return cache.milvusEntity();
-        }
+        return convert(entityClass, EntityMetadataRegistry.shared());
+    }
+
+    /**
+     * 从指定的注册表获取实体类对应的MilvusEntity对象
+     *
+     * @param entityClass 需要转换的Java实体类的Class对象
+     * @param registry    实体元数据注册表，通常为构建器持有的注册表
+     * @return 转换后的MilvusEntity对象
+     * @throws MilvusPlusException 如果实体类没有@MilvusCollection注解
+     */
+    public static MilvusEntity convert(Class<?> entityClass, EntityMetadataRegistry registry) {
+        return registry.get(entityClass).milvusEntity();
+    }
 
+    /**
+     * 解析实体类的元数据，不做缓存，由 {@link EntityMetadataRegistry} 负责缓存
+     *
+     * @param entityClass 带有@MilvusCollection注解的实体类
+     * @return 不可变的实体元数据
+     */
+    public static ConversionCache analyze(Class<?> entityClass) {
         // 验证实体类注解
         MilvusCollection collectionAnnotation = validateAndGetCollectionAnnotation(entityClass);
 
@@ -72,10 +98,15 @@ public class MilvusConverter {
         // 执行转换
         MilvusEntity milvusEntity = performConversion(context);
 
-        // 缓存结果
-        cacheConversionResult(entityClass, milvusEntity, context);
-
-        return milvusEntity;
+        return new ConversionCache(
+                context.collectionName,
+                context.propertyCache.freeze(),
+                milvusEntity,
+                context.autoID,
+                context.primaryKey,
+                collectionAnnotation.tenancy(),
+                collectionAnnotation.tenantField()
+        );
     }
 
     /**
@@ -109,7 +140,8 @@ public class MilvusConverter {
                 partitionNames,
                 context.consistencyLevel,
                 context.enableDynamicField,
-                fieldResult.functions()
+                fieldResult.functions(),
+                context.properties
         );
     }
 
@@ -146,7 +178,7 @@ public class MilvusConverter {
             cachePropertyMapping(field, fieldName, fieldAnnotation, propertyCache);
 
             // 处理主键字段
-            handlePrimaryKey(fieldAnnotation, fieldName, context.collectionName);
+            handlePrimaryKey(fieldAnnotation, fieldName, context);
 
             // 构建字段请求
             AddFieldReq fieldReq = buildFieldRequest(field, fieldName, fieldAnnotation, context);
@@ -159,6 +191,13 @@ public class MilvusConverter {
 
             // 处理索引
             createIndexParam(field, fieldName).ifPresent(indexParams::add);
+            for (IndexParam scalarIndex : createScalarIndexParams(field, fieldName, fieldAnnotation)) {
+                if (indexParams.stream().anyMatch(indexParam -> Objects.equals(indexParam.getIndexName(), scalarIndex.getIndexName()))) {
+                    throw new MilvusPlusException("Duplicate index name " + scalarIndex.getIndexName() + " on field " + fieldName
+                            + ", set a distinct indexName on @ScalarIndex");
+                }
+                indexParams.add(scalarIndex);
+            }
         }
 
         context.propertyCache = propertyCache;
@@ -184,9 +223,9 @@ public class MilvusConverter {
     /**
      * 处理主键字段
      */
-    private static void handlePrimaryKey(MilvusField fieldAnnotation, String fieldName, String collectionName) {
+    private static void handlePrimaryKey(MilvusField fieldAnnotation, String fieldName, ConversionContext context) {
         if (fieldAnnotation.isPrimaryKey()) {
-            CollectionToPrimaryCache.collectionToPrimary.put(collectionName, fieldName);
+            context.primaryKey = fieldName;
         }
     }
 
@@ -275,19 +314,6 @@ public class MilvusConverter {
         functions.add(bm25Function);
     }
 
-    /**
-     * 缓存转换结果
-     */
-    private static void cacheConversionResult(Class<?> entityClass, MilvusEntity milvusEntity, ConversionContext context) {
-        ConversionCache conversionCache = new ConversionCache(
-                context.collectionName,
-                context.propertyCache,
-                milvusEntity,
-                context.autoID
-        );
-        MilvusCache.milvusCache.put(entityClass.getName(), conversionCache);
-    }
-
     /**
      * 递归获取类及其所有父类的所有字段
      *
@@ -338,6 +364,120 @@ public class MilvusConverter {
         return Optional.of(indexParam);
     }
 
+    /**
+     * 根据字段上的 {@link ScalarIndex} 注解创建标量索引参数，
+     * 同一字段声明多个非 JSON 路径索引且未指定名称时，默认名称为 {@code 字段名_索引类型}
+     *
+     * @param field           字段对象
+     * @param fieldName       字段名称
+     * @param fieldAnnotation 字段注解
+     * @return 标量索引参数列表
+     */
+    private static List<IndexParam> createScalarIndexParams(Field field, String fieldName, MilvusField fieldAnnotation) {
+        ScalarIndex[] annotations = field.getAnnotationsByType(ScalarIndex.class);
+        List<IndexParam> indexParams = new ArrayList<>(annotations.length);
+        boolean qualifyByType = Arrays.stream(annotations).filter(annotation -> annotation.jsonPath().isEmpty()).count() > 1;
+        for (ScalarIndex annotation : annotations) {
+            if (!SCALAR_INDEX_TYPES.contains(annotation.indexType())) {
+                throw new MilvusPlusException("Index type " + annotation.indexType() + " is not a scalar index type: " + fieldName);
+            }
+            Map<String, Object> extraParams = new HashMap<>();
+            for (ExtraParam param : annotation.extraParams()) {
+                extraParams.put(param.key(), param.value());
+            }
+            String indexName = annotation.indexName();
+            if (StringUtils.isNotEmpty(annotation.jsonPath())) {
+                if (fieldAnnotation.dataType() != DataType.JSON) {
+                    throw new MilvusPlusException("jsonPath is only supported on JSON fields: " + fieldName);
+                }
+                if (StringUtils.isEmpty(annotation.jsonCastType())) {
+                    throw new MilvusPlusException("jsonCastType is required for JSON path index: " + fieldName);
+                }
+                extraParams.put(JSON_PATH, annotation.jsonPath());
+                extraParams.put(JSON_CAST_TYPE, annotation.jsonCastType());
+                if (indexName.isEmpty()) {
+                    indexName = annotation.jsonPath().replaceAll("\\W+", "_").replaceAll("^_+|_+$", "");
+                }
+            }
+            if (indexName.isEmpty()) {
+                indexName = qualifyByType ? fieldName + "_" + annotation.indexType().name().toLowerCase() : fieldName;
+            }
+            indexParams.add(IndexParam.builder()
+                    .indexName(indexName)
+                    .fieldName(fieldName)
+                    .indexType(annotation.indexType())
+                    .extraParams(extraParams)
+                    .build());
+        }
+        return indexParams;
+    }
+
+    /**
+     * 是否为标量索引
+     */
+    public static boolean isScalarIndex(IndexParam indexParam) {
+        return indexParam.getMetricType() == null && SCALAR_INDEX_TYPES.contains(indexParam.getIndexType());
+    }
+
+    /**
+     * 把实体声明的集合属性（如 TTL）同步到已存在的集合；实体不再声明集合 TTL 时删除集合上已有的 TTL 属性
+     *
+     * @param milvusEntity 集合实体
+     * @param client       客户端
+     */
+    public static void reconcileProperties(MilvusEntity milvusEntity, MilvusClientV2 client) {
+        if (!milvusEntity.properties().isEmpty()) {
+            client.alterCollectionProperties(AlterCollectionPropertiesReq.builder()
+                    .collectionName(milvusEntity.collectionName())
+                    .properties(milvusEntity.properties())
+                    .build());
+        }
+        if (milvusEntity.properties().containsKey(COLLECTION_TTL)) {
+            return;
+        }
+        Map<String, String> existing = client.describeCollection(DescribeCollectionReq.builder()
+                .collectionName(milvusEntity.collectionName())
+                .build()).getProperties();
+        if (existing != null && existing.containsKey(COLLECTION_TTL)) {
+            client.dropCollectionProperties(DropCollectionPropertiesReq.builder()
+                    .collectionName(milvusEntity.collectionName())
+                    .propertyKeys(List.of(COLLECTION_TTL))
+                    .build());
+            log.info("Dropped {} from {} as the entity no longer declares a collection ttl",
+                    COLLECTION_TTL, milvusEntity.collectionName());
+        }
+    }
+
+    /**
+     * 补建已存在集合上缺失的标量索引
+     *
+     * @param milvusEntity 集合实体
+     * @param client       客户端
+     */
+    public static void reconcileScalarIndexes(MilvusEntity milvusEntity, MilvusClientV2 client) {
+        List<IndexParam> scalarIndexes = Optional.ofNullable(milvusEntity.indexParams()).orElse(List.of()).stream()
+                .filter(MilvusConverter::isScalarIndex)
+                .toList();
+        if (scalarIndexes.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(client.listIndexes(ListIndexesReq.builder()
+                .collectionName(milvusEntity.collectionName())
+                .build()));
+        List<IndexParam> missing = scalarIndexes.stream()
+                .filter(index -> !existing.contains(index.getIndexName()))
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+        client.createIndex(CreateIndexReq.builder()
+                .collectionName(milvusEntity.collectionName())
+                .indexParams(missing)
+                .build());
+        log.info("Created missing scalar indexes on {}: {}", milvusEntity.collectionName(),
+                missing.stream().map(IndexParam::getIndexName).toList());
+    }
+
     /**
      * 生成getter方法名
      */
@@ -398,6 +538,7 @@ public class MilvusConverter {
         schemaBuilder.addField(milvusEntity.milvusFields());
         schemaBuilder.addConsistencyLevel(milvusEntity.consistencyLevel());
         schemaBuilder.addFun(milvusEntity.functions());
+        schemaBuilder.addProperties(milvusEntity.properties());
 
         log.info("Creating collection schema...");
         schemaBuilder.createSchema();
@@ -458,6 +599,19 @@ public class MilvusConverter {
         }
     }
 
+    /**
+     * 确保声明的分区都已创建，不加载
+     */
+    public static void ensurePartitions(MilvusEntity milvusEntity, MilvusClientV2 client) {
+        List<String> partitionNames = milvusEntity.partitionName();
+        if (CollectionUtils.isEmpty(partitionNames)) {
+            return;
+        }
+        for (String partitionName : partitionNames) {
+            ensurePartitionExists(milvusEntity.collectionName(), partitionName, client);
+        }
+    }
+
     /**
      * 处理分区加载状态
      */
@@ -468,9 +622,7 @@ public class MilvusConverter {
         }
 
         // 检查并创建分区
-        for (String partitionName : partitionNames) {
-            ensurePartitionExists(milvusEntity.collectionName(), partitionName, client);
-        }
+        ensurePartitions(milvusEntity, client);
 
         // 加载分区
         LoadPartitionsReq loadPartitionsReq = LoadPartitionsReq.builder()
@@ -538,8 +690,10 @@ public class MilvusConverter {
         private final List<String> alias;
         private final ConsistencyLevel consistencyLevel;
         private final boolean enableDynamicField;
+        private final Map<String, String> properties;
         private PropertyCache propertyCache;
         private boolean autoID = false;
+        private String primaryKey;
 
         public ConversionContext(Class<?> entityClass, MilvusCollection collectionAnnotation) {
             this.entityClass = entityClass;
@@ -548,6 +702,9 @@ public class MilvusConverter {
             this.alias = Arrays.asList(collectionAnnotation.alias());
             this.consistencyLevel = collectionAnnotation.level();
             this.enableDynamicField = collectionAnnotation.enableDynamicField();
+            // 未指定时间字段时由服务端按写入时间整体过期
+            this.properties = collectionAnnotation.ttl() > 0 && collectionAnnotation.ttlField().isEmpty()
+                    ? Map.of(COLLECTION_TTL, String.valueOf(collectionAnnotation.ttl())) : Map.of();
         }
     }
 
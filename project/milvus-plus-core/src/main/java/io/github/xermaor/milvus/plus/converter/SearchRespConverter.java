@@ -2,7 +2,7 @@ package io.github.xermaor.milvus.plus.converter;
 
 import com.google.gson.JsonObject;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
-import io.github.xermaor.milvus.plus.cache.MilvusCache;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.cache.PropertyCache;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
@@ -31,19 +31,53 @@ public class SearchRespConverter {
      * @return 转换后的MilvusResp对象，其中包含了列表形式的搜索结果以及操作是否成功的标志。
      */
     public static <T> MilvusResp<List<MilvusResult<T>>> convertSearchRespToMilvusResp(SearchResp searchResp, Class<T> entityType) {
-        PropertyCache propertyCache = getCacheComponents(entityType);
-        List<MilvusResult<T>> results = Optional.ofNullable(searchResp.getSearchResults())
-                .orElseGet(ArrayList::new)
-                .parallelStream()
+        return convertSearchRespToMilvusResp(searchResp, entityType, sharedMetadata(entityType));
+    }
+
+    /**
+     * 使用调用方持有的实体元数据转换搜索响应
+     *
+     * @param conversionCache 实体元数据，通常来自构建器的注册表
+     */
+    public static <T> MilvusResp<List<MilvusResult<T>>> convertSearchRespToMilvusResp(SearchResp searchResp, Class<T> entityType,
+                                                                                     ConversionCache conversionCache) {
+        List<MilvusResult<T>> results = convertSearchRespToGroups(searchResp, entityType, conversionCache).stream()
                 .flatMap(List::stream)
-                .map(searchResult -> {
-                    T entity = convertEntityMap(searchResult.getEntity(), entityType, propertyCache);
-                    return new MilvusResult<>(entity, searchResult.getScore(), searchResult.getId(), null);
-                })
                 .collect(Collectors.toList());
         return new MilvusResp<>(true, results);
     }
 
+    /**
+     * 将SearchResp按查询向量分组转换，每组对应一个查询向量的结果，组内保持服务端返回的顺序。
+     *
+     * @param searchResp Milvus搜索操作的原始响应对象
+     * @param entityType 指定的Java实体类类型
+     * @return 按查询向量分组的结果列表
+     */
+    public static <T> List<List<MilvusResult<T>>> convertSearchRespToGroups(SearchResp searchResp, Class<T> entityType) {
+        return convertSearchRespToGroups(searchResp, entityType, sharedMetadata(entityType));
+    }
+
+    /**
+     * 使用调用方持有的实体元数据按查询向量分组转换
+     *
+     * @param conversionCache 实体元数据，通常来自构建器的注册表
+     */
+    public static <T> List<List<MilvusResult<T>>> convertSearchRespToGroups(SearchResp searchResp, Class<T> entityType,
+                                                                           ConversionCache conversionCache) {
+        PropertyCache propertyCache = conversionCache.propertyCache();
+        return Optional.ofNullable(searchResp.getSearchResults())
+                .orElseGet(ArrayList::new)
+                .parallelStream()
+                .map(group -> group.stream()
+                        .map(searchResult -> {
+                            T entity = convertEntityMap(searchResult.getEntity(), entityType, propertyCache);
+                            return new MilvusResult<>(entity, searchResult.getScore(), searchResult.getId(), (Long) null);
+                        })
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * 将Get响应转换为Milvus响应的通用方法。
      * @param getResp Get操作的响应对象，可以是QueryResp或GetResp类型。
@@ -51,8 +85,17 @@ public class SearchRespConverter {
      * @return 返回一个包含Milvus结果列表的MilvusResp对象。
      */
     public static <T> MilvusResp<List<MilvusResult<T>>> convertGetRespToMilvusResp(QueryResp getResp, Class<T> entityType) {
-        List<QueryResp.QueryResult> queryResults = getResp.getQueryResults();
-        return convertQuery(queryResults, entityType);
+        return convertGetRespToMilvusResp(getResp, entityType, sharedMetadata(entityType));
+    }
+
+    /**
+     * 使用调用方持有的实体元数据转换查询响应
+     *
+     * @param conversionCache 实体元数据，通常来自构建器的注册表
+     */
+    public static <T> MilvusResp<List<MilvusResult<T>>> convertGetRespToMilvusResp(QueryResp getResp, Class<T> entityType,
+                                                                                 ConversionCache conversionCache) {
+        return convertQuery(getResp.getQueryResults(), entityType, conversionCache.propertyCache());
     }
 
     public static MilvusResp<Long> convertGetRespToCount(QueryResp getResp) {
@@ -68,7 +111,7 @@ public class SearchRespConverter {
      */
     public static <T> MilvusResp<List<MilvusResult<T>>> convertGetRespToMilvusResp(GetResp getResp, Class<T> entityType) {
         List<QueryResp.QueryResult> getResults = getResp.getResults;
-        return convertQuery(getResults, entityType);
+        return convertQuery(getResults, entityType, sharedMetadata(entityType).propertyCache());
     }
 
     /**
@@ -78,8 +121,8 @@ public class SearchRespConverter {
      * @param entityType 需要转换成的实体类型，指定了转换的目标。
      * @return MilvusResp对象，包含转换后的实体列表。每个实体都包装在一个MilvusResult对象中，同时设置成功状态为true。
      */
-    private static <T> MilvusResp<List<MilvusResult<T>>> convertQuery(List<QueryResp.QueryResult> queryResults, Class<T> entityType) {
-        PropertyCache propertyCache = getCacheComponents(entityType);
+    private static <T> MilvusResp<List<MilvusResult<T>>> convertQuery(List<QueryResp.QueryResult> queryResults, Class<T> entityType,
+                                                                     PropertyCache propertyCache) {
         List<MilvusResult<T>> results = queryResults.parallelStream()
                 .map(queryResult -> {
                     T entity = convertEntityMap(queryResult.getEntity(), entityType, propertyCache);
@@ -99,14 +142,13 @@ public class SearchRespConverter {
     }
 
     /**
-     * 获取缓存组件
+     * 没有构建器上下文的调用使用共享注册表中的实体元数据
      *
      * @param entityType 实体类型
-     * @return 属性缓存对象
+     * @return 实体元数据
      */
-    private static PropertyCache getCacheComponents(Class<?> entityType) {
-        ConversionCache conversionCache = MilvusCache.milvusCache.get(entityType.getName());
-        return conversionCache.propertyCache();
+    private static ConversionCache sharedMetadata(Class<?> entityType) {
+        return EntityMetadataRegistry.shared().get(entityType);
     }
 
     /**
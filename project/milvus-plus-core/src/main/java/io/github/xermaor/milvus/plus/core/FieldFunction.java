@@ -2,16 +2,15 @@ package io.github.xermaor.milvus.plus.core;
 
 import io.github.xermaor.milvus.plus.annotation.MilvusField;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
-import io.github.xermaor.milvus.plus.cache.MilvusCache;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.Serializable;
 import java.lang.invoke.SerializedLambda;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -32,19 +31,64 @@ public interface FieldFunction<T, R> extends Function<T, R>, Serializable {
      * @param toType 转换类型
      */
     default String getFieldName(FieldFunction<T, ?> fn, String split, int toType) {
-        SerializedLambda lambda = getSerializedLambda(fn);
-        String implClass = lambda.getImplClass().replace("/", ".");
-        String implMethodName = lambda.getImplMethodName();
-        ConversionCache conversionCache = MilvusCache.milvusCache.get(implClass);
-        String fieldName = conversionCache != null ?
-                conversionCache.propertyCache().methodToPropertyMap.get(implMethodName) :
-                extractFieldName(implClass, implMethodName);
+        String fieldName = cachedFieldName(fn, null);
         if (StringUtils.isNotEmpty(fieldName)) {
             return fieldName;
         }
         return transformFieldName(fieldName, split, toType);
     }
 
+    /**
+     * 获取实体类的字段名称，优先使用调用方持有的实体元数据
+     *
+     * @param conversionCache 构建器中实体的元数据，为 null 时按字段注解解析
+     */
+    default String getFieldName(FieldFunction<T, ?> fn, ConversionCache conversionCache) {
+        return cachedFieldName(fn, conversionCache);
+    }
+
+    /**
+     * 按 lambda 类缓存解析出的字段名
+     */
+    private String cachedFieldName(FieldFunction<T, ?> fn, ConversionCache conversionCache) {
+        AtomicReference<String> slot = FieldNameCache.slot(fn.getClass());
+        String fieldName = slot.get();
+        if (fieldName == null) {
+            fieldName = resolveFieldName(fn, conversionCache);
+            if (fieldName != null) {
+                slot.set(fieldName);
+            }
+        }
+        return fieldName;
+    }
+
+    /**
+     * 通过序列化lambda解析字段名称
+     */
+    default String resolveFieldName(FieldFunction<T, ?> fn) {
+        return resolveFieldName(fn, null);
+    }
+
+    /**
+     * 通过序列化lambda解析字段名称，给定实体元数据且其中有该 getter 时直接使用，否则读取字段上的注解
+     */
+    default String resolveFieldName(FieldFunction<T, ?> fn, ConversionCache conversionCache) {
+        SerializedLambda lambda = getSerializedLambda(fn);
+        String implMethodName = lambda.getImplMethodName();
+        if (conversionCache != null) {
+            String fieldName = conversionCache.propertyCache().methodToPropertyMap.get(implMethodName);
+            if (fieldName != null) {
+                return fieldName;
+            }
+        }
+        String implClass = lambda.getImplClass().replace("/", ".");
+        try {
+            return extractFieldName(Class.forName(implClass, false, fn.getClass().getClassLoader()), implMethodName);
+        } catch (ClassNotFoundException e) {
+            throw new MilvusPlusException(e);
+        }
+    }
+
     /**
      * 获取给定函数对象的序列化lambda表达式。
      *
@@ -106,16 +150,30 @@ public interface FieldFunction<T, R> extends Function<T, R>, Serializable {
      * 提取字段名称
      */
     default String extractFieldName(String className, String methodName) {
-        String fieldName = capitalizeFirstLetter(methodName.substring(3), false);
         try {
-            Field field = Class.forName(className).getDeclaredField(fieldName);
-            MilvusField annotation = field.getAnnotation(MilvusField.class);
-            return annotation != null && StringUtils.isNotBlank(annotation.name()) ? annotation.name() : fieldName;
-        } catch (ClassNotFoundException | NoSuchFieldException e) {
+            return extractFieldName(Class.forName(className), methodName);
+        } catch (ClassNotFoundException e) {
             throw new MilvusPlusException(e);
         }
     }
 
+    /**
+     * 按 getter 名称在类及其父类中查找字段，有 {@link MilvusField#name()} 时使用注解中的名称
+     */
+    default String extractFieldName(Class<?> type, String methodName) {
+        String property = methodName.startsWith("is") ? methodName.substring(2) : methodName.substring(3);
+        String fieldName = capitalizeFirstLetter(property, false);
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                MilvusField annotation = current.getDeclaredField(fieldName).getAnnotation(MilvusField.class);
+                return annotation != null && StringUtils.isNotBlank(annotation.name()) ? annotation.name() : fieldName;
+            } catch (NoSuchFieldException e) {
+                // 继续在父类中查找
+            }
+        }
+        throw new MilvusPlusException("Field " + fieldName + " not found in " + type.getName());
+    }
+
     /**
      * 转换字段名称
      */
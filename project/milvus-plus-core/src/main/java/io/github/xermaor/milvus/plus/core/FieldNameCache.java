@@ -0,0 +1,26 @@
+package io.github.xermaor.milvus.plus.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 按 lambda 类缓存 {@link FieldFunction} 解析出的字段名。
+ * <p>
+ * 同一处方法引用始终对应同一个 lambda 类，解析一次后后续调用无需再反序列化 lambda。
+ * 使用 {@link ClassValue} 保存，缓存随 lambda 类一起回收。
+ */
+final class FieldNameCache {
+
+    private static final ClassValue<AtomicReference<String>> NAMES = new ClassValue<>() {
+        @Override
+        protected AtomicReference<String> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private FieldNameCache() {
+    }
+
+    static AtomicReference<String> slot(Class<?> lambdaClass) {
+        return NAMES.get(lambdaClass);
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.xermaor.milvus.plus.core.admission;
+
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.tenant.TenantContext;
+import io.github.xermaor.milvus.plus.exception.AdmissionRejectedException;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.milvus.v2.client.MilvusClientV2;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 客户端准入控制，按主客户端注册。
+ * <p>
+ * 在数据操作发出前按匹配的 {@link AdmissionRule} 做令牌桶限速和并发数限制，
+ * 计数维度为集合、操作类型和租户，例如限制批量写入的速率和并发，为交互式搜索保留容量。
+ * 超出配额时按 {@link AdmissionPolicy} 等待或拒绝。
+ * 限流器数量超过 1024 后，新建限流器时会清理空闲的限流器，避免随集合名和租户无界增长。
+ */
+public class AdmissionController {
+
+    private static final Map<MilvusClientV2, AdmissionController> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final int SWEEP_THRESHOLD = 1024;
+
+    private final List<AdmissionRule> rules;
+    private final AdmissionPolicy policy;
+    private final Duration timeout;
+    private final Map<LimiterKey, Limiter> limiters = new ConcurrentHashMap<>();
+    private volatile Supplier<String> tenantResolver = TenantContext::current;
+
+    public AdmissionController(List<AdmissionRule> rules, AdmissionPolicy policy, Duration timeout) {
+        this.rules = List.copyOf(rules);
+        this.policy = policy == null ? AdmissionPolicy.FAIL_FAST : policy;
+        this.timeout = timeout == null ? Duration.ZERO : timeout;
+    }
+
+    /**
+     * 为主客户端启用准入控制，已启用时替换
+     */
+    public static AdmissionController register(MilvusClientV2 primary, AdmissionController controller) {
+        INSTANCES.put(primary, controller);
+        return controller;
+    }
+
+    /**
+     * 获取主客户端的准入控制器
+     *
+     * @return 未启用时返回 null
+     */
+    public static AdmissionController get(MilvusClientV2 primary) {
+        return INSTANCES.get(primary);
+    }
+
+    /**
+     * 设置当前租户的解析方式，返回 null 时不区分租户；默认使用 {@link TenantContext#current()}
+     */
+    public AdmissionController tenantResolver(Supplier<String> tenantResolver) {
+        this.tenantResolver = tenantResolver == null ? () -> null : tenantResolver;
+        return this;
+    }
+
+    /**
+     * 申请放行一次调用，调用结束后必须关闭返回的许可
+     *
+     * @throws AdmissionRejectedException 超出配额且策略不允许继续等待
+     */
+    public Permit acquire(String collectionName, OperationType type) {
+        String tenant = tenantResolver.get();
+        long deadline = policy == AdmissionPolicy.TIMEOUT ? System.nanoTime() + timeout.toNanos() : 0L;
+        long start = System.nanoTime();
+        List<Semaphore> held = new ArrayList<>(rules.size());
+        try {
+            for (int i = 0; i < rules.size(); i++) {
+                AdmissionRule rule = rules.get(i);
+                if (!rule.matches(collectionName, type)) {
+                    continue;
+                }
+                LimiterKey key = new LimiterKey(i, collectionName, rule.operation() == null ? null : type,
+                        rule.perTenant() ? tenant : null);
+                Limiter limiter = lease(key, rule);
+                try {
+                    if (limiter.bucket != null) {
+                        takeToken(limiter.bucket, key, deadline);
+                    }
+                    if (limiter.inFlight != null) {
+                        enter(limiter.inFlight, key, deadline);
+                        held.add(limiter.inFlight);
+                    }
+                } finally {
+                    limiter.users.decrementAndGet();
+                }
+            }
+        } catch (RuntimeException e) {
+            held.forEach(Semaphore::release);
+            throw e;
+        }
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.ADMISSION_ADMITTED);
+        MilvusPlusMetrics.add(MilvusPlusMetrics.ADMISSION_WAIT_NANOS, System.nanoTime() - start);
+        return new Permit(held);
+    }
+
+    /**
+     * 当前保留的限流器数量
+     */
+    public int limiterCount() {
+        return limiters.size();
+    }
+
+    /**
+     * 取得并占用限流器，占用期间不会被清理
+     */
+    private Limiter lease(LimiterKey key, AdmissionRule rule) {
+        int size = limiters.size();
+        Limiter limiter = limiters.compute(key, (k, existing) -> {
+            Limiter current = existing == null ? new Limiter(rule) : existing;
+            current.users.incrementAndGet();
+            return current;
+        });
+        if (size >= SWEEP_THRESHOLD && limiters.size() > size) {
+            sweep();
+        }
+        return limiter;
+    }
+
+    /**
+     * 按键原子地移除空闲的限流器
+     */
+    private void sweep() {
+        for (LimiterKey key : limiters.keySet()) {
+            limiters.computeIfPresent(key, (k, limiter) -> limiter.idle() ? null : limiter);
+        }
+    }
+
+    private void takeToken(TokenBucket bucket, LimiterKey key, long deadline) {
+        long wait;
+        while ((wait = bucket.tryAcquire()) > 0L) {
+            if (policy == AdmissionPolicy.FAIL_FAST || (policy == AdmissionPolicy.TIMEOUT && System.nanoTime() + wait > deadline)) {
+                throw reject(key, "rate limit");
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MilvusPlusException("Interrupted while waiting for admission", e);
+            }
+        }
+    }
+
+    private void enter(Semaphore inFlight, LimiterKey key, long deadline) {
+        boolean acquired;
+        try {
+            acquired = switch (policy) {
+                case FAIL_FAST -> inFlight.tryAcquire();
+                case TIMEOUT -> inFlight.tryAcquire(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                case BLOCK -> {
+                    inFlight.acquire();
+                    yield true;
+                }
+            };
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted while waiting for admission", e);
+        }
+        if (!acquired) {
+            throw reject(key, "in-flight limit");
+        }
+    }
+
+    private static AdmissionRejectedException reject(LimiterKey key, String reason) {
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.ADMISSION_REJECTED);
+        return new AdmissionRejectedException("Milvus " + (key.type() == null ? "request" : key.type())
+                + " on " + key.collection() + (key.tenant() == null ? "" : " for tenant " + key.tenant())
+                + " rejected by " + reason);
+    }
+
+    /**
+     * 放行许可，关闭时归还并发配额
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final List<Semaphore> held;
+        private boolean closed;
+
+        private Permit(List<Semaphore> held) {
+            this.held = held;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                held.forEach(Semaphore::release);
+            }
+        }
+    }
+
+    private record LimiterKey(int rule, String collection, OperationType type, String tenant) {
+    }
+
+    private static final class Limiter {
+        final TokenBucket bucket;
+        final Semaphore inFlight;
+        final int maxInFlight;
+        final AtomicInteger users = new AtomicInteger();
+
+        Limiter(AdmissionRule rule) {
+            this.bucket = rule.permitsPerSecond() > 0 ? new TokenBucket(rule.permitsPerSecond(), rule.burst()) : null;
+            this.maxInFlight = rule.maxInFlight();
+            this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight, true) : null;
+        }
+
+        /**
+         * 没有进行中的申请、并发配额全部归还且令牌桶已满时，与新建的限流器等价
+         */
+        boolean idle() {
+            return users.get() == 0
+                    && (inFlight == null || inFlight.availablePermits() == maxInFlight)
+                    && (bucket == null || bucket.full());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.xermaor.milvus.plus.core.admission;
+
+/**
+ * 超出配额时的处理方式
+ */
+public enum AdmissionPolicy {
+    /**
+     * 一直等待直到放行
+     */
+    BLOCK,
+    /**
+     * 最多等待配置的超时时间，超时后拒绝
+     */
+    TIMEOUT,
+    /**
+     * 立即拒绝
+     */
+    FAIL_FAST
+}
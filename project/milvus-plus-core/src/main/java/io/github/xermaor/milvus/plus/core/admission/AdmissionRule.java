@@ -0,0 +1,24 @@
+package io.github.xermaor.milvus.plus.core.admission;
+
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+
+/**
+ * 准入规则，一次调用需要满足所有匹配规则的配额
+ *
+ * @param collection       集合名，为 null 或 {@code *} 时匹配所有集合，每个集合各自计数
+ * @param operation        操作类型，为 null 时匹配所有操作并共享配额
+ * @param permitsPerSecond 每秒放行的请求数，不大于 0 时不限速
+ * @param burst            令牌桶容量，不大于 0 时取每秒放行数
+ * @param maxInFlight      最多同时进行的请求数，不大于 0 时不限制
+ * @param perTenant        是否按租户分别计数
+ */
+public record AdmissionRule(String collection, OperationType operation, double permitsPerSecond, int burst,
+                            int maxInFlight, boolean perTenant) {
+
+    public static final String ANY = "*";
+
+    public boolean matches(String collectionName, OperationType type) {
+        return (collection == null || ANY.equals(collection) || collection.equals(collectionName))
+                && (operation == null || operation == type);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.xermaor.milvus.plus.core.admission;
+
+/**
+ * 令牌桶
+ */
+class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = burst > 0 ? burst : Math.max(1d, permitsPerSecond);
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * 尝试取一个令牌
+     *
+     * @return 取到时返回 0，否则返回需要等待的纳秒数
+     */
+    synchronized long tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        if (tokens >= 1d) {
+            tokens -= 1d;
+            return 0L;
+        }
+        return (long) Math.ceil((1d - tokens) / permitsPerNano);
+    }
+
+    /**
+     * 令牌是否已补满，补满的桶与新建的桶等价
+     */
+    synchronized boolean full() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        return tokens >= capacity;
+    }
+}
@@ -0,0 +1,319 @@
+package io.github.xermaor.milvus.plus.core.buffer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
+import io.github.xermaor.milvus.plus.core.tenant.TenantContext;
+import io.github.xermaor.milvus.plus.exception.AdmissionRejectedException;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
+import io.milvus.v2.service.vector.response.InsertResp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 异步写缓冲（write-behind）。
+ * <p>
+ * 多个线程逐条提交实体，按分区进入各自的无锁队列，行数、字节数或停留时间任一达到阈值时合并为一次批量插入，
+ * 以少量延迟换取更少的 RPC 和更大的写入批次。每条提交返回一个 future，写入成功后以该行的主键完成，失败时异常完成。
+ * 缓冲中未写入的行数达到容量后提交方等待，避免无界堆积。
+ * 缓冲绑定创建时的租户，刷写线程以该租户写入。
+ * <pre>{@code
+ * try (WriteBehindBuffer<Doc> buffer = mapper.writeBehind(WriteBehindConfig.DEFAULT)) {
+ *     CompletableFuture<Object> id = buffer.submit(doc);
+ * }
+ * }</pre>
+ */
+public class WriteBehindBuffer<T> implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(WriteBehindBuffer.class);
+
+    private static final ExecutorService FLUSHERS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Supplier<LambdaInsertWrapper<T>> wrapperFactory;
+    private final LambdaInsertWrapper<T> encoder;
+    private final WriteBehindConfig config;
+    private final Semaphore capacity;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final String tenant;
+    /**
+     * 提交方持读锁入队，关闭时持写锁置位，保证关闭后的最终刷写能看到全部已入队的行
+     */
+    private final ReentrantReadWriteLock gate = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    /**
+     * @param wrapperFactory 每次写入时创建插入构建器，通常为 {@code mapper::insertWrapper}
+     * @param config         缓冲配置
+     */
+    public WriteBehindBuffer(Supplier<LambdaInsertWrapper<T>> wrapperFactory, WriteBehindConfig config) {
+        this.wrapperFactory = wrapperFactory;
+        this.tenant = TenantContext.current();
+        this.encoder = wrapperFactory.get();
+        this.config = config == null ? WriteBehindConfig.DEFAULT : config;
+        this.capacity = new Semaphore(this.config.capacity());
+        if (this.config.maxLinger().isZero()) {
+            this.ticker = null;
+        } else {
+            this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "milvus-plus-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1L, this.config.maxLinger().toMillis() / 2);
+            ticker.scheduleAtFixedRate(this::flushLingering, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 提交一条实体，实体类声明了分区路由时写入路由的分区，否则写入默认分区
+     *
+     * @return 写入成功后以主键完成
+     */
+    public CompletableFuture<Object> submit(T entity) {
+        return submit(encoder.partitionOf(entity), entity);
+    }
+
+    /**
+     * 提交一条实体到指定分区
+     *
+     * @param partitionName 分区名称，为空时写入默认分区
+     * @return 写入成功后以主键完成
+     * @throws AdmissionRejectedException 缓冲已满且超过 {@link WriteBehindConfig#offerTimeout()}
+     */
+    public CompletableFuture<Object> submit(String partitionName, T entity) {
+        if (closed) {
+            throw new MilvusPlusException("Write-behind buffer is closed");
+        }
+        // 转换在提交线程完成，刷写线程只负责发送
+        JsonObject row = encoder.encode(entity);
+        Pending pending = new Pending(row, estimateBytes(row), System.nanoTime(), new CompletableFuture<>());
+        acquire();
+        gate.readLock().lock();
+        try {
+            if (closed) {
+                capacity.release();
+                throw new MilvusPlusException("Write-behind buffer is closed");
+            }
+            Lane lane = lanes.computeIfAbsent(partitionName == null ? "" : partitionName, Lane::new);
+            lane.queue.offer(pending);
+            int rows = lane.rows.incrementAndGet();
+            long bytes = lane.bytes.addAndGet(pending.bytes());
+            if (rows >= config.maxRows() || bytes >= config.maxBytes()) {
+                schedule(lane);
+            }
+        } finally {
+            gate.readLock().unlock();
+        }
+        return pending.future();
+    }
+
+    /**
+     * 同步写入缓冲中的全部行
+     */
+    public void flush() {
+        for (Lane lane : lanes.values()) {
+            lane.lock.lock();
+            try {
+                while (!lane.queue.isEmpty()) {
+                    flushBatch(lane);
+                }
+            } finally {
+                lane.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 缓冲中尚未写入的行数
+     */
+    public int pending() {
+        return lanes.values().stream().mapToInt(lane -> lane.rows.get()).sum();
+    }
+
+    /**
+     * 停止接收提交并写入剩余的行
+     */
+    @Override
+    public void close() {
+        gate.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            gate.writeLock().unlock();
+        }
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        flush();
+    }
+
+    private void acquire() {
+        if (capacity.tryAcquire()) {
+            return;
+        }
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.WRITE_BEHIND_BACKPRESSURE);
+        try {
+            if (config.offerTimeout() == null) {
+                capacity.acquire();
+            } else if (!capacity.tryAcquire(config.offerTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new AdmissionRejectedException("Write-behind buffer is full (" + config.capacity() + " rows)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted while waiting for write-behind buffer capacity", e);
+        }
+    }
+
+    private void flushLingering() {
+        for (Lane lane : lanes.values()) {
+            if (due(lane)) {
+                schedule(lane);
+            }
+        }
+    }
+
+    private boolean due(Lane lane) {
+        if (lane.rows.get() >= config.maxRows() || lane.bytes.get() >= config.maxBytes()) {
+            return true;
+        }
+        Pending head = lane.queue.peek();
+        return head != null && !config.maxLinger().isZero()
+                && System.nanoTime() - head.enqueuedAt() >= config.maxLinger().toNanos();
+    }
+
+    private void schedule(Lane lane) {
+        if (!lane.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        FLUSHERS.execute(() -> {
+            try {
+                lane.lock.lock();
+                try {
+                    while (due(lane)) {
+                        flushBatch(lane);
+                    }
+                } finally {
+                    lane.lock.unlock();
+                }
+            } finally {
+                lane.scheduled.set(false);
+            }
+            // 释放标记前到达的提交可能错过了调度
+            if (due(lane)) {
+                schedule(lane);
+            }
+        });
+    }
+
+    /**
+     * 取出一批行并写入，调用方持有分区锁
+     */
+    private void flushBatch(Lane lane) {
+        List<Pending> batch = new ArrayList<>();
+        long bytes = 0L;
+        Pending next;
+        while (batch.size() < config.maxRows() && (next = lane.queue.peek()) != null
+                && (batch.isEmpty() || bytes + next.bytes() <= config.maxBytes())) {
+            lane.queue.poll();
+            batch.add(next);
+            bytes += next.bytes();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        lane.rows.addAndGet(-batch.size());
+        lane.bytes.addAndGet(-bytes);
+        try (TenantContext ignored = TenantContext.open(tenant)) {
+            LambdaInsertWrapper<T> wrapper = wrapperFactory.get();
+            if (!lane.partitionName.isEmpty()) {
+                wrapper.partition(lane.partitionName);
+            }
+            MilvusResp<InsertResp> resp = wrapper.insertRows(batch.stream().map(Pending::row).toList());
+            List<Object> keys = resp.data() == null || resp.data().getPrimaryKeys() == null
+                    ? List.of() : resp.data().getPrimaryKeys();
+            for (int i = 0; i < batch.size(); i++) {
+                Pending pending = batch.get(i);
+                pending.future().complete(i < keys.size() ? keys.get(i) : primaryKey(pending.row()));
+            }
+            MilvusPlusMetrics.increment(MilvusPlusMetrics.WRITE_BEHIND_FLUSHES);
+            MilvusPlusMetrics.add(MilvusPlusMetrics.WRITE_BEHIND_ROWS, batch.size());
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush of {} rows failed: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        } finally {
+            capacity.release(batch.size());
+        }
+    }
+
+    private Object primaryKey(JsonObject row) {
+        JsonElement element = row.get(encoder.primaryKey());
+        if (element == null || !element.isJsonPrimitive()) {
+            return null;
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        return primitive.isNumber() ? (Object) primitive.getAsLong() : primitive.getAsString();
+    }
+
+    /**
+     * 按字段值估算行大小：数值按定长，字符串按长度，向量按元素累加，避免为估算序列化整行
+     */
+    private static long estimateBytes(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return 0L;
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isString()) {
+                return primitive.getAsString().length();
+            }
+            if (primitive.isBoolean()) {
+                return 1L;
+            }
+            Number number = primitive.getAsNumber();
+            return number instanceof Float || number instanceof Integer || number instanceof Short ? 4L : 8L;
+        }
+        long bytes = 0L;
+        if (element.isJsonArray()) {
+            for (JsonElement item : (JsonArray) element) {
+                bytes += estimateBytes(item);
+            }
+            return bytes;
+        }
+        for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+            bytes += field.getKey().length() + estimateBytes(field.getValue());
+        }
+        return bytes;
+    }
+
+    private record Pending(JsonObject row, long bytes, long enqueuedAt, CompletableFuture<Object> future) {
+    }
+
+    private static final class Lane {
+        private final String partitionName;
+        private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger rows = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Lane(String partitionName) {
+            this.partitionName = partitionName;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.xermaor.milvus.plus.core.buffer;
+
+import java.time.Duration;
+
+/**
+ * 写缓冲配置，任一阈值先达到即触发写入
+ *
+ * @param maxRows      单批最多行数
+ * @param maxBytes     单批最多字节数（按字段值大小估算）
+ * @param maxLinger    行在缓冲中最长停留时间，为零时不按时间触发
+ * @param capacity     缓冲中最多未写入的行数，满时提交方等待
+ * @param offerTimeout 缓冲满时提交方最长等待时间，为 null 时一直等待
+ */
+public record WriteBehindConfig(int maxRows, long maxBytes, Duration maxLinger, int capacity, Duration offerTimeout) {
+
+    public static final WriteBehindConfig DEFAULT = new WriteBehindConfig(1000, 4L * 1024 * 1024, Duration.ofMillis(50), 10000, null);
+
+    public WriteBehindConfig {
+        maxRows = Math.max(1, maxRows);
+        maxBytes = maxBytes <= 0 ? Long.MAX_VALUE : maxBytes;
+        maxLinger = maxLinger == null || maxLinger.isNegative() ? Duration.ZERO : maxLinger;
+        capacity = Math.max(maxRows, capacity);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.xermaor.milvus.plus.core.capability;
+
+import io.milvus.v2.client.MilvusClientV2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 服务端能力，按客户端在启动时探测一次。
+ *
+ * @param version 服务端版本，探测失败时为空字符串
+ * @param major   主版本号
+ * @param minor   次版本号
+ */
+public record ServerCapabilities(String version, int major, int minor) {
+
+    private final static Logger log = LoggerFactory.getLogger(ServerCapabilities.class);
+
+    public static final ServerCapabilities UNKNOWN = new ServerCapabilities("", 0, 0);
+
+    private static final Map<MilvusClientV2, ServerCapabilities> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)");
+
+    /**
+     * 探测并记录客户端所连服务端的能力
+     */
+    public static ServerCapabilities detect(MilvusClientV2 client) {
+        ServerCapabilities capabilities;
+        try {
+            capabilities = parse(client.getServerVersion());
+        } catch (RuntimeException e) {
+            log.warn("Failed to detect milvus server version: {}", e.getMessage());
+            capabilities = UNKNOWN;
+        }
+        INSTANCES.put(client, capabilities);
+        log.info("milvus server version: {}", capabilities.version());
+        return capabilities;
+    }
+
+    /**
+     * 获取客户端已探测的能力
+     *
+     * @return 未探测时返回 {@link #UNKNOWN}
+     */
+    public static ServerCapabilities of(MilvusClientV2 client) {
+        return INSTANCES.getOrDefault(client, UNKNOWN);
+    }
+
+    public static ServerCapabilities parse(String version) {
+        if (version == null) {
+            return UNKNOWN;
+        }
+        Matcher matcher = VERSION.matcher(version);
+        if (!matcher.find()) {
+            return new ServerCapabilities(version, 0, 0);
+        }
+        return new ServerCapabilities(version, Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    /**
+     * 是否支持过滤模板（filter_template），需要服务端 2.5 及以上
+     */
+    public boolean filterTemplate() {
+        return major > 2 || (major == 2 && minor >= 5);
+    }
+}
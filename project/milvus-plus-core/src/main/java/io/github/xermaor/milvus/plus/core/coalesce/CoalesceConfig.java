@@ -0,0 +1,24 @@
+package io.github.xermaor.milvus.plus.core.coalesce;
+
+import java.time.Duration;
+
+/**
+ * 搜索合并配置
+ *
+ * @param window       等待窗口，首个请求到达后最多等待该时长再发送
+ * @param maxBatchSize 单批最多合并的查询向量数，达到后立即发送；不大于 1 时不合并
+ */
+public record CoalesceConfig(Duration window, int maxBatchSize) {
+
+    public static final CoalesceConfig DEFAULT = new CoalesceConfig(Duration.ofMillis(2), 64);
+
+    public static final CoalesceConfig DISABLED = new CoalesceConfig(Duration.ZERO, 1);
+
+    public CoalesceConfig {
+        window = window == null || window.isNegative() ? Duration.ZERO : window;
+    }
+
+    public boolean enabled() {
+        return maxBatchSize > 1 && !window.isZero();
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.xermaor.milvus.plus.core.coalesce;
+
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 搜索请求合并器（micro-batching）。
+ * <p>
+ * 在一个很短的时间窗口内，把并发到达、除查询向量外参数完全相同的搜索请求合并为一个多向量 {@link SearchReq}，
+ * 返回后再按各自的向量区间拆分结果。以少量延迟换取单个 gRPC 通道上更高的 QPS，可按集合单独配置。
+ */
+public class SearchCoalescer implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(SearchCoalescer.class);
+
+    private static final Map<MilvusClientV2, SearchCoalescer> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MilvusClientV2 client;
+    private final Map<String, CoalesceConfig> configs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<BatchKey, Batch> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService executor;
+    private volatile CoalesceConfig defaultConfig = CoalesceConfig.DEFAULT;
+
+    public SearchCoalescer(MilvusClientV2 client) {
+        this.client = client;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "milvus-plus-search-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * 获取客户端共享的合并器
+     */
+    public static SearchCoalescer of(MilvusClientV2 client) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(client, SearchCoalescer::new);
+        }
+    }
+
+    /**
+     * 设置指定集合（或别名）的合并配置
+     */
+    public SearchCoalescer configure(String collectionName, CoalesceConfig config) {
+        configs.put(collectionName, config);
+        return this;
+    }
+
+    /**
+     * 设置未单独配置的集合使用的合并配置
+     */
+    public SearchCoalescer defaultConfig(CoalesceConfig config) {
+        this.defaultConfig = config;
+        return this;
+    }
+
+    public CoalesceConfig configFor(String collectionName) {
+        return configs.getOrDefault(collectionName, defaultConfig);
+    }
+
+    /**
+     * 执行搜索，可合并时与其他请求一起发送，否则直接调用客户端
+     *
+     * @param request 搜索请求
+     * @return 仅包含本请求查询向量结果的响应
+     */
+    public SearchResp search(SearchReq request) {
+        List<BaseVector> data = request.getData();
+        CoalesceConfig config = configFor(request.getCollectionName());
+        if (!config.enabled() || data == null || data.isEmpty() || data.size() >= config.maxBatchSize()) {
+            return client.search(request);
+        }
+        try {
+            return submit(request, data, config).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<SearchResp> submit(SearchReq request, List<BaseVector> data, CoalesceConfig config) {
+        BatchKey key = BatchKey.of(request);
+        Pending entry = new Pending(data, new CompletableFuture<>());
+        Batch[] full = new Batch[1];
+        pending.compute(key, (k, batch) -> {
+            if (batch == null) {
+                Batch created = new Batch(k, request);
+                timer.schedule(() -> flushIfPending(created), config.window().toNanos(), TimeUnit.NANOSECONDS);
+                batch = created;
+            }
+            batch.add(entry);
+            if (batch.vectorCount >= config.maxBatchSize()) {
+                full[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+        if (full[0] != null) {
+            dispatch(full[0]);
+        }
+        return entry.future;
+    }
+
+    private void flushIfPending(Batch batch) {
+        if (pending.remove(batch.key, batch)) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            executor.execute(() -> execute(batch));
+        } catch (RejectedExecutionException e) {
+            batch.entries.forEach(p -> p.future.completeExceptionally(e));
+        }
+    }
+
+    private void execute(Batch batch) {
+        List<Pending> entries = batch.entries;
+        try {
+            if (entries.size() == 1) {
+                entries.getFirst().future.complete(client.search(batch.template));
+                return;
+            }
+            List<BaseVector> merged = new ArrayList<>(batch.vectorCount);
+            entries.forEach(p -> merged.addAll(p.data));
+            SearchResp resp = client.search(copyWithData(batch.template, merged));
+            log.debug("Coalesced {} searches with {} vectors on {}", entries.size(), merged.size(), batch.template.getCollectionName());
+            List<List<SearchResp.SearchResult>> results = resp.getSearchResults();
+            List<Float> recalls = resp.getRecalls();
+            int start = 0;
+            for (Pending p : entries) {
+                int end = start + p.data.size();
+                SearchResp.SearchRespBuilder<?, ?> builder = SearchResp.builder()
+                        .searchResults(new ArrayList<>(results.subList(start, Math.min(end, results.size()))))
+                        .sessionTs(resp.getSessionTs());
+                if (recalls != null && recalls.size() >= end) {
+                    builder.recalls(new ArrayList<>(recalls.subList(start, end)));
+                }
+                p.future.complete(builder.build());
+                start = end;
+            }
+        } catch (Throwable e) {
+            entries.forEach(p -> p.future.completeExceptionally(e));
+        }
+    }
+
+    private static SearchReq copyWithData(SearchReq template, List<BaseVector> data) {
+        SearchReq copy = SearchReq.builder().collectionName(template.getCollectionName()).build();
+        copy.setDatabaseName(template.getDatabaseName());
+        copy.setPartitionNames(template.getPartitionNames());
+        copy.setAnnsField(template.getAnnsField());
+        copy.setMetricType(template.getMetricType());
+        copy.setTopK(template.getTopK());
+        copy.setLimit(template.getLimit());
+        copy.setFilter(template.getFilter());
+        copy.setOutputFields(template.getOutputFields());
+        copy.setOffset(template.getOffset());
+        copy.setRoundDecimal(template.getRoundDecimal());
+        copy.setSearchParams(template.getSearchParams());
+        copy.setGuaranteeTimestamp(template.getGuaranteeTimestamp());
+        copy.setGracefulTime(template.getGracefulTime());
+        copy.setConsistencyLevel(template.getConsistencyLevel());
+        copy.setIgnoreGrowing(template.isIgnoreGrowing());
+        copy.setGroupByFieldName(template.getGroupByFieldName());
+        copy.setGroupSize(template.getGroupSize());
+        copy.setStrictGroupSize(template.getStrictGroupSize());
+        copy.setFilterTemplateValues(template.getFilterTemplateValues());
+        copy.setData(data);
+        return copy;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdown();
+        executor.shutdown();
+        synchronized (INSTANCES) {
+            INSTANCES.remove(client, this);
+        }
+    }
+
+    private record Pending(List<BaseVector> data, CompletableFuture<SearchResp> future) {
+    }
+
+    private static final class Batch {
+        private final BatchKey key;
+        private final SearchReq template;
+        private final List<Pending> entries = new ArrayList<>();
+        private int vectorCount;
+
+        Batch(BatchKey key, SearchReq template) {
+            this.key = key;
+            this.template = template;
+        }
+
+        void add(Pending entry) {
+            entries.add(entry);
+            vectorCount += entry.data.size();
+        }
+    }
+
+    /**
+     * 合并键：除查询向量外的全部搜索参数，以及向量类型
+     */
+    private record BatchKey(String databaseName, String collectionName, List<String> partitionNames, String annsField,
+                            IndexParam.MetricType metricType, int topK, long limit, String filter,
+                            List<String> outputFields, long offset, int roundDecimal, Map<String, Object> searchParams,
+                            Long gracefulTime, long guaranteeTimestamp, ConsistencyLevel consistencyLevel, boolean ignoreGrowing,
+                            String groupByFieldName, Integer groupSize, Boolean strictGroupSize,
+                            Map<String, Object> filterTemplateValues, Class<?> vectorType) {
+
+        static BatchKey of(SearchReq req) {
+            return new BatchKey(req.getDatabaseName(), req.getCollectionName(), req.getPartitionNames(), req.getAnnsField(),
+                    req.getMetricType(), req.getTopK(), req.getLimit(), req.getFilter(),
+                    req.getOutputFields(), req.getOffset(), req.getRoundDecimal(), req.getSearchParams(),
+                    req.getGracefulTime(), req.getGuaranteeTimestamp(), req.getConsistencyLevel(), req.isIgnoreGrowing(),
+                    req.getGroupByFieldName(), req.getGroupSize(), req.getStrictGroupSize(),
+                    req.getFilterTemplateValues(), req.getData().getFirst().getClass());
+        }
+    }
+}
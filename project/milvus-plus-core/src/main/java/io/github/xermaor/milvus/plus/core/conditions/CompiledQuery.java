@@ -0,0 +1,108 @@
+package io.github.xermaor.milvus.plus.core.conditions;
+
+import io.github.xermaor.milvus.plus.cache.ConversionCache;
+import io.github.xermaor.milvus.plus.converter.SearchRespConverter;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Param;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.response.QueryResp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的标量查询，由 {@link LambdaQueryWrapper#compileQuery()} 创建。
+ * <p>
+ * 不可变且线程安全，可以缓存在静态字段中跨请求复用；每次执行只绑定 {@link Param} 参数值，
+ * 参数的发送方式与 {@link CompiledSearch} 相同。
+ */
+public final class CompiledQuery<T> {
+
+    private final static Logger log = LoggerFactory.getLogger(CompiledQuery.class);
+
+    private final MilvusClientV2 client;
+    private final Class<T> entityType;
+    private final ConversionCache conversionCache;
+    private final String collectionName;
+    private final String target;
+    private final List<String> partitionNames;
+    private final FilterTemplate filter;
+    private final long limit;
+    private final long offset;
+    private final List<String> outputFields;
+    private final ConsistencyLevel consistencyLevel;
+
+    /**
+     * @param skeleton         构建器生成的请求，只在构造时读取
+     * @param consistencyLevel 显式指定的一致性级别
+     */
+    CompiledQuery(MilvusClientV2 client, Class<T> entityType, ConversionCache conversionCache, String collectionName,
+                  QueryReq skeleton, FilterTemplate filter, ConsistencyLevel consistencyLevel) {
+        this.client = client;
+        this.entityType = entityType;
+        this.conversionCache = conversionCache;
+        this.collectionName = collectionName;
+        this.target = skeleton.getCollectionName();
+        this.partitionNames = List.copyOf(skeleton.getPartitionNames());
+        this.filter = filter;
+        this.limit = skeleton.getLimit();
+        this.offset = skeleton.getOffset();
+        this.outputFields = List.copyOf(skeleton.getOutputFields());
+        this.consistencyLevel = consistencyLevel;
+    }
+
+    /**
+     * 执行查询，条件中没有参数时使用
+     */
+    public MilvusResp<List<MilvusResult<T>>> query() {
+        return query(Map.of());
+    }
+
+    /**
+     * 执行查询
+     *
+     * @param params 参数名到取值的映射
+     * @throws MilvusPlusException 缺少参数值
+     */
+    public MilvusResp<List<MilvusResult<T>>> query(Map<String, Object> params) {
+        QueryReq queryReq = request(params);
+        log.debug("Execute compiled query of {} with filter [{}]", target, queryReq.getFilter());
+        QueryResp queryResp = LambdaQueryWrapper.executeQuery(client, queryReq);
+        return SearchRespConverter.convertGetRespToMilvusResp(queryResp, entityType, conversionCache);
+    }
+
+    /**
+     * 含占位符的过滤条件，没有条件时为空字符串
+     */
+    public String filter() {
+        return filter.text();
+    }
+
+    private QueryReq request(Map<String, Object> params) {
+        Map<String, Object> bound = filter.bind(params);
+        QueryReq.QueryReqBuilder<?, ?> builder = QueryReq.builder()
+                .collectionName(target)
+                .partitionNames(partitionNames)
+                .outputFields(outputFields)
+                .limit(limit)
+                .offset(offset);
+        if (!filter.isEmpty()) {
+            if (filter.serverSide(client)) {
+                builder.filter(filter.text()).filterTemplateValues(bound);
+            } else {
+                builder.filter(filter.render(bound));
+            }
+        }
+        ConsistencyLevel readConsistency = LambdaQueryWrapper.readConsistency(collectionName, consistencyLevel);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.xermaor.milvus.plus.core.conditions;
+
+import io.github.xermaor.milvus.plus.cache.ConversionCache;
+import io.github.xermaor.milvus.plus.converter.SearchRespConverter;
+import io.github.xermaor.milvus.plus.core.coalesce.SearchCoalescer;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Param;
+import io.github.xermaor.milvus.plus.core.processor.ResultPostProcessorChain;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.apache.commons.collections4.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * 编译后的向量搜索，由 {@link LambdaQueryWrapper#compileSearch()} 创建。
+ * <p>
+ * 不可变且线程安全，可以缓存在静态字段中跨请求复用。字段解析、过滤条件渲染、输出字段和搜索参数在编译时完成，
+ * 每次执行只绑定查询向量和 {@link Param} 参数值。服务端支持过滤模板时参数随请求单独发送，
+ * 服务端可以复用表达式的解析结果；否则在客户端按预先切分的片段代入。
+ * 读一致性仍按执行时的会话计算。
+ * <pre>{@code
+ * static final CompiledSearch<Face> SEARCH = faceMapper.lambda()
+ *         .annsField(Face::getVector).gt(Face::getAge, Param.of("age")).topK(10)
+ *         .compileSearch();
+ *
+ * SEARCH.search(vector, Map.of("age", 18));
+ * }</pre>
+ */
+public final class CompiledSearch<T> {
+
+    private final static Logger log = LoggerFactory.getLogger(CompiledSearch.class);
+
+    private final MilvusClientV2 client;
+    private final Class<T> entityType;
+    private final ConversionCache conversionCache;
+    private final String collectionName;
+    private final String target;
+    private final List<String> partitionNames;
+    private final String annsField;
+    private final FilterTemplate filter;
+    private final int topK;
+    private final long limit;
+    private final long offset;
+    private final List<String> outputFields;
+    private final Map<String, Object> searchParams;
+    private final int roundDecimal;
+    private final ConsistencyLevel consistencyLevel;
+    private final long guaranteeTimestamp;
+    private final Long gracefulTime;
+    private final boolean ignoreGrowing;
+    private final String groupByFieldName;
+    private final Integer groupSize;
+    private final Boolean strictGroupSize;
+    private final ResultPostProcessorChain<T> postProcessors;
+    private final ScoreOrder scoreOrder;
+    private final int expected;
+    private final boolean coalesce;
+    private final SearchCoalescer coalescer;
+
+    /**
+     * @param skeleton           构建器生成的不含查询向量的请求，只在构造时读取
+     * @param consistencyLevel   显式指定的一致性级别
+     * @param guaranteeTimestamp 显式指定的保证时间戳
+     */
+    CompiledSearch(MilvusClientV2 client, Class<T> entityType, ConversionCache conversionCache, String collectionName,
+                   SearchReq skeleton, FilterTemplate filter, ConsistencyLevel consistencyLevel, long guaranteeTimestamp,
+                   ResultPostProcessorChain<T> postProcessors, ScoreOrder scoreOrder, int expected,
+                   boolean coalesce, SearchCoalescer coalescer) {
+        this.client = client;
+        this.entityType = entityType;
+        this.conversionCache = conversionCache;
+        this.collectionName = collectionName;
+        this.target = skeleton.getCollectionName();
+        this.partitionNames = List.copyOf(skeleton.getPartitionNames());
+        this.annsField = skeleton.getAnnsField();
+        this.filter = filter;
+        this.topK = skeleton.getTopK();
+        this.limit = skeleton.getLimit();
+        this.offset = skeleton.getOffset();
+        this.outputFields = List.copyOf(skeleton.getOutputFields());
+        this.searchParams = Collections.unmodifiableMap(new HashMap<>(skeleton.getSearchParams()));
+        this.roundDecimal = skeleton.getRoundDecimal();
+        this.consistencyLevel = consistencyLevel;
+        this.guaranteeTimestamp = guaranteeTimestamp;
+        this.gracefulTime = skeleton.getGracefulTime();
+        this.ignoreGrowing = skeleton.isIgnoreGrowing();
+        this.groupByFieldName = skeleton.getGroupByFieldName();
+        this.groupSize = skeleton.getGroupSize();
+        this.strictGroupSize = skeleton.getStrictGroupSize();
+        this.postProcessors = postProcessors;
+        this.scoreOrder = scoreOrder;
+        this.expected = expected;
+        this.coalesce = coalesce;
+        this.coalescer = coalescer;
+    }
+
+    /**
+     * 以单个浮点向量搜索，条件中没有参数时使用
+     */
+    public MilvusResp<List<MilvusResult<T>>> search(List<Float> vector) {
+        return search(vector, Map.of());
+    }
+
+    /**
+     * 以单个浮点向量搜索
+     *
+     * @param params 参数名到取值的映射
+     */
+    public MilvusResp<List<MilvusResult<T>>> search(List<Float> vector, Map<String, Object> params) {
+        return search(new FloatVec(vector), params);
+    }
+
+    /**
+     * 以单个向量搜索
+     *
+     * @param params 参数名到取值的映射
+     */
+    public MilvusResp<List<MilvusResult<T>>> search(BaseVector vector, Map<String, Object> params) {
+        return searchBatch(List.of(vector), params);
+    }
+
+    /**
+     * 以多个向量搜索，结果按查询向量顺序排列
+     *
+     * @param params 参数名到取值的映射
+     * @throws MilvusPlusException 没有向量或缺少参数值
+     */
+    public MilvusResp<List<MilvusResult<T>>> searchBatch(List<BaseVector> vectors, Map<String, Object> params) {
+        if (CollectionUtils.isEmpty(vectors)) {
+            throw new MilvusPlusException("Compiled search of " + collectionName + " needs at least one vector");
+        }
+        SearchReq searchReq = request(vectors, params);
+        log.debug("Execute compiled search of {} with filter [{}]", target, searchReq.getFilter());
+        SearchResp searchResp = LambdaQueryWrapper.executeSearch(client, searchReq, coalesce, coalescer);
+        if (postProcessors.isEmpty()) {
+            return SearchRespConverter.convertSearchRespToMilvusResp(searchResp, entityType, conversionCache);
+        }
+        List<List<MilvusResult<T>>> groups = SearchRespConverter.convertSearchRespToGroups(searchResp, entityType, conversionCache);
+        return new MilvusResp<>(true, postProcessors.applyGroups(groups, expected, scoreOrder));
+    }
+
+    /**
+     * 含占位符的过滤条件，没有条件时为空字符串
+     */
+    public String filter() {
+        return filter.text();
+    }
+
+    private SearchReq request(List<BaseVector> vectors, Map<String, Object> params) {
+        Map<String, Object> bound = filter.bind(params);
+        SearchReq.SearchReqBuilder<?, ?> builder = SearchReq.builder()
+                .collectionName(target)
+                .partitionNames(partitionNames)
+                .annsField(annsField)
+                .data(vectors)
+                .topK(topK)
+                .limit(limit)
+                .offset(offset)
+                .outputFields(outputFields)
+                .searchParams(searchParams)
+                .roundDecimal(roundDecimal)
+                .gracefulTime(gracefulTime)
+                .ignoreGrowing(ignoreGrowing)
+                .groupByFieldName(groupByFieldName)
+                .groupSize(groupSize)
+                .strictGroupSize(strictGroupSize);
+        if (!filter.isEmpty()) {
+            if (filter.serverSide(client)) {
+                builder.filter(filter.text()).filterTemplateValues(bound);
+            } else {
+                builder.filter(filter.render(bound));
+            }
+        }
+        ConsistencyLevel readConsistency = LambdaQueryWrapper.readConsistency(collectionName, consistencyLevel);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
+        }
+        long readTimestamp = LambdaQueryWrapper.readTimestamp(collectionName, consistencyLevel, guaranteeTimestamp);
+        if (readTimestamp > 0L) {
+            builder.guaranteeTimestamp(readTimestamp);
+        }
+        return builder.build();
+    }
+}
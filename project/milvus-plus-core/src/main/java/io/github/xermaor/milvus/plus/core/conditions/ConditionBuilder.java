@@ -1,8 +1,12 @@
 package io.github.xermaor.milvus.plus.core.conditions;
 
 import com.google.gson.JsonObject;
+import io.github.xermaor.milvus.plus.cache.ConversionCache;
 import io.github.xermaor.milvus.plus.cache.PropertyCache;
 import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.core.conditions.expr.ExprSimplifier;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Param;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import io.github.xermaor.milvus.plus.util.GsonUtil;
 import org.apache.commons.collections4.CollectionUtils;
@@ -10,7 +14,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Field;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -21,15 +24,33 @@ import java.util.stream.Collectors;
  * 支持动态条件的添加和作用范围的管理。
  * <p>
  * 类的字段：
- * 1. FIELD_CACHE - 用于缓存字段元信息的映射。
- * 2. filters - 用于存储条件过滤器的集合。
+ * 1. FIELD_CACHE - 按类缓存字段元信息，基于 ClassValue，随类回收。
+ * 2. filters - 用于存储条件过滤器的集合，每个元素是一棵不可变的表达式树。
  * 3. textMatches - 存储文本匹配条件的集合，用于查询构建。
+ * <p>
+ * 条件在 {@link #build()} 时才经 {@link ExprSimplifier} 化简并渲染为字符串，结果会被缓存直到条件再次变化。
  */
 @SuppressWarnings("unchecked")
 public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
-    private static final Map<Class<?>, List<Field>> FIELD_CACHE = new ConcurrentHashMap<>();
-    protected final List<String> filters = new ArrayList<>();
-    protected final List<String> textMatches = new ArrayList<>();
+    private static final ClassValue<List<Field>> FIELD_CACHE = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            Class<?> currentClass = type;
+            while (currentClass != null && currentClass != Object.class) {
+                Collections.addAll(fields, currentClass.getDeclaredFields());
+                currentClass = currentClass.getSuperclass();
+            }
+            return Collections.unmodifiableList(fields);
+        }
+    };
+    private final List<Expr> filters = new ArrayList<>();
+    private final List<Expr> textMatches = new ArrayList<>();
+    private Expr scope;
+    private int version;
+    private int renderedVersion = -1;
+    private Expr simplified;
+    private String rendered;
 
     // =============== 条件装饰器方法 ===============
 
@@ -98,15 +119,7 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      * 递归获取类的所有字段
      */
     private Collection<Field> getAllFields(Class<?> clazz) {
-        return FIELD_CACHE.computeIfAbsent(clazz, c -> {
-            List<Field> fields = new ArrayList<>();
-            Class<?> currentClass = c;
-            while (currentClass != null && currentClass != Object.class) {
-                Collections.addAll(fields, currentClass.getDeclaredFields());
-                currentClass = currentClass.getSuperclass();
-            }
-            return Collections.unmodifiableList(fields);
-        });
+        return FIELD_CACHE.get(clazz);
     }
 
 
@@ -123,7 +136,7 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
         validateNotEmpty(value, "文本匹配值不能为空");
         String match = String.format("TEXT_MATCH(%s, \"%s\")",
                 wrapFieldName(fieldName), escapeValue(value));
-        textMatches.add(match);
+        addTextMatch(new Expr.Predicate(fieldName, match));
         return (W) this;
     }
 
@@ -143,11 +156,11 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
         validateFieldName(fieldName);
         validateNotEmpty(values, "文本匹配值列表不能为空");
         String joinedValues = values.stream()
-                .map(this::escapeValue)
+                .map(ConditionBuilder::escapeValue)
                 .collect(Collectors.joining(" "));
         String match = String.format("TEXT_MATCH(%s, \"%s\")",
                 wrapFieldName(fieldName), joinedValues);
-        textMatches.add(match);
+        addTextMatch(new Expr.Predicate(fieldName, match));
         return (W) this;
     }
 
@@ -499,11 +512,9 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
         validateFieldName(fieldName);
         validateNotNull(start, "范围开始值不能为空");
         validateNotNull(end, "范围结束值不能为空");
-        String wrappedField = wrapFieldName(fieldName);
-        String filter = String.format("%s >= %s && %s <= %s",
-                wrappedField, convertValue(start), wrappedField, convertValue(end));
-        filters.add(filter);
-        return (W) this;
+        return addFilter(new Expr.And(List.of(
+                new Expr.Compare(fieldName, Expr.Op.GE, start),
+                new Expr.Compare(fieldName, Expr.Op.LE, end))));
     }
 
     /**
@@ -602,8 +613,7 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      */
     public W isNull(String fieldName) {
         validateFieldName(fieldName);
-        filters.add(wrapFieldName(fieldName) + " is null");
-        return (W) this;
+        return addFilter(new Expr.Predicate(fieldName, wrapFieldName(fieldName) + " is null"));
     }
 
     /**
@@ -646,8 +656,7 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      */
     public W isNotNull(String fieldName) {
         validateFieldName(fieldName);
-        filters.add(wrapFieldName(fieldName) + " is not null");
-        return (W) this;
+        return addFilter(new Expr.Predicate(fieldName, wrapFieldName(fieldName) + " is not null"));
     }
 
     /**
@@ -693,9 +702,20 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
     public W in(String fieldName, Collection<?> values) {
         validateFieldName(fieldName);
         validateNotEmpty(values, "IN 操作的值列表不能为空");
-        String valueList = convertValues(values);
-        filters.add(wrapFieldName(fieldName) + " in " + valueList);
-        return (W) this;
+        return addFilter(new Expr.In(fieldName, values));
+    }
+
+    /**
+     * 添加 in 操作条件，值列表为命名参数，执行编译后的查询时绑定
+     *
+     * @param fieldName 字段名称
+     * @param values    绑定值列表的参数
+     * @return 返回当前调用链的对象实例
+     */
+    public W in(String fieldName, Param values) {
+        validateFieldName(fieldName);
+        validateNotNull(values, "IN 操作的参数不能为空");
+        return addFilter(new Expr.In(fieldName, List.of(values)));
     }
 
     /**
@@ -721,6 +741,17 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
         return in(getFieldName(fieldFunction), values);
     }
 
+    /**
+     * 添加 in 操作条件，值列表为命名参数，执行编译后的查询时绑定
+     *
+     * @param fieldFunction 字段函数
+     * @param values        绑定值列表的参数
+     * @return 返回当前调用链的对象实例
+     */
+    public W in(FieldFunction<T, ?> fieldFunction, Param values) {
+        return in(getFieldName(fieldFunction), values);
+    }
+
     /**
      * 在指定条件下应用 in 查询条件。
      *
@@ -789,9 +820,8 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
     public W like(String fieldName, String value) {
         validateFieldName(fieldName);
         validateNotEmpty(value, "LIKE 操作的值不能为空");
-        filters.add(String.format("%s like \"%%%s%%\"",
-                wrapFieldName(fieldName), escapeValue(value)));
-        return (W) this;
+        return addFilter(new Expr.Predicate(fieldName, String.format("%s like \"%%%s%%\"",
+                wrapFieldName(fieldName), escapeValue(value))));
     }
 
     /**
@@ -885,9 +915,8 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
     public W likeLeft(String fieldName, String value) {
         validateFieldName(fieldName);
         validateNotEmpty(value, "LIKE 操作的值不能为空");
-        filters.add(String.format("%s like \"%%%s\"",
-                wrapFieldName(fieldName), escapeValue(value)));
-        return (W) this;
+        return addFilter(new Expr.Predicate(fieldName, String.format("%s like \"%%%s\"",
+                wrapFieldName(fieldName), escapeValue(value))));
     }
 
     /**
@@ -935,9 +964,8 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
     public W likeRight(String fieldName, String value) {
         validateFieldName(fieldName);
         validateNotEmpty(value, "LIKE 操作的值不能为空");
-        filters.add(String.format("%s like \"%s%%\"",
-                wrapFieldName(fieldName), escapeValue(value)));
-        return (W) this;
+        return addFilter(new Expr.Predicate(fieldName, String.format("%s like \"%s%%\"",
+                wrapFieldName(fieldName), escapeValue(value))));
     }
 
     /**
@@ -1354,8 +1382,7 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      */
     public W arrayLength(String fieldName, int length) {
         validateFieldName(fieldName);
-        filters.add(String.format("%s.length() == %d", wrapFieldName(fieldName), length));
-        return (W) this;
+        return addFilter(new Expr.Predicate(fieldName, String.format("%s.length() == %d", wrapFieldName(fieldName), length)));
     }
 
     /**
@@ -1403,15 +1430,15 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
     // =============== 逻辑操作 ===============
     public W and(W otherBuilder) {
         validateNotNull(otherBuilder, "AND 操作的条件构建器不能为空");
-        if (CollectionUtils.isNotEmpty(filters) && CollectionUtils.isNotEmpty(otherBuilder.filters)) {
-            String leftFilter = combineFiltersWithOperator(filters, "AND");
-            String rightFilter = combineFiltersWithOperator(otherBuilder.filters, "AND");
+        Expr right = otherBuilder.conjunction();
+        if (CollectionUtils.isNotEmpty(filters) && right != null) {
+            Expr left = Expr.and(filters);
             filters.clear();
-            filters.add("(" + leftFilter + " && " + rightFilter + ")");
-        } else if (CollectionUtils.isNotEmpty(otherBuilder.filters)) {
-            filters.addAll(otherBuilder.filters);
+            filters.add(new Expr.And(List.of(left, right)));
+        } else if (right != null) {
+            filters.add(right);
         }
-
+        version++;
         return (W) this;
     }
 
@@ -1459,14 +1486,15 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      */
     public W or(W otherBuilder) {
         validateNotNull(otherBuilder, "OR 操作的条件构建器不能为空");
-        if (CollectionUtils.isNotEmpty(filters) && CollectionUtils.isNotEmpty(otherBuilder.filters)) {
-            String leftFilter = combineFiltersWithOperator(filters, "AND");
-            String rightFilter = combineFiltersWithOperator(otherBuilder.filters, "AND");
+        Expr right = otherBuilder.conjunction();
+        if (CollectionUtils.isNotEmpty(filters) && right != null) {
+            Expr left = Expr.and(filters);
             filters.clear();
-            filters.add("(" + leftFilter + " || " + rightFilter + ")");
-        } else if (!otherBuilder.filters.isEmpty()) {
-            filters.addAll(otherBuilder.filters);
+            filters.add(new Expr.Or(List.of(left, right)));
+        } else if (right != null) {
+            filters.add(right);
         }
+        version++;
         return (W) this;
     }
 
@@ -1513,10 +1541,10 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      */
     public W not() {
         if (CollectionUtils.isNotEmpty(filters)) {
-            String filterContent = filters.size() == 1 ? filters.getFirst() : String.join(" && ", filters);
-            String negatedFilter = "not (" + filterContent + ")";
+            Expr negated = new Expr.Not(Expr.and(filters));
             filters.clear();
-            filters.add(negatedFilter);
+            filters.add(negated);
+            version++;
         }
         return (W) this;
     }
@@ -1539,10 +1567,9 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      */
     public W not(W other) {
         validateNotNull(other, "The conditional builder for not operation cannot be empty");
-        if (CollectionUtils.isNotEmpty(other.filters)) {
-            String filterContent = other.filters.size() == 1 ? other.filters.getFirst() : String.join(" AND ", other.filters);
-            String negatedFilter = "not (" + filterContent + ")";
-            filters.add(negatedFilter);
+        Expr inner = other.conjunction();
+        if (inner != null) {
+            addFilter(new Expr.Not(inner));
         }
         return (W) this;
     }
@@ -1583,17 +1610,15 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
     }
 
     /**
-     * 将多个过滤条件使用指定的逻辑运算符组合成单一的字符串表达式。
+     * 将另一个构建器的全部条件（包括文本匹配）组合为一个合取式
      *
-     * @param filters 一个字符串列表，每个字符串表示一个过滤条件
-     * @param operator 逻辑运算符，用于连接过滤条件（例如 "AND" 或 "OR"）
-     * @return 一个字符串，表示使用逻辑运算符组合的完整过滤表达式
+     * @return 合取式；没有任何条件时返回 null
      */
-    private String combineFiltersWithOperator(List<String> filters, String operator) {
-        if (filters.size() == 1) {
-            return filters.getFirst();
-        }
-        return "(" + String.join(" " + operator + " ", filters) + ")";
+    protected Expr conjunction() {
+        List<Expr> all = new ArrayList<>(textMatches.size() + filters.size());
+        all.addAll(textMatches);
+        all.addAll(filters);
+        return all.isEmpty() ? null : Expr.and(all);
     }
 
     /**
@@ -1610,23 +1635,124 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      * 如果没有任何过滤条件，则返回空字符串。
      *
      * @return 一个由 "AND" 分隔的完整过滤条件字符串；如果无过滤条件则返回空字符串
+     * @throws MilvusPlusException 条件互相矛盾、化简后恒假时抛出
      */
     // =============== 构建方法 ===============
     public String build() {
-        Collection<String> allFilters = new ArrayList<>();
-        if (CollectionUtils.isNotEmpty(textMatches)) {
-            allFilters.add(String.join(" && ", textMatches));
+        Expr root = condition();
+        if (rendered == null) {
+            rendered = render(root);
         }
-        if (CollectionUtils.isNotEmpty(filters)) {
-            allFilters.addAll(filters);
+        return rendered;
+    }
+
+    /**
+     * 获取化简后的条件表达式树，文本匹配条件排在最前面
+     *
+     * @return 化简后的表达式，没有任何条件时返回 {@link Expr#TRUE}
+     */
+    public Expr condition() {
+        if (renderedVersion != version) {
+            List<Expr> all = new ArrayList<>(textMatches.size() + filters.size());
+            all.addAll(textMatches);
+            all.addAll(filters);
+            simplified = scoped(ExprSimplifier.simplify(Expr.and(all)));
+            rendered = null;
+            renderedVersion = version;
+        }
+        return simplified;
+    }
+
+    /**
+     * 设置限定条件（如租户条件）。限定条件不进入 filters，不参与 or、not 的组合，
+     * 构建时始终与化简后的全部条件合取
+     */
+    protected void scope(Expr scope) {
+        this.scope = scope;
+        version++;
+    }
+
+    /**
+     * 把限定条件与表达式合取；未设置限定条件时原样返回
+     */
+    protected Expr scoped(Expr expr) {
+        if (scope == null || Expr.FALSE.equals(expr)) {
+            return expr;
         }
-        return allFilters.isEmpty() ? "" : String.join(" && ", allFilters);
+        if (Expr.TRUE.equals(expr)) {
+            return scope;
+        }
+        List<Expr> children = new ArrayList<>();
+        children.add(scope);
+        if (expr instanceof Expr.And and) {
+            children.addAll(and.children());
+        } else {
+            children.add(expr);
+        }
+        return new Expr.And(children);
+    }
+
+    /**
+     * 将任意表达式渲染为过滤字符串，供查询规划后的表达式使用
+     *
+     * @param expr 表达式
+     * @return 过滤字符串；恒真表达式返回空字符串
+     * @throws MilvusPlusException 表达式恒假时抛出，Milvus 不接受常量 false 作为过滤表达式
+     */
+    protected String render(Expr expr) {
+        if (Expr.FALSE.equals(expr)) {
+            throw new MilvusPlusException("Filter conditions are contradictory and can never match any entity, "
+                    + "Milvus does not accept a constant false filter");
+        }
+        return Expr.TRUE.equals(expr) ? "" : render(expr, RenderContext.TOP);
+    }
+
+    /**
+     * 渲染位置，决定合取式和析取式是否需要加括号
+     */
+    private enum RenderContext {
+        TOP, AND, OR, NOT
+    }
+
+    private String render(Expr expr, RenderContext context) {
+        return switch (expr) {
+            case Expr.Compare cmp -> String.format("%s %s %s",
+                    wrapFieldName(cmp.field()), cmp.op().symbol(), convertValue(cmp.value()));
+            case Expr.In in when in.values().size() == 1 && in.values().getFirst() instanceof Param param ->
+                    wrapFieldName(in.field()) + " in " + param;
+            case Expr.In in -> wrapFieldName(in.field()) + " in " + convertValues(in.values());
+            case Expr.Predicate predicate -> predicate.text();
+            case Expr.Const c -> String.valueOf(c.value());
+            case Expr.Not not -> "not (" + render(not.child(), RenderContext.NOT) + ")";
+            case Expr.And and -> {
+                String joined = and.children().stream()
+                        .map(child -> render(child, RenderContext.AND))
+                        .collect(Collectors.joining(" && "));
+                yield context == RenderContext.TOP || context == RenderContext.NOT ? joined : "(" + joined + ")";
+            }
+            case Expr.Or or -> {
+                String joined = or.children().stream()
+                        .map(child -> render(child, RenderContext.OR))
+                        .collect(Collectors.joining(" || "));
+                yield context == RenderContext.NOT ? joined : "(" + joined + ")";
+            }
+        };
     }
 
     // =============== 工具方法 ===============
     private String getFieldName(FieldFunction<T, ?> fieldFunction) {
         validateNotNull(fieldFunction, "Field function cannot be empty");
-        return fieldFunction.getFieldName(fieldFunction);
+        ConversionCache metadata = metadata();
+        return metadata == null ? fieldFunction.getFieldName(fieldFunction) : fieldFunction.getFieldName(fieldFunction, metadata);
+    }
+
+    /**
+     * 解析字段名时使用的实体元数据，由持有构建器注册表元数据的子类提供
+     *
+     * @return 没有元数据时返回 null，按字段注解解析
+     */
+    protected ConversionCache metadata() {
+        return null;
     }
 
     /**
@@ -1639,12 +1765,7 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      *         当值为其他对象类型时返回其toString方法的结果
      */
     protected String convertValue(Object value) {
-        return switch (value) {
-            case null -> "NULL";
-            case String string -> "\"" + escapeValue(string) + "\"";
-            case Collection<?> collection -> convertValues(collection);
-            default -> value.toString();
-        };
+        return literal(value);
     }
 
     /**
@@ -1655,8 +1776,25 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
      * @return 转换后的字符串，包含集合中所有转换后的值，格式为: [value1, value2, ...]
      */
     protected String convertValues(Collection<?> values) {
+        return literals(values);
+    }
+
+    /**
+     * 值的过滤表达式字面量，编译后的查询在客户端代入参数时也使用该格式
+     */
+    static String literal(Object value) {
+        return switch (value) {
+            case null -> "NULL";
+            case String string -> "\"" + escapeValue(string) + "\"";
+            case Param param -> param.toString();
+            case Collection<?> collection -> literals(collection);
+            default -> value.toString();
+        };
+    }
+
+    static String literals(Collection<?> values) {
         return values.stream()
-                .map(this::convertValue)
+                .map(ConditionBuilder::literal)
                 .collect(Collectors.joining(", ", "[", "]"));
     }
 
@@ -1670,17 +1808,14 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
         return fieldName; // 可根据需要添加引号或其他包装
     }
 
-    private String escapeValue(String value) {
+    private static String escapeValue(String value) {
         return value.replace("\"", "\\\"").replace("\\", "\\\\");
     }
 
     private W addFilter(String fieldName, String operator, Object value) {
         validateFieldName(fieldName);
         validateNotNull(value, "The comparison value cannot be empty");
-        String filter = String.format("%s %s %s",
-                wrapFieldName(fieldName), operator, convertValue(value));
-        filters.add(filter);
-        return (W) this;
+        return addFilter(new Expr.Compare(fieldName, Expr.Op.of(operator), value));
     }
 
     private W addFilter(FieldFunction<T, ?> fieldFunction, String operator, Object value) {
@@ -1692,10 +1827,27 @@ public abstract class ConditionBuilder<T, W extends ConditionBuilder<T, W>> {
         validateNotNull(value, functionName + " 操作的值不能为空");
         String valueStr = value instanceof Collection ?
                 convertValues((Collection<?>) value) : convertValue(value);
-        filters.add(String.format("%s(%s, %s)", functionName, wrapFieldName(fieldName), valueStr));
+        return addFilter(new Expr.Predicate(fieldName,
+                String.format("%s(%s, %s)", functionName, wrapFieldName(fieldName), valueStr)));
+    }
+
+    /**
+     * 添加一个过滤条件。子类只能经由此方法追加条件，以保证渲染缓存随之失效
+     *
+     * @param expr 过滤条件表达式
+     * @return 当前构建器
+     */
+    protected W addFilter(Expr expr) {
+        filters.add(expr);
+        version++;
         return (W) this;
     }
 
+    private void addTextMatch(Expr expr) {
+        textMatches.add(expr);
+        version++;
+    }
+
     // =============== 验证方法 ===============
     private void validateFieldName(String fieldName) {
         if (fieldName == null || fieldName.trim().isEmpty()) {
@@ -0,0 +1,135 @@
+package io.github.xermaor.milvus.plus.core.conditions;
+
+import io.github.xermaor.milvus.plus.core.capability.ServerCapabilities;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+
+import java.util.*;
+
+/**
+ * 预先切分的过滤条件模板。
+ * <p>
+ * 渲染好的过滤字符串按参数占位符 {@code {name}} 切分为字面片段，字符串常量中的花括号不视为占位符。
+ * 可以原样发送给服务端并附带参数值，也可以在客户端按片段拼接代入参数值。
+ * 编译后的查询和构建期生成的仓库实现共用该模板。
+ */
+public final class FilterTemplate {
+
+    public static final FilterTemplate EMPTY = new FilterTemplate("", List.of(""), List.of());
+
+    private final String text;
+    private final List<String> literals;
+    private final List<String> params;
+
+    private FilterTemplate(String text, List<String> literals, List<String> params) {
+        this.text = text;
+        this.literals = literals;
+        this.params = params;
+    }
+
+    /**
+     * @param filter 渲染好的过滤字符串
+     * @param names  表达式中出现的参数名
+     */
+    public static FilterTemplate of(String filter, Set<String> names) {
+        if (filter == null || filter.isEmpty()) {
+            return EMPTY;
+        }
+        if (names.isEmpty()) {
+            return new FilterTemplate(filter, List.of(filter), List.of());
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < filter.length(); i++) {
+            char c = filter.charAt(i);
+            if (quoted && c == '\\' && i + 1 < filter.length()) {
+                literal.append(c).append(filter.charAt(++i));
+                continue;
+            }
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && c == '{') {
+                int end = filter.indexOf('}', i);
+                String name = end < 0 ? null : filter.substring(i + 1, end);
+                if (name != null && names.contains(name)) {
+                    literals.add(literal.toString());
+                    params.add(name);
+                    literal.setLength(0);
+                    i = end;
+                    continue;
+                }
+            }
+            literal.append(c);
+        }
+        literals.add(literal.toString());
+        return new FilterTemplate(filter, List.copyOf(literals), List.copyOf(params));
+    }
+
+    /**
+     * @param filter 含占位符的过滤字符串
+     * @param names  参数名
+     */
+    public static FilterTemplate of(String filter, String... names) {
+        return of(filter, new LinkedHashSet<>(Arrays.asList(names)));
+    }
+
+    /**
+     * 按服务端能力决定参数的发送方式：服务端支持过滤模板时原样发送并附带参数值，否则在客户端代入
+     */
+    public boolean serverSide(MilvusClientV2 client) {
+        return hasParams() && ServerCapabilities.of(client).filterTemplate();
+    }
+
+    /**
+     * 含占位符的过滤字符串
+     */
+    public String text() {
+        return text;
+    }
+
+    public boolean isEmpty() {
+        return text.isEmpty();
+    }
+
+    public boolean hasParams() {
+        return !params.isEmpty();
+    }
+
+    /**
+     * 校验参数都已绑定
+     *
+     * @return 本模板用到的参数值
+     * @throws MilvusPlusException 缺少参数值
+     */
+    public Map<String, Object> bind(Map<String, Object> values) {
+        if (params.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Object> bound = new HashMap<>(params.size() * 2);
+        for (String name : params) {
+            if (values == null || !values.containsKey(name) || values.get(name) == null) {
+                throw new MilvusPlusException("No value bound for filter parameter " + name);
+            }
+            bound.put(name, values.get(name));
+        }
+        return bound;
+    }
+
+    /**
+     * 在客户端代入参数值
+     *
+     * @param bound {@link #bind(Map)} 的结果
+     */
+    public String render(Map<String, Object> bound) {
+        if (params.isEmpty()) {
+            return text;
+        }
+        StringBuilder filter = new StringBuilder(text.length() + 16 * params.size());
+        for (int i = 0; i < params.size(); i++) {
+            filter.append(literals.get(i)).append(ConditionBuilder.literal(bound.get(params.get(i))));
+        }
+        return filter.append(literals.getLast()).toString();
+    }
+}
@@ -2,6 +2,15 @@ package io.github.xermaor.milvus.plus.core.conditions;
 
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
 import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.core.purge.PurgeOptions;
+import io.github.xermaor.milvus.plus.core.purge.PurgeProgress;
+import io.github.xermaor.milvus.plus.core.purge.Purger;
+import io.github.xermaor.milvus.plus.core.route.MilvusSession;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.tenant.TenantTarget;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
 import io.github.xermaor.milvus.plus.util.GsonUtil;
 import io.milvus.exception.MilvusException;
@@ -26,6 +35,9 @@ public class LambdaDeleteWrapper<T> extends ConditionBuilder<T, LambdaDeleteWrap
     private String collectionName;
     private String partitionName;
     private MilvusClientV2 client;
+    private String primaryKey;
+    private ConversionCache conversionCache;
+    private boolean tenantFiltered;
 
     /**
      * 设置删除操作所使用的分区名称。
@@ -46,16 +58,22 @@ public class LambdaDeleteWrapper<T> extends ConditionBuilder<T, LambdaDeleteWrap
      * @return 当前 {@code LambdaDeleteWrapper} 实例，支持链式调用。
      */
     public LambdaDeleteWrapper<T> partition(FieldFunction<T, ?> partitionName) {
-        this.partitionName = partitionName.getFieldName(partitionName);
+        this.partitionName = partitionName.getFieldName(partitionName, conversionCache);
         return this;
     }
 
     protected LambdaDeleteWrapper<T> createNewInstance() {
         LambdaDeleteWrapper<T> wrapper = new LambdaDeleteWrapper<>();
         wrapper.entityType = entityType;
+        wrapper.conversionCache = conversionCache;
         return wrapper;
     }
 
+    @Override
+    protected ConversionCache metadata() {
+        return conversionCache;
+    }
+
     /**
      * 设置要删除实体的 ID，可以接受多个 ID 作为参数。该方法会将输入的 ID 数组转换为列表并调用相应的方法。
      *
@@ -94,7 +112,15 @@ public class LambdaDeleteWrapper<T> extends ConditionBuilder<T, LambdaDeleteWrap
             builder.partitionName(this.partitionName);
         }
         if (CollectionUtils.isNotEmpty(this.ids)) {
-            builder.ids(this.ids);
+            if (tenantFiltered && primaryKey == null) {
+                throw new MilvusPlusException("Delete by id of multi-tenant collection " + collectionName + " requires a primary key field");
+            }
+            if (tenantFiltered) {
+                // 按主键删除时服务端忽略过滤条件，改为主键条件与租户条件一起过滤
+                builder.filter(render(Expr.and(List.of(new Expr.In(primaryKey, this.ids), condition()))));
+            } else {
+                builder.ids(this.ids);
+            }
         }
         // Set other parameters as needed
         return builder.build();
@@ -111,10 +137,38 @@ public class LambdaDeleteWrapper<T> extends ConditionBuilder<T, LambdaDeleteWrap
     public MilvusResp<DeleteResp> remove() throws MilvusException {
         DeleteReq deleteReq = buildReq();
         log.info("build remove param-->{}", GsonUtil.toJson(deleteReq));
-        DeleteResp delete = client.delete(deleteReq);
+        DeleteResp delete = ResilientExecutor.execute(client, OperationType.DELETE, collectionName, writer -> writer.delete(deleteReq));
+        // 按写请求实际发往的物理集合记录
+        MilvusSession.recordWrite(deleteReq.getCollectionName());
         return new MilvusResp<>(true, delete);
     }
 
+    /**
+     * 分块清除满足条件（及已设置主键）的数据：先扫描匹配的主键，再按块删除。
+     * 适合一次删除大量数据，避免单次删除请求造成的删除位图膨胀和并发搜索延迟抖动
+     *
+     * @param options 清除配置，为 null 时使用默认配置
+     * @return 最终进度，中断时可用回调中的最后主键继续
+     */
+    public MilvusResp<PurgeProgress> purge(PurgeOptions options) {
+        if (primaryKey == null) {
+            throw new MilvusPlusException("Purge of " + collectionName + " requires a primary key field");
+        }
+        List<Expr> parts = new ArrayList<>();
+        Expr condition = condition();
+        if (!Expr.TRUE.equals(condition)) {
+            parts.add(condition);
+        }
+        if (CollectionUtils.isNotEmpty(this.ids)) {
+            parts.add(new Expr.In(primaryKey, this.ids));
+        }
+        if (options != null && options.resumeAfter() != null) {
+            parts.add(new Expr.Compare(primaryKey, Expr.Op.GT, options.resumeAfter()));
+        }
+        PurgeProgress progress = new Purger(client, collectionName, partitionName, primaryKey, options).run(render(Expr.and(parts)));
+        return new MilvusResp<>(true, progress);
+    }
+
     public MilvusResp<DeleteResp> removeById(Object... ids) throws MilvusException {
         this.id(ids);
         return remove();
@@ -125,6 +179,19 @@ public class LambdaDeleteWrapper<T> extends ConditionBuilder<T, LambdaDeleteWrap
         this.client = client;
         this.collectionName = collectionName;
         this.entityType = entityType;
+        this.conversionCache = conversionCache;
+        this.primaryKey = conversionCache == null ? null : conversionCache.primaryKey();
+    }
+
+    @Override
+    public void tenant(TenantTarget target) {
+        if (target.partitionName() != null) {
+            this.partitionName = target.partitionName();
+        }
+        if (target.field() != null) {
+            scope(new Expr.Compare(target.field(), Expr.Op.EQ, target.tenant()));
+            this.tenantFiltered = true;
+        }
     }
 
     @Override
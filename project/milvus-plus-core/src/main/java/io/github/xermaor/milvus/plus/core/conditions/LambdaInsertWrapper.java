@@ -1,11 +1,24 @@
 package io.github.xermaor.milvus.plus.core.conditions;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import io.github.xermaor.milvus.plus.cache.CollectionToPrimaryCache;
+import com.google.gson.JsonPrimitive;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
-import io.github.xermaor.milvus.plus.cache.MilvusCache;
-import io.github.xermaor.milvus.plus.cache.PropertyCache;
 import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.core.partition.PartitionManager;
+import io.github.xermaor.milvus.plus.core.partition.PartitionRouter;
+import io.github.xermaor.milvus.plus.core.partition.PartitionRouters;
+import io.github.xermaor.milvus.plus.core.rolling.RollingManager;
+import io.github.xermaor.milvus.plus.core.rolling.RollingSpec;
+import io.github.xermaor.milvus.plus.core.route.MilvusSession;
+import io.github.xermaor.milvus.plus.core.shard.ScatterGather;
+import io.github.xermaor.milvus.plus.core.spool.WriteSpool;
+import io.github.xermaor.milvus.plus.core.tenant.TenantContext;
+import io.github.xermaor.milvus.plus.core.tenant.TenantTarget;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.exception.PartialInsertException;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
 import io.github.xermaor.milvus.plus.util.GsonUtil;
 import io.github.xermaor.milvus.plus.util.IdWorkerUtils;
@@ -14,13 +27,19 @@ import io.milvus.v2.client.MilvusClientV2;
 import io.milvus.v2.service.vector.request.InsertReq;
 import io.milvus.v2.service.vector.response.InsertResp;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 构建器内部类，用于构建insert请求
@@ -30,9 +49,16 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
     private final static Logger log = LoggerFactory.getLogger(LambdaInsertWrapper.class);
     private final JsonObject entity = new JsonObject();
     private Class<T> entityType;
+    private ConversionCache conversionCache;
     private String collectionName;
     private String partitionName;
     private MilvusClientV2 client;
+    private PartitionRouter<T> partitionRouter;
+    private int insertParallelism = 4;
+    /**
+     * 按租户字段隔离时的租户，写入的行填充租户字段
+     */
+    private TenantTarget tenant;
 
     /**
      * 向当前对象中添加字段名与值的映射，适用于插入操作的构建。
@@ -42,7 +68,7 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
      * @return 返回当前的 LambdaInsertWrapper 对象，支持链式调用
      */
     public LambdaInsertWrapper<T> put(FieldFunction<T, ?> fieldName, Object value) {
-        GsonUtil.put(this.entity, fieldName.getFieldName(fieldName), value);
+        GsonUtil.put(this.entity, fieldName.getFieldName(fieldName, conversionCache), value);
         return this;
     }
 
@@ -76,7 +102,26 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
      * @return 返回当前的 LambdaInsertWrapper 对象，支持链式调用
      */
     public LambdaInsertWrapper<T> partition(FieldFunction<T, ?> partitionName) {
-        this.partitionName = partitionName.getFieldName(partitionName);
+        this.partitionName = partitionName.getFieldName(partitionName, conversionCache);
+        return this;
+    }
+
+    /**
+     * 设置分区路由，未指定分区名称时按实体计算所属分区，覆盖实体类上声明的路由
+     *
+     * @param partitionRouter 分区路由
+     * @return 返回当前的 LambdaInsertWrapper 对象，支持链式调用
+     */
+    public LambdaInsertWrapper<T> partitionRouter(PartitionRouter<T> partitionRouter) {
+        this.partitionRouter = partitionRouter;
+        return this;
+    }
+
+    /**
+     * 设置按集合、分区分组写入时的最大并发请求数，默认 4
+     */
+    public LambdaInsertWrapper<T> insertParallelism(int insertParallelism) {
+        this.insertParallelism = insertParallelism;
         return this;
     }
 
@@ -86,23 +131,28 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
      */
     public MilvusResp<InsertResp> insert() {
         if (!entity.isJsonNull()) {
-            return insert(Collections.singletonList(entity));
+            return insertRows(Collections.singletonList(entity));
         }
         throw new MilvusException("not insert data", 400);
     }
 
-
-    private MilvusResp<InsertResp> insert(List<JsonObject> jsonObjects) {
+    private MilvusResp<InsertResp> insert(String target, List<JsonObject> jsonObjects, String partitionName) {
         log.info("insert data size--->{}", jsonObjects.size());
         InsertReq.InsertReqBuilder<?, ?> builder = InsertReq.builder()
-                .collectionName(collectionName)
+                .collectionName(target)
                 .data(jsonObjects);
         if (StringUtils.isNotEmpty(partitionName)) {
             builder.partitionName(partitionName);
         }
         InsertReq insertReq = builder
                 .build();
-        InsertResp insert = client.insert(insertReq);
+        // 行已带主键时重试不会产生服务端生成的新主键
+        String pk = conversionCache.primaryKey();
+        boolean idempotent = pk != null && jsonObjects.stream().allMatch(row -> row.has(pk));
+        InsertResp insert = WriteSpool.write(client, target, partitionName, OperationType.INSERT, pk, jsonObjects,
+                () -> ResilientExecutor.execute(client, OperationType.INSERT, target, idempotent, writer -> writer.insert(insertReq)),
+                () -> InsertResp.builder().InsertCnt(jsonObjects.size()).primaryKeys(WriteSpool.primaryKeys(pk, jsonObjects)).build());
+        MilvusSession.recordWrite(target);
         return new MilvusResp<>(true, insert);
     }
 
@@ -119,18 +169,204 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
      * @throws MilvusException 如果插入操作过程中发生错误，将抛出此异常。
      */
     public MilvusResp<InsertResp> insert(Collection<T> collection) throws MilvusException {
-        ConversionCache conversionCache = MilvusCache.milvusCache.get(entityType.getName());
-        PropertyCache propertyCache = conversionCache.propertyCache();
-        String pk = CollectionToPrimaryCache.collectionToPrimary.get(collectionName);
         List<JsonObject> jsonObjects = new ArrayList<>();
+        List<String> partitions = new ArrayList<>();
         for (T item : collection) {
-            JsonObject jsonObject = toJsonObject(propertyCache, item);
-            if (conversionCache.autoID()) {
-                GsonUtil.put(jsonObject, pk, IdWorkerUtils.nextId());
+            jsonObjects.add(encode(item));
+            partitions.add(StringUtils.isNotEmpty(partitionName) ? partitionName : partitionOf(item));
+        }
+        return insertGrouped(jsonObjects, partitions);
+    }
+
+    /**
+     * 按目标集合（滚动集合的周期集合）和分区分组，保持各组内的原始顺序。
+     * 多个分组以 {@link #insertParallelism(int)} 的并发度写入；部分分组失败时抛出
+     * {@link PartialInsertException}，携带已提交行的主键和失败的目标
+     */
+    @SuppressWarnings("unchecked")
+    private MilvusResp<InsertResp> insertGrouped(List<JsonObject> jsonObjects, List<String> partitions) {
+        RollingSpec rolling = RollingManager.spec(client, collectionName);
+        Map<InsertTarget, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < jsonObjects.size(); i++) {
+            if (tenant != null) {
+                GsonUtil.put(jsonObjects.get(i), tenant.field(), tenant.tenant());
+            }
+            String target = rolling == null ? collectionName
+                    : RollingManager.get(client).collectionFor(collectionName, timeOf(rolling, jsonObjects.get(i)));
+            String partition = partitions.get(i) == null ? "" : partitions.get(i);
+            groups.computeIfAbsent(new InsertTarget(target, partition), t -> new ArrayList<>()).add(i);
+        }
+        if (partitionRouter != null) {
+            groups.keySet().stream()
+                    .filter(target -> StringUtils.isNotEmpty(target.partition()))
+                    .forEach(target -> PartitionManager.ensure(client, target.collection(), target.partition()));
+        }
+        if (groups.size() == 1) {
+            InsertTarget target = groups.keySet().iterator().next();
+            return insert(target.collection(), jsonObjects, target.partition());
+        }
+        // 分组以有限并发写入，工作线程继承调用线程的会话和租户
+        MilvusSession session = MilvusSession.current();
+        Map<String, Long> token = session == null ? null : session.token();
+        List<InsertTarget> targets = new ArrayList<>(groups.keySet());
+        MilvusResp<InsertResp>[] results = new MilvusResp[targets.size()];
+        RuntimeException[] errors = new RuntimeException[targets.size()];
+        int workers = Math.min(Math.max(1, insertParallelism), targets.size());
+        List<Map<String, Long>> tokens = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger next = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture[workers];
+        for (int w = 0; w < workers; w++) {
+            futures[w] = CompletableFuture.runAsync(TenantContext.propagate(() -> {
+                try (MilvusSession worker = token == null ? null : MilvusSession.open(token)) {
+                    int i;
+                    while ((i = next.getAndIncrement()) < targets.size()) {
+                        InsertTarget target = targets.get(i);
+                        List<JsonObject> rows = groups.get(target).stream().map(jsonObjects::get).toList();
+                        try {
+                            results[i] = insert(target.collection(), rows, target.partition());
+                        } catch (RuntimeException e) {
+                            errors[i] = e;
+                        }
+                    }
+                    if (worker != null) {
+                        tokens.add(worker.token());
+                    }
+                }
+            }), ScatterGather.defaultExecutor());
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new MilvusPlusException(e.getCause());
+        }
+        if (session != null) {
+            tokens.forEach(t -> t.forEach(session::record));
+        }
+        Object[] keys = new Object[jsonObjects.size()];
+        long count = 0L;
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        for (int t = 0; t < targets.size(); t++) {
+            if (errors[t] != null) {
+                log.error("insert into {} failed: {}", targets.get(t), errors[t].getMessage());
+                failures.put(targets.get(t).toString(), errors[t]);
+                continue;
+            }
+            InsertResp resp = results[t].data();
+            List<Integer> indexes = groups.get(targets.get(t));
+            List<Object> primaryKeys = resp.getPrimaryKeys() == null ? List.of() : resp.getPrimaryKeys();
+            for (int i = 0; i < indexes.size() && i < primaryKeys.size(); i++) {
+                keys[indexes.get(i)] = primaryKeys.get(i);
+            }
+            count += resp.getInsertCnt();
+        }
+        if (failures.size() == targets.size()) {
+            // 全部失败时没有已提交的数据，原样抛出第一个异常以保留重试判断
+            Arrays.stream(errors).skip(1).forEach(errors[0]::addSuppressed);
+            throw errors[0];
+        }
+        if (!failures.isEmpty()) {
+            throw new PartialInsertException(Arrays.asList(keys), failures);
+        }
+        return new MilvusResp<>(true, InsertResp.builder().InsertCnt(count).primaryKeys(Arrays.asList(keys)).build());
+    }
+
+    /**
+     * 行的写入时间，未设置时间字段或行中没有该字段时取当前时间。
+     * 字段值可以是毫秒时间戳（{@link Date} 按时间戳序列化），也可以是 ISO-8601 字符串，不带时区的按 UTC 解释
+     */
+    static long timeOf(RollingSpec rolling, JsonObject row) {
+        if (StringUtils.isEmpty(rolling.timeField())) {
+            return System.currentTimeMillis();
+        }
+        JsonElement time = row.get(rolling.timeField());
+        if (time == null || time.isJsonNull()) {
+            return System.currentTimeMillis();
+        }
+        if (time.isJsonPrimitive()) {
+            JsonPrimitive value = time.getAsJsonPrimitive();
+            if (value.isNumber()) {
+                return value.getAsLong();
             }
-            jsonObjects.add(jsonObject);
+            if (value.isString()) {
+                Long parsed = parseTime(value.getAsString().trim());
+                if (parsed != null) {
+                    return parsed;
+                }
+            }
+        }
+        throw new MilvusPlusException("Time field " + rolling.timeField() + " of rolling collection " + rolling.baseName()
+                + " must hold epoch millis or an ISO-8601 date-time, got " + time);
+    }
+
+    private static Long parseTime(String text) {
+        if (NumberUtils.isDigits(text)) {
+            return Long.parseLong(text);
+        }
+        try {
+            return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+            // 尝试不带时区的格式
+        }
+        try {
+            return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+            // 尝试日期格式
+        }
+        try {
+            return LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private record InsertTarget(String collection, String partition) {
+        @Override
+        public String toString() {
+            return partition.isEmpty() ? collection : collection + "." + partition;
         }
-        return insert(jsonObjects);
+    }
+
+    /**
+     * 把实体转换为待插入的行，需要时生成主键
+     *
+     * @param item 实体对象
+     * @return 行数据
+     */
+    public JsonObject encode(T item) {
+        JsonObject jsonObject = toJsonObject(conversionCache.propertyCache(), item);
+        if (conversionCache.autoID()) {
+            GsonUtil.put(jsonObject, conversionCache.primaryKey(), IdWorkerUtils.nextId());
+        }
+        return jsonObject;
+    }
+
+    /**
+     * 插入已由 {@link #encode(Object)} 转换的行
+     *
+     * @param rows 行数据
+     * @return 插入结果
+     */
+    public MilvusResp<InsertResp> insertRows(List<JsonObject> rows) throws MilvusException {
+        return insertGrouped(rows, Collections.nCopies(rows.size(), partitionName));
+    }
+
+    /**
+     * 按分区路由计算实体所属的分区
+     *
+     * @return 没有分区路由或路由结果为空时返回 null
+     */
+    public String partitionOf(T item) {
+        return partitionRouter == null ? null : partitionRouter.partitionOf(item);
+    }
+
+    /**
+     * 主键字段名
+     */
+    public String primaryKey() {
+        return conversionCache.primaryKey();
     }
 
     @Override
@@ -138,6 +374,20 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
         this.client = client;
         this.collectionName = collectionName;
         this.entityType = entityType;
+        this.conversionCache = conversionCache;
+        if (entityType != null) {
+            this.partitionRouter = PartitionRouters.of(entityType, conversionCache.propertyCache());
+        }
+    }
+
+    @Override
+    public void tenant(TenantTarget target) {
+        if (target.partitionName() != null) {
+            this.partitionName = target.partitionName();
+        }
+        if (target.field() != null) {
+            this.tenant = target;
+        }
     }
 
     @Override
@@ -149,9 +399,15 @@ public class LambdaInsertWrapper<T> extends ConditionBuilder<T, LambdaInsertWrap
     protected LambdaInsertWrapper<T> createNewInstance() {
         LambdaInsertWrapper<T> wrapper = new LambdaInsertWrapper<>();
         wrapper.setEntityType(entityType);
+        wrapper.conversionCache = conversionCache;
         return wrapper;
     }
 
+    @Override
+    protected ConversionCache metadata() {
+        return conversionCache;
+    }
+
     public void setEntityType(Class<T> entityType) {
         this.entityType = entityType;
     }
@@ -3,28 +3,59 @@ package io.github.xermaor.milvus.plus.core.conditions;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
 import io.github.xermaor.milvus.plus.converter.SearchRespConverter;
 import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.core.coalesce.SearchCoalescer;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Param;
+import io.github.xermaor.milvus.plus.core.load.LoadManager;
+import io.github.xermaor.milvus.plus.core.plan.PlanContext;
+import io.github.xermaor.milvus.plus.core.plan.QueryPlan;
+import io.github.xermaor.milvus.plus.core.plan.QueryPlanner;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.rolling.RollingManager;
+import io.github.xermaor.milvus.plus.core.rolling.RollingSpec;
+import io.github.xermaor.milvus.plus.core.route.MilvusSession;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.core.processor.*;
+import io.github.xermaor.milvus.plus.core.shard.PartialResultPolicy;
+import io.github.xermaor.milvus.plus.core.shard.ScatterGather;
+import io.github.xermaor.milvus.plus.core.shard.SearchShard;
+import io.github.xermaor.milvus.plus.core.shard.ShardResultMerger;
+import io.github.xermaor.milvus.plus.core.tenant.TenantContext;
+import io.github.xermaor.milvus.plus.core.tenant.TenantTarget;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
 import io.github.xermaor.milvus.plus.util.GsonUtil;
+import io.github.xermaor.milvus.plus.util.LongIndexMap;
+import io.github.xermaor.milvus.plus.util.SingleFlight;
 import io.milvus.exception.MilvusException;
 import io.milvus.v2.client.MilvusClientV2;
 import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.common.IndexParam;
 import io.milvus.v2.service.vector.request.*;
 import io.milvus.v2.service.vector.request.data.BaseVector;
 import io.milvus.v2.service.vector.request.data.EmbeddedText;
 import io.milvus.v2.service.vector.request.data.FloatVec;
 import io.milvus.v2.service.vector.request.ranker.BaseRanker;
-import io.milvus.v2.service.vector.response.GetResp;
 import io.milvus.v2.service.vector.response.QueryResp;
 import io.milvus.v2.service.vector.response.SearchResp;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -33,14 +64,36 @@ import java.util.stream.Collectors;
 public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrapper<T>> implements Wrapper<LambdaQueryWrapper<T>, T> {
 
     private final static Logger log = LoggerFactory.getLogger(LambdaQueryWrapper.class);
+    private static final SingleFlight<FlightKey, MilvusResp<?>> SINGLE_FLIGHT = new SingleFlight<>();
+    private static final String COUNT = "count(*)";
     private final List<String> partitionNames = new ArrayList<>();
     private final List<BaseVector> vectors = new ArrayList<>();
     private final Map<String, Object> searchParams = new HashMap<>(16);
     private final List<LambdaQueryWrapper<T>> hybridWrapper = new ArrayList<>();
+    private final ResultPostProcessorChain<T> postProcessors = new ResultPostProcessorChain<>();
+    private final List<SearchShard> shards = new ArrayList<>();
+    private Duration shardTimeout;
+    private PartialResultPolicy partialResultPolicy = PartialResultPolicy.FAIL;
+    private Executor shardExecutor;
+    private boolean coalesce;
+    private SearchCoalescer coalescer;
+    private boolean singleFlight;
+    private int getChunkSize = 1000;
+    private int getParallelism = 4;
+    private boolean preserveOrder;
     private ConversionCache conversionCache;
+    private PlanContext planContext;
     private List<String> outputFields;
     private Class<T> entityType;
     private String collectionName;
+    /**
+     * 按主键获取时追加的租户过滤条件
+     */
+    private String tenantFilter;
+    /**
+     * 是否已按当前租户改写，改写后的构建器不能编译
+     */
+    private boolean tenantScoped;
     private String collectionAlias;
     private String annsField;
     private int topK;
@@ -98,7 +151,7 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
         if (CollectionUtils.isEmpty(partitionName)) {
             throw new MilvusPlusException("partition collection is empty");
         }
-        partitionName.forEach(f -> this.partitionNames.add(f.getFieldName(f)));
+        partitionName.forEach(f -> this.partitionNames.add(f.getFieldName(f, conversionCache)));
         return this;
     }
 
@@ -131,16 +184,22 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
     protected LambdaQueryWrapper<T> createNewInstance() {
         LambdaQueryWrapper<T> wrapper = new LambdaQueryWrapper<>();
         wrapper.setEntityType(entityType);
+        wrapper.conversionCache = conversionCache;
         return wrapper;
     }
 
+    @Override
+    protected ConversionCache metadata() {
+        return conversionCache;
+    }
+
     public LambdaQueryWrapper<T> annsField(String annsField) {
         this.annsField = annsField;
         return this;
     }
 
     public LambdaQueryWrapper<T> annsField(FieldFunction<T, ?> annsField) {
-        this.annsField = annsField.getFieldName(annsField);
+        this.annsField = annsField.getFieldName(annsField, conversionCache);
         return this;
     }
 
@@ -163,14 +222,14 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
     }
 
     public LambdaQueryWrapper<T> vector(FieldFunction<T, ?> annsField, List<Float> vector) {
-        this.annsField = annsField.getFieldName(annsField);
+        this.annsField = annsField.getFieldName(annsField, conversionCache);
         BaseVector baseVector = new FloatVec(vector);
         vectors.add(baseVector);
         return this;
     }
 
     public LambdaQueryWrapper<T> textVector(FieldFunction<T, ?> annsField, String vector) {
-        this.annsField = annsField.getFieldName(annsField) + "_sparse";
+        this.annsField = annsField.getFieldName(annsField, conversionCache) + "_sparse";
         BaseVector baseVector = new EmbeddedText(vector);
         vectors.add(baseVector);
         return this;
@@ -195,7 +254,7 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
     }
 
     public LambdaQueryWrapper<T> vector(FieldFunction<T, ?> annsField, BaseVector vector) {
-        this.annsField = annsField.getFieldName(annsField);
+        this.annsField = annsField.getFieldName(annsField, conversionCache);
         vectors.add(vector);
         return this;
     }
@@ -224,7 +283,7 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
     }
 
     public LambdaQueryWrapper<T> groupBy(FieldFunction<T, ?> fieldName) {
-        this.groupByFieldName = fieldName.getFieldName(fieldName);
+        this.groupByFieldName = fieldName.getFieldName(fieldName, conversionCache);
         return this;
     }
 
@@ -258,55 +317,367 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
         return this;
     }
 
+    /**
+     * 添加搜索结果后置处理器，按添加顺序在结果转换后执行，仅对向量搜索和混合搜索生效。
+     * 会根据处理器自动超量拉取，并在处理完成后截断到 topK
+     *
+     * @param processor 后置处理器
+     * @return this
+     */
+    public LambdaQueryWrapper<T> postProcess(ResultPostProcessor<T> processor) {
+        this.postProcessors.add(processor);
+        return this;
+    }
+
+    /**
+     * 按字段去重，每个值只保留得分最优的一条
+     */
+    public LambdaQueryWrapper<T> distinct(FieldFunction<T, ?> field) {
+        return postProcess(new FieldDedupPostProcessor<>(field));
+    }
+
+    /**
+     * 丢弃得分劣于阈值的结果，阈值方向跟随度量类型
+     */
+    public LambdaQueryWrapper<T> scoreThreshold(float threshold) {
+        return postProcess(new ScoreThresholdPostProcessor<>(threshold));
+    }
+
+    /**
+     * MMR 多样性重排，向量字段需要包含在 outputFields 中
+     *
+     * @param vectorField 向量字段
+     * @param lambda      相关性权重，取值 [0, 1]
+     */
+    public LambdaQueryWrapper<T> mmr(FieldFunction<T, ? extends List<Float>> vectorField, double lambda) {
+        return postProcess(new MmrPostProcessor<>(vectorField, lambda));
+    }
+
+    /**
+     * 使用外部打分模型重排序
+     *
+     * @param scorer 批量打分函数，得分越大越相关
+     */
+    public LambdaQueryWrapper<T> rerank(Function<List<T>, float[]> scorer) {
+        return postProcess(new RerankPostProcessor<>(scorer));
+    }
+
+    /**
+     * 添加搜索分片，执行时同一查询会并行发送到所有分片并合并结果
+     *
+     * @param collectionName 集合名或别名
+     * @param partitionNames 分区名，为空时使用 {@link #partition(String...)} 指定的分区
+     * @return this
+     */
+    public LambdaQueryWrapper<T> shard(String collectionName, String... partitionNames) {
+        this.shards.add(SearchShard.of(collectionName, partitionNames));
+        return this;
+    }
+
+    /**
+     * 添加搜索分片，分片可指定其他数据源的客户端，例如 {@code MilvusDatasources#shard}
+     */
+    public LambdaQueryWrapper<T> shard(SearchShard shard) {
+        this.shards.add(shard);
+        return this;
+    }
+
+    /**
+     * 添加多个集合（或别名）作为搜索分片
+     */
+    public LambdaQueryWrapper<T> shards(Collection<String> collectionNames) {
+        collectionNames.forEach(this::shard);
+        return this;
+    }
+
+    /**
+     * 设置单个分片的超时时间
+     */
+    public LambdaQueryWrapper<T> shardTimeout(Duration shardTimeout) {
+        this.shardTimeout = shardTimeout;
+        return this;
+    }
+
+    /**
+     * 设置分片失败或超时时的处理策略，默认 {@link PartialResultPolicy#FAIL}
+     */
+    public LambdaQueryWrapper<T> partialResultPolicy(PartialResultPolicy partialResultPolicy) {
+        this.partialResultPolicy = partialResultPolicy;
+        return this;
+    }
+
+    /**
+     * 设置分片请求的执行器，默认每个分片使用一个虚拟线程
+     */
+    public LambdaQueryWrapper<T> shardExecutor(Executor shardExecutor) {
+        this.shardExecutor = shardExecutor;
+        return this;
+    }
+
+    /**
+     * 开启搜索合并，与并发到达的同参数搜索合并为一次多向量请求，使用客户端共享的合并器
+     */
+    public LambdaQueryWrapper<T> coalesce() {
+        this.coalesce = true;
+        return this;
+    }
+
+    /**
+     * 使用指定的合并器开启搜索合并
+     */
+    public LambdaQueryWrapper<T> coalesce(SearchCoalescer coalescer) {
+        this.coalesce = true;
+        this.coalescer = coalescer;
+        return this;
+    }
+
+    /**
+     * 设置按主键批量获取时每个请求包含的主键数，默认 1000
+     */
+    public LambdaQueryWrapper<T> getChunkSize(int getChunkSize) {
+        this.getChunkSize = getChunkSize;
+        return this;
+    }
+
+    /**
+     * 设置按主键批量获取时的最大并发请求数，默认 4
+     */
+    public LambdaQueryWrapper<T> getParallelism(int getParallelism) {
+        this.getParallelism = getParallelism;
+        return this;
+    }
+
+    /**
+     * 按主键获取时是否按输入主键顺序返回结果
+     */
+    public LambdaQueryWrapper<T> preserveOrder(boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+        return this;
+    }
+
+    /**
+     * 开启进行中请求去重，并发的相同 getById / query 请求共享一次 RPC 和同一个转换结果，
+     * 共享的实体对象不应被调用方修改
+     */
+    public LambdaQueryWrapper<T> singleFlight() {
+        this.singleFlight = true;
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> MilvusResp<R> flight(FlightKey key, Supplier<MilvusResp<R>> call) {
+        if (!singleFlight) {
+            return call.get();
+        }
+        return (MilvusResp<R>) SINGLE_FLIGHT.execute(key, call::get);
+    }
+
+    private FlightKey flightKey(SearchReq req) {
+        List<Object> data = req.getData().stream().map(BaseVector::getData).collect(Collectors.toList());
+        return new FlightKey(client, entityType, req.getCollectionName(), req.getPartitionNames(), req.getFilter(),
+                fieldSet(req.getOutputFields()), req.getConsistencyLevel(),
+                Arrays.asList(req.getAnnsField(), req.getTopK(), req.getLimit(), req.getOffset(), req.getSearchParams(),
+                        req.getRoundDecimal(), req.getGroupByFieldName(), req.getGroupSize(), req.getStrictGroupSize(),
+                        req.isIgnoreGrowing(), req.getGuaranteeTimestamp(), data));
+    }
+
+    private FlightKey flightKey(QueryReq req) {
+        return new FlightKey(client, entityType, req.getCollectionName(), req.getPartitionNames(), req.getFilter(),
+                fieldSet(req.getOutputFields()), req.getConsistencyLevel(),
+                Arrays.asList(req.getLimit(), req.getOffset(), req.getFilterTemplateValues(),
+                        MilvusSession.writeTimestamp(sessionKey(req.getCollectionName()))));
+    }
+
+    private static Set<String> fieldSet(List<String> fields) {
+        return fields == null ? Set.of() : new TreeSet<>(fields);
+    }
+
+    /**
+     * 进行中请求去重键，输出字段按集合比较，与顺序无关。
+     * 键中包含保证时间戳或会话写入时间戳，刚写入的会话不会合并到写入之前发起的读请求上
+     */
+    private record FlightKey(MilvusClientV2 client, Class<?> entityType, String collectionName,
+                             List<String> partitionNames, Object predicate, Set<String> outputFields,
+                             ConsistencyLevel consistencyLevel, List<Object> extra) {
+    }
+
+    private SearchResp doSearch(SearchReq searchReq) {
+        return doSearch(client, searchReq);
+    }
+
+    private SearchResp doSearch(MilvusClientV2 client, SearchReq searchReq) {
+        return executeSearch(client, searchReq, coalesce, client == this.client ? coalescer : null);
+    }
+
+    /**
+     * 执行搜索：按需加载后经容错执行器发送，启用合并时交给合并器
+     *
+     * @param coalescer 指定的合并器，为 null 时使用读端点共享的合并器
+     */
+    public static SearchResp executeSearch(MilvusClientV2 client, SearchReq searchReq, boolean coalesce, SearchCoalescer coalescer) {
+        try (LoadManager.Lease ignored = acquireLoaded(client, searchReq.getCollectionName(), searchReq.getPartitionNames())) {
+            if (!coalesce) {
+                return ResilientExecutor.execute(client, OperationType.SEARCH, searchReq.getCollectionName(),
+                        reader -> reader.search(searchReq));
+            }
+            return ResilientExecutor.execute(client, OperationType.SEARCH, searchReq.getCollectionName(), reader -> {
+                SearchCoalescer target = coalescer != null ? coalescer : SearchCoalescer.of(reader);
+                return target.search(searchReq);
+            });
+        }
+    }
+
+    private QueryResp doQuery(QueryReq queryReq) {
+        return doQuery(client, queryReq);
+    }
+
+    private QueryResp doQuery(MilvusClientV2 client, QueryReq queryReq) {
+        return executeQuery(client, queryReq);
+    }
+
+    /**
+     * 执行查询：按需加载后经容错执行器发送
+     */
+    public static QueryResp executeQuery(MilvusClientV2 client, QueryReq queryReq) {
+        try (LoadManager.Lease ignored = acquireLoaded(client, queryReq.getCollectionName(), queryReq.getPartitionNames())) {
+            return ResilientExecutor.execute(client, OperationType.QUERY, queryReq.getCollectionName(),
+                    reader -> reader.query(queryReq));
+        }
+    }
+
+    private SearchResp doHybridSearch(HybridSearchReq hybridSearchReq) {
+        return doHybridSearch(client, hybridSearchReq);
+    }
+
+    private SearchResp doHybridSearch(MilvusClientV2 client, HybridSearchReq hybridSearchReq) {
+        try (LoadManager.Lease ignored = acquireLoaded(client, hybridSearchReq.getCollectionName(), hybridSearchReq.getPartitionNames())) {
+            return ResilientExecutor.execute(client, OperationType.SEARCH, hybridSearchReq.getCollectionName(),
+                    reader -> reader.hybridSearch(hybridSearchReq));
+        }
+    }
+
+    /**
+     * 启用了加载管理时，按需加载本次请求用到的集合或分区，并在请求期间持有租约
+     *
+     * @return 未启用加载管理时返回 null
+     */
+    private static LoadManager.Lease acquireLoaded(MilvusClientV2 client, String target, List<String> partitionNames) {
+        LoadManager loadManager = LoadManager.get(client);
+        return loadManager == null ? null : loadManager.acquire(target, partitionNames);
+    }
+
+    /**
+     * 读请求的一致性级别：未显式指定且当前会话写过请求的集合时使用 SESSION
+     *
+     * @param target 请求发往的集合或别名
+     */
+    private ConsistencyLevel readConsistency(String target) {
+        return readConsistency(sessionKey(target), consistencyLevel);
+    }
+
+    /**
+     * @param consistencyLevel 显式指定的一致性级别，可以为 null
+     */
+    public static ConsistencyLevel readConsistency(String collectionName, ConsistencyLevel consistencyLevel) {
+        if (consistencyLevel == null && MilvusSession.writeTimestamp(collectionName) > 0L) {
+            return ConsistencyLevel.SESSION;
+        }
+        return consistencyLevel;
+    }
+
+    /**
+     * 读请求的保证时间戳：显式指定优先，其次为当前会话的写入时间戳，最后为本进程的最后写入时间戳
+     */
+    private long readTimestamp(String target) {
+        return readTimestamp(sessionKey(target), consistencyLevel, guaranteeTimestamp);
+    }
+
+    /**
+     * 会话写入时间戳按写请求实际发往的物理集合记录，经别名读取时换回别名指向的集合，
+     * 分片和滚动集合的请求各自使用本分片集合的时间戳
+     */
+    private String sessionKey(String target) {
+        return StringUtils.isNotBlank(collectionAlias) && collectionAlias.equals(target) ? collectionName : target;
+    }
+
+    /**
+     * @param guaranteeTimestamp 显式指定的保证时间戳，未指定时为 0
+     */
+    public static long readTimestamp(String collectionName, ConsistencyLevel consistencyLevel, long guaranteeTimestamp) {
+        if (guaranteeTimestamp > 0L) {
+            return guaranteeTimestamp;
+        }
+        long sessionTimestamp = MilvusSession.writeTimestamp(collectionName);
+        if (sessionTimestamp > 0L) {
+            return sessionTimestamp;
+        }
+        return ReadWriteRouter.readTimestamp(consistencyLevel, collectionName);
+    }
+
+    private String target() {
+        return StringUtils.isNotBlank(collectionAlias) ? collectionAlias : collectionName;
+    }
+
+    private MilvusClientV2 clientOf(SearchShard shard) {
+        return shard.client() != null ? shard.client() : client;
+    }
+
+    private List<String> partitionsOf(SearchShard shard) {
+        return shard.partitionNames().isEmpty() ? partitionNames : shard.partitionNames();
+    }
+
     /**
      * 构建完整的搜索请求
      * @return 搜索请求对象
      */
     private SearchReq buildSearch() {
+        return buildSearch(target(), partitionNames, false);
+    }
+
+    /**
+     * @param sharded 是否为分片请求：分片请求不下发 offset，改为多取 offset 条，由合并后统一跳过
+     */
+    private SearchReq buildSearch(String target, List<String> partitionNames, boolean sharded) {
         SearchReq.SearchReqBuilder<?, ?> builder = SearchReq.builder()
-                .collectionName(StringUtils.isNotBlank(collectionAlias) ? collectionAlias : collectionName);
+                .collectionName(target);
         if (StringUtils.isNotBlank(annsField)) {
             builder.annsField(annsField);
         }
-        if (consistencyLevel != null) {
-            builder.consistencyLevel(consistencyLevel);
+        ConsistencyLevel readConsistency = readConsistency(target);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
         }
         if (!vectors.isEmpty()) {
             builder.data(vectors);
         }
-        String filterStr = build();
-        if (filterStr != null && !filterStr.isEmpty()) {
+        QueryPlan plan = plan(partitionNames);
+        String filterStr = render(plan.filter());
+        if (!filterStr.isEmpty()) {
             builder.filter(filterStr);
         }
+        long window = sharded ? offset : 0L;
         if (topK > 0) {
-            builder.topK(topK);
+            builder.topK((int) (postProcessors.fetchSize(topK) + window));
         }
         if (limit > 0) {
-            builder.limit(limit);
+            builder.limit(postProcessors.fetchSize(limit) + window);
         }
-        if (offset > 0) {
+        if (offset > 0 && !sharded) {
             builder.offset(offset);
         }
-        if (CollectionUtils.isNotEmpty(partitionNames)) {
-            builder.partitionNames(partitionNames);
-        }
-        Collection<String> collectionFields = conversionCache.propertyCache().functionToPropertyMap.values();
-        if (CollectionUtils.isNotEmpty(outputFields)) {
-            if (outputFields.retainAll(collectionFields)) {
-                log.warn("Fields not included in this collection in outputFields have been removed.");
-            }
-            builder.outputFields(outputFields);
-        } else {
-            builder.outputFields(new ArrayList<>(collectionFields));
+        if (CollectionUtils.isNotEmpty(plan.partitionNames())) {
+            builder.partitionNames(plan.partitionNames());
         }
+        builder.outputFields(resolveOutputFields());
         if (!searchParams.isEmpty()) {
             builder.searchParams(searchParams);
         }
         if (roundDecimal != -1) {
             builder.roundDecimal(roundDecimal);
         }
-        if (guaranteeTimestamp > 0L) {
-            builder.guaranteeTimestamp(guaranteeTimestamp);
+        long readTimestamp = readTimestamp(target);
+        if (readTimestamp > 0L) {
+            builder.guaranteeTimestamp(readTimestamp);
         }
         if (gracefulTime > 0L) {
             builder.gracefulTime(gracefulTime);
@@ -327,40 +698,83 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
         return builder.build();
     }
 
+    /**
+     * 对当前条件做查询规划：推导分区并调整条件顺序
+     *
+     * @param partitionNames 显式指定的分区
+     * @return 规划结果
+     */
+    private QueryPlan plan(List<String> partitionNames) {
+        if (planContext == null) {
+            planContext = conversionCache == null ? PlanContext.EMPTY : PlanContext.of(entityType,
+                    conversionCache.milvusEntity(), conversionCache.primaryKey());
+        }
+        QueryPlan plan = QueryPlanner.plan(condition(), planContext, partitionNames);
+        if (plan.pruned()) {
+            log.debug("Pruned partitions of {} to {}", collectionName, plan.partitionNames());
+        }
+        return plan;
+    }
+
     private QueryReq buildQuery() {
+        return buildQuery(target(), partitionNames, false);
+    }
+
+    /**
+     * @param sharded 是否为分片请求：分片请求不下发 offset，改为多取 offset 条，由拼接后统一跳过
+     */
+    private QueryReq buildQuery(String target, List<String> partitionNames, boolean sharded) {
         QueryReq.QueryReqBuilder<?, ?> builder = QueryReq.builder()
-                .collectionName(StringUtils.isNotBlank(collectionAlias) ? collectionAlias : collectionName);
-        String filterStr = build();
+                .collectionName(target);
+        QueryPlan plan = plan(partitionNames);
+        String filterStr = render(plan.filter());
         if (StringUtils.isNotBlank(filterStr)) {
             builder.filter(filterStr);
         }
+        long window = sharded ? offset : 0L;
         if (topK > 0) {
-            builder.limit(topK);
+            builder.limit(topK + window);
         }
         if (limit > 0L) {
-            builder.limit(limit);
+            builder.limit(limit + window);
         }
-        if (offset > 0) {
+        if (offset > 0 && !sharded) {
             builder.offset(offset);
         }
-        if (consistencyLevel != null) {
-            builder.consistencyLevel(consistencyLevel);
+        ConsistencyLevel readConsistency = readConsistency(target);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
         }
-        if (CollectionUtils.isNotEmpty(partitionNames)) {
-            builder.partitionNames(partitionNames);
+        if (CollectionUtils.isNotEmpty(plan.partitionNames())) {
+            builder.partitionNames(plan.partitionNames());
         }
+        builder.outputFields(resolveOutputFields());
+        return builder.build();
+    }
+
+    /**
+     * 实际请求的输出字段：未指定时为全部字段，指定时去掉集合中不存在的字段。
+     * 返回新列表，不修改已指定的输出字段
+     */
+    private List<String> resolveOutputFields() {
         Collection<String> collectionFields = conversionCache.propertyCache().functionToPropertyMap.values();
-        if (CollectionUtils.isNotEmpty(outputFields)) {
-            if (outputFields.retainAll(collectionFields)) {
-                log.warn("Fields not included in this collection in outputFields have been removed.");
-            }
-        } else {
-            builder.outputFields(new ArrayList<>(collectionFields));
+        if (CollectionUtils.isEmpty(outputFields)) {
+            return new ArrayList<>(collectionFields);
         }
-        return builder.build();
+        List<String> fields = outputFields.stream()
+                .filter(field -> COUNT.equals(field) || collectionFields.contains(field))
+                .collect(Collectors.toList());
+        if (fields.size() < outputFields.size()) {
+            log.warn("Fields not included in this collection in outputFields have been removed.");
+        }
+        return fields;
     }
 
     private HybridSearchReq buildHybrid() {
+        return buildHybrid(collectionName, partitionNames);
+    }
+
+    private HybridSearchReq buildHybrid(String target, List<String> partitionNames) {
         //混合查询
         List<AnnSearchReq> searchRequests = hybridWrapper.stream()
                 .filter(wrapper -> StringUtils.isNotEmpty(wrapper.annsField) && !wrapper.vectors.isEmpty())
@@ -369,9 +783,10 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
                             .vectorFieldName(wrapper.annsField)
                             .vectors(wrapper.vectors);
                     if (wrapper.topK > 0) {
-                        annBuilder.topK(wrapper.topK);
+                        annBuilder.topK((int) Math.max(wrapper.topK, postProcessors.fetchSize(topK)));
                     }
-                    String expr = wrapper.build();
+                    // 子请求的条件同样受本构建器的限定条件（租户）约束
+                    String expr = render(scoped(wrapper.condition()));
                     if (StringUtils.isNotEmpty(expr)) {
                         annBuilder.expr(expr);
                     }
@@ -383,26 +798,19 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
                 })
                 .collect(Collectors.toList());
         HybridSearchReq.HybridSearchReqBuilder<?, ?> reqBuilder = HybridSearchReq.builder()
-                .collectionName(collectionName)
+                .collectionName(target)
                 .searchRequests(searchRequests);
         if (ranker != null) {
             reqBuilder.ranker(ranker);
         }
         if (topK > 0) {
-            reqBuilder.topK(topK);
+            reqBuilder.topK((int) postProcessors.fetchSize(topK));
         }
-        if (consistencyLevel != null) {
-            reqBuilder.consistencyLevel(consistencyLevel);
-        }
-        Collection<String> collectionFields = conversionCache.propertyCache().functionToPropertyMap.values();
-        if (CollectionUtils.isNotEmpty(outputFields)) {
-            if (outputFields.retainAll(collectionFields)) {
-                log.warn("Fields not included in this collection in outputFields have been removed.");
-            }
-            reqBuilder.outFields(outputFields);
-        } else {
-            reqBuilder.outFields(new ArrayList<>(collectionFields));
+        ConsistencyLevel readConsistency = readConsistency(target);
+        if (readConsistency != null) {
+            reqBuilder.consistencyLevel(readConsistency);
         }
+        reqBuilder.outFields(resolveOutputFields());
         if (CollectionUtils.isNotEmpty(partitionNames)) {
             reqBuilder.partitionNames(partitionNames);
         }
@@ -418,30 +826,201 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
      * @return 搜索响应对象
      */
     public MilvusResp<List<MilvusResult<T>>> query() throws MilvusException {
+        if (!shards.isEmpty()) {
+            return scatterGather(shards);
+        }
+        List<SearchShard> rollingShards = rollingShards();
+        if (rollingShards != null) {
+            return rollingShards.isEmpty() ? new MilvusResp<>(true, new ArrayList<>()) : scatterGather(rollingShards);
+        }
         if (CollectionUtils.isNotEmpty(hybridWrapper)) {
             HybridSearchReq hybridSearchReq = buildHybrid();
             log.info("Build HybridSearch Param--> {}", GsonUtil.toJson(hybridSearchReq));
-            SearchResp searchResp = client.hybridSearch(hybridSearchReq);
-            return SearchRespConverter.convertSearchRespToMilvusResp(searchResp, entityType);
+            SearchResp searchResp = doHybridSearch(hybridSearchReq);
+            return convertSearchResp(searchResp, ScoreOrder.DESC);
         } else if (CollectionUtils.isNotEmpty(vectors)) {
             SearchReq searchReq = buildSearch();
             log.info("Build Search Param--> {}", GsonUtil.toJson(searchReq));
-            SearchResp searchResp = client.search(searchReq);
-            return SearchRespConverter.convertSearchRespToMilvusResp(searchResp, entityType);
+            if (!postProcessors.isEmpty()) {
+                return convertSearchResp(doSearch(searchReq), resolveScoreOrder());
+            }
+            return flight(flightKey(searchReq), () -> convertSearchResp(doSearch(searchReq), resolveScoreOrder()));
         } else {
             QueryReq queryReq = buildQuery();
             log.info("Build Query param--> {}", GsonUtil.toJson(queryReq));
-            QueryResp queryResp = client.query(queryReq);
-            return SearchRespConverter.convertGetRespToMilvusResp(queryResp, entityType);
+            return flight(flightKey(queryReq), () -> {
+                QueryResp queryResp = doQuery(queryReq);
+                return SearchRespConverter.convertGetRespToMilvusResp(queryResp, entityType, conversionCache);
+            });
+        }
+    }
+
+    /**
+     * 转换搜索结果，存在后置处理器时按查询向量分组执行处理器链
+     */
+    private MilvusResp<List<MilvusResult<T>>> convertSearchResp(SearchResp searchResp, ScoreOrder scoreOrder) {
+        if (postProcessors.isEmpty()) {
+            return SearchRespConverter.convertSearchRespToMilvusResp(searchResp, entityType, conversionCache);
+        }
+        List<List<MilvusResult<T>>> groups = SearchRespConverter.convertSearchRespToGroups(searchResp, entityType, conversionCache);
+        int expected = topK > 0 ? topK : (int) limit;
+        return new MilvusResp<>(true, postProcessors.applyGroups(groups, expected, scoreOrder));
+    }
+
+    /**
+     * 分片并行搜索：请求在调用线程上构建，RPC 与结果转换并行执行，
+     * 向量搜索按得分方向用有界堆合并，标量查询按分片顺序拼接后截断到 limit。
+     * offset 只能在合并后生效，因此各分片以 offset 0 拉取 offset + limit 条
+     */
+    private MilvusResp<List<MilvusResult<T>>> scatterGather(List<SearchShard> shards) {
+        boolean hybrid = CollectionUtils.isNotEmpty(hybridWrapper);
+        if (!hybrid && CollectionUtils.isEmpty(vectors)) {
+            Map<SearchShard, QueryReq> requests = new LinkedHashMap<>();
+            shards.forEach(shard -> requests.put(shard, buildQuery(shard.collectionName(), partitionsOf(shard), true)));
+            log.info("Build sharded Query param--> {}", GsonUtil.toJson(requests.values()));
+            List<List<MilvusResult<T>>> shardResults = ScatterGather.execute(shards,
+                    shard -> SearchRespConverter.convertGetRespToMilvusResp(doQuery(clientOf(shard), requests.get(shard)), entityType, conversionCache).data(),
+                    shardExecutor, shardTimeout, partialResultPolicy);
+            List<MilvusResult<T>> merged = shardResults.stream().flatMap(List::stream).collect(Collectors.toList());
+            long max = limit > 0 ? limit : topK;
+            int from = (int) Math.min(offset, merged.size());
+            int to = max > 0 ? (int) Math.min(from + max, merged.size()) : merged.size();
+            return new MilvusResp<>(true, new ArrayList<>(merged.subList(from, to)));
+        }
+
+        Map<SearchShard, Object> requests = new LinkedHashMap<>();
+        for (SearchShard shard : shards) {
+            requests.put(shard, hybrid ? buildHybrid(shard.collectionName(), partitionsOf(shard))
+                    : buildSearch(shard.collectionName(), partitionsOf(shard), true));
+        }
+        log.info("Build sharded Search param--> {}", GsonUtil.toJson(requests.values()));
+        List<List<List<MilvusResult<T>>>> shardGroups = ScatterGather.execute(shards, shard -> {
+            Object request = requests.get(shard);
+            SearchResp searchResp = request instanceof HybridSearchReq hybridReq
+                    ? doHybridSearch(clientOf(shard), hybridReq) : doSearch(clientOf(shard), (SearchReq) request);
+            return SearchRespConverter.convertSearchRespToGroups(searchResp, entityType, conversionCache);
+        }, shardExecutor, shardTimeout, partialResultPolicy);
+
+        ScoreOrder scoreOrder = hybrid ? ScoreOrder.DESC : resolveScoreOrder();
+        int expected = topK > 0 ? topK : (int) limit;
+        // 混合搜索不下发 offset，分片向量搜索在合并出前 offset + k 条后再跳过 offset 条
+        int skip = hybrid ? 0 : (int) offset;
+        int keep = expected > 0 ? (int) postProcessors.fetchSize(expected) + skip : 0;
+        List<List<MilvusResult<T>>> groups = ShardResultMerger.merge(shardGroups, keep, scoreOrder);
+        if (skip > 0) {
+            groups = groups.stream()
+                    .<List<MilvusResult<T>>>map(group -> new ArrayList<>(group.subList(Math.min(skip, group.size()), group.size())))
+                    .collect(Collectors.toList());
         }
+        if (postProcessors.isEmpty()) {
+            return new MilvusResp<>(true, groups.stream().flatMap(List::stream).collect(Collectors.toList()));
+        }
+        return new MilvusResp<>(true, postProcessors.applyGroups(groups, expected, scoreOrder));
+    }
+
+    /**
+     * 滚动集合的搜索目标：按时间字段的范围条件选出重叠的周期集合，没有范围条件时搜索全部周期集合
+     *
+     * @return 不是滚动集合时返回 null
+     */
+    private List<SearchShard> rollingShards() {
+        RollingSpec rolling = RollingManager.spec(client, collectionName);
+        if (rolling == null) {
+            return null;
+        }
+        Long from = null;
+        Long to = null;
+        if (StringUtils.isNotEmpty(rolling.timeField())) {
+            Expr condition = condition();
+            List<Expr> conjuncts = condition instanceof Expr.And and ? and.children() : List.of(condition);
+            for (Expr expr : conjuncts) {
+                if (!(expr instanceof Expr.Compare compare) || !rolling.timeField().equals(compare.field())
+                        || !(compare.value() instanceof Number number)) {
+                    continue;
+                }
+                long value = number.longValue();
+                switch (compare.op()) {
+                    case GT, GE -> from = from == null ? value : Math.max(from, value);
+                    case LT, LE -> to = to == null ? value : Math.min(to, value);
+                    case EQ -> {
+                        from = from == null ? value : Math.max(from, value);
+                        to = to == null ? value : Math.min(to, value);
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+        List<String> targets = RollingManager.get(client).collectionsBetween(collectionName, from, to);
+        log.debug("Rolling collection {} fans out to {}", collectionName, targets);
+        return targets.stream().map(SearchShard::of).toList();
+    }
+
+    /**
+     * 推断搜索得分的排序方向：优先使用搜索参数中的 metric_type，其次使用向量字段索引的度量类型
+     */
+    private ScoreOrder resolveScoreOrder() {
+        Object metricType = searchParams.get("metric_type");
+        if (metricType != null) {
+            return ScoreOrder.of(metricType);
+        }
+        return Optional.ofNullable(conversionCache.milvusEntity().indexParams())
+                .orElseGet(ArrayList::new)
+                .stream()
+                .filter(indexParam -> annsField == null || annsField.equals(indexParam.getFieldName()))
+                .map(IndexParam::getMetricType)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .map(ScoreOrder::of)
+                .orElse(ScoreOrder.DESC);
     }
 
+    /**
+     * 把当前向量搜索编译为不可变的 {@link CompiledSearch}，之后对本构建器的修改不影响编译结果。
+     * 条件中可用 {@link Param} 声明命名参数，执行时与查询向量一起绑定。
+     *
+     * @throws MilvusPlusException 混合搜索、分片搜索、滚动集合或按租户改写的构建器不能编译
+     */
+    public CompiledSearch<T> compileSearch() {
+        checkCompilable();
+        SearchReq skeleton = buildSearch();
+        int expected = topK > 0 ? topK : (int) limit;
+        return new CompiledSearch<>(client, entityType, conversionCache, collectionName, skeleton,
+                FilterTemplate.of(skeleton.getFilter(), Param.namesIn(condition())), consistencyLevel, guaranteeTimestamp,
+                postProcessors.copy(), resolveScoreOrder(), expected, coalesce, coalescer);
+    }
+
+    /**
+     * 把当前标量查询编译为不可变的 {@link CompiledQuery}，之后对本构建器的修改不影响编译结果。
+     * 条件中可用 {@link Param} 声明命名参数，执行时绑定。
+     *
+     * @throws MilvusPlusException 分片查询、滚动集合或按租户改写的构建器不能编译
+     */
+    public CompiledQuery<T> compileQuery() {
+        checkCompilable();
+        QueryReq skeleton = buildQuery();
+        return new CompiledQuery<>(client, entityType, conversionCache, collectionName, skeleton,
+                FilterTemplate.of(skeleton.getFilter(), Param.namesIn(condition())), consistencyLevel);
+    }
+
+    private void checkCompilable() {
+        if (CollectionUtils.isNotEmpty(hybridWrapper) || !shards.isEmpty()) {
+            throw new MilvusPlusException("Hybrid or sharded search of " + collectionName + " cannot be compiled");
+        }
+        if (tenantScoped) {
+            // 编译结果可能被其他租户复用
+            throw new MilvusPlusException("Tenant-scoped wrapper of " + collectionName + " cannot be compiled");
+        }
+        if (RollingManager.spec(client, collectionName) != null) {
+            throw new MilvusPlusException("Rolling collection " + collectionName + " cannot be compiled");
+        }
+    }
 
     @SafeVarargs
     public final MilvusResp<List<MilvusResult<T>>> query(FieldFunction<T, ?>... outputFields) throws MilvusException {
         List<String> otf = new ArrayList<>();
         for (FieldFunction<T, ?> outputField : outputFields) {
-            otf.add(outputField.getFieldName(outputField));
+            otf.add(outputField.getFieldName(outputField, conversionCache));
         }
         this.outputFields = otf;
         return query();
@@ -449,10 +1028,10 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
 
     public MilvusResp<Long> count() throws MilvusException {
         this.outputFields = new ArrayList<>();
-        this.outputFields.add("count(*)");
+        this.outputFields.add(COUNT);
         QueryReq queryReq = buildQuery();
         log.info("Build Query param --> {}", GsonUtil.toJson(queryReq));
-        QueryResp queryResp = client.query(queryReq);
+        QueryResp queryResp = doQuery(queryReq);
         return SearchRespConverter.convertGetRespToCount(queryResp);
     }
 
@@ -462,16 +1041,144 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
     }
 
     public MilvusResp<List<MilvusResult<T>>> getById(Serializable... ids) {
-        GetReq.GetReqBuilder<?, ?> builder = GetReq.builder()
-                .collectionName(collectionName)
-                .ids(Arrays.asList(ids));
+        return getByIds(Arrays.asList(ids));
+    }
+
+    /**
+     * 按主键批量获取，支持别名、多分区、输出字段和一致性级别。
+     * 主键按 {@link #getChunkSize(int)} 分块，以 {@link #getParallelism(int)} 的并发度并行查询
+     *
+     * @param ids 主键集合
+     * @return 查询结果，开启 {@link #preserveOrder(boolean)} 时与输入主键顺序一致，不存在的主键被忽略
+     */
+    public MilvusResp<List<MilvusResult<T>>> getByIds(Collection<? extends Serializable> ids) {
+        List<Object> idList = new ArrayList<>(ids);
+        if (idList.isEmpty()) {
+            return new MilvusResp<>(true, new ArrayList<>());
+        }
+        String target = target();
+        String pk = conversionCache.primaryKey();
+        if (pk == null && tenantFilter != null) {
+            // 仅按主键读取时服务端忽略过滤条件，无法限定租户
+            throw new MilvusPlusException("Get by id of multi-tenant collection " + collectionName + " requires a primary key field");
+        }
+        List<String> fields = resolveGetFields(pk);
+        FlightKey key = new FlightKey(client, entityType, target, List.copyOf(partitionNames), idList,
+                fieldSet(fields), readConsistency(target), Arrays.asList(getChunkSize, preserveOrder, MilvusSession.writeTimestamp(sessionKey(target))));
+        return flight(key, () -> fetchByIds(target, pk, idList, fields));
+    }
+
+    private List<String> resolveGetFields(String pk) {
+        Collection<String> collectionFields = conversionCache.propertyCache().functionToPropertyMap.values();
+        List<String> fields;
+        if (CollectionUtils.isNotEmpty(outputFields)) {
+            fields = outputFields.stream().filter(collectionFields::contains).collect(Collectors.toList());
+            if (fields.size() < outputFields.size()) {
+                log.warn("Fields not included in this collection in outputFields have been removed.");
+            }
+        } else {
+            fields = new ArrayList<>(collectionFields);
+        }
+        if (preserveOrder && pk != null && !fields.contains(pk)) {
+            fields.add(pk);
+        }
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MilvusResp<List<MilvusResult<T>>> fetchByIds(String target, String pk, List<Object> ids, List<String> fields) {
+        List<List<Object>> chunks = ListUtils.partition(ids, Math.max(1, getChunkSize));
+        List<QueryResp.QueryResult>[] parts = new List[chunks.size()];
+        int workers = Math.min(Math.max(1, getParallelism), chunks.size());
+        log.debug("Get {} ids from {} in {} chunks with parallelism {}", ids.size(), target, chunks.size(), workers);
+        if (workers == 1) {
+            for (int i = 0; i < chunks.size(); i++) {
+                parts[i] = queryChunk(target, pk, chunks.get(i), fields);
+            }
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            CompletableFuture<?>[] futures = new CompletableFuture[workers];
+            for (int w = 0; w < workers; w++) {
+                futures[w] = CompletableFuture.runAsync(TenantContext.propagate(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < chunks.size()) {
+                        parts[i] = queryChunk(target, pk, chunks.get(i), fields);
+                    }
+                }), ScatterGather.defaultExecutor());
+            }
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new MilvusPlusException(e.getCause());
+            }
+        }
+        List<QueryResp.QueryResult> rows = new ArrayList<>(ids.size());
+        for (List<QueryResp.QueryResult> part : parts) {
+            rows.addAll(part);
+        }
+        if (preserveOrder && pk != null) {
+            rows = reorder(ids, rows, pk);
+        }
+        return SearchRespConverter.convertGetRespToMilvusResp(QueryResp.builder().queryResults(rows).build(), entityType, conversionCache);
+    }
+
+    private List<QueryResp.QueryResult> queryChunk(String target, String pk, List<Object> ids, List<String> fields) {
+        QueryReq.QueryReqBuilder<?, ?> builder = QueryReq.builder()
+                .collectionName(target)
+                .outputFields(fields);
+        if (pk != null) {
+            String filter = wrapFieldName(pk) + " in " + convertValues(ids);
+            builder.filter(tenantFilter == null ? filter : filter + " and " + tenantFilter);
+        } else {
+            builder.ids(ids);
+        }
         if (CollectionUtils.isNotEmpty(partitionNames)) {
-            builder.partitionName(partitionNames.getFirst());
+            builder.partitionNames(partitionNames);
+        }
+        ConsistencyLevel readConsistency = readConsistency(target);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
         }
-        GetReq getReq = builder.build();
-        GetResp getResp = client.get(getReq);
+        QueryResp resp = doQuery(builder.build());
+        return resp.getQueryResults() == null ? List.of() : resp.getQueryResults();
+    }
 
-        return SearchRespConverter.convertGetRespToMilvusResp(getResp, entityType);
+    /**
+     * 按输入主键顺序重排结果，int64 主键使用原始类型哈希表定位
+     */
+    private static List<QueryResp.QueryResult> reorder(List<Object> ids, List<QueryResp.QueryResult> rows, String pk) {
+        boolean numeric = ids.stream().allMatch(id -> id instanceof Long || id instanceof Integer
+                || id instanceof Short || id instanceof Byte);
+        LongIndexMap longIndex = numeric ? new LongIndexMap(ids.size()) : null;
+        Map<String, Integer> stringIndex = numeric ? null : new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            Object id = ids.get(i);
+            if (numeric) {
+                longIndex.putIfAbsent(((Number) id).longValue(), i);
+            } else {
+                stringIndex.putIfAbsent(String.valueOf(id), i);
+            }
+        }
+        QueryResp.QueryResult[] slots = new QueryResp.QueryResult[ids.size()];
+        for (QueryResp.QueryResult row : rows) {
+            Object value = row.getEntity().get(pk);
+            int index = numeric
+                    ? (value instanceof Number number ? longIndex.get(number.longValue()) : -1)
+                    : stringIndex.getOrDefault(String.valueOf(value), -1);
+            if (index >= 0 && slots[index] == null) {
+                slots[index] = row;
+            }
+        }
+        List<QueryResp.QueryResult> ordered = new ArrayList<>(rows.size());
+        for (QueryResp.QueryResult slot : slots) {
+            if (slot != null) {
+                ordered.add(slot);
+            }
+        }
+        return ordered;
     }
 
     @Override
@@ -482,6 +1189,19 @@ public class LambdaQueryWrapper<T> extends ConditionBuilder<T, LambdaQueryWrappe
         this.conversionCache = conversionCache;
     }
 
+    @Override
+    public void tenant(TenantTarget target) {
+        this.tenantScoped = true;
+        if (target.partitionName() != null) {
+            this.partitionNames.add(target.partitionName());
+        }
+        if (target.field() != null) {
+            Expr tenantCondition = new Expr.Compare(target.field(), Expr.Op.EQ, target.tenant());
+            scope(tenantCondition);
+            this.tenantFilter = render(tenantCondition);
+        }
+    }
+
     @Override
     public LambdaQueryWrapper<T> wrapper() {
         return this;
@@ -1,10 +1,16 @@
 package io.github.xermaor.milvus.plus.core.conditions;
 
 import com.google.gson.JsonObject;
-import io.github.xermaor.milvus.plus.cache.CollectionToPrimaryCache;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
 import io.github.xermaor.milvus.plus.cache.PropertyCache;
 import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.route.MilvusSession;
+import io.github.xermaor.milvus.plus.core.spool.WriteSpool;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.core.tenant.TenantTarget;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
 import io.github.xermaor.milvus.plus.util.GsonUtil;
 import io.milvus.exception.MilvusException;
@@ -18,10 +24,9 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * 构建器内部类，用于构建update请求
@@ -34,6 +39,10 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
     private Class<T> entityType;
     private String collectionName;
     private String partitionName;
+    /**
+     * 按租户字段隔离时的租户，读取只匹配该租户的行，写入的行填充租户字段
+     */
+    private TenantTarget tenant;
     private MilvusClientV2 client;
 
     public LambdaUpdateWrapper() {
@@ -46,7 +55,7 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
     }
 
     public LambdaUpdateWrapper<T> partition(FieldFunction<T, ?> partitionName) {
-        this.partitionName = partitionName.getFieldName(partitionName);
+        this.partitionName = partitionName.getFieldName(partitionName, conversionCache);
         return this;
     }
 
@@ -54,20 +63,27 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
     protected LambdaUpdateWrapper<T> createNewInstance() {
         LambdaUpdateWrapper<T> wrapper = new LambdaUpdateWrapper<>();
         wrapper.setEntityType(entityType);
+        wrapper.conversionCache = conversionCache;
         return wrapper;
     }
 
+    @Override
+    protected ConversionCache metadata() {
+        return conversionCache;
+    }
+
     /**
-     * 构建完整的删除请求
+     * 按构建的条件查询需要合并的已有数据
      *
-     * @return 搜索请求对象
+     * @param outputFields 需要读取的字段
+     * @return 没有条件时返回 null
      */
-    private QueryResp buildReq() {
+    private QueryResp buildReq(List<String> outputFields) {
         String filterStr = this.build();
         if (filterStr != null && !filterStr.isEmpty()) {
             QueryReq.QueryReqBuilder<?, ?> builder = QueryReq.builder()
-                    .collectionName(collectionName).filter(filterStr);
-            return client.query(builder.build());
+                    .collectionName(collectionName).filter(filterStr).outputFields(outputFields);
+            return ReadWriteRouter.writer(client).query(builder.build());
         } else {
             return null;
         }
@@ -80,8 +96,8 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
      */
     public MilvusResp<UpsertResp> update(T entity) throws MilvusException {
         // 获取主键字段
-        String primaryKeyField = CollectionToPrimaryCache.collectionToPrimary.get(collectionName);
-        if (StringUtils.isNotEmpty(primaryKeyField)) {
+        String primaryKeyField = conversionCache.primaryKey();
+        if (StringUtils.isEmpty(primaryKeyField)) {
             throw new MilvusException("not find primary key", 400);
         }
         // 将实体转换为属性映射
@@ -108,26 +124,16 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
                 GsonUtil.put(updateObject, tableNameColumn, value);
             }
         }
-        // 检查是否需要构建查询条件
-        boolean needBuildQuery = !hasPrimaryKey;
-        if (hasPrimaryKey) {
-            for (Map.Entry<String, String> property : propertyCache.functionToPropertyMap.entrySet()) {
-                Boolean nullable = propertyCache.nullableToPropertyMap.get(property.getKey());
-                if (updateObject.get(property.getValue()) == null && !nullable) {
-                    needBuildQuery = true;
-                    eq(primaryKeyField, primaryKeyValue);
-                    break;
-                }
-            }
+        List<String> missingFields = missingFields(updateObject);
+        if (hasPrimaryKey && missingFields.isEmpty()) {
+            return update(List.of(updateObject));
         }
-
-        // 如果需要构建查询条件，则执行查询并准备更新数据
-        if (needBuildQuery) {
-            QueryResp queryResp = buildReq();
-            supplementMissingFields(updateDataList, updateObject, queryResp);
-        } else {
-            updateDataList.add(updateObject);
+        if (hasPrimaryKey) {
+            eq(primaryKeyField, primaryKeyValue);
         }
+        // 按条件读取缺少的字段后合并
+        QueryResp queryResp = buildReq(readFields(missingFields));
+        supplementMissingFields(updateDataList, updateObject, queryResp);
 
         // 检查是否有数据需要更新
         if (CollectionUtils.isEmpty(updateDataList)) {
@@ -138,6 +144,10 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
     }
 
     private MilvusResp<UpsertResp> update(List<JsonObject> jsonObjects) {
+        if (tenant != null) {
+            // 写入的行始终属于当前租户
+            jsonObjects.forEach(row -> GsonUtil.put(row, tenant.field(), tenant.tenant()));
+        }
         log.info("update data --> {}", GsonUtil.toJson(jsonObjects));
         UpsertReq.UpsertReqBuilder<?, ?> builder = UpsertReq.builder()
                 .collectionName(collectionName)
@@ -147,7 +157,12 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
         }
         UpsertReq upsertReq = builder
                 .build();
-        UpsertResp upsert = client.upsert(upsertReq);
+        Supplier<UpsertResp> call = () -> ResilientExecutor.execute(client, OperationType.UPSERT, collectionName, writer -> writer.upsert(upsertReq));
+        UpsertResp upsert = WriteSpool.write(client, collectionName, partitionName, OperationType.UPSERT,
+                conversionCache.primaryKey(), jsonObjects, call,
+                () -> UpsertResp.builder().upsertCnt(jsonObjects.size()).build());
+        // 按写请求实际发往的物理集合记录
+        MilvusSession.recordWrite(upsertReq.getCollectionName());
         return new MilvusResp<>(true, upsert);
     }
 
@@ -158,7 +173,7 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
 
     public MilvusResp<UpsertResp> updateById(Collection<T> collection) throws MilvusException {
         PropertyCache propertyCache = conversionCache.propertyCache();
-        String pk = CollectionToPrimaryCache.collectionToPrimary.get(collectionName);
+        String pk = conversionCache.primaryKey();
         List<JsonObject> jsonObjects = new ArrayList<>();
         for (T item : collection) {
             JsonObject jsonObject = toJsonObject(propertyCache, item);
@@ -170,42 +185,90 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
         }
         // 准备更新的数据列表
         List<JsonObject> updateDataList = new ArrayList<>();
+        List<JsonObject> incomplete = new ArrayList<>();
+        Set<String> missingFields = new LinkedHashSet<>();
         for (JsonObject updateObject : jsonObjects) {
-            boolean isBuild = false;
-            for (Map.Entry<String, String> property : propertyCache.functionToPropertyMap.entrySet()) {
-                Boolean nullable = propertyCache.nullableToPropertyMap.get(property.getKey());
-                if (updateObject.get(property.getValue()) == null && !nullable) {
-                    //缺少数据需要
-                    isBuild = true;
-                }
-            }
-            if (isBuild) {
-                QueryReq.QueryReqBuilder<?, ?> builder = QueryReq.builder()
-                        .collectionName(collectionName).filter(pk + " == " + updateObject.get(pk));
-                QueryResp queryResp = client.query(builder.build());
-                supplementMissingFields(updateDataList, updateObject, queryResp);
-            } else {
+            List<String> missing = missingFields(updateObject);
+            if (missing.isEmpty()) {
                 updateDataList.add(updateObject);
+            } else {
+                //缺少数据需要
+                incomplete.add(updateObject);
+                missingFields.addAll(missing);
+            }
+        }
+        if (incomplete.isEmpty()) {
+            return update(updateDataList);
+        }
+        // 一次查询读取所有缺少字段的行，只读取缺少的字段
+        String ids = incomplete.stream().map(row -> row.get(pk).toString()).collect(Collectors.joining(","));
+        QueryReq queryReq = QueryReq.builder()
+                .collectionName(collectionName)
+                .filter(tenant == null ? pk + " in [" + ids + "]"
+                        : pk + " in [" + ids + "] and " + render(new Expr.Compare(tenant.field(), Expr.Op.EQ, tenant.tenant())))
+                .outputFields(readFields(new ArrayList<>(missingFields)))
+                .build();
+        QueryResp queryResp = ReadWriteRouter.writer(client).query(queryReq);
+        Map<String, Map<String, Object>> existing = new HashMap<>();
+        for (QueryResp.QueryResult result : queryResp.getQueryResults()) {
+            existing.put(String.valueOf(result.getEntity().get(pk)), result.getEntity());
+        }
+        for (JsonObject updateObject : incomplete) {
+            Map<String, Object> existingEntity = existing.get(updateObject.get(pk).getAsString());
+            if (existingEntity != null) {
+                updateDataList.add(merge(updateObject, existingEntity));
             }
         }
         return update(updateDataList);
     }
 
+    /**
+     * 更新对象中缺少的非空字段
+     */
+    private List<String> missingFields(JsonObject updateObject) {
+        PropertyCache propertyCache = conversionCache.propertyCache();
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, String> property : propertyCache.functionToPropertyMap.entrySet()) {
+            Boolean nullable = propertyCache.nullableToPropertyMap.get(property.getKey());
+            if (updateObject.get(property.getValue()) == null && !Boolean.TRUE.equals(nullable)) {
+                missing.add(property.getValue());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * 先读后合并时需要读取的字段：缺少的字段和主键；开启动态字段时读取全部，避免丢失动态字段
+     */
+    private List<String> readFields(List<String> missingFields) {
+        if (conversionCache.milvusEntity().enableDynamicField()) {
+            return List.of("*");
+        }
+        Set<String> fields = new LinkedHashSet<>(missingFields);
+        fields.add(conversionCache.primaryKey());
+        return new ArrayList<>(fields);
+    }
+
     private void supplementMissingFields(List<JsonObject> updateDataList, JsonObject updateObject, QueryResp queryResp) {
         if (queryResp == null) {
             return;
         }
         for (QueryResp.QueryResult result : queryResp.getQueryResults()) {
-            Map<String, Object> existingEntity = result.getEntity();
-            JsonObject existingData = new JsonObject();
-            for (Map.Entry<String, Object> existingEntry : existingEntity.entrySet()) {
-                String existingField = existingEntry.getKey();
-                Object existingValue = existingEntry.getValue();
-                Object updateValue = updateObject.get(existingField);
-                GsonUtil.put(existingData, existingField, updateValue != null ? updateValue : existingValue);
+            updateDataList.add(merge(updateObject, result.getEntity()));
+        }
+    }
+
+    /**
+     * 以更新对象为准，补齐已有数据中的其他字段
+     */
+    private static JsonObject merge(JsonObject updateObject, Map<String, Object> existingEntity) {
+        JsonObject merged = updateObject.deepCopy();
+        for (Map.Entry<String, Object> existingEntry : existingEntity.entrySet()) {
+            if (!merged.has(existingEntry.getKey())) {
+                GsonUtil.put(merged, existingEntry.getKey(), existingEntry.getValue());
             }
-            updateDataList.add(existingData);
         }
+        return merged;
     }
 
     @Override
@@ -216,6 +279,17 @@ public class LambdaUpdateWrapper<T> extends ConditionBuilder<T, LambdaUpdateWrap
         this.conversionCache = conversionCache;
     }
 
+    @Override
+    public void tenant(TenantTarget target) {
+        if (target.partitionName() != null) {
+            this.partitionName = target.partitionName();
+        }
+        if (target.field() != null) {
+            scope(new Expr.Compare(target.field(), Expr.Op.EQ, target.tenant()));
+            this.tenant = target;
+        }
+    }
+
     @Override
     public LambdaUpdateWrapper<T> wrapper() {
         return this;
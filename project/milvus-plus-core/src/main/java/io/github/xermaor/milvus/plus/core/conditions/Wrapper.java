@@ -1,6 +1,7 @@
 package io.github.xermaor.milvus.plus.core.conditions;
 
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
+import io.github.xermaor.milvus.plus.core.tenant.TenantTarget;
 import io.milvus.v2.client.MilvusClientV2;
 
 /**
@@ -12,4 +13,10 @@ public interface Wrapper<W, T> {
     void init(String collectionName, MilvusClientV2 client, ConversionCache conversionCache, Class<T> entityType);
 
     W wrapper();
+
+    /**
+     * 按租户改写请求：限定分区、追加租户过滤条件或在写入时填充租户字段，集合已在 {@link #init} 时改写
+     */
+    default void tenant(TenantTarget target) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package io.github.xermaor.milvus.plus.core.conditions.expr;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 过滤条件表达式树，所有节点均不可变。
+ * <p>
+ * 比较和 IN 条件保留字段与原始值，便于化简和分区裁剪；
+ * 其余条件（like、函数、空值判断等）以渲染好的文本保存在 {@link Predicate} 中。
+ */
+public sealed interface Expr permits Expr.Compare, Expr.In, Expr.Predicate, Expr.And, Expr.Or, Expr.Not, Expr.Const {
+
+    Const TRUE = new Const(true);
+    Const FALSE = new Const(false);
+
+    /**
+     * 比较运算符
+     */
+    enum Op {
+        EQ("=="), NE("!="), GT(">"), GE(">="), LT("<"), LE("<=");
+
+        private final String symbol;
+
+        Op(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return symbol;
+        }
+
+        public static Op of(String symbol) {
+            for (Op op : values()) {
+                if (op.symbol.equals(symbol)) {
+                    return op;
+                }
+            }
+            throw new MilvusPlusException("Unsupported comparison operator: " + symbol);
+        }
+    }
+
+    /**
+     * 字段与常量的比较
+     */
+    record Compare(String field, Op op, Object value) implements Expr {
+    }
+
+    /**
+     * 字段取值在给定列表中
+     */
+    record In(String field, List<Object> values) implements Expr {
+        public In {
+            values = Collections.unmodifiableList(new ArrayList<>(values));
+        }
+
+        public In(String field, Collection<?> values) {
+            this(field, new ArrayList<Object>(values));
+        }
+    }
+
+    /**
+     * 不参与化简的条件，保存渲染后的文本
+     *
+     * @param field 条件涉及的字段，用于谓词排序
+     * @param text  渲染后的条件
+     */
+    record Predicate(String field, String text) implements Expr {
+    }
+
+    record And(List<Expr> children) implements Expr {
+        public And {
+            children = List.copyOf(children);
+        }
+    }
+
+    record Or(List<Expr> children) implements Expr {
+        public Or {
+            children = List.copyOf(children);
+        }
+    }
+
+    record Not(Expr child) implements Expr {
+    }
+
+    record Const(boolean value) implements Expr {
+    }
+
+    /**
+     * 构造合取式，单个条件时直接返回该条件
+     */
+    static Expr and(List<Expr> children) {
+        if (children.isEmpty()) {
+            return TRUE;
+        }
+        return children.size() == 1 ? children.getFirst() : new And(children);
+    }
+
+    /**
+     * 构造析取式，单个条件时直接返回该条件
+     */
+    static Expr or(List<Expr> children) {
+        if (children.isEmpty()) {
+            return FALSE;
+        }
+        return children.size() == 1 ? children.getFirst() : new Or(children);
+    }
+}
@@ -0,0 +1,330 @@
+package io.github.xermaor.milvus.plus.core.conditions.expr;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * 表达式化简器。
+ * <p>
+ * 依次执行：嵌套 AND/OR 展平、常量折叠、重复条件消除、
+ * 同字段等值/IN 条件合并（OR 取并集，AND 取交集）以及同字段数值范围求交。
+ * 化简只做与空值语义无关的等价变换，不会下推取反。
+ */
+public final class ExprSimplifier {
+
+    private ExprSimplifier() {
+    }
+
+    public static Expr simplify(Expr expr) {
+        return switch (expr) {
+            case Expr.And and -> simplifyAnd(and.children());
+            case Expr.Or or -> simplifyOr(or.children());
+            case Expr.Not not -> simplifyNot(not.child());
+            case Expr.In in -> in.values().isEmpty() ? Expr.FALSE : in;
+            default -> expr;
+        };
+    }
+
+    private static Expr simplifyNot(Expr child) {
+        Expr simplified = simplify(child);
+        return switch (simplified) {
+            case Expr.Const c -> c.value() ? Expr.FALSE : Expr.TRUE;
+            case Expr.Not not -> not.child();
+            default -> new Expr.Not(simplified);
+        };
+    }
+
+    private static Expr simplifyAnd(List<Expr> children) {
+        Set<Expr> kids = new LinkedHashSet<>();
+        for (Expr child : children) {
+            Expr simplified = simplify(child);
+            if (simplified instanceof Expr.And and) {
+                kids.addAll(and.children());
+            } else if (simplified instanceof Expr.Const c) {
+                if (!c.value()) {
+                    return Expr.FALSE;
+                }
+            } else {
+                kids.add(simplified);
+            }
+        }
+        List<Expr> merged = mergeAnd(new ArrayList<>(kids));
+        if (merged.contains(Expr.FALSE)) {
+            return Expr.FALSE;
+        }
+        return Expr.and(merged);
+    }
+
+    private static Expr simplifyOr(List<Expr> children) {
+        Set<Expr> kids = new LinkedHashSet<>();
+        for (Expr child : children) {
+            Expr simplified = simplify(child);
+            if (simplified instanceof Expr.Or or) {
+                kids.addAll(or.children());
+            } else if (simplified instanceof Expr.Const c) {
+                if (c.value()) {
+                    return Expr.TRUE;
+                }
+            } else {
+                kids.add(simplified);
+            }
+        }
+        return Expr.or(mergeOr(new ArrayList<>(kids)));
+    }
+
+    // =============== AND：取交集 ===============
+
+    private static List<Expr> mergeAnd(List<Expr> kids) {
+        Map<String, List<Expr>> groups = groupMergeable(kids);
+        if (groups.isEmpty()) {
+            return kids;
+        }
+        List<Expr> result = new ArrayList<>(kids.size());
+        for (Expr kid : kids) {
+            String field = mergeableField(kid);
+            List<Expr> group = field == null ? null : groups.get(field);
+            if (group == null) {
+                result.add(kid);
+            } else if (group.getFirst() == kid) {
+                result.addAll(intersect(field, group));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 同字段的等值、IN 与范围条件求交
+     */
+    private static List<Expr> intersect(String field, List<Expr> group) {
+        List<Object> allowed = null;
+        boolean fromEq = false;
+        Bound lower = null;
+        Bound upper = null;
+        List<Expr> untouched = new ArrayList<>();
+        for (Expr expr : group) {
+            if (expr instanceof Expr.In in) {
+                allowed = allowed == null ? new ArrayList<>(in.values()) : retain(allowed, in.values());
+            } else if (expr instanceof Expr.Compare cmp && cmp.op() == Expr.Op.EQ) {
+                allowed = allowed == null ? new ArrayList<>(List.of(cmp.value())) : retain(allowed, List.of(cmp.value()));
+                fromEq = true;
+            } else if (expr instanceof Expr.Compare cmp && isNumeric(cmp.value())) {
+                Bound bound = new Bound(cmp.value(), cmp.op() == Expr.Op.GE || cmp.op() == Expr.Op.LE);
+                if (cmp.op() == Expr.Op.GT || cmp.op() == Expr.Op.GE) {
+                    lower = lower == null ? bound : tighterLower(lower, bound);
+                } else {
+                    upper = upper == null ? bound : tighterUpper(upper, bound);
+                }
+            } else {
+                untouched.add(expr);
+            }
+        }
+
+        List<Expr> result = new ArrayList<>();
+        if (allowed != null) {
+            if (allowed.isEmpty()) {
+                return List.of(Expr.FALSE);
+            }
+            if ((lower != null || upper != null) && allowed.stream().allMatch(ExprSimplifier::isNumeric)) {
+                Bound lo = lower;
+                Bound hi = upper;
+                allowed.removeIf(v -> !within(v, lo, hi));
+                if (allowed.isEmpty()) {
+                    return List.of(Expr.FALSE);
+                }
+                lower = null;
+                upper = null;
+            }
+            result.add(allowed.size() == 1 && fromEq
+                    ? new Expr.Compare(field, Expr.Op.EQ, allowed.getFirst())
+                    : new Expr.In(field, allowed));
+        }
+        if (lower != null && upper != null) {
+            int c = compare(lower.value, upper.value);
+            if (c > 0 || (c == 0 && !(lower.inclusive && upper.inclusive))) {
+                return List.of(Expr.FALSE);
+            }
+        }
+        if (lower != null) {
+            result.add(new Expr.Compare(field, lower.inclusive ? Expr.Op.GE : Expr.Op.GT, lower.value));
+        }
+        if (upper != null) {
+            result.add(new Expr.Compare(field, upper.inclusive ? Expr.Op.LE : Expr.Op.LT, upper.value));
+        }
+        result.addAll(untouched);
+        return result;
+    }
+
+    // =============== OR：取并集 ===============
+
+    private static List<Expr> mergeOr(List<Expr> kids) {
+        Map<String, List<Expr>> groups = groupMergeable(kids);
+        if (groups.isEmpty()) {
+            return kids;
+        }
+        List<Expr> result = new ArrayList<>(kids.size());
+        for (Expr kid : kids) {
+            String field = mergeableField(kid);
+            List<Expr> group = field == null ? null : groups.get(field);
+            if (group == null) {
+                result.add(kid);
+            } else if (group.getFirst() == kid) {
+                result.addAll(union(field, group));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 同字段的等值与 IN 条件合并为一个 IN；同方向的单边范围只保留最宽的一个
+     */
+    private static List<Expr> union(String field, List<Expr> group) {
+        List<Object> values = null;
+        boolean fromEq = false;
+        Bound lower = null;
+        Bound upper = null;
+        List<Expr> untouched = new ArrayList<>();
+        for (Expr expr : group) {
+            if (expr instanceof Expr.In in) {
+                values = values == null ? new ArrayList<>() : values;
+                addDistinct(values, in.values());
+            } else if (expr instanceof Expr.Compare cmp && cmp.op() == Expr.Op.EQ) {
+                values = values == null ? new ArrayList<>() : values;
+                addDistinct(values, List.of(cmp.value()));
+                fromEq = true;
+            } else if (expr instanceof Expr.Compare cmp && isNumeric(cmp.value())) {
+                Bound bound = new Bound(cmp.value(), cmp.op() == Expr.Op.GE || cmp.op() == Expr.Op.LE);
+                if (cmp.op() == Expr.Op.GT || cmp.op() == Expr.Op.GE) {
+                    lower = lower == null ? bound : looserLower(lower, bound);
+                } else {
+                    upper = upper == null ? bound : looserUpper(upper, bound);
+                }
+            } else {
+                untouched.add(expr);
+            }
+        }
+        List<Expr> result = new ArrayList<>();
+        if (values != null) {
+            result.add(values.size() == 1 && fromEq
+                    ? new Expr.Compare(field, Expr.Op.EQ, values.getFirst())
+                    : new Expr.In(field, values));
+        }
+        if (lower != null) {
+            result.add(new Expr.Compare(field, lower.inclusive ? Expr.Op.GE : Expr.Op.GT, lower.value));
+        }
+        if (upper != null) {
+            result.add(new Expr.Compare(field, upper.inclusive ? Expr.Op.LE : Expr.Op.LT, upper.value));
+        }
+        result.addAll(untouched);
+        return result;
+    }
+
+    // =============== 工具方法 ===============
+
+    /**
+     * 按字段分组可合并的条件，只保留包含两个及以上条件的分组
+     */
+    private static Map<String, List<Expr>> groupMergeable(List<Expr> kids) {
+        Map<String, List<Expr>> groups = new LinkedHashMap<>();
+        for (Expr kid : kids) {
+            String field = mergeableField(kid);
+            if (field != null) {
+                groups.computeIfAbsent(field, k -> new ArrayList<>()).add(kid);
+            }
+        }
+        groups.values().removeIf(group -> group.size() < 2);
+        return groups;
+    }
+
+    private static String mergeableField(Expr expr) {
+        return switch (expr) {
+            // 参数的取值未知，不参与合并
+            case Expr.Compare cmp when cmp.value() instanceof Param -> null;
+            case Expr.In in when in.values().stream().anyMatch(Param.class::isInstance) -> null;
+            case Expr.In in -> in.field();
+            case Expr.Compare cmp when cmp.op() == Expr.Op.EQ -> cmp.field();
+            case Expr.Compare cmp when cmp.op() != Expr.Op.NE && isNumeric(cmp.value()) -> cmp.field();
+            default -> null;
+        };
+    }
+
+    private static List<Object> retain(List<Object> current, Collection<Object> other) {
+        List<Object> kept = new ArrayList<>(current.size());
+        for (Object value : current) {
+            if (containsValue(other, value) && !containsValue(kept, value)) {
+                kept.add(value);
+            }
+        }
+        return kept;
+    }
+
+    private static void addDistinct(List<Object> values, Collection<Object> added) {
+        for (Object value : added) {
+            if (!containsValue(values, value)) {
+                values.add(value);
+            }
+        }
+    }
+
+    /**
+     * 按取值判断是否包含：数值按大小比较，1 与 1L 视为同一取值
+     */
+    private static boolean containsValue(Collection<Object> values, Object value) {
+        for (Object candidate : values) {
+            if (isNumeric(value) && isNumeric(candidate) ? compare(value, candidate) == 0 : Objects.equals(value, candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean within(Object value, Bound lower, Bound upper) {
+        if (lower != null) {
+            int c = compare(value, lower.value);
+            if (c < 0 || (c == 0 && !lower.inclusive)) {
+                return false;
+            }
+        }
+        if (upper != null) {
+            int c = compare(value, upper.value);
+            return c < 0 || (c == 0 && upper.inclusive);
+        }
+        return true;
+    }
+
+    private static Bound tighterLower(Bound a, Bound b) {
+        int c = compare(a.value, b.value);
+        return c > 0 ? a : c < 0 ? b : (a.inclusive ? b : a);
+    }
+
+    private static Bound tighterUpper(Bound a, Bound b) {
+        int c = compare(a.value, b.value);
+        return c < 0 ? a : c > 0 ? b : (a.inclusive ? b : a);
+    }
+
+    private static Bound looserLower(Bound a, Bound b) {
+        int c = compare(a.value, b.value);
+        return c < 0 ? a : c > 0 ? b : (a.inclusive ? a : b);
+    }
+
+    private static Bound looserUpper(Bound a, Bound b) {
+        int c = compare(a.value, b.value);
+        return c > 0 ? a : c < 0 ? b : (a.inclusive ? a : b);
+    }
+
+    private static boolean isNumeric(Object value) {
+        if (value instanceof Double d) {
+            return Double.isFinite(d);
+        }
+        if (value instanceof Float f) {
+            return Float.isFinite(f);
+        }
+        return value instanceof Number;
+    }
+
+    private static int compare(Object a, Object b) {
+        return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+    }
+
+    private record Bound(Object value, boolean inclusive) {
+    }
+}
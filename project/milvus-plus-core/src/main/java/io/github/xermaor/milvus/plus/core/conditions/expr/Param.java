@@ -0,0 +1,58 @@
+package io.github.xermaor.milvus.plus.core.conditions.expr;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 过滤条件中的命名参数，作为比较或 IN 条件的取值使用，渲染为 {@code {name}}。
+ * <p>
+ * 只用于编译后的查询（{@code compileSearch}、{@code compileQuery}），执行时绑定取值；
+ * 含参数的条件不参与化简合并和分区推导。
+ *
+ * @param name 参数名，只允许字母、数字和下划线且不以数字开头
+ */
+public record Param(String name) {
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    public Param {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new MilvusPlusException("Invalid parameter name: " + name);
+        }
+    }
+
+    public static Param of(String name) {
+        return new Param(name);
+    }
+
+    /**
+     * 收集表达式中的全部参数名，按出现顺序排列
+     */
+    public static Set<String> namesIn(Expr expr) {
+        Set<String> names = new LinkedHashSet<>();
+        collect(expr, names);
+        return names;
+    }
+
+    private static void collect(Expr expr, Set<String> names) {
+        switch (expr) {
+            case Expr.Compare cmp when cmp.value() instanceof Param param -> names.add(param.name());
+            case Expr.In in -> in.values().stream()
+                    .filter(Param.class::isInstance)
+                    .forEach(value -> names.add(((Param) value).name()));
+            case Expr.And and -> and.children().forEach(child -> collect(child, names));
+            case Expr.Or or -> or.children().forEach(child -> collect(child, names));
+            case Expr.Not not -> collect(not.child(), names);
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "{" + name + "}";
+    }
+}
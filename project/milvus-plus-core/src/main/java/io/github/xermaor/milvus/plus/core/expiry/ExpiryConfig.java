@@ -0,0 +1,21 @@
+package io.github.xermaor.milvus.plus.core.expiry;
+
+import java.time.Duration;
+
+/**
+ * 行级过期任务配置
+ *
+ * @param interval      两次清除之间的间隔
+ * @param chunkSize     每次删除请求的主键数
+ * @param rowsPerSecond 每秒最多删除的行数，不大于 0 时不限速
+ * @param compact       清除了数据后是否触发压缩，使过期行尽快移出内存和段统计
+ */
+public record ExpiryConfig(Duration interval, int chunkSize, double rowsPerSecond, boolean compact) {
+
+    public static final ExpiryConfig DEFAULT = new ExpiryConfig(Duration.ofMinutes(1), 1000, 1000, true);
+
+    public ExpiryConfig {
+        interval = interval == null || interval.isNegative() || interval.isZero() ? Duration.ofMinutes(1) : interval;
+        chunkSize = Math.max(1, chunkSize);
+    }
+}
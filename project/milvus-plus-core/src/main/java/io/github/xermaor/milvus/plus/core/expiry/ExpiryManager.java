@@ -0,0 +1,109 @@
+package io.github.xermaor.milvus.plus.core.expiry;
+
+import io.github.xermaor.milvus.plus.core.purge.PurgeOptions;
+import io.github.xermaor.milvus.plus.core.purge.PurgeProgress;
+import io.github.xermaor.milvus.plus.core.purge.Purger;
+import io.milvus.v2.client.MilvusClientV2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行级过期任务，按主客户端注册。
+ * <p>
+ * 后台定期清除时间字段早于存活时间的行，经由分块清除限速删除，清除了数据后按配置触发压缩。
+ * 两次清除之间按固定间隔等待，同一客户端上的清除不会重叠。
+ */
+public class ExpiryManager implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(ExpiryManager.class);
+
+    private static final Map<MilvusClientV2, ExpiryManager> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MilvusClientV2 client;
+    private final ExpiryConfig config;
+    private final Map<String, ExpirySpec> specs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    public ExpiryManager(MilvusClientV2 client, ExpiryConfig config) {
+        this.client = client;
+        this.config = config == null ? ExpiryConfig.DEFAULT : config;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "milvus-plus-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = this.config.interval().toMillis();
+        ticker.scheduleWithFixedDelay(this::expireAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 为主客户端启用行级过期，已启用时返回已有的任务
+     */
+    public static ExpiryManager register(MilvusClientV2 client, ExpiryConfig config) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(client, c -> new ExpiryManager(c, config));
+        }
+    }
+
+    /**
+     * 获取主客户端的行级过期任务
+     *
+     * @return 未启用时返回 null
+     */
+    public static ExpiryManager get(MilvusClientV2 client) {
+        return INSTANCES.get(client);
+    }
+
+    /**
+     * 登记需要行级过期的集合
+     */
+    public ExpiryManager manage(ExpirySpec spec) {
+        specs.put(spec.collectionName(), spec);
+        log.info("Rows of {} expire {} s after {}", spec.collectionName(), spec.ttlSeconds(), spec.timeField());
+        return this;
+    }
+
+    /**
+     * 立即清除集合中已过期的行
+     *
+     * @return 清除进度
+     */
+    public PurgeProgress expire(ExpirySpec spec) {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(spec.ttlSeconds());
+        PurgeOptions options = new PurgeOptions(config.chunkSize(), PurgeOptions.DEFAULT.scanBatchSize(),
+                config.rowsPerSecond(), config.compact(), null, null);
+        PurgeProgress progress = new Purger(client, spec.collectionName(), null, spec.primaryKey(), options)
+                .run(spec.timeField() + " < " + cutoff);
+        if (progress.deleted() > 0) {
+            log.info("Expired {} rows of {}", progress.deleted(), spec.collectionName());
+        }
+        return progress;
+    }
+
+    /**
+     * 停止后台过期任务
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        INSTANCES.remove(client, this);
+    }
+
+    private void expireAll() {
+        for (ExpirySpec spec : specs.values()) {
+            try {
+                expire(spec);
+            } catch (RuntimeException e) {
+                log.warn("Expiry of {} failed, will retry: {}", spec.collectionName(), e.getMessage());
+            }
+        }
+    }
+}
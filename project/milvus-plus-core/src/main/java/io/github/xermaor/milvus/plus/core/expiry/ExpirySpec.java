@@ -0,0 +1,12 @@
+package io.github.xermaor.milvus.plus.core.expiry;
+
+/**
+ * 行级过期的集合
+ *
+ * @param collectionName 集合名
+ * @param primaryKey     主键字段
+ * @param timeField      时间字段，保存毫秒时间戳
+ * @param ttlSeconds     存活时间（秒）
+ */
+public record ExpirySpec(String collectionName, String primaryKey, String timeField, long ttlSeconds) {
+}
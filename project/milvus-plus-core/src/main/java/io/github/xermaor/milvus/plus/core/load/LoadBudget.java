@@ -0,0 +1,35 @@
+package io.github.xermaor.milvus.plus.core.load;
+
+/**
+ * 加载预算，超出时释放最久未访问且未固定的集合或分区
+ *
+ * @param maxLoaded      最多同时加载的单元（集合或分区）数，不大于 0 时不限制
+ * @param maxMemoryBytes 预估内存上限（字节），不大于 0 时不限制
+ * @param bytesPerRow    预估每行占用的内存（字节），用于按行数估算单元内存
+ */
+public record LoadBudget(int maxLoaded, long maxMemoryBytes, long bytesPerRow) {
+
+    public static final LoadBudget UNBOUNDED = new LoadBudget(0, 0L, 0L);
+
+    public static LoadBudget ofCount(int maxLoaded) {
+        return new LoadBudget(maxLoaded, 0L, 0L);
+    }
+
+    public static LoadBudget ofMemory(long maxMemoryBytes, long bytesPerRow) {
+        return new LoadBudget(0, maxMemoryBytes, bytesPerRow);
+    }
+
+    /**
+     * 是否需要估算单元内存
+     */
+    public boolean memoryBounded() {
+        return maxMemoryBytes > 0 && bytesPerRow > 0;
+    }
+
+    /**
+     * 当前占用是否超出预算
+     */
+    public boolean exceeded(int loaded, long memoryBytes) {
+        return (maxLoaded > 0 && loaded > maxLoaded) || (memoryBounded() && memoryBytes > maxMemoryBytes);
+    }
+}
@@ -0,0 +1,320 @@
+package io.github.xermaor.milvus.plus.core.load;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.github.xermaor.milvus.plus.util.SingleFlight;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.collection.request.GetCollectionStatsReq;
+import io.milvus.v2.service.collection.request.LoadCollectionReq;
+import io.milvus.v2.service.collection.request.ReleaseCollectionReq;
+import io.milvus.v2.service.partition.request.GetPartitionStatsReq;
+import io.milvus.v2.service.partition.request.LoadPartitionsReq;
+import io.milvus.v2.service.partition.request.ReleasePartitionsReq;
+import org.apache.commons.collections4.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * 集合/分区加载管理器。
+ * <p>
+ * 取代启动时全量加载：查询前按需加载用到的集合或分区（同一单元的并发首次访问只加载一次），
+ * 按访问先后维护 LRU，超出 {@link LoadBudget} 时释放最久未访问且未固定的单元。
+ * 加载整个集合后，该集合下单独跟踪的分区并入集合单元，避免释放分区导致集合处于部分加载状态。
+ * <p>
+ * 读请求通过 {@link #acquire} 持有租约直到 RPC 结束，持有租约的单元不会被释放；
+ * 释放对象在锁内选出，释放 RPC 在锁外执行，同一单元的再次加载会等待进行中的释放完成。
+ */
+public class LoadManager {
+
+    private final static Logger log = LoggerFactory.getLogger(LoadManager.class);
+
+    private static final Map<MilvusClientV2, LoadManager> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MilvusClientV2 client;
+    private final SingleFlight<LoadUnit, Long> loads = new SingleFlight<>();
+    private final LinkedHashMap<LoadUnit, Long> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<LoadUnit> pinned = new HashSet<>();
+    private final Map<LoadUnit, Integer> leases = new HashMap<>();
+    private final Set<LoadUnit> releasing = new HashSet<>();
+    private volatile LoadBudget budget;
+    private long memoryBytes;
+
+    public LoadManager(MilvusClientV2 client, LoadBudget budget) {
+        this.client = client;
+        this.budget = budget == null ? LoadBudget.UNBOUNDED : budget;
+    }
+
+    /**
+     * 为客户端启用加载管理，已启用时更新预算
+     */
+    public static LoadManager register(MilvusClientV2 client, LoadBudget budget) {
+        synchronized (INSTANCES) {
+            LoadManager manager = INSTANCES.computeIfAbsent(client, c -> new LoadManager(c, budget));
+            manager.budget(budget);
+            return manager;
+        }
+    }
+
+    /**
+     * 获取客户端的加载管理器
+     *
+     * @return 未启用加载管理时返回 null
+     */
+    public static LoadManager get(MilvusClientV2 client) {
+        return INSTANCES.get(client);
+    }
+
+    public LoadManager budget(LoadBudget budget) {
+        this.budget = budget == null ? LoadBudget.UNBOUNDED : budget;
+        return this;
+    }
+
+    /**
+     * 固定集合或分区，固定的单元不会因预算被释放
+     *
+     * @param collectionName 集合名
+     * @param partitionNames 分区名，为空时固定整个集合
+     */
+    public synchronized LoadManager pin(String collectionName, String... partitionNames) {
+        pinned.addAll(unitsOf(collectionName, Arrays.asList(partitionNames)));
+        return this;
+    }
+
+    public synchronized LoadManager unpin(String collectionName, String... partitionNames) {
+        unitsOf(collectionName, Arrays.asList(partitionNames)).forEach(pinned::remove);
+        return this;
+    }
+
+    /**
+     * 确保集合或分区已加载，并刷新访问时间
+     *
+     * @param collectionName 集合名
+     * @param partitionNames 分区名，为空时加载整个集合
+     */
+    public void ensureLoaded(String collectionName, List<String> partitionNames) {
+        acquire(collectionName, partitionNames).close();
+    }
+
+    /**
+     * 确保集合或分区已加载并持有租约，租约关闭前这些单元不会因预算被释放
+     *
+     * @param collectionName 集合名
+     * @param partitionNames 分区名，为空时加载整个集合
+     * @return 租约，在读请求结束后关闭
+     */
+    public Lease acquire(String collectionName, List<String> partitionNames) {
+        List<LoadUnit> units = unitsOf(collectionName, partitionNames);
+        Lease lease = new Lease(units);
+        try {
+            for (LoadUnit unit : units) {
+                if (!touch(unit)) {
+                    loads.execute(unit, () -> load(unit));
+                }
+            }
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+        evict();
+        return lease;
+    }
+
+    /**
+     * 不再跟踪集合及其分区，用于集合被删除或在外部释放后
+     */
+    public synchronized void invalidate(String collectionName) {
+        Iterator<Map.Entry<LoadUnit, Long>> it = loaded.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<LoadUnit, Long> entry = it.next();
+            if (entry.getKey().collectionName().equals(collectionName)) {
+                memoryBytes -= entry.getValue();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * 当前已加载的单元，最久未访问的在前
+     */
+    public synchronized List<LoadUnit> loadedUnits() {
+        return new ArrayList<>(loaded.keySet());
+    }
+
+    /**
+     * 当前已加载单元的预估内存
+     */
+    public synchronized long memoryBytes() {
+        return memoryBytes;
+    }
+
+    private synchronized boolean touch(LoadUnit unit) {
+        if (unit.partitionName() != null && loaded.get(new LoadUnit(unit.collectionName(), null)) != null) {
+            return true;
+        }
+        return loaded.get(unit) != null;
+    }
+
+    private long load(LoadUnit unit) {
+        awaitRelease(unit);
+        if (touch(unit)) {
+            return 0L;
+        }
+        if (unit.partitionName() == null) {
+            client.loadCollection(LoadCollectionReq.builder().collectionName(unit.collectionName()).build());
+        } else {
+            client.loadPartitions(LoadPartitionsReq.builder()
+                    .collectionName(unit.collectionName())
+                    .partitionNames(List.of(unit.partitionName()))
+                    .build());
+        }
+        long size = estimate(unit);
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.LOAD_LOADS);
+        log.info("Loaded {} ({} bytes estimated)", unit, size);
+        synchronized (this) {
+            if (unit.partitionName() == null) {
+                invalidate(unit.collectionName());
+            }
+            Long previous = loaded.put(unit, size);
+            memoryBytes += size - (previous == null ? 0L : previous);
+        }
+        return size;
+    }
+
+    private long estimate(LoadUnit unit) {
+        LoadBudget current = budget;
+        if (!current.memoryBounded()) {
+            return 0L;
+        }
+        Long rows = unit.partitionName() == null
+                ? client.getCollectionStats(GetCollectionStatsReq.builder()
+                .collectionName(unit.collectionName()).build()).getNumOfEntities()
+                : client.getPartitionStats(GetPartitionStatsReq.builder()
+                .collectionName(unit.collectionName()).partitionName(unit.partitionName()).build()).getNumOfEntities();
+        return rows == null ? 0L : rows * current.bytesPerRow();
+    }
+
+    /**
+     * 释放超出预算的单元：在锁内选出并移除释放对象，在锁外发送释放请求
+     */
+    private void evict() {
+        List<Map.Entry<LoadUnit, Long>> victims = new ArrayList<>();
+        synchronized (this) {
+            LoadBudget current = budget;
+            Iterator<Map.Entry<LoadUnit, Long>> it = loaded.entrySet().iterator();
+            while (current.exceeded(loaded.size(), memoryBytes) && it.hasNext()) {
+                Map.Entry<LoadUnit, Long> entry = it.next();
+                LoadUnit unit = entry.getKey();
+                if (isLeased(unit) || isPinned(unit)) {
+                    continue;
+                }
+                victims.add(Map.entry(unit, entry.getValue()));
+                releasing.add(unit);
+                memoryBytes -= entry.getValue();
+                it.remove();
+            }
+        }
+        for (Map.Entry<LoadUnit, Long> victim : victims) {
+            LoadUnit unit = victim.getKey();
+            try {
+                if (unit.partitionName() == null) {
+                    client.releaseCollection(ReleaseCollectionReq.builder().collectionName(unit.collectionName()).build());
+                } else {
+                    client.releasePartitions(ReleasePartitionsReq.builder()
+                            .collectionName(unit.collectionName())
+                            .partitionNames(List.of(unit.partitionName()))
+                            .build());
+                }
+                MilvusPlusMetrics.increment(MilvusPlusMetrics.LOAD_RELEASES);
+                log.info("Released {} to stay within load budget", unit);
+            } catch (RuntimeException e) {
+                log.warn("Failed to release {}: {}", unit, e.getMessage());
+            } finally {
+                synchronized (this) {
+                    releasing.remove(unit);
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待与单元重叠的释放请求完成，避免加载与释放交错
+     */
+    private synchronized void awaitRelease(LoadUnit unit) {
+        try {
+            while (releasing.stream().anyMatch(other -> overlaps(unit, other))) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted while waiting for release of " + unit, e);
+        }
+    }
+
+    /**
+     * 单元是否被读请求持有：集合单元被该集合下任意租约持有
+     */
+    private boolean isLeased(LoadUnit unit) {
+        if (unit.partitionName() != null) {
+            return leases.containsKey(unit) || leases.containsKey(new LoadUnit(unit.collectionName(), null));
+        }
+        return leases.keySet().stream().anyMatch(leased -> leased.collectionName().equals(unit.collectionName()));
+    }
+
+    private static boolean overlaps(LoadUnit a, LoadUnit b) {
+        return a.collectionName().equals(b.collectionName())
+                && (a.partitionName() == null || b.partitionName() == null || a.partitionName().equals(b.partitionName()));
+    }
+
+    private boolean isPinned(LoadUnit unit) {
+        return pinned.contains(unit) || pinned.contains(new LoadUnit(unit.collectionName(), null));
+    }
+
+    private static List<LoadUnit> unitsOf(String collectionName, List<String> partitionNames) {
+        if (CollectionUtils.isEmpty(partitionNames)) {
+            return List.of(new LoadUnit(collectionName, null));
+        }
+        return partitionNames.stream().distinct().map(p -> new LoadUnit(collectionName, p)).toList();
+    }
+
+    /**
+     * 读请求持有的加载租约，可重复关闭
+     */
+    public final class Lease implements AutoCloseable {
+        private final List<LoadUnit> units;
+        private boolean closed;
+
+        private Lease(List<LoadUnit> units) {
+            this.units = units;
+            synchronized (LoadManager.this) {
+                units.forEach(unit -> leases.merge(unit, 1, Integer::sum));
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (LoadManager.this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                units.forEach(unit -> leases.computeIfPresent(unit, (k, count) -> count == 1 ? null : count - 1));
+            }
+        }
+    }
+
+    /**
+     * 加载单元
+     *
+     * @param collectionName 集合名
+     * @param partitionName  分区名，为 null 时表示整个集合
+     */
+    public record LoadUnit(String collectionName, String partitionName) {
+        @Override
+        public String toString() {
+            return partitionName == null ? collectionName : collectionName + "/" + partitionName;
+        }
+    }
+}
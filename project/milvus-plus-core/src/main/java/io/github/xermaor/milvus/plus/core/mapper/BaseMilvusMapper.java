@@ -2,11 +2,17 @@ package io.github.xermaor.milvus.plus.core.mapper;
 
 import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
 import io.github.xermaor.milvus.plus.cache.ConversionCache;
-import io.github.xermaor.milvus.plus.cache.MilvusCache;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.buffer.WriteBehindBuffer;
+import io.github.xermaor.milvus.plus.core.buffer.WriteBehindConfig;
 import io.github.xermaor.milvus.plus.core.conditions.*;
+import io.github.xermaor.milvus.plus.core.tenant.TenantRouter;
+import io.github.xermaor.milvus.plus.core.tenant.TenantTarget;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
 import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+import io.github.xermaor.milvus.plus.service.MilvusClientBuilder;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
 import io.milvus.v2.client.MilvusClientV2;
 import io.milvus.v2.service.vector.response.DeleteResp;
 import io.milvus.v2.service.vector.response.InsertResp;
@@ -25,6 +31,22 @@ public abstract class BaseMilvusMapper<T> {
 
     public abstract MilvusClientV2 getClient();
 
+    /**
+     * 获取实体元数据注册表，默认使用共享注册表，可由持有构建器的子类覆盖
+     */
+    public EntityMetadataRegistry getMetadataRegistry() {
+        return EntityMetadataRegistry.shared();
+    }
+
+    /**
+     * 获取命名数据源，配置了多数据源时按实体的 {@code datasource} 路由客户端
+     *
+     * @return 未配置多数据源时返回 null，使用 {@link #getClient()}
+     */
+    public MilvusDatasources getDatasources() {
+        return null;
+    }
+
 
     /**
      * 创建搜索构建器实例
@@ -59,6 +81,15 @@ public abstract class BaseMilvusMapper<T> {
     }
 
 
+    /**
+     * 创建异步写缓冲，逐条提交的实体按阈值合并为批量插入，使用完毕后需关闭
+     * @param config 缓冲配置
+     * @return 返回写缓冲
+     */
+    public WriteBehindBuffer<T> writeBehind(WriteBehindConfig config) {
+        return new WriteBehindBuffer<>(this::insertWrapper, config);
+    }
+
     public MilvusResp<List<MilvusResult<T>>> getById(Object... ids) {
         LambdaQueryWrapper<T> lambda = queryWrapper();
         return lambda.getById(ids);
@@ -107,11 +138,19 @@ public abstract class BaseMilvusMapper<T> {
         if (collectionAnnotation == null) {
             throw new MilvusPlusException("Entity type " + entityType.getName() + " is not annotated with @MilvusCollection.");
         }
-        ConversionCache conversionCache = MilvusCache.milvusCache.get(entityType.getName());
-        String collectionName = conversionCache == null ? null : conversionCache.collectionName();
+        MilvusDatasources datasources = getDatasources();
+        MilvusClientBuilder builder = datasources == null ? null : datasources.route(entityType);
+        ConversionCache conversionCache = (builder == null ? getMetadataRegistry() : builder.getMetadataRegistry()).get(entityType);
+        String collectionName = conversionCache.collectionName();
         // 初始化构建器实例
-        MilvusClientV2 client = getClient();
-        wrapper.init(collectionName, client, conversionCache, entityType);
+        MilvusClientV2 client = builder == null ? getClient() : builder.getClient();
+        TenantTarget tenant = TenantRouter.resolve(client, conversionCache);
+        if (tenant == null) {
+            wrapper.init(collectionName, client, conversionCache, entityType);
+        } else {
+            wrapper.init(tenant.collectionName(), client, conversionCache, entityType);
+            wrapper.tenant(tenant);
+        }
         return wrapper.wrapper();
     }
 }
\ No newline at end of file
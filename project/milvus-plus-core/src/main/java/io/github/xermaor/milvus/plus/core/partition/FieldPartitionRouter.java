@@ -0,0 +1,54 @@
+package io.github.xermaor.milvus.plus.core.partition;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * 按字段值路由分区：值为 v 的实体写入 {@code prefix + v}，日期和时间类型的值先按格式转换
+ */
+public class FieldPartitionRouter<T> implements PartitionRouter<T> {
+
+    private final Field field;
+    private final String prefix;
+    private final DateTimeFormatter formatter;
+
+    public FieldPartitionRouter(Field field, String prefix, String pattern) {
+        field.setAccessible(true);
+        this.field = field;
+        this.prefix = prefix == null ? "" : prefix;
+        this.formatter = pattern == null || pattern.isEmpty() ? null
+                : DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.systemDefault());
+    }
+
+    @Override
+    public String partitionOf(T entity) {
+        Object value;
+        try {
+            value = field.get(entity);
+        } catch (IllegalAccessException e) {
+            throw new MilvusPlusException("Failed to read partition field " + field.getName(), e);
+        }
+        if (value == null) {
+            return null;
+        }
+        return prefix + format(value);
+    }
+
+    private String format(Object value) {
+        if (formatter != null) {
+            if (value instanceof Date date) {
+                return formatter.format(Instant.ofEpochMilli(date.getTime()));
+            }
+            if (value instanceof TemporalAccessor temporal) {
+                return formatter.format(temporal);
+            }
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.xermaor.milvus.plus.core.partition;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.partition.request.CreatePartitionReq;
+import io.milvus.v2.service.partition.request.HasPartitionReq;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按需创建分区。
+ * <p>
+ * 每个客户端记录已确认存在的分区；同一分区的并发确认只发起一次检查和创建，其余调用等待其结果。
+ */
+public final class PartitionManager {
+
+    private final static Logger log = LoggerFactory.getLogger(PartitionManager.class);
+
+    private static final Map<MilvusClientV2, Map<String, CompletableFuture<Void>>> KNOWN = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private PartitionManager() {
+    }
+
+    /**
+     * 确保分区存在，不存在时创建
+     */
+    public static void ensure(MilvusClientV2 client, String collectionName, String partitionName) {
+        Map<String, CompletableFuture<Void>> known;
+        synchronized (KNOWN) {
+            known = KNOWN.computeIfAbsent(client, c -> new ConcurrentHashMap<>());
+        }
+        String key = collectionName + "/" + partitionName;
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> existing = known.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                existing.join();
+                return;
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : new MilvusPlusException(e.getCause());
+            }
+        }
+        try {
+            Boolean exists = client.hasPartition(HasPartitionReq.builder()
+                    .collectionName(collectionName)
+                    .partitionName(partitionName)
+                    .build());
+            if (!Boolean.TRUE.equals(exists)) {
+                client.createPartition(CreatePartitionReq.builder()
+                        .collectionName(collectionName)
+                        .partitionName(partitionName)
+                        .build());
+                MilvusPlusMetrics.increment(MilvusPlusMetrics.PARTITION_CREATED);
+                log.info("Created partition on demand: {}.{}", collectionName, partitionName);
+            }
+            mine.complete(null);
+        } catch (RuntimeException e) {
+            // 失败时移除记录，下次重新检查
+            known.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 清除客户端记录的集合分区，集合或分区被删除后调用
+     */
+    public static void forget(MilvusClientV2 client, String collectionName) {
+        Map<String, CompletableFuture<Void>> known = KNOWN.get(client);
+        if (known != null) {
+            known.keySet().removeIf(key -> key.startsWith(collectionName + "/"));
+        }
+    }
+}
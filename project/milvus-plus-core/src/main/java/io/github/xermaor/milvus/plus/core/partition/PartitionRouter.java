@@ -0,0 +1,18 @@
+package io.github.xermaor.milvus.plus.core.partition;
+
+/**
+ * 分区路由，插入时计算每个实体所属的分区。
+ * <p>
+ * 通过 {@code @MilvusPartition(router = ...)} 声明，或在插入构建器上 {@code partitionRouter(...)} 指定。
+ * 一批数据按分区拆分为多个插入请求并行发送，不存在的分区会先创建。
+ */
+@FunctionalInterface
+public interface PartitionRouter<T> {
+
+    /**
+     * 计算实体所属的分区
+     *
+     * @return 分区名，为空时写入默认分区
+     */
+    String partitionOf(T entity);
+}
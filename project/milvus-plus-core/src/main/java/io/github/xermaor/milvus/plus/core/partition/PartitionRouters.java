@@ -0,0 +1,78 @@
+package io.github.xermaor.milvus.plus.core.partition;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusPartition;
+import io.github.xermaor.milvus.plus.annotation.PartitionRoute;
+import io.github.xermaor.milvus.plus.cache.PropertyCache;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 解析实体类声明的分区路由，按类缓存。优先级：
+ * <ol>
+ *     <li>{@link MilvusPartition#router()}</li>
+ *     <li>标注了 {@link PartitionRoute} 的字段</li>
+ *     <li>{@link MilvusPartition#field()} 与 {@link MilvusPartition#prefix()}</li>
+ * </ol>
+ */
+public final class PartitionRouters {
+
+    private static final Map<Class<?>, Optional<PartitionRouter<?>>> CACHE = new ConcurrentHashMap<>();
+
+    private PartitionRouters() {
+    }
+
+    /**
+     * 获取实体类的分区路由
+     *
+     * @param entityType    实体类
+     * @param propertyCache 属性与字段的映射，用于把 {@link MilvusPartition#field()} 的集合字段名解析为属性
+     * @return 未声明时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PartitionRouter<T> of(Class<T> entityType, PropertyCache propertyCache) {
+        return (PartitionRouter<T>) CACHE.computeIfAbsent(entityType, type -> Optional.ofNullable(resolve(type, propertyCache)))
+                .orElse(null);
+    }
+
+    private static PartitionRouter<?> resolve(Class<?> entityType, PropertyCache propertyCache) {
+        MilvusPartition partition = entityType.getAnnotation(MilvusPartition.class);
+        if (partition != null && partition.router() != PartitionRouter.class) {
+            try {
+                return partition.router().getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new MilvusPlusException("Failed to create partition router " + partition.router().getName(), e);
+            }
+        }
+        for (Class<?> c = entityType; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                PartitionRoute route = field.getAnnotation(PartitionRoute.class);
+                if (route != null) {
+                    return new FieldPartitionRouter<>(field, route.prefix(), route.pattern());
+                }
+            }
+        }
+        if (partition != null && !partition.field().isEmpty()) {
+            String property = propertyCache == null ? null : propertyCache.findKeyByValue(partition.field());
+            Field field = findField(entityType, property != null ? property : partition.field());
+            if (field != null) {
+                return new FieldPartitionRouter<>(field, partition.prefix(), null);
+            }
+        }
+        return null;
+    }
+
+    private static Field findField(Class<?> entityType, String name) {
+        for (Class<?> c = entityType; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.xermaor.milvus.plus.core.plan;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusPartition;
+import io.github.xermaor.milvus.plus.model.MilvusEntity;
+import io.milvus.v2.service.collection.request.AddFieldReq;
+
+import java.util.*;
+
+/**
+ * 查询规划所需的集合元数据
+ *
+ * @param primaryKey         主键字段名
+ * @param partitionKey       Partition Key 字段名，没有时为 null
+ * @param indexedFields      建有索引的字段名
+ * @param partitionField     {@link MilvusPartition#field()} 映射字段，没有时为 null
+ * @param partitionPrefix    分区名前缀
+ * @param declaredPartitions {@link MilvusPartition#name()} 声明的分区，为空时不校验
+ */
+public record PlanContext(String primaryKey, String partitionKey, Set<String> indexedFields,
+                          String partitionField, String partitionPrefix, Set<String> declaredPartitions) {
+
+    public static final PlanContext EMPTY = new PlanContext(null, null, Set.of(), null, "", Set.of());
+
+    /**
+     * 从实体类和解析后的集合元数据构建规划上下文
+     */
+    public static PlanContext of(Class<?> entityType, MilvusEntity entity, String primaryKey) {
+        if (entity == null) {
+            return EMPTY;
+        }
+        String partitionKey = Optional.ofNullable(entity.milvusFields()).orElse(List.of()).stream()
+                .filter(field -> Boolean.TRUE.equals(field.getIsPartitionKey()))
+                .map(AddFieldReq::getFieldName)
+                .findFirst()
+                .orElse(null);
+        Set<String> indexedFields = new HashSet<>();
+        Optional.ofNullable(entity.indexParams()).orElse(List.of())
+                .forEach(index -> indexedFields.add(index.getFieldName()));
+        MilvusPartition partition = entityType == null ? null : entityType.getAnnotation(MilvusPartition.class);
+        String partitionField = null;
+        String prefix = "";
+        Set<String> declared = Set.of();
+        if (partition != null && !partition.field().isEmpty()) {
+            partitionField = partition.field();
+            prefix = partition.prefix();
+            declared = new LinkedHashSet<>(Arrays.asList(partition.name()));
+        }
+        return new PlanContext(primaryKey, partitionKey, Set.copyOf(indexedFields), partitionField, prefix, declared);
+    }
+
+    /**
+     * 字段是否建有索引
+     */
+    public boolean isIndexed(String field) {
+        return field != null && indexedFields.contains(field);
+    }
+}
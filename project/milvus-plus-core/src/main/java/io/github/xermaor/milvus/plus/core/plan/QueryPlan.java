@@ -0,0 +1,16 @@
+package io.github.xermaor.milvus.plus.core.plan;
+
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+
+import java.util.List;
+
+/**
+ * 查询规划结果
+ *
+ * @param filter             规划后的过滤表达式
+ * @param partitionNames     实际检索的分区，为空时检索全部分区
+ * @param pruned             是否根据条件自动裁剪了分区
+ * @param partitionKeyPinned 条件是否限定了 Partition Key 字段
+ */
+public record QueryPlan(Expr filter, List<String> partitionNames, boolean pruned, boolean partitionKeyPinned) {
+}
@@ -0,0 +1,148 @@
+package io.github.xermaor.milvus.plus.core.plan;
+
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Param;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+
+import java.util.*;
+
+/**
+ * 查询规划器，位于条件化简与请求构建之间。
+ * <p>
+ * 对化简后的条件树做两件事：
+ * <ul>
+ *     <li>顶层合取式中以等值或 IN 限定了 {@code @MilvusPartition(field = ...)} 映射字段时，自动推导需要检索的分区；
+ *     限定 Partition Key 字段时由服务端裁剪分区（Milvus 不允许此时手动指定分区），这里只做记录</li>
+ *     <li>按估算代价对顶层条件做稳定排序：主键、Partition Key、有索引的等值条件在前，
+ *     无索引的范围条件、LIKE、JSON/数组函数等表达式在后</li>
+ * </ul>
+ * 规划只改变条件顺序和分区范围，不改变查询语义。
+ */
+public final class QueryPlanner {
+
+    private QueryPlanner() {
+    }
+
+    /**
+     * 规划查询
+     *
+     * @param condition           化简后的条件
+     * @param context             集合元数据
+     * @param requestedPartitions 用户显式指定的分区，可为空
+     * @return 规划结果
+     */
+    public static QueryPlan plan(Expr condition, PlanContext context, List<String> requestedPartitions) {
+        List<String> requested = requestedPartitions == null ? List.of() : requestedPartitions;
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.PLANNER_PLANS);
+        if (condition instanceof Expr.Const) {
+            return new QueryPlan(condition, requested, false, false);
+        }
+        List<Expr> conjuncts = condition instanceof Expr.And and ? and.children() : List.of(condition);
+
+        List<String> partitions = requested;
+        boolean pruned = false;
+        List<String> derived = derivePartitions(conjuncts, context);
+        if (derived != null) {
+            List<String> narrowed = requested.isEmpty() ? derived : intersect(requested, derived);
+            if (!narrowed.isEmpty() && !narrowed.equals(requested)) {
+                partitions = narrowed;
+                pruned = true;
+                MilvusPlusMetrics.increment(MilvusPlusMetrics.PLANNER_PARTITION_PRUNED);
+            }
+        }
+        boolean keyPinned = context.partitionKey() != null && pinnedValues(conjuncts, context.partitionKey()) != null;
+        if (keyPinned) {
+            MilvusPlusMetrics.increment(MilvusPlusMetrics.PLANNER_PARTITION_KEY_PINNED);
+        }
+
+        Expr filter = condition;
+        if (conjuncts.size() > 1) {
+            List<Expr> ordered = new ArrayList<>(conjuncts);
+            ordered.sort(Comparator.comparingInt(expr -> cost(expr, context)));
+            if (!ordered.equals(conjuncts)) {
+                filter = Expr.and(ordered);
+                MilvusPlusMetrics.increment(MilvusPlusMetrics.PLANNER_PREDICATES_REORDERED);
+            }
+        }
+        return new QueryPlan(filter, partitions, pruned, keyPinned);
+    }
+
+    /**
+     * 根据分区映射字段推导分区
+     *
+     * @return 分区名；无法推导或推导出的分区未声明时返回 null
+     */
+    private static List<String> derivePartitions(List<Expr> conjuncts, PlanContext context) {
+        if (context.partitionField() == null) {
+            return null;
+        }
+        Collection<Object> values = pinnedValues(conjuncts, context.partitionField());
+        if (values == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(values.size());
+        for (Object value : values) {
+            String name = context.partitionPrefix() + value;
+            if (!context.declaredPartitions().isEmpty() && !context.declaredPartitions().contains(name)) {
+                return null;
+            }
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 顶层合取式中对字段的等值或 IN 限定值
+     */
+    private static Collection<Object> pinnedValues(List<Expr> conjuncts, String field) {
+        for (Expr expr : conjuncts) {
+            if (expr instanceof Expr.Compare cmp && cmp.op() == Expr.Op.EQ && cmp.field().equals(field)
+                    && cmp.value() != null && !(cmp.value() instanceof Param)) {
+                return List.of(cmp.value());
+            }
+            if (expr instanceof Expr.In in && in.field().equals(field) && in.values().stream().noneMatch(Param.class::isInstance)) {
+                return in.values();
+            }
+        }
+        return null;
+    }
+
+    private static List<String> intersect(List<String> requested, List<String> derived) {
+        List<String> result = new ArrayList<>(requested);
+        result.retainAll(derived);
+        return result;
+    }
+
+    /**
+     * 估算条件的执行代价，值越小越先执行
+     */
+    static int cost(Expr expr, PlanContext context) {
+        return switch (expr) {
+            case Expr.Const c -> 0;
+            case Expr.Compare cmp -> scalarCost(cmp.field(), cmp.op() == Expr.Op.EQ, cmp.op() == Expr.Op.NE, context);
+            case Expr.In in -> scalarCost(in.field(), true, false, context);
+            case Expr.Predicate predicate -> {
+                if (predicate.text().startsWith("TEXT_MATCH") || predicate.text().startsWith("PHRASE_MATCH")) {
+                    yield 3;
+                }
+                yield context.isIndexed(predicate.field()) ? 5 : 7;
+            }
+            case Expr.Not not -> cost(not.child(), context) + 1;
+            case Expr.And and -> and.children().stream().mapToInt(child -> cost(child, context)).max().orElse(0);
+            case Expr.Or or -> or.children().stream().mapToInt(child -> cost(child, context)).max().orElse(0) + 1;
+        };
+    }
+
+    private static int scalarCost(String field, boolean point, boolean negated, PlanContext context) {
+        if (field.equals(context.primaryKey()) || field.equals(context.partitionKey())) {
+            return point ? 0 : 2;
+        }
+        int base = context.isIndexed(field) ? 1 : 4;
+        if (point) {
+            return base;
+        }
+        return negated ? base + 2 : base + 1;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 按业务字段去重，每个键只保留得分最优的一条。
+ * <p>
+ * 键值为 null 的结果不参与去重。
+ */
+public class FieldDedupPostProcessor<T> implements ResultPostProcessor<T> {
+
+    private static final int DEFAULT_OVER_FETCH = 2;
+
+    private final Function<T, ?> keyExtractor;
+    private final int overFetchFactor;
+
+    public FieldDedupPostProcessor(Function<T, ?> keyExtractor) {
+        this(keyExtractor, DEFAULT_OVER_FETCH);
+    }
+
+    /**
+     * @param keyExtractor    去重键提取函数，可直接传入实体的 getter
+     * @param overFetchFactor 预估重复度对应的超量拉取倍数
+     */
+    public FieldDedupPostProcessor(Function<T, ?> keyExtractor, int overFetchFactor) {
+        if (keyExtractor == null) {
+            throw new MilvusPlusException("dedup key extractor must not be null");
+        }
+        this.keyExtractor = keyExtractor;
+        this.overFetchFactor = Math.max(1, overFetchFactor);
+    }
+
+    @Override
+    public List<MilvusResult<T>> process(List<MilvusResult<T>> results, PostProcessContext context) {
+        Set<Object> seen = new HashSet<>(results.size() * 2);
+        List<MilvusResult<T>> kept = new ArrayList<>(results.size());
+        for (MilvusResult<T> result : results) {
+            Object key = result.entity() == null ? null : keyExtractor.apply(result.entity());
+            if (key == null || seen.add(key)) {
+                kept.add(result);
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public int overFetchFactor() {
+        return overFetchFactor;
+    }
+}
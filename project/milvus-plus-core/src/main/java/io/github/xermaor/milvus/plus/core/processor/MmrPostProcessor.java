@@ -0,0 +1,150 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 最大边际相关性（MMR）多样性重排。
+ * <p>
+ * 每一步选择 {@code lambda * 相关性 - (1 - lambda) * 与已选结果的最大余弦相似度} 最大的候选，
+ * 相关性由原始得分按度量方向归一化到 [0, 1]。结果中需要包含向量字段。
+ */
+public class MmrPostProcessor<T> implements ResultPostProcessor<T> {
+
+    private static final int DEFAULT_OVER_FETCH = 3;
+
+    private final Function<T, ? extends List<Float>> vectorExtractor;
+    private final double lambda;
+    private final int overFetchFactor;
+
+    public MmrPostProcessor(Function<T, ? extends List<Float>> vectorExtractor, double lambda) {
+        this(vectorExtractor, lambda, DEFAULT_OVER_FETCH);
+    }
+
+    /**
+     * @param vectorExtractor 向量提取函数，可直接传入实体的 getter
+     * @param lambda          相关性权重，取值 [0, 1]，越小越强调多样性
+     * @param overFetchFactor 候选集相对 topK 的倍数
+     */
+    public MmrPostProcessor(Function<T, ? extends List<Float>> vectorExtractor, double lambda, int overFetchFactor) {
+        if (vectorExtractor == null) {
+            throw new MilvusPlusException("mmr vector extractor must not be null");
+        }
+        if (lambda < 0 || lambda > 1) {
+            throw new MilvusPlusException("mmr lambda must be in [0, 1]");
+        }
+        this.vectorExtractor = vectorExtractor;
+        this.lambda = lambda;
+        this.overFetchFactor = Math.max(1, overFetchFactor);
+    }
+
+    @Override
+    public List<MilvusResult<T>> process(List<MilvusResult<T>> results, PostProcessContext context) {
+        int n = results.size();
+        int k = context.topK() > 0 ? Math.min(context.topK(), n) : n;
+        if (n <= 1 || k == 0) {
+            return results;
+        }
+        float[] relevance = normalize(ScoreArrays.scores(results), context.scoreOrder());
+        float[][] vectors = new float[n][];
+        for (int i = 0; i < n; i++) {
+            T entity = results.get(i).entity();
+            vectors[i] = entity == null ? null : unit(vectorExtractor.apply(entity));
+        }
+
+        float[] maxSim = new float[n];
+        boolean[] picked = new boolean[n];
+        List<MilvusResult<T>> selected = new ArrayList<>(k);
+        for (int round = 0; round < k; round++) {
+            int best = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (picked[i]) {
+                    continue;
+                }
+                double value = lambda * relevance[i] - (1 - lambda) * maxSim[i];
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            picked[best] = true;
+            selected.add(results.get(best));
+            float[] chosen = vectors[best];
+            if (chosen == null) {
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                if (!picked[i] && vectors[i] != null) {
+                    float sim = dot(vectors[i], chosen);
+                    if (sim > maxSim[i]) {
+                        maxSim[i] = sim;
+                    }
+                }
+            }
+        }
+        return selected;
+    }
+
+    @Override
+    public int overFetchFactor() {
+        return overFetchFactor;
+    }
+
+    /**
+     * 将得分按度量方向线性归一化到 [0, 1]，越大越相关
+     */
+    private static float[] normalize(float[] scores, ScoreOrder order) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (float score : scores) {
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        float range = max - min;
+        float[] normalized = new float[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            if (range == 0f) {
+                normalized[i] = 1f;
+            } else {
+                normalized[i] = order == ScoreOrder.ASC ? (max - scores[i]) / range : (scores[i] - min) / range;
+            }
+        }
+        return normalized;
+    }
+
+    private static float[] unit(List<Float> vector) {
+        if (vector == null || vector.isEmpty()) {
+            return null;
+        }
+        float[] values = new float[vector.size()];
+        double norm = 0;
+        for (int i = 0; i < values.length; i++) {
+            Float v = vector.get(i);
+            values[i] = v == null ? 0f : v;
+            norm += values[i] * values[i];
+        }
+        if (norm == 0) {
+            return null;
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= inv;
+        }
+        return values;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        int len = Math.min(a.length, b.length);
+        float sum = 0f;
+        for (int i = 0; i < len; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
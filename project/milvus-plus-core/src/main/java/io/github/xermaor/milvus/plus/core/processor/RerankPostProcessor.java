@@ -0,0 +1,72 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 使用外部打分模型（例如 cross-encoder）重排序。
+ * <p>
+ * 打分函数一次接收整批候选实体并返回等长的得分数组，得分越大越相关；
+ * 重排后结果的 distance 替换为新得分。
+ */
+public class RerankPostProcessor<T> implements ResultPostProcessor<T> {
+
+    private static final int DEFAULT_OVER_FETCH = 2;
+
+    private final Function<List<T>, float[]> scorer;
+    private final int overFetchFactor;
+
+    public RerankPostProcessor(Function<List<T>, float[]> scorer) {
+        this(scorer, DEFAULT_OVER_FETCH);
+    }
+
+    /**
+     * @param scorer          批量打分函数
+     * @param overFetchFactor 送入重排的候选集相对 topK 的倍数
+     */
+    public RerankPostProcessor(Function<List<T>, float[]> scorer, int overFetchFactor) {
+        if (scorer == null) {
+            throw new MilvusPlusException("rerank scorer must not be null");
+        }
+        this.scorer = scorer;
+        this.overFetchFactor = Math.max(1, overFetchFactor);
+    }
+
+    @Override
+    public List<MilvusResult<T>> process(List<MilvusResult<T>> results, PostProcessContext context) {
+        if (results.isEmpty()) {
+            return results;
+        }
+        List<T> entities = new ArrayList<>(results.size());
+        for (MilvusResult<T> result : results) {
+            entities.add(result.entity());
+        }
+        float[] scores = scorer.apply(entities);
+        if (scores == null || scores.length != results.size()) {
+            throw new MilvusPlusException("rerank scorer must return one score per candidate");
+        }
+        int k = context.topK() > 0 ? context.topK() : results.size();
+        int[] head = ScoreArrays.topK(scores, k, ScoreOrder.DESC);
+        List<MilvusResult<T>> reranked = new ArrayList<>(head.length);
+        for (int i : head) {
+            MilvusResult<T> origin = results.get(i);
+            reranked.add(new MilvusResult<>(origin.entity(), scores[i], origin.id(), origin.total()));
+        }
+        return reranked;
+    }
+
+    @Override
+    public int overFetchFactor() {
+        return overFetchFactor;
+    }
+
+    @Override
+    public ScoreOrder outputOrder(ScoreOrder inputOrder) {
+        return ScoreOrder.DESC;
+    }
+}
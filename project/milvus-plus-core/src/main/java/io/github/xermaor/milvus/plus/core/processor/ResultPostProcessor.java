@@ -0,0 +1,49 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.List;
+
+/**
+ * 搜索结果后置处理器，在 {@code SearchRespConverter} 转换完成后按注册顺序执行。
+ * <p>
+ * 每个查询向量的结果单独处理，初始输入按得分从优到劣排列，之后为上一个处理器的输出顺序。
+ *
+ * @param <T> 实体类型
+ */
+@FunctionalInterface
+public interface ResultPostProcessor<T> {
+
+    /**
+     * 处理单个查询向量的结果
+     *
+     * @param results 当前结果，最优在前
+     * @param context 处理上下文
+     * @return 处理后的结果
+     */
+    List<MilvusResult<T>> process(List<MilvusResult<T>> results, PostProcessContext context);
+
+    /**
+     * 为保证处理后仍有 topK 条结果需要超量拉取的倍数
+     */
+    default int overFetchFactor() {
+        return 1;
+    }
+
+    /**
+     * 处理后结果得分的排序方向，重排序类处理器会改变得分含义
+     */
+    default ScoreOrder outputOrder(ScoreOrder inputOrder) {
+        return inputOrder;
+    }
+
+    /**
+     * 处理上下文
+     *
+     * @param topK       调用方期望的结果条数，未指定时为 0
+     * @param scoreOrder 当前结果得分的排序方向
+     */
+    record PostProcessContext(int topK, ScoreOrder scoreOrder) {
+    }
+}
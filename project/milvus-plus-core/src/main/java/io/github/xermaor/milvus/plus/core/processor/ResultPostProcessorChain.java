@@ -0,0 +1,92 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 后置处理器链，负责计算超量拉取条数、依次执行处理器并截断到 topK。
+ */
+public class ResultPostProcessorChain<T> {
+
+    /**
+     * Milvus 单次搜索允许的最大 topK
+     */
+    public static final int MAX_FETCH_SIZE = 16384;
+
+    private final List<ResultPostProcessor<T>> processors = new ArrayList<>();
+
+    public ResultPostProcessorChain<T> add(ResultPostProcessor<T> processor) {
+        if (processor != null) {
+            processors.add(processor);
+        }
+        return this;
+    }
+
+    /**
+     * 复制当前的处理器链，之后对原链的修改不影响副本
+     */
+    public ResultPostProcessorChain<T> copy() {
+        ResultPostProcessorChain<T> copy = new ResultPostProcessorChain<>();
+        copy.processors.addAll(processors);
+        return copy;
+    }
+
+    public boolean isEmpty() {
+        return processors.isEmpty();
+    }
+
+    /**
+     * 计算实际向服务端请求的条数，各处理器的倍数相乘并受 {@link #MAX_FETCH_SIZE} 限制
+     *
+     * @param topK 调用方期望的条数
+     * @return 实际拉取条数
+     */
+    public long fetchSize(long topK) {
+        if (topK <= 0 || processors.isEmpty()) {
+            return topK;
+        }
+        long size = topK;
+        for (ResultPostProcessor<T> processor : processors) {
+            size *= Math.max(1, processor.overFetchFactor());
+            if (size >= MAX_FETCH_SIZE) {
+                return Math.max(topK, MAX_FETCH_SIZE);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 对每个查询向量的结果分别执行处理器链并截断
+     *
+     * @param groups     按查询向量分组的结果
+     * @param topK       调用方期望的条数，0 表示不截断
+     * @param scoreOrder 服务端得分的排序方向
+     * @return 合并后的结果，按查询向量顺序排列
+     */
+    public List<MilvusResult<T>> applyGroups(List<List<MilvusResult<T>>> groups, int topK, ScoreOrder scoreOrder) {
+        List<MilvusResult<T>> merged = new ArrayList<>();
+        for (List<MilvusResult<T>> group : groups) {
+            merged.addAll(apply(group, topK, scoreOrder));
+        }
+        return merged;
+    }
+
+    /**
+     * 对单个查询向量的结果执行处理器链并截断
+     */
+    public List<MilvusResult<T>> apply(List<MilvusResult<T>> results, int topK, ScoreOrder scoreOrder) {
+        List<MilvusResult<T>> current = results;
+        ScoreOrder order = scoreOrder;
+        for (ResultPostProcessor<T> processor : processors) {
+            current = processor.process(current, new ResultPostProcessor.PostProcessContext(topK, order));
+            order = processor.outputOrder(order);
+        }
+        if (topK > 0 && current.size() > topK) {
+            current = new ArrayList<>(current.subList(0, topK));
+        }
+        return current;
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于原始类型数组的得分工具，避免装箱排序。
+ */
+public final class ScoreArrays {
+
+    private ScoreArrays() {
+    }
+
+    /**
+     * 提取结果得分，缺失得分按 0 处理
+     */
+    public static <T> float[] scores(List<MilvusResult<T>> results) {
+        float[] scores = new float[results.size()];
+        for (int i = 0; i < scores.length; i++) {
+            Float distance = results.get(i).distance();
+            scores[i] = distance == null ? 0f : distance;
+        }
+        return scores;
+    }
+
+    /**
+     * 选出最优的 k 个下标并按得分排序，只对前 k 个元素做完整排序
+     *
+     * @param scores 得分数组
+     * @param k      需要的条数
+     * @param order  排序方向
+     * @return 最优 k 个元素的下标，最优在前
+     */
+    public static int[] topK(float[] scores, int k, ScoreOrder order) {
+        int n = scores.length;
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) {
+            idx[i] = i;
+        }
+        if (k <= 0 || n == 0) {
+            return new int[0];
+        }
+        if (k < n) {
+            select(scores, idx, 0, n - 1, k - 1, order);
+        } else {
+            k = n;
+        }
+        sortRange(scores, idx, 0, k - 1, order);
+        int[] head = new int[k];
+        System.arraycopy(idx, 0, head, 0, k);
+        return head;
+    }
+
+    /**
+     * 按得分对结果做部分排序并截断到 k 条
+     */
+    public static <T> List<MilvusResult<T>> topK(List<MilvusResult<T>> results, int k, ScoreOrder order) {
+        int[] head = topK(scores(results), k, order);
+        List<MilvusResult<T>> sorted = new ArrayList<>(head.length);
+        for (int i : head) {
+            sorted.add(results.get(i));
+        }
+        return sorted;
+    }
+
+    /**
+     * 快速选择，使 idx[kth] 就位且其前面的元素都不劣于它
+     */
+    private static void select(float[] scores, int[] idx, int lo, int hi, int kth, ScoreOrder order) {
+        while (hi > lo) {
+            int p = partition(scores, idx, lo, hi, order);
+            if (p == kth) {
+                return;
+            } else if (p < kth) {
+                lo = p + 1;
+            } else {
+                hi = p - 1;
+            }
+        }
+    }
+
+    private static void sortRange(float[] scores, int[] idx, int lo, int hi, ScoreOrder order) {
+        while (hi - lo > 16) {
+            int p = partition(scores, idx, lo, hi, order);
+            if (p - lo < hi - p) {
+                sortRange(scores, idx, lo, p - 1, order);
+                lo = p + 1;
+            } else {
+                sortRange(scores, idx, p + 1, hi, order);
+                hi = p - 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            int cur = idx[i];
+            int j = i - 1;
+            while (j >= lo && before(scores, cur, idx[j], order)) {
+                idx[j + 1] = idx[j];
+                j--;
+            }
+            idx[j + 1] = cur;
+        }
+    }
+
+    private static int partition(float[] scores, int[] idx, int lo, int hi, ScoreOrder order) {
+        int mid = (lo + hi) >>> 1;
+        swap(idx, mid, hi);
+        int pivot = idx[hi];
+        int store = lo;
+        for (int i = lo; i < hi; i++) {
+            if (before(scores, idx[i], pivot, order)) {
+                swap(idx, i, store++);
+            }
+        }
+        swap(idx, store, hi);
+        return store;
+    }
+
+    /**
+     * 得分相同时按原始下标排序，保证结果稳定
+     */
+    private static boolean before(float[] scores, int a, int b, ScoreOrder order) {
+        int c = order.compare(scores[a], scores[b]);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    private static void swap(int[] idx, int i, int j) {
+        int tmp = idx[i];
+        idx[i] = idx[j];
+        idx[j] = tmp;
+    }
+}
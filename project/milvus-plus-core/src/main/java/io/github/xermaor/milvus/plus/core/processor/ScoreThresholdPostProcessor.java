@@ -0,0 +1,32 @@
+package io.github.xermaor.milvus.plus.core.processor;
+
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 得分阈值截断：丢弃得分劣于阈值的结果，阈值方向跟随度量类型。
+ * <p>
+ * 例如 L2 下保留距离不大于阈值的结果，COSINE 下保留相似度不小于阈值的结果。
+ */
+public class ScoreThresholdPostProcessor<T> implements ResultPostProcessor<T> {
+
+    private final float threshold;
+
+    public ScoreThresholdPostProcessor(float threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public List<MilvusResult<T>> process(List<MilvusResult<T>> results, PostProcessContext context) {
+        float[] scores = ScoreArrays.scores(results);
+        List<MilvusResult<T>> kept = new ArrayList<>(results.size());
+        for (int i = 0; i < scores.length; i++) {
+            if (!context.scoreOrder().isBetter(threshold, scores[i])) {
+                kept.add(results.get(i));
+            }
+        }
+        return kept;
+    }
+}
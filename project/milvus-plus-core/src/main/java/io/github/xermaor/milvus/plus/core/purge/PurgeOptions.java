@@ -0,0 +1,31 @@
+package io.github.xermaor.milvus.plus.core.purge;
+
+import java.util.function.Consumer;
+
+/**
+ * 分块清除配置
+ *
+ * @param chunkSize     每次删除请求的主键数
+ * @param scanBatchSize 扫描主键时查询迭代器的批大小
+ * @param rowsPerSecond 每秒最多删除的行数，不大于 0 时不限速
+ * @param compact       清除完成后是否触发压缩
+ * @param resumeAfter   从该主键之后继续清除，取自上次进度的 {@link PurgeProgress#lastPrimaryKey()}；为 null 时从头开始
+ * @param listener      每删除一块后回调进度，可为 null
+ */
+public record PurgeOptions(int chunkSize, int scanBatchSize, double rowsPerSecond, boolean compact, Object resumeAfter,
+                           Consumer<PurgeProgress> listener) {
+
+    public static final PurgeOptions DEFAULT = new PurgeOptions(1000, 5000, 0, false, null, null);
+
+    public PurgeOptions {
+        chunkSize = Math.max(1, chunkSize);
+        scanBatchSize = Math.max(chunkSize, scanBatchSize);
+    }
+
+    /**
+     * 以当前配置从指定主键之后继续清除
+     */
+    public PurgeOptions resumeAfter(Object primaryKey) {
+        return new PurgeOptions(chunkSize, scanBatchSize, rowsPerSecond, compact, primaryKey, listener);
+    }
+}
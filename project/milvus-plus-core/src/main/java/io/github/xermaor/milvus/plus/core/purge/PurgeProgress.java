@@ -0,0 +1,12 @@
+package io.github.xermaor.milvus.plus.core.purge;
+
+/**
+ * 清除进度
+ *
+ * @param scanned        已扫描的主键数
+ * @param deleted        已删除的行数
+ * @param lastPrimaryKey 最后一块已删除的最大主键，中断后传给 {@link PurgeOptions#resumeAfter(Object)} 继续
+ * @param compactionId   触发的压缩任务 ID，未触发时为 null
+ */
+public record PurgeProgress(long scanned, long deleted, Object lastPrimaryKey, Long compactionId) {
+}
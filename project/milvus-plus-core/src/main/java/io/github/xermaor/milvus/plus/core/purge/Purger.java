@@ -0,0 +1,146 @@
+package io.github.xermaor.milvus.plus.core.purge;
+
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.route.MilvusSession;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.milvus.orm.iterator.QueryIterator;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.utility.request.CompactReq;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分块清除。
+ * <p>
+ * 用查询迭代器按主键升序扫描匹配的主键，每凑满一块发送一次按主键删除，块之间按速率限制等待。
+ * 迭代器以主键游标分页，边扫描边删除不会跳过或重复；中断后以最后删除的主键继续即可。
+ */
+public class Purger {
+
+    private final static Logger log = LoggerFactory.getLogger(Purger.class);
+
+    private final MilvusClientV2 client;
+    private final String collectionName;
+    private final String partitionName;
+    private final String primaryKey;
+    private final PurgeOptions options;
+    private long scanned;
+    private long deleted;
+    private Object lastPrimaryKey;
+    private long startNanos;
+
+    /**
+     * @param client         主客户端
+     * @param collectionName 集合名
+     * @param partitionName  分区名，为空时清除整个集合中匹配的数据
+     * @param primaryKey     主键字段名
+     * @param options        清除配置
+     */
+    public Purger(MilvusClientV2 client, String collectionName, String partitionName, String primaryKey, PurgeOptions options) {
+        this.client = client;
+        this.collectionName = collectionName;
+        this.partitionName = partitionName;
+        this.primaryKey = primaryKey;
+        this.options = options == null ? PurgeOptions.DEFAULT : options;
+        this.lastPrimaryKey = this.options.resumeAfter();
+    }
+
+    /**
+     * 清除满足过滤条件的数据
+     *
+     * @param filter 过滤条件，已包含继续清除的主键下界；为空时清除全部数据
+     * @return 最终进度
+     */
+    public PurgeProgress run(String filter) {
+        QueryIteratorReq.QueryIteratorReqBuilder<?, ?> builder = QueryIteratorReq.builder()
+                .collectionName(collectionName)
+                .outputFields(List.of(primaryKey))
+                .batchSize(options.scanBatchSize());
+        if (StringUtils.isNotEmpty(filter)) {
+            builder.expr(filter);
+        }
+        if (StringUtils.isNotEmpty(partitionName)) {
+            builder.partitionNames(List.of(partitionName));
+        }
+        log.info("Purging {} where [{}] in chunks of {}", collectionName, filter, options.chunkSize());
+        startNanos = System.nanoTime();
+        // 从写端点扫描，避免读副本滞后漏删
+        QueryIterator iterator = ReadWriteRouter.writer(client).queryIterator(builder.build());
+        List<Object> chunk = new ArrayList<>(options.chunkSize());
+        try {
+            List<QueryResultsWrapper.RowRecord> batch;
+            while (!(batch = iterator.next()).isEmpty()) {
+                for (QueryResultsWrapper.RowRecord row : batch) {
+                    chunk.add(row.get(primaryKey));
+                    if (chunk.size() >= options.chunkSize()) {
+                        delete(chunk);
+                        chunk = new ArrayList<>(options.chunkSize());
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                delete(chunk);
+            }
+        } finally {
+            iterator.close();
+        }
+        MilvusSession.recordWrite(collectionName);
+        Long compactionId = null;
+        if (options.compact() && deleted > 0) {
+            compactionId = client.compact(CompactReq.builder().collectionName(collectionName).build()).getCompactionID();
+            log.info("Triggered compaction {} of {} after purging {} rows", compactionId, collectionName, deleted);
+        }
+        return new PurgeProgress(scanned, deleted, lastPrimaryKey, compactionId);
+    }
+
+    private void delete(List<Object> chunk) {
+        DeleteReq.DeleteReqBuilder<?, ?> builder = DeleteReq.builder()
+                .collectionName(collectionName)
+                .ids(chunk);
+        if (StringUtils.isNotEmpty(partitionName)) {
+            builder.partitionName(partitionName);
+        }
+        DeleteReq deleteReq = builder.build();
+        DeleteResp resp = ResilientExecutor.execute(client, OperationType.DELETE, collectionName, writer -> writer.delete(deleteReq));
+        scanned += chunk.size();
+        deleted += resp.getDeleteCnt();
+        lastPrimaryKey = chunk.getLast();
+        MilvusPlusMetrics.add(MilvusPlusMetrics.PURGE_DELETED_ROWS, chunk.size());
+        if (options.listener() != null) {
+            options.listener().accept(new PurgeProgress(scanned, deleted, lastPrimaryKey, null));
+        }
+        throttle();
+    }
+
+    /**
+     * 按已删除行数和速率限制计算应耗时间，提前完成时等待
+     */
+    private void throttle() {
+        if (options.rowsPerSecond() <= 0) {
+            return;
+        }
+        long expectedNanos = (long) (scanned / options.rowsPerSecond() * TimeUnit.SECONDS.toNanos(1));
+        long waitNanos = expectedNanos - (System.nanoTime() - startNanos);
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted while purging " + collectionName + " after " + lastPrimaryKey, e);
+        }
+    }
+}
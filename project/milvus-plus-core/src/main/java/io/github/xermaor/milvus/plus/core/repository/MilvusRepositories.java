@@ -0,0 +1,101 @@
+package io.github.xermaor.milvus.plus.core.repository;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusRepository;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
+import io.milvus.v2.client.MilvusClientV2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 构建期生成的仓库的发现与创建。
+ * <p>
+ * milvus-plus-processor 把每个仓库接口及其实现写入类路径下的 {@link #INDEX} 文件，每行一个 {@code 接口=实现}。
+ * 启动时读取索引并以实体所属数据源的客户端创建实现，反射只发生在启动时。
+ */
+public final class MilvusRepositories {
+
+    private final static Logger log = LoggerFactory.getLogger(MilvusRepositories.class);
+
+    /**
+     * 仓库索引文件
+     */
+    public static final String INDEX = "META-INF/milvus-plus/repositories";
+
+    private MilvusRepositories() {
+    }
+
+    /**
+     * 读取类路径上的全部仓库索引
+     *
+     * @return 仓库接口到实现类的映射
+     */
+    public static Map<Class<?>, Class<?>> discover(ClassLoader classLoader) {
+        Map<Class<?>, Class<?>> repositories = new LinkedHashMap<>();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(INDEX);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        int separator = line.indexOf('=');
+                        if (line.isEmpty() || line.startsWith("#") || separator < 0) {
+                            continue;
+                        }
+                        repositories.put(Class.forName(line.substring(0, separator), false, classLoader),
+                                Class.forName(line.substring(separator + 1), false, classLoader));
+                    }
+                }
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new MilvusPlusException("Failed to read milvus repository index", e);
+        }
+        return repositories;
+    }
+
+    /**
+     * 仓库接口声明的实体类
+     */
+    public static Class<?> entityType(Class<?> repository) {
+        MilvusRepository annotation = repository.getAnnotation(MilvusRepository.class);
+        if (annotation == null) {
+            throw new MilvusPlusException(repository.getName() + " is not annotated with @MilvusRepository");
+        }
+        return annotation.value();
+    }
+
+    /**
+     * 创建仓库实现
+     *
+     * @param implementation 生成的实现类，需要有 {@code (MilvusClientV2)} 构造器
+     */
+    public static <R> R create(Class<R> repository, Class<?> implementation, MilvusClientV2 client) {
+        try {
+            return repository.cast(implementation.getConstructor(MilvusClientV2.class).newInstance(client));
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new MilvusPlusException("Failed to create milvus repository " + repository.getName(), e);
+        }
+    }
+
+    /**
+     * 以实体所属数据源的客户端创建仓库实现
+     */
+    public static <R> R create(Class<R> repository, Class<?> implementation, MilvusDatasources datasources) {
+        MilvusClientV2 client = datasources.route(entityType(repository)).getClient();
+        R instance = create(repository, implementation, client);
+        log.debug("Created milvus repository {}", repository.getName());
+        return instance;
+    }
+}
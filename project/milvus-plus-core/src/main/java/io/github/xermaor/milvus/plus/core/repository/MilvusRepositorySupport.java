@@ -0,0 +1,231 @@
+package io.github.xermaor.milvus.plus.core.repository;
+
+import io.github.xermaor.milvus.plus.converter.SearchRespConverter;
+import io.github.xermaor.milvus.plus.core.conditions.FilterTemplate;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+
+import java.util.*;
+
+/**
+ * 构建期生成的仓库实现的基类。
+ * <p>
+ * 生成的子类以常量保存集合名、输出字段和预先切分的过滤模板，并直接调用实体的 setter 解码结果；
+ * 本类只负责绑定参数、组装请求并经与构建器相同的加载、读一致性和容错路径执行，调用路径上没有反射。
+ *
+ * @param <T> 实体类型
+ */
+public abstract class MilvusRepositorySupport<T> {
+
+    private static final List<String> COUNT = List.of("count(*)");
+
+    private final MilvusClientV2 client;
+    private final String collectionName;
+
+    protected MilvusRepositorySupport(MilvusClientV2 client, String collectionName) {
+        this.client = client;
+        this.collectionName = collectionName;
+    }
+
+    public MilvusClientV2 getClient() {
+        return client;
+    }
+
+    /**
+     * 把一行结果解码为实体，由生成的子类实现
+     */
+    protected abstract T decode(Map<String, Object> row);
+
+    /**
+     * 向量搜索，返回实体
+     */
+    protected final List<T> searchEntities(String annsField, FilterTemplate filter, Map<String, Object> params,
+                                           BaseVector vector, int topK, List<String> outputFields) {
+        List<T> entities = new ArrayList<>(Math.max(topK, 0));
+        for (SearchResp.SearchResult result : search(annsField, filter, params, vector, topK, outputFields)) {
+            entities.add(decode(result.getEntity()));
+        }
+        return entities;
+    }
+
+    /**
+     * 向量搜索，返回带得分和主键的结果
+     */
+    protected final List<MilvusResult<T>> searchResults(String annsField, FilterTemplate filter, Map<String, Object> params,
+                                                        BaseVector vector, int topK, List<String> outputFields) {
+        List<MilvusResult<T>> results = new ArrayList<>(Math.max(topK, 0));
+        for (SearchResp.SearchResult result : search(annsField, filter, params, vector, topK, outputFields)) {
+            results.add(new MilvusResult<>(decode(result.getEntity()), result.getScore(), result.getId(), null));
+        }
+        return results;
+    }
+
+    /**
+     * 标量查询
+     *
+     * @param limit 最多返回条数，不大于 0 时不限制
+     */
+    protected final List<T> queryEntities(FilterTemplate filter, Map<String, Object> params, long limit,
+                                          List<String> outputFields) {
+        QueryResp resp = LambdaQueryWrapper.executeQuery(client, queryRequest(filter, params, limit, outputFields));
+        List<QueryResp.QueryResult> rows = resp.getQueryResults() == null ? List.of() : resp.getQueryResults();
+        List<T> entities = new ArrayList<>(rows.size());
+        for (QueryResp.QueryResult row : rows) {
+            entities.add(decode(row.getEntity()));
+        }
+        return entities;
+    }
+
+    /**
+     * 计数
+     */
+    protected final long count(FilterTemplate filter, Map<String, Object> params) {
+        QueryResp resp = LambdaQueryWrapper.executeQuery(client, queryRequest(filter, params, 0L, COUNT));
+        Long count = SearchRespConverter.convertGetRespToCount(resp).data();
+        return count == null ? 0L : count;
+    }
+
+    private List<SearchResp.SearchResult> search(String annsField, FilterTemplate filter, Map<String, Object> params,
+                                                 BaseVector vector, int topK, List<String> outputFields) {
+        if (topK <= 0) {
+            throw new MilvusPlusException("topK of a search on " + collectionName + " must be positive");
+        }
+        Map<String, Object> bound = filter.bind(params);
+        SearchReq.SearchReqBuilder<?, ?> builder = SearchReq.builder()
+                .collectionName(collectionName)
+                .annsField(annsField)
+                .data(List.of(vector))
+                .topK(topK)
+                .outputFields(outputFields);
+        if (!filter.isEmpty()) {
+            if (filter.serverSide(client)) {
+                builder.filter(filter.text()).filterTemplateValues(bound);
+            } else {
+                builder.filter(filter.render(bound));
+            }
+        }
+        ConsistencyLevel readConsistency = LambdaQueryWrapper.readConsistency(collectionName, null);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
+        }
+        long readTimestamp = LambdaQueryWrapper.readTimestamp(collectionName, null, 0L);
+        if (readTimestamp > 0L) {
+            builder.guaranteeTimestamp(readTimestamp);
+        }
+        SearchResp resp = LambdaQueryWrapper.executeSearch(client, builder.build(), false, null);
+        List<List<SearchResp.SearchResult>> groups = resp.getSearchResults();
+        return groups == null || groups.isEmpty() ? List.of() : groups.getFirst();
+    }
+
+    private QueryReq queryRequest(FilterTemplate filter, Map<String, Object> params, long limit, List<String> outputFields) {
+        Map<String, Object> bound = filter.bind(params);
+        QueryReq.QueryReqBuilder<?, ?> builder = QueryReq.builder()
+                .collectionName(collectionName)
+                .outputFields(outputFields);
+        if (limit > 0L) {
+            builder.limit(limit);
+        }
+        if (!filter.isEmpty()) {
+            if (filter.serverSide(client)) {
+                builder.filter(filter.text()).filterTemplateValues(bound);
+            } else {
+                builder.filter(filter.render(bound));
+            }
+        }
+        ConsistencyLevel readConsistency = LambdaQueryWrapper.readConsistency(collectionName, null);
+        if (readConsistency != null) {
+            builder.consistencyLevel(readConsistency);
+        }
+        return builder.build();
+    }
+
+    // =============== 生成代码使用的工具方法 ===============
+
+    /**
+     * 参数名与取值交替排列，取值可以为 null（绑定时报错）
+     */
+    protected static Map<String, Object> params(Object... namesAndValues) {
+        Map<String, Object> params = new HashMap<>(namesAndValues.length);
+        for (int i = 0; i + 1 < namesAndValues.length; i += 2) {
+            params.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return params;
+    }
+
+    protected static BaseVector vector(float[] vector) {
+        return new FloatVec(vector);
+    }
+
+    protected static BaseVector vector(List<Float> vector) {
+        return new FloatVec(vector);
+    }
+
+    protected static BaseVector vector(BaseVector vector) {
+        return vector;
+    }
+
+    protected static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : Long.valueOf(value.toString());
+    }
+
+    protected static Integer asInteger(Object value) {
+        return value instanceof Number number ? number.intValue() : Integer.valueOf(value.toString());
+    }
+
+    protected static Short asShort(Object value) {
+        return value instanceof Number number ? number.shortValue() : Short.valueOf(value.toString());
+    }
+
+    protected static Float asFloat(Object value) {
+        return value instanceof Number number ? number.floatValue() : Float.valueOf(value.toString());
+    }
+
+    protected static Double asDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : Double.valueOf(value.toString());
+    }
+
+    protected static Boolean asBoolean(Object value) {
+        return value instanceof Boolean bool ? bool : Boolean.valueOf(value.toString());
+    }
+
+    protected static String asString(Object value) {
+        return value.toString();
+    }
+
+    protected static List<Float> asFloatList(Object value) {
+        if (value instanceof float[] array) {
+            List<Float> list = new ArrayList<>(array.length);
+            for (float f : array) {
+                list.add(f);
+            }
+            return list;
+        }
+        List<?> source = (List<?>) value;
+        List<Float> list = new ArrayList<>(source.size());
+        for (Object element : source) {
+            list.add(((Number) element).floatValue());
+        }
+        return list;
+    }
+
+    protected static float[] asFloatArray(Object value) {
+        if (value instanceof float[] array) {
+            return array;
+        }
+        List<?> source = (List<?>) value;
+        float[] array = new float[source.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ((Number) source.get(i)).floatValue();
+        }
+        return array;
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.xermaor.milvus.plus.core.resilience;
+
+import io.github.xermaor.milvus.plus.exception.CircuitOpenException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+
+/**
+ * 端点熔断器。
+ * <p>
+ * 连续失败达到阈值后打开，在打开期间直接拒绝调用；到期后进入半开状态，只放行一次探测调用，
+ * 探测成功或以不可重试的错误结束（端点可达）则关闭，可重试的失败则重新打开。
+ */
+public class CircuitBreaker {
+
+    enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(String endpoint, int failureThreshold, long openMillis) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+    }
+
+    /**
+     * 申请调用许可
+     *
+     * @throws CircuitOpenException 熔断中
+     */
+    public synchronized void acquire() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            return;
+        }
+        if (state != State.CLOSED) {
+            MilvusPlusMetrics.increment(MilvusPlusMetrics.RESILIENCE_REJECTED);
+            throw new CircuitOpenException("Circuit breaker is open for milvus endpoint " + endpoint);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            MilvusPlusMetrics.increment(MilvusPlusMetrics.RESILIENCE_BREAKER_OPENED);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.xermaor.milvus.plus.core.resilience;
+
+import java.util.Arrays;
+
+/**
+ * 最近若干次调用的延迟样本，用于估算对冲延迟
+ */
+class LatencyWindow {
+
+    private final long[] samples;
+    private int next;
+    private int size;
+
+    LatencyWindow(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+    }
+
+    /**
+     * 延迟分位数（纳秒），样本不足 20 个时返回 -1
+     */
+    synchronized long quantile(double q) {
+        if (size < 20) {
+            return -1L;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return sorted[Math.min(size - 1, (int) Math.ceil(q * size) - 1)];
+    }
+}
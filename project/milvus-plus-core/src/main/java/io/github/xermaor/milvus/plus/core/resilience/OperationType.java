@@ -0,0 +1,35 @@
+package io.github.xermaor.milvus.plus.core.resilience;
+
+/**
+ * 数据操作类型
+ */
+public enum OperationType {
+    SEARCH(true, true),
+    QUERY(true, true),
+    GET(true, true),
+    INSERT(false, false),
+    UPSERT(false, true),
+    DELETE(false, true);
+
+    private final boolean read;
+    private final boolean idempotent;
+
+    OperationType(boolean read, boolean idempotent) {
+        this.read = read;
+        this.idempotent = idempotent;
+    }
+
+    /**
+     * 是否为读操作，读操作发往读端点并可对冲
+     */
+    public boolean read() {
+        return read;
+    }
+
+    /**
+     * 是否可安全重试；插入仅在由客户端生成主键时可重试，由调用方判断
+     */
+    public boolean idempotent() {
+        return idempotent;
+    }
+}
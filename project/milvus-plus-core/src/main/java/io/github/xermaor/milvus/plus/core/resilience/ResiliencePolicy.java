@@ -0,0 +1,44 @@
+package io.github.xermaor.milvus.plus.core.resilience;
+
+import java.time.Duration;
+
+/**
+ * 调用容错策略
+ *
+ * @param deadline                单次调用（含对冲）的截止时间，为 null 时不限制
+ * @param maxAttempts             可重试操作的最大尝试次数，包含首次调用
+ * @param backoff                 首次重试前的退避时间，之后按指数增长并加入随机抖动
+ * @param maxBackoff              退避时间上限
+ * @param hedge                   读操作是否启用对冲：超过近期 P95 延迟仍未返回时向下一个端点再发一次，取先返回的结果
+ * @param minHedgeDelay           对冲延迟下限，样本不足时使用该值
+ * @param breakerFailureThreshold 端点连续失败多少次后熔断，不大于 0 时不熔断
+ * @param breakerOpenDuration     熔断持续时间，到期后放行一次探测调用
+ */
+public record ResiliencePolicy(Duration deadline, int maxAttempts, Duration backoff, Duration maxBackoff,
+                               boolean hedge, Duration minHedgeDelay,
+                               int breakerFailureThreshold, Duration breakerOpenDuration) {
+
+    public static final ResiliencePolicy NONE = new ResiliencePolicy(null, 1, Duration.ZERO, Duration.ZERO,
+            false, Duration.ZERO, 0, Duration.ZERO);
+
+    public ResiliencePolicy {
+        maxAttempts = Math.max(1, maxAttempts);
+        backoff = backoff == null ? Duration.ZERO : backoff;
+        maxBackoff = maxBackoff == null ? backoff : maxBackoff;
+        minHedgeDelay = minHedgeDelay == null ? Duration.ZERO : minHedgeDelay;
+        breakerOpenDuration = breakerOpenDuration == null ? Duration.ZERO : breakerOpenDuration;
+    }
+
+    /**
+     * 第 retry 次重试前的退避时间（retry 从 1 开始）
+     */
+    public long backoffMillis(int retry) {
+        long base = backoff.toMillis();
+        if (base <= 0) {
+            return 0L;
+        }
+        long exp = base << Math.min(retry - 1, 20);
+        long capped = Math.min(exp, Math.max(base, maxBackoff.toMillis()));
+        return capped / 2 + (long) (Math.random() * (capped / 2 + 1));
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.xermaor.milvus.plus.core.resilience;
+
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.exception.CircuitOpenException;
+import io.github.xermaor.milvus.plus.exception.DeadlineExceededException;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.exception.ErrorCode;
+import io.milvus.v2.exception.MilvusClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * 数据操作容错执行器，按主客户端注册。
+ * <p>
+ * 为查询构建器的终端操作和 {@code IVecMService} 提供：
+ * <ul>
+ *     <li>截止时间：超时后放弃等待并按失败处理</li>
+ *     <li>幂等感知的重试：搜索、查询、获取、更新插入、删除可重试，插入仅在行已带客户端主键时重试；
+ *     参数错误等非瞬时错误不重试</li>
+ *     <li>对冲：读操作超过近期 P95 延迟仍未返回时，向下一个读端点再发一次，取先成功的结果</li>
+ *     <li>端点熔断：每个端点（客户端）独立熔断，熔断期间调用直接失败并可重试到其他端点</li>
+ * </ul>
+ * 未注册的客户端直接调用，不引入额外开销。
+ */
+public class ResilientExecutor {
+
+    private final static Logger log = LoggerFactory.getLogger(ResilientExecutor.class);
+
+    private static final Map<MilvusClientV2, ResilientExecutor> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ExecutorService CALLS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final MilvusClientV2 primary;
+    private final ResiliencePolicy readPolicy;
+    private final ResiliencePolicy writePolicy;
+    private final Map<MilvusClientV2, CircuitBreaker> breakers = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<OperationType, LatencyWindow> latencies = new EnumMap<>(OperationType.class);
+
+    public ResilientExecutor(MilvusClientV2 primary, ResiliencePolicy readPolicy, ResiliencePolicy writePolicy) {
+        this.primary = primary;
+        this.readPolicy = readPolicy == null ? ResiliencePolicy.NONE : readPolicy;
+        this.writePolicy = writePolicy == null ? ResiliencePolicy.NONE : writePolicy;
+        for (OperationType type : OperationType.values()) {
+            latencies.put(type, new LatencyWindow(256));
+        }
+    }
+
+    /**
+     * 为主客户端启用容错，已启用时替换
+     */
+    public static ResilientExecutor register(MilvusClientV2 primary, ResiliencePolicy readPolicy, ResiliencePolicy writePolicy) {
+        ResilientExecutor executor = new ResilientExecutor(primary, readPolicy, writePolicy);
+        INSTANCES.put(primary, executor);
+        return executor;
+    }
+
+    /**
+     * 获取主客户端的容错执行器
+     *
+     * @return 未启用时返回 null
+     */
+    public static ResilientExecutor get(MilvusClientV2 primary) {
+        return INSTANCES.get(primary);
+    }
+
+    /**
+     * 执行操作类型默认幂等性下的调用
+     *
+     * @see #execute(MilvusClientV2, OperationType, String, boolean, Function)
+     */
+    public static <R> R execute(MilvusClientV2 primary, OperationType type, String collectionName,
+                                Function<MilvusClientV2, R> call) {
+        return execute(primary, type, collectionName, type.idempotent(), call);
+    }
+
+    /**
+     * 执行调用。先经过准入控制，读操作发往读端点，写操作发往写端点
+     *
+     * @param primary        主客户端
+     * @param type           操作类型
+     * @param collectionName 集合名，用于准入控制
+     * @param idempotent     本次调用是否可安全重试
+     * @param call           以端点客户端发起的实际调用
+     */
+    public static <R> R execute(MilvusClientV2 primary, OperationType type, String collectionName, boolean idempotent,
+                                Function<MilvusClientV2, R> call) {
+        AdmissionController admission = AdmissionController.get(primary);
+        if (admission == null) {
+            return dispatch(primary, type, idempotent, call);
+        }
+        try (AdmissionController.Permit ignored = admission.acquire(collectionName, type)) {
+            return dispatch(primary, type, idempotent, call);
+        }
+    }
+
+    private static <R> R dispatch(MilvusClientV2 primary, OperationType type, boolean idempotent, Function<MilvusClientV2, R> call) {
+        ResilientExecutor executor = INSTANCES.get(primary);
+        if (executor == null) {
+            return call.apply(endpoint(primary, type));
+        }
+        return executor.run(type, idempotent, call);
+    }
+
+    public <R> R run(OperationType type, boolean idempotent, Function<MilvusClientV2, R> call) {
+        ResiliencePolicy policy = type.read() ? readPolicy : writePolicy;
+        int attempts = idempotent ? policy.maxAttempts() : 1;
+        RuntimeException last = null;
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            if (attempt > 1) {
+                MilvusPlusMetrics.increment(MilvusPlusMetrics.RESILIENCE_RETRIES);
+                sleep(policy.backoffMillis(attempt - 1));
+            }
+            try {
+                return policy.hedge() && type.read() && idempotent
+                        ? hedged(type, policy, call) : attempt(type, policy, call);
+            } catch (RuntimeException e) {
+                last = e;
+                if (!retryable(e)) {
+                    throw e;
+                }
+                log.warn("Milvus {} attempt {}/{} failed: {}", type, attempt, attempts, e.getMessage());
+            }
+        }
+        throw last;
+    }
+
+    /**
+     * 错误是否为瞬时错误（超时、熔断、连接或服务端错误）
+     */
+    public static boolean retryable(Throwable e) {
+        if (e instanceof DeadlineExceededException || e instanceof CircuitOpenException) {
+            return true;
+        }
+        if (e instanceof MilvusClientException mce) {
+            ErrorCode code = mce.getErrorCode();
+            return code == ErrorCode.RPC_ERROR || code == ErrorCode.TIMEOUT || code == ErrorCode.SERVER_ERROR;
+        }
+        if (e instanceof StatusRuntimeException sre) {
+            Status.Code code = sre.getStatus().getCode();
+            return code == Status.Code.UNAVAILABLE || code == Status.Code.DEADLINE_EXCEEDED
+                    || code == Status.Code.RESOURCE_EXHAUSTED || code == Status.Code.ABORTED;
+        }
+        return e.getCause() != null && e.getCause() != e && retryable(e.getCause());
+    }
+
+    private <R> R attempt(OperationType type, ResiliencePolicy policy, Function<MilvusClientV2, R> call) {
+        MilvusClientV2 endpoint = endpoint(primary, type);
+        if (policy.deadline() == null) {
+            return invoke(type, policy, endpoint, call);
+        }
+        Future<R> future = CALLS.submit(() -> invoke(type, policy, endpoint, call));
+        try {
+            return future.get(policy.deadline().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            breaker(endpoint, policy).onFailure();
+            throw deadlineExceeded(type, policy);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted while waiting for milvus " + type, e);
+        }
+    }
+
+    private <R> R hedged(OperationType type, ResiliencePolicy policy, Function<MilvusClientV2, R> call) {
+        CompletionService<R> completion = new ExecutorCompletionService<>(CALLS);
+        List<Future<R>> futures = new ArrayList<>(2);
+        List<MilvusClientV2> endpoints = new ArrayList<>(2);
+        long deadline = policy.deadline() == null ? Long.MAX_VALUE : System.nanoTime() + policy.deadline().toNanos();
+        MilvusClientV2 first = endpoint(primary, type);
+        endpoints.add(first);
+        futures.add(completion.submit(() -> invoke(type, policy, first, call)));
+        RuntimeException failure = null;
+        try {
+            long hedgeDelay = hedgeDelayNanos(type, policy);
+            int pending = 1;
+            boolean hedged = false;
+            while (pending > 0) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    endpoints.forEach(endpoint -> breaker(endpoint, policy).onFailure());
+                    throw deadlineExceeded(type, policy);
+                }
+                long wait = hedged ? deadline - now : Math.min(hedgeDelay, deadline - now);
+                Future<R> done = completion.poll(wait, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (!hedged) {
+                        hedged = true;
+                        pending++;
+                        submitHedge(completion, futures, endpoints, type, policy, call);
+                    }
+                    continue;
+                }
+                pending--;
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    failure = unwrap(e);
+                    if (!hedged && retryable(failure)) {
+                        // 首次调用快速失败时立即对冲，而不是等到对冲延迟
+                        hedged = true;
+                        pending++;
+                        submitHedge(completion, futures, endpoints, type, policy, call);
+                    }
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted while waiting for milvus " + type, e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <R> void submitHedge(CompletionService<R> completion, List<Future<R>> futures, List<MilvusClientV2> endpoints,
+                                 OperationType type, ResiliencePolicy policy, Function<MilvusClientV2, R> call) {
+        MilvusClientV2 endpoint = endpoint(primary, type);
+        endpoints.add(endpoint);
+        futures.add(completion.submit(() -> invoke(type, policy, endpoint, call)));
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.RESILIENCE_HEDGES);
+    }
+
+    private <R> R invoke(OperationType type, ResiliencePolicy policy, MilvusClientV2 endpoint, Function<MilvusClientV2, R> call) {
+        CircuitBreaker breaker = breaker(endpoint, policy);
+        breaker.acquire();
+        long start = System.nanoTime();
+        try {
+            R result = call.apply(endpoint);
+            latencies.get(type).record(System.nanoTime() - start);
+            breaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            // 不可重试的错误（如参数错误）说明端点可达，同样视为探测成功，避免半开状态得不到结论
+            if (retryable(e)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            throw e;
+        } catch (Error e) {
+            breaker.onFailure();
+            throw e;
+        }
+    }
+
+    private long hedgeDelayNanos(OperationType type, ResiliencePolicy policy) {
+        long p95 = latencies.get(type).quantile(0.95);
+        return Math.max(p95, policy.minHedgeDelay().toNanos());
+    }
+
+    private CircuitBreaker breaker(MilvusClientV2 endpoint, ResiliencePolicy policy) {
+        return breakers.computeIfAbsent(endpoint, e -> new CircuitBreaker(String.valueOf(e),
+                policy.breakerFailureThreshold(), policy.breakerOpenDuration().toMillis()));
+    }
+
+    private static MilvusClientV2 endpoint(MilvusClientV2 primary, OperationType type) {
+        return type.read() ? ReadWriteRouter.reader(primary) : ReadWriteRouter.writer(primary);
+    }
+
+    private static DeadlineExceededException deadlineExceeded(OperationType type, ResiliencePolicy policy) {
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.RESILIENCE_TIMEOUTS);
+        return new DeadlineExceededException("Milvus " + type + " exceeded deadline of " + policy.deadline().toMillis() + " ms");
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof RuntimeException re ? re : new MilvusPlusException(cause);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MilvusPlusException("Interrupted during retry backoff", e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.xermaor.milvus.plus.core.rolling;
+
+import io.github.xermaor.milvus.plus.core.partition.PartitionManager;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.github.xermaor.milvus.plus.model.MilvusEntity;
+import io.github.xermaor.milvus.plus.util.SingleFlight;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.collection.request.DropCollectionReq;
+import io.milvus.v2.service.collection.request.HasCollectionReq;
+import io.milvus.v2.service.collection.request.ReleaseCollectionReq;
+import io.milvus.v2.service.utility.request.AlterAliasReq;
+import io.milvus.v2.service.utility.request.CreateAliasReq;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * 时间滚动集合管理器，按主客户端注册。
+ * <p>
+ * 每个滚动实体按周期写入各自的集合（如 {@code doc_20260101}）：
+ * <ul>
+ *     <li>写入按时间字段路由到所属周期的集合，集合不存在时创建（并发创建只发起一次）；
+ *     时间早于最旧的保留周期或晚于下一周期的行被拒绝，避免误写的时间创建大量集合</li>
+ *     <li>后台每分钟提前创建下一周期的集合，并把基础集合名作为别名指向当前周期的集合</li>
+ *     <li>设置保留数时，超出保留数的旧集合先释放再删除</li>
+ *     <li>带时间范围条件的查询只发往与范围重叠的集合</li>
+ * </ul>
+ */
+public class RollingManager implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(RollingManager.class);
+
+    private static final Map<MilvusClientV2, RollingManager> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MilvusClientV2 client;
+    private final Consumer<MilvusEntity> creator;
+    private final Map<String, RollingSpec> specs = new ConcurrentHashMap<>();
+    private final Map<String, NavigableMap<Long, String>> collections = new ConcurrentHashMap<>();
+    private final Map<String, String> aliased = new ConcurrentHashMap<>();
+    private final SingleFlight<String, String> creations = new SingleFlight<>();
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * @param client  主客户端
+     * @param creator 创建集合（含索引和加载），通常为 {@code ICMService::createCollection}
+     */
+    public RollingManager(MilvusClientV2 client, Consumer<MilvusEntity> creator) {
+        this.client = client;
+        this.creator = creator;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "milvus-plus-rolling");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, 1L, 1L, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 为主客户端启用滚动集合，已启用时返回已有的管理器
+     */
+    public static RollingManager register(MilvusClientV2 client, Consumer<MilvusEntity> creator) {
+        synchronized (INSTANCES) {
+            return INSTANCES.computeIfAbsent(client, c -> new RollingManager(c, creator));
+        }
+    }
+
+    /**
+     * 获取主客户端的滚动集合管理器
+     *
+     * @return 未启用时返回 null
+     */
+    public static RollingManager get(MilvusClientV2 client) {
+        return INSTANCES.get(client);
+    }
+
+    /**
+     * 获取基础集合名对应的滚动定义
+     *
+     * @return 未启用滚动或不是滚动集合时返回 null
+     */
+    public static RollingSpec spec(MilvusClientV2 client, String baseName) {
+        RollingManager manager = INSTANCES.get(client);
+        return manager == null ? null : manager.specs.get(baseName);
+    }
+
+    /**
+     * 管理滚动集合：登记已存在的周期集合，创建当前和下一周期的集合并更新别名
+     */
+    public void manage(RollingSpec spec) {
+        specs.put(spec.baseName(), spec);
+        NavigableMap<Long, String> known = known(spec.baseName());
+        String prefix = spec.baseName() + "_";
+        for (String name : client.listCollections().getCollectionNames()) {
+            if (name.startsWith(prefix)) {
+                Long start = spec.period().parse(name.substring(prefix.length()));
+                if (start != null) {
+                    known.put(start, name);
+                }
+            }
+        }
+        rollover(spec, System.currentTimeMillis());
+    }
+
+    /**
+     * 时间点所属周期的集合名，集合不存在时创建
+     *
+     * @param baseName    基础集合名
+     * @param epochMillis 时间点（毫秒）
+     * @throws MilvusPlusException 时间点早于最旧的保留周期或晚于下一周期
+     */
+    public String collectionFor(String baseName, long epochMillis) {
+        RollingSpec spec = specs.get(baseName);
+        if (spec == null) {
+            throw new MilvusPlusException("Collection " + baseName + " is not a rolling collection");
+        }
+        long start = spec.period().floor(epochMillis);
+        long now = System.currentTimeMillis();
+        long newest = spec.period().floor(spec.period().next(now));
+        long oldest = oldestRetained(spec, now);
+        if (start > newest) {
+            throw new MilvusPlusException("Time " + epochMillis + " of rolling collection " + baseName
+                    + " is later than the next period " + spec.period().suffix(newest));
+        }
+        if (start < oldest) {
+            throw new MilvusPlusException("Time " + epochMillis + " of rolling collection " + baseName
+                    + " is earlier than the oldest retained period " + spec.period().suffix(oldest));
+        }
+        return periodCollection(spec, start);
+    }
+
+    private String periodCollection(RollingSpec spec, long start) {
+        String baseName = spec.baseName();
+        NavigableMap<Long, String> known = known(baseName);
+        String existing = known.get(start);
+        if (existing != null) {
+            return existing;
+        }
+        String name = spec.period().collectionName(baseName, start);
+        return creations.execute(name, () -> {
+            String created = known.get(start);
+            if (created != null) {
+                return created;
+            }
+            if (!Boolean.TRUE.equals(client.hasCollection(HasCollectionReq.builder().collectionName(name).build()))) {
+                creator.accept(spec.template().rename(name));
+                MilvusPlusMetrics.increment(MilvusPlusMetrics.ROLLING_CREATED);
+                log.info("Created rolling collection {}", name);
+            }
+            known.put(start, name);
+            return name;
+        });
+    }
+
+    /**
+     * 与时间范围重叠的已存在的周期集合，按时间先后排列
+     *
+     * @param from 起点（毫秒，含），为 null 时不限
+     * @param to   终点（毫秒，含），为 null 时不限
+     */
+    public List<String> collectionsBetween(String baseName, Long from, Long to) {
+        RollingSpec spec = specs.get(baseName);
+        NavigableMap<Long, String> known = collections.get(baseName);
+        if (spec == null || known == null) {
+            return List.of();
+        }
+        NavigableMap<Long, String> range = known;
+        if (from != null) {
+            range = range.tailMap(spec.period().floor(from), true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        return List.copyOf(range.values());
+    }
+
+    /**
+     * 停止后台滚动
+     */
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        INSTANCES.remove(client, this);
+    }
+
+    private NavigableMap<Long, String> known(String baseName) {
+        return collections.computeIfAbsent(baseName, b -> new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * 最旧的保留周期的起点，不限保留数时不限
+     */
+    private static long oldestRetained(RollingSpec spec, long now) {
+        if (spec.retention() <= 0) {
+            return Long.MIN_VALUE;
+        }
+        long start = spec.period().floor(now);
+        for (int i = 1; i < spec.retention(); i++) {
+            start = spec.period().floor(start - 1L);
+        }
+        return start;
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (RollingSpec spec : specs.values()) {
+            try {
+                rollover(spec, now);
+            } catch (RuntimeException e) {
+                log.warn("Rollover of {} failed, will retry: {}", spec.baseName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 提前创建下一周期的集合，别名指向当前周期的集合，删除超出保留数的集合
+     */
+    void rollover(RollingSpec spec, long now) {
+        String current = periodCollection(spec, spec.period().floor(now));
+        periodCollection(spec, spec.period().next(now));
+        if (!current.equals(aliased.get(spec.baseName()))) {
+            pointAlias(spec.baseName(), current);
+            aliased.put(spec.baseName(), current);
+        }
+        if (spec.retention() <= 0) {
+            return;
+        }
+        // 保留当前周期及之前的 retention - 1 个周期
+        NavigableMap<Long, String> previous = known(spec.baseName()).headMap(spec.period().floor(now), false).descendingMap();
+        List<Map.Entry<Long, String>> expired = previous.entrySet().stream().skip(spec.retention() - 1L).toList();
+        for (Map.Entry<Long, String> entry : expired) {
+            String name = entry.getValue();
+            client.releaseCollection(ReleaseCollectionReq.builder().collectionName(name).build());
+            client.dropCollection(DropCollectionReq.builder().collectionName(name).build());
+            known(spec.baseName()).remove(entry.getKey(), name);
+            PartitionManager.forget(client, name);
+            MilvusPlusMetrics.increment(MilvusPlusMetrics.ROLLING_DROPPED);
+            log.info("Dropped expired rolling collection {}", name);
+        }
+    }
+
+    private void pointAlias(String alias, String collectionName) {
+        try {
+            client.alterAlias(AlterAliasReq.builder().alias(alias).collectionName(collectionName).build());
+        } catch (RuntimeException e) {
+            // 别名尚不存在
+            client.createAlias(CreateAliasReq.builder().alias(alias).collectionName(collectionName).build());
+        }
+        log.info("Alias {} now points to {}", alias, collectionName);
+    }
+}
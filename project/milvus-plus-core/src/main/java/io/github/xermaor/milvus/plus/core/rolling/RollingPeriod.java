@@ -0,0 +1,91 @@
+package io.github.xermaor.milvus.plus.core.rolling;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * 滚动集合的周期，集合名为 {@code 基础名_周期后缀}，周期按 UTC 划分
+ */
+public enum RollingPeriod {
+    /**
+     * 不滚动
+     */
+    NONE(null),
+    HOURLY(DateTimeFormatter.ofPattern("uuuuMMddHH")),
+    DAILY(DateTimeFormatter.ofPattern("uuuuMMdd")),
+    MONTHLY(DateTimeFormatter.ofPattern("uuuuMM"));
+
+    private final DateTimeFormatter formatter;
+
+    RollingPeriod(DateTimeFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * 时间点所在周期的起点（毫秒）
+     */
+    public long floor(long epochMillis) {
+        ZonedDateTime time = Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC);
+        ZonedDateTime start = switch (this) {
+            case HOURLY -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAILY -> time.truncatedTo(ChronoUnit.DAYS);
+            case MONTHLY -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+            case NONE -> throw new IllegalStateException("NONE has no period");
+        };
+        return start.toInstant().toEpochMilli();
+    }
+
+    /**
+     * 时间点所在周期的下一个周期的起点（毫秒）
+     */
+    public long next(long epochMillis) {
+        ZonedDateTime start = Instant.ofEpochMilli(floor(epochMillis)).atZone(ZoneOffset.UTC);
+        ZonedDateTime next = switch (this) {
+            case HOURLY -> start.plusHours(1);
+            case DAILY -> start.plusDays(1);
+            case MONTHLY -> start.plusMonths(1);
+            case NONE -> throw new IllegalStateException("NONE has no period");
+        };
+        return next.toInstant().toEpochMilli();
+    }
+
+    /**
+     * 时间点所在周期的后缀
+     */
+    public String suffix(long epochMillis) {
+        return formatter.format(Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
+    }
+
+    /**
+     * 时间点所在周期的集合名
+     */
+    public String collectionName(String baseName, long epochMillis) {
+        return baseName + "_" + suffix(epochMillis);
+    }
+
+    /**
+     * 解析周期后缀
+     *
+     * @return 周期的起点（毫秒），后缀不属于本周期格式时返回 null
+     */
+    public Long parse(String suffix) {
+        if (formatter == null) {
+            return null;
+        }
+        try {
+            TemporalAccessor time = formatter.parse(suffix);
+            int day = time.isSupported(ChronoField.DAY_OF_MONTH) ? time.get(ChronoField.DAY_OF_MONTH) : 1;
+            int hour = time.isSupported(ChronoField.HOUR_OF_DAY) ? time.get(ChronoField.HOUR_OF_DAY) : 0;
+            return ZonedDateTime.of(time.get(ChronoField.YEAR), time.get(ChronoField.MONTH_OF_YEAR), day, hour,
+                    0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.xermaor.milvus.plus.core.rolling;
+
+import io.github.xermaor.milvus.plus.model.MilvusEntity;
+
+/**
+ * 滚动集合的定义
+ *
+ * @param baseName  基础集合名，同时作为指向当前周期集合的别名
+ * @param period    滚动周期
+ * @param retention 保留的集合数（含当前周期），0 表示不删除
+ * @param timeField 保存写入时间（毫秒时间戳）的字段，为空时按写入时刻路由且查询不按时间裁剪
+ * @param template  创建各周期集合使用的集合定义
+ */
+public record RollingSpec(String baseName, RollingPeriod period, int retention, String timeField, MilvusEntity template) {
+}
@@ -0,0 +1,118 @@
+package io.github.xermaor.milvus.plus.core.route;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 会话一致性令牌，按写请求实际发往的物理集合（滚动集合的周期集合、按租户划分的集合）记录作用域内最后一次写入的时间戳。
+ * <p>
+ * 在作用域内，插入、更新、删除成功后记录集合的写入时间戳；之后未显式指定一致性级别的读请求自动使用
+ * SESSION 级别并携带该时间戳，以接近 BOUNDED 的代价获得读己之写，无需全局使用 STRONG。
+ * 作用域绑定当前线程，可嵌套，内层关闭时写入时间戳并入外层；跨线程时通过 {@link #token()} 取出令牌，再在目标线程 {@link #open(Map)}。
+ * <pre>{@code
+ * try (MilvusSession session = MilvusSession.open()) {
+ *     mapper.insert(doc);
+ *     mapper.queryWrapper().eq(Doc::getId, doc.getId()).query();
+ * }
+ * }</pre>
+ */
+public final class MilvusSession implements AutoCloseable {
+
+    private static final ThreadLocal<MilvusSession> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Long> timestamps = new ConcurrentHashMap<>();
+    private final MilvusSession previous;
+    private boolean closed;
+
+    private MilvusSession(MilvusSession previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * 在当前线程开启会话作用域
+     */
+    public static MilvusSession open() {
+        return open(Map.of());
+    }
+
+    /**
+     * 在当前线程开启会话作用域，并继承令牌中的写入时间戳
+     *
+     * @param token 由 {@link #token()} 取出的令牌
+     */
+    public static MilvusSession open(Map<String, Long> token) {
+        MilvusSession previous = CURRENT.get();
+        MilvusSession session = new MilvusSession(previous);
+        if (previous != null) {
+            previous.timestamps.forEach(session::record);
+        }
+        token.forEach(session::record);
+        CURRENT.set(session);
+        return session;
+    }
+
+    /**
+     * 当前线程的会话
+     *
+     * @return 不在会话作用域内时返回 null
+     */
+    public static MilvusSession current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在当前会话中记录集合的最新写入，不在会话作用域内时忽略
+     */
+    public static void recordWrite(String collectionName) {
+        MilvusSession session = CURRENT.get();
+        if (session != null) {
+            long ts = ReadWriteRouter.lastWriteTimestamp(collectionName);
+            if (ts > 0L) {
+                session.record(collectionName, ts);
+            }
+        }
+    }
+
+    /**
+     * 当前会话中集合的写入时间戳
+     *
+     * @return 不在会话作用域内或没有写入时返回 0
+     */
+    public static long writeTimestamp(String collectionName) {
+        MilvusSession session = CURRENT.get();
+        return session == null ? 0L : session.timestamp(collectionName);
+    }
+
+    public void record(String collectionName, long timestamp) {
+        timestamps.merge(collectionName, timestamp, Math::max);
+    }
+
+    public long timestamp(String collectionName) {
+        return timestamps.getOrDefault(collectionName, 0L);
+    }
+
+    /**
+     * 取出令牌，用于把会话传递到其他线程或请求
+     */
+    public Map<String, Long> token() {
+        return Map.copyOf(timestamps);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (previous != null) {
+            timestamps.forEach(previous::record);
+        }
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.xermaor.milvus.plus.core.route;
+
+import io.milvus.common.utils.GTsDict;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由。
+ * <p>
+ * 以主客户端为键注册读、写两组客户端（各自独立的连接），查询构建器的搜索和查询发往读组，
+ * 插入、更新、删除发往写组，组内轮询；未注册或组为空时使用主客户端本身。
+ * <p>
+ * SDK 在每次写入后按集合名记录写入时间戳（进程内共享，与客户端无关），
+ * STRONG/SESSION 读请求据此携带 {@code guaranteeTimestamp}，读节点不同也能读到本进程之前的写入。
+ */
+public class ReadWriteRouter {
+
+    private static final Map<MilvusClientV2, ReadWriteRouter> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final List<MilvusClientV2> readers;
+    private final List<MilvusClientV2> writers;
+    private final AtomicInteger readIndex = new AtomicInteger();
+    private final AtomicInteger writeIndex = new AtomicInteger();
+
+    public ReadWriteRouter(List<MilvusClientV2> readers, List<MilvusClientV2> writers) {
+        this.readers = readers == null ? List.of() : List.copyOf(readers);
+        this.writers = writers == null ? List.of() : List.copyOf(writers);
+    }
+
+    /**
+     * 为主客户端注册读写分组，已注册时替换
+     *
+     * @param primary 主客户端，即构建器持有的客户端
+     * @param readers 读客户端，为空时读请求使用主客户端
+     * @param writers 写客户端，为空时写请求使用主客户端
+     */
+    public static ReadWriteRouter register(MilvusClientV2 primary, List<MilvusClientV2> readers, List<MilvusClientV2> writers) {
+        ReadWriteRouter router = new ReadWriteRouter(readers, writers);
+        INSTANCES.put(primary, router);
+        return router;
+    }
+
+    /**
+     * 获取主客户端的读写分组
+     *
+     * @return 未注册时返回 null
+     */
+    public static ReadWriteRouter get(MilvusClientV2 primary) {
+        return INSTANCES.get(primary);
+    }
+
+    /**
+     * 读请求使用的客户端
+     */
+    public static MilvusClientV2 reader(MilvusClientV2 primary) {
+        ReadWriteRouter router = INSTANCES.get(primary);
+        return router == null ? primary : next(router.readers, router.readIndex, primary);
+    }
+
+    /**
+     * 写请求使用的客户端
+     */
+    public static MilvusClientV2 writer(MilvusClientV2 primary) {
+        ReadWriteRouter router = INSTANCES.get(primary);
+        return router == null ? primary : next(router.writers, router.writeIndex, primary);
+    }
+
+    /**
+     * 本进程对集合最后一次写入的时间戳
+     *
+     * @return 没有写入记录时返回 0
+     */
+    public static long lastWriteTimestamp(String collectionName) {
+        Long ts = GTsDict.getInstance().getCollectionTs(collectionName);
+        return ts == null ? 0L : ts;
+    }
+
+    /**
+     * 读请求需要携带的保证时间戳：STRONG/SESSION 读且之前有过写入时为最后写入的时间戳，否则为 0
+     */
+    public static long readTimestamp(ConsistencyLevel level, String collectionName) {
+        if (level != ConsistencyLevel.STRONG && level != ConsistencyLevel.SESSION) {
+            return 0L;
+        }
+        return lastWriteTimestamp(collectionName);
+    }
+
+    private static MilvusClientV2 next(List<MilvusClientV2> clients, AtomicInteger index, MilvusClientV2 fallback) {
+        if (clients.isEmpty()) {
+            return fallback;
+        }
+        return clients.get(Math.floorMod(index.getAndIncrement(), clients.size()));
+    }
+}
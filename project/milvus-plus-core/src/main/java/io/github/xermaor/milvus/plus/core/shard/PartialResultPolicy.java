@@ -0,0 +1,15 @@
+package io.github.xermaor.milvus.plus.core.shard;
+
+/**
+ * 分片搜索中部分分片失败或超时时的处理策略。
+ */
+public enum PartialResultPolicy {
+    /**
+     * 任一分片失败即抛出异常
+     */
+    FAIL,
+    /**
+     * 忽略失败的分片，合并其余分片的结果；全部分片失败时仍抛出异常
+     */
+    PARTIAL
+}
@@ -0,0 +1,80 @@
+package io.github.xermaor.milvus.plus.core.shard;
+
+import io.github.xermaor.milvus.plus.core.tenant.TenantContext;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * 分片并行执行器：将同一任务并行分发到多个分片，按超时时间和部分结果策略收集结果。
+ */
+public final class ScatterGather {
+
+    private final static Logger log = LoggerFactory.getLogger(ScatterGather.class);
+
+    /**
+     * 默认执行器，每个分片请求使用一个虚拟线程，阻塞的 gRPC 调用不会占用平台线程
+     */
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private ScatterGather() {
+    }
+
+    public static Executor defaultExecutor() {
+        return DEFAULT_EXECUTOR;
+    }
+
+    /**
+     * 并行执行分片任务
+     *
+     * @param shards   分片列表
+     * @param task     单个分片的任务
+     * @param executor 执行器，为 null 时使用虚拟线程执行器
+     * @param timeout  单个分片的超时时间，为 null 时不限制
+     * @param policy   部分结果策略
+     * @return 成功分片的结果，按分片顺序排列
+     */
+    public static <R> List<R> execute(List<SearchShard> shards, Function<SearchShard, R> task,
+                                      Executor executor, Duration timeout, PartialResultPolicy policy) {
+        Executor exec = executor != null ? executor : DEFAULT_EXECUTOR;
+        Function<SearchShard, R> shardTask = TenantContext.propagate(task);
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (SearchShard shard : shards) {
+            CompletableFuture<R> future = CompletableFuture.supplyAsync(() -> shardTask.apply(shard), exec);
+            if (timeout != null && !timeout.isZero() && !timeout.isNegative()) {
+                future = future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            futures.add(future);
+        }
+
+        List<R> results = new ArrayList<>(shards.size());
+        Throwable lastError = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (policy != PartialResultPolicy.PARTIAL) {
+                    futures.forEach(f -> f.cancel(true));
+                    throw new MilvusPlusException("Shard " + shards.get(i) + " failed: " + describe(cause), cause);
+                }
+                log.warn("Shard {} failed and was skipped: {}", shards.get(i), describe(cause));
+                lastError = cause;
+            }
+        }
+        if (results.isEmpty() && lastError != null) {
+            throw new MilvusPlusException("All shards failed, last error: " + describe(lastError), lastError);
+        }
+        return results;
+    }
+
+    private static String describe(Throwable e) {
+        return e instanceof TimeoutException ? "timeout" : e.getMessage();
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.xermaor.milvus.plus.core.shard;
+
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+
+/**
+ * 分片搜索目标，由集合名（或别名）、可选的分区和可选的客户端组成。
+ *
+ * @param collectionName 集合名或别名
+ * @param partitionNames 分区名，为空时使用查询构建器上的分区
+ * @param client         执行该分片的客户端，为 null 时使用查询构建器的客户端；用于跨集群搜索
+ */
+public record SearchShard(String collectionName, List<String> partitionNames, MilvusClientV2 client) {
+
+    public SearchShard {
+        if (StringUtils.isBlank(collectionName)) {
+            throw new MilvusPlusException("shard collection name must not be blank");
+        }
+        partitionNames = partitionNames == null ? List.of() : List.copyOf(partitionNames);
+    }
+
+    public static SearchShard of(String collectionName, String... partitionNames) {
+        return new SearchShard(collectionName, List.of(partitionNames), null);
+    }
+
+    @Override
+    public String toString() {
+        return partitionNames.isEmpty() ? collectionName : collectionName + partitionNames;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.xermaor.milvus.plus.core.shard;
+
+import io.github.xermaor.milvus.plus.core.processor.ScoreArrays;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分片结果合并：按查询向量逐组合并各分片结果，使用有界堆只保留最优的 k 条。
+ */
+public final class ShardResultMerger {
+
+    private ShardResultMerger() {
+    }
+
+    /**
+     * 合并多个分片的分组结果
+     *
+     * @param shardGroups 每个分片按查询向量分组的结果
+     * @param k           每组保留的条数，不大于 0 时保留全部
+     * @param order       得分排序方向
+     * @return 按查询向量分组的合并结果，组内最优在前
+     */
+    public static <T> List<List<MilvusResult<T>>> merge(List<List<List<MilvusResult<T>>>> shardGroups, int k, ScoreOrder order) {
+        int groupCount = 0;
+        for (List<List<MilvusResult<T>>> groups : shardGroups) {
+            groupCount = Math.max(groupCount, groups.size());
+        }
+        List<List<MilvusResult<T>>> merged = new ArrayList<>(groupCount);
+        for (int q = 0; q < groupCount; q++) {
+            if (k <= 0) {
+                List<MilvusResult<T>> all = new ArrayList<>();
+                for (List<List<MilvusResult<T>>> groups : shardGroups) {
+                    if (q < groups.size()) {
+                        all.addAll(groups.get(q));
+                    }
+                }
+                merged.add(ScoreArrays.topK(all, all.size(), order));
+                continue;
+            }
+            BoundedHeap<T> heap = new BoundedHeap<>(k, order);
+            for (List<List<MilvusResult<T>>> groups : shardGroups) {
+                if (q < groups.size()) {
+                    for (MilvusResult<T> result : groups.get(q)) {
+                        heap.offer(result);
+                    }
+                }
+            }
+            merged.add(heap.drain());
+        }
+        return merged;
+    }
+
+    /**
+     * 以最劣结果为堆顶的有界堆，得分使用原始类型数组保存
+     */
+    private static final class BoundedHeap<T> {
+        private final float[] scores;
+        private final Object[] items;
+        private final ScoreOrder order;
+        private int size;
+
+        BoundedHeap(int capacity, ScoreOrder order) {
+            this.scores = new float[capacity];
+            this.items = new Object[capacity];
+            this.order = order;
+        }
+
+        void offer(MilvusResult<T> result) {
+            float score = result.distance() == null ? 0f : result.distance();
+            if (size < scores.length) {
+                scores[size] = score;
+                items[size] = result;
+                siftUp(size++);
+            } else if (order.isBetter(score, scores[0])) {
+                scores[0] = score;
+                items[0] = result;
+                siftDown(0);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<MilvusResult<T>> drain() {
+            Object[] sorted = new Object[size];
+            while (size > 0) {
+                sorted[size - 1] = items[0];
+                size--;
+                scores[0] = scores[size];
+                items[0] = items[size];
+                items[size] = null;
+                siftDown(0);
+            }
+            List<MilvusResult<T>> list = new ArrayList<>(sorted.length);
+            for (Object item : sorted) {
+                list.add((MilvusResult<T>) item);
+            }
+            return list;
+        }
+
+        /**
+         * 堆中 a 是否比 b 更应该靠近堆顶（即更劣）
+         */
+        private boolean worse(int a, int b) {
+            return order.isBetter(scores[b], scores[a]);
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!worse(i, parent)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int child = left + 1 < size && worse(left + 1, left) ? left + 1 : left;
+                if (!worse(child, i)) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            float s = scores[i];
+            scores[i] = scores[j];
+            scores[j] = s;
+            Object o = items[i];
+            items[i] = items[j];
+            items[j] = o;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.xermaor.milvus.plus.core.spool;
+
+/**
+ * 暂存文件刷盘策略
+ */
+public enum FsyncPolicy {
+    /**
+     * 每次追加后刷盘，进程或机器崩溃都不丢数据，吞吐最低
+     */
+    ALWAYS,
+    /**
+     * 按固定间隔刷盘，机器崩溃时最多丢失一个间隔内的数据
+     */
+    INTERVAL,
+    /**
+     * 由操作系统决定何时刷盘，仅能保证进程崩溃不丢数据
+     */
+    NEVER
+}
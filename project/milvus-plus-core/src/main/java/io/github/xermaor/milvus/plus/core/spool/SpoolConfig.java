@@ -0,0 +1,35 @@
+package io.github.xermaor.milvus.plus.core.spool;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 本地暂存配置
+ *
+ * @param directory      暂存目录，每个客户端应使用独立目录
+ * @param segmentBytes   单个段文件大小
+ * @param fsyncPolicy    刷盘策略
+ * @param fsyncInterval  {@link FsyncPolicy#INTERVAL} 下的刷盘间隔
+ * @param drainBatchRows 回放时单批最多行数
+ * @param drainInterval  回放检查间隔
+ */
+public record SpoolConfig(Path directory, int segmentBytes, FsyncPolicy fsyncPolicy, Duration fsyncInterval,
+                          int drainBatchRows, Duration drainInterval) {
+
+    public SpoolConfig {
+        segmentBytes = segmentBytes <= 0 ? 64 * 1024 * 1024 : segmentBytes;
+        fsyncPolicy = fsyncPolicy == null ? FsyncPolicy.INTERVAL : fsyncPolicy;
+        fsyncInterval = fsyncInterval == null || fsyncInterval.isNegative() || fsyncInterval.isZero()
+                ? Duration.ofSeconds(1) : fsyncInterval;
+        drainBatchRows = drainBatchRows <= 0 ? 5000 : drainBatchRows;
+        drainInterval = drainInterval == null || drainInterval.isNegative() || drainInterval.isZero()
+                ? Duration.ofSeconds(5) : drainInterval;
+    }
+
+    /**
+     * 使用默认参数的配置
+     */
+    public static SpoolConfig of(Path directory) {
+        return new SpoolConfig(directory, 0, null, null, 0, null);
+    }
+}
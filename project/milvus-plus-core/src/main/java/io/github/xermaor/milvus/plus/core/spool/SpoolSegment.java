@@ -0,0 +1,111 @@
+package io.github.xermaor.milvus.plus.core.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 内存映射的段文件。
+ * <p>
+ * 记录格式为 {@code [长度 int][CRC32 int][内容]}，先写内容和校验和、最后写长度，
+ * 长度为 0 表示段结束；校验失败的记录视为崩溃时未写完的尾部，读取到此为止。
+ */
+final class SpoolSegment implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(SpoolSegment.class);
+
+    static final int HEADER = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private SpoolSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static SpoolSegment create(Path path, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new SpoolSegment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @return 剩余空间不足时返回 false
+     */
+    boolean append(byte[] payload) {
+        int position = buffer.position();
+        // 末尾保留 4 字节作为结束标记
+        if (buffer.capacity() - position < HEADER + payload.length + 4) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.put(position + HEADER, payload);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, payload.length);
+        buffer.position(position + HEADER + payload.length);
+        return true;
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == 0;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    Path path() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * 读取段文件中所有完整的记录
+     */
+    static List<byte[]> read(Path path) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= HEADER) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0) {
+                    break;
+                }
+                if (length > buffer.remaining()) {
+                    log.warn("Spool segment {} has a truncated record at offset {}", path, buffer.position() - HEADER);
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Spool segment {} has a corrupt record at offset {}", path, buffer.position() - HEADER - length);
+                    break;
+                }
+                records.add(payload);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,530 @@
+package io.github.xermaor.milvus.plus.core.spool;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 写入暂存（spool），按主客户端注册。
+ * <p>
+ * 插入和更新因连接、超时、熔断等瞬时错误失败时，把已转换的行追加到本地内存映射段文件，调用方照常返回；
+ * 后台回放线程定期把暂存的行按原顺序大批量写回集群，成功后删除段文件。暂存中还有未回放的行时，
+ * 新的写入也先进入暂存，保证同一主键的新旧写入不会乱序。
+ * <p>
+ * 回放为至少一次语义：每批行写入或转入死信后，段的回放进度记录在同名的 {@value #OFFSET} 文件中，
+ * 回放中途失败的段下次从记录的进度继续，只有进程在写入成功与记录进度之间崩溃时才会重放最后一批。
+ * 带客户端主键的行以更新插入（upsert）回放，重放是幂等的；由服务端生成主键的行只能以插入回放，可能重复。
+ * <p>
+ * 回放遇到不可重试的错误（字段不匹配、集合已删除、非法行等）时，该批行连同错误原因追加到暂存目录下的
+ * {@value #DEAD_LETTER} 并继续回放后续的行，避免一条坏记录永久阻塞暂存；瞬时错误则停在当前段，下次重试。
+ */
+public class WriteSpool implements AutoCloseable {
+
+    private final static Logger log = LoggerFactory.getLogger(WriteSpool.class);
+
+    private static final Map<MilvusClientV2, WriteSpool> INSTANCES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final String SUFFIX = ".seg";
+    private static final int MAX_DRAIN_ROUNDS = 3;
+    private static final String DEAD_LETTER = "dead-letter.jsonl";
+    private static final String OFFSET = ".offset";
+    /**
+     * 最后一轮回放期间追加最多等待的时间，超时后照常追加到新的段
+     */
+    private static final long APPEND_PAUSE_MILLIS = 1000L;
+
+    private final MilvusClientV2 client;
+    private final SpoolConfig config;
+    private final Deque<Path> sealed = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong deadLettered = new AtomicLong();
+    private volatile String lastReplayError;
+    private long sequence;
+    private SpoolSegment active;
+    private volatile boolean closed;
+    /**
+     * 最后一轮回放进行中，追加在此期间短暂等待，让回放追上写入
+     */
+    private boolean catchingUp;
+
+    public WriteSpool(MilvusClientV2 client, SpoolConfig config) {
+        this.client = client;
+        this.config = config;
+        try {
+            Files.createDirectories(config.directory());
+            try (Stream<Path> files = Files.list(config.directory())) {
+                files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().forEach(sealed::add);
+            }
+            // 段已删除但进度文件残留时，进度不能沿用到之后同名的新段
+            try (Stream<Path> files = Files.list(config.directory())) {
+                for (Path file : files.filter(file -> file.getFileName().toString().endsWith(SUFFIX + OFFSET)).toList()) {
+                    if (!sealed.contains(segmentOf(file))) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MilvusPlusException("Failed to open write spool " + config.directory(), e);
+        }
+        Path last = sealed.peekLast();
+        this.sequence = last == null ? 0L : sequenceOf(last) + 1;
+        if (!sealed.isEmpty()) {
+            log.info("Recovered {} write spool segments from {}", sealed.size(), config.directory());
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "milvus-plus-spool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long drainMillis = config.drainInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::drainQuietly, drainMillis, drainMillis, TimeUnit.MILLISECONDS);
+        if (config.fsyncPolicy() == FsyncPolicy.INTERVAL) {
+            long fsyncMillis = config.fsyncInterval().toMillis();
+            scheduler.scheduleAtFixedRate(this::sync, fsyncMillis, fsyncMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 为主客户端启用写入暂存，已启用时关闭旧的暂存后替换。
+     * 暂存目录已被其他客户端（如另一个数据源）使用时拒绝注册，避免两个暂存回放彼此的段文件
+     */
+    public static WriteSpool register(MilvusClientV2 primary, SpoolConfig config) {
+        Path directory = config.directory().toAbsolutePath().normalize();
+        synchronized (INSTANCES) {
+            INSTANCES.forEach((client, existing) -> {
+                if (client != primary && !existing.closed
+                        && existing.config.directory().toAbsolutePath().normalize().equals(directory)) {
+                    throw new MilvusPlusException("Write spool directory " + directory
+                            + " is already used by another client, configure a distinct directory per datasource");
+                }
+            });
+            WriteSpool spool = new WriteSpool(primary, config);
+            WriteSpool previous = INSTANCES.put(primary, spool);
+            if (previous != null) {
+                previous.close();
+            }
+            return spool;
+        }
+    }
+
+    /**
+     * 获取主客户端的写入暂存
+     *
+     * @return 未启用时返回 null
+     */
+    public static WriteSpool get(MilvusClientV2 primary) {
+        return INSTANCES.get(primary);
+    }
+
+    /**
+     * 执行一次写入，未启用暂存时直接调用。
+     * 暂存有积压时直接进入暂存；调用因瞬时错误失败时转入暂存，并返回 {@code spooled} 构造的结果
+     *
+     * @param primary        主客户端
+     * @param collectionName 集合名
+     * @param partitionName  分区名，可为空
+     * @param type           {@link OperationType#INSERT} 或 {@link OperationType#UPSERT}
+     * @param primaryKey     主键字段名
+     * @param rows           已转换的行
+     * @param call           实际写入
+     * @param spooled        进入暂存时返回的结果
+     */
+    public static <R> R write(MilvusClientV2 primary, String collectionName, String partitionName, OperationType type,
+                              String primaryKey, List<JsonObject> rows, Supplier<R> call, Supplier<R> spooled) {
+        WriteSpool spool = INSTANCES.get(primary);
+        if (spool == null) {
+            return call.get();
+        }
+        if (spool.backlogged()) {
+            spool.append(collectionName, partitionName, type, primaryKey, rows);
+            return spooled.get();
+        }
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            if (!ResilientExecutor.retryable(e)) {
+                throw e;
+            }
+            log.warn("Milvus {} on {} failed ({}), spooling {} rows to local disk", type, collectionName, e.getMessage(), rows.size());
+            spool.append(collectionName, partitionName, type, primaryKey, rows);
+            return spooled.get();
+        }
+    }
+
+    /**
+     * 取出各行的主键值
+     */
+    public static List<Object> primaryKeys(String primaryKey, List<JsonObject> rows) {
+        List<Object> keys = new ArrayList<>(rows.size());
+        for (JsonObject row : rows) {
+            JsonElement element = primaryKey == null ? null : row.get(primaryKey);
+            if (element == null || !element.isJsonPrimitive()) {
+                keys.add(null);
+                continue;
+            }
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            keys.add(primitive.isNumber() ? primitive.getAsLong() : primitive.getAsString());
+        }
+        return keys;
+    }
+
+    /**
+     * 追加一批行，整批作为一条记录写入，回放时要么整批可见，要么整批不可见
+     */
+    public synchronized void append(String collectionName, String partitionName, OperationType type,
+                                    String primaryKey, List<JsonObject> rows) {
+        if (closed) {
+            throw new MilvusPlusException("Write spool is closed");
+        }
+        awaitCatchUp();
+        JsonObject record = new JsonObject();
+        record.addProperty("collection", collectionName);
+        record.addProperty("partition", partitionName);
+        record.addProperty("operation", type.name());
+        record.addProperty("primaryKey", primaryKey);
+        JsonArray array = new JsonArray(rows.size());
+        rows.forEach(array::add);
+        record.add("rows", array);
+        byte[] payload = record.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (active == null || !active.append(payload)) {
+                seal();
+                int size = Math.max(config.segmentBytes(), payload.length + SpoolSegment.HEADER + 4);
+                active = SpoolSegment.create(config.directory().resolve(String.format("%020d%s", sequence++, SUFFIX)), size);
+                active.append(payload);
+            }
+            if (config.fsyncPolicy() == FsyncPolicy.ALWAYS) {
+                active.force();
+            }
+        } catch (IOException e) {
+            throw new MilvusPlusException("Failed to append to write spool " + config.directory(), e);
+        }
+        MilvusPlusMetrics.add(MilvusPlusMetrics.SPOOL_APPENDED_ROWS, rows.size());
+    }
+
+    /**
+     * 是否还有未回放的行
+     */
+    public synchronized boolean backlogged() {
+        return !sealed.isEmpty() || (active != null && !active.isEmpty());
+    }
+
+    /**
+     * 按顺序回放暂存的行，瞬时错误时停在失败的段，下次从该段重新开始；不可重试的行转入死信文件
+     *
+     * @return 本次写入集群的行数
+     * @throws RuntimeException 回放失败
+     */
+    public int drain() {
+        drainLock.lock();
+        try {
+            int replayed = 0;
+            for (int round = 1; ; round++) {
+                replayed += replaySealed();
+                // 回放期间可能仍有新写入进入暂存；几轮后仍未追上时，在回放最后一段期间暂停追加
+                if (round < MAX_DRAIN_ROUNDS) {
+                    synchronized (this) {
+                        seal();
+                    }
+                    if (sealed.isEmpty()) {
+                        return replayed;
+                    }
+                } else {
+                    synchronized (this) {
+                        seal();
+                        catchingUp = true;
+                    }
+                    try {
+                        return replayed + replaySealed();
+                    } finally {
+                        synchronized (this) {
+                            catchingUp = false;
+                            notifyAll();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new MilvusPlusException("Failed to drain write spool " + config.directory(), e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 回放时转入死信文件的行数
+     */
+    public long deadLetteredRows() {
+        return deadLettered.get();
+    }
+
+    /**
+     * 死信文件，每行一条 JSON 记录，包含目标集合、操作、错误原因和行数据
+     */
+    public Path deadLetterFile() {
+        return config.directory().resolve(DEAD_LETTER);
+    }
+
+    /**
+     * 最近一次后台回放失败的原因，回放成功后清除
+     *
+     * @return 没有失败时返回 null
+     */
+    public String lastReplayError() {
+        return lastReplayError;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        synchronized (this) {
+            try {
+                seal();
+            } catch (IOException e) {
+                log.error("Failed to seal write spool segment: {}", e.getMessage());
+            }
+        }
+        INSTANCES.remove(client, this);
+    }
+
+    private void drainQuietly() {
+        if (!backlogged()) {
+            return;
+        }
+        try {
+            int replayed = drain();
+            lastReplayError = null;
+            log.info("Replayed {} spooled rows to milvus", replayed);
+        } catch (RuntimeException e) {
+            lastReplayError = e.getMessage();
+            MilvusPlusMetrics.increment(MilvusPlusMetrics.SPOOL_REPLAY_FAILURES);
+            log.warn("Write spool replay failed, will retry in {} ms: {}", config.drainInterval().toMillis(), e.getMessage());
+        }
+    }
+
+    /**
+     * 最后一轮回放期间等待其结束，最多等待 {@value #APPEND_PAUSE_MILLIS} 毫秒；等待时释放监视器，
+     * 不阻塞 {@link #backlogged()} 等调用
+     */
+    private void awaitCatchUp() {
+        long deadline = System.currentTimeMillis() + APPEND_PAUSE_MILLIS;
+        long remaining;
+        while (catchingUp && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MilvusPlusException("Interrupted while waiting for write spool replay", e);
+            }
+        }
+    }
+
+    private synchronized void sync() {
+        if (active != null) {
+            active.force();
+        }
+    }
+
+    /**
+     * 关闭当前段，空段直接删除
+     */
+    private void seal() throws IOException {
+        if (active == null) {
+            return;
+        }
+        SpoolSegment segment = active;
+        active = null;
+        segment.close();
+        if (segment.isEmpty()) {
+            Files.deleteIfExists(segment.path());
+        } else {
+            sealed.addLast(segment.path());
+        }
+    }
+
+    private int replaySealed() throws IOException {
+        int replayed = 0;
+        Path segment;
+        while ((segment = sealed.peekFirst()) != null) {
+            replayed += replay(segment);
+            // 先删进度文件：在两次删除之间崩溃只会整段重放，不会把旧进度套用到新段
+            Files.deleteIfExists(offsetOf(segment));
+            Files.deleteIfExists(segment);
+            sealed.pollFirst();
+        }
+        return replayed;
+    }
+
+    private int replay(Path segment) throws IOException {
+        int replayed = 0;
+        Cursor cursor = new Cursor(offsetOf(segment));
+        long position = 0;
+        Batch batch = null;
+        for (byte[] payload : SpoolSegment.read(segment)) {
+            JsonObject record = JsonParser.parseString(new String(payload, StandardCharsets.UTF_8)).getAsJsonObject();
+            Batch key = new Batch(string(record, "collection"), string(record, "partition"),
+                    OperationType.valueOf(string(record, "operation")), string(record, "primaryKey"), new ArrayList<>());
+            if (batch != null && (!batch.sameTarget(key) || batch.rows().size() >= config.drainBatchRows())) {
+                replayed += send(batch, cursor);
+                batch = null;
+            }
+            for (JsonElement row : record.getAsJsonArray("rows")) {
+                // 跳过此前的回放已经处理过的行
+                if (position++ < cursor.rows) {
+                    continue;
+                }
+                if (batch == null) {
+                    batch = key;
+                }
+                batch.rows().add(row.getAsJsonObject());
+            }
+        }
+        if (batch != null) {
+            replayed += send(batch, cursor);
+        }
+        return replayed;
+    }
+
+    /**
+     * 发送一批行，每写入或转入死信一部分就推进段的回放进度
+     *
+     * @return 写入集群的行数，不含转入死信文件的行
+     * @throws RuntimeException 瞬时错误，留待下次回放
+     */
+    private int send(Batch batch, Cursor cursor) throws IOException {
+        String pk = batch.primaryKey();
+        boolean upsert = batch.type() == OperationType.UPSERT
+                || (pk != null && batch.rows().stream().allMatch(row -> row.has(pk)));
+        int sent = 0;
+        for (int from = 0; from < batch.rows().size(); from += config.drainBatchRows()) {
+            List<JsonObject> rows = batch.rows().subList(from, Math.min(batch.rows().size(), from + config.drainBatchRows()));
+            try {
+                if (upsert) {
+                    UpsertReq.UpsertReqBuilder<?, ?> builder = UpsertReq.builder().collectionName(batch.collectionName()).data(rows);
+                    if (StringUtils.isNotEmpty(batch.partitionName())) {
+                        builder.partitionName(batch.partitionName());
+                    }
+                    UpsertReq request = builder.build();
+                    ResilientExecutor.execute(client, OperationType.UPSERT, batch.collectionName(), writer -> writer.upsert(request));
+                } else {
+                    InsertReq.InsertReqBuilder<?, ?> builder = InsertReq.builder().collectionName(batch.collectionName()).data(rows);
+                    if (StringUtils.isNotEmpty(batch.partitionName())) {
+                        builder.partitionName(batch.partitionName());
+                    }
+                    InsertReq request = builder.build();
+                    ResilientExecutor.execute(client, OperationType.INSERT, batch.collectionName(), false, writer -> writer.insert(request));
+                }
+            } catch (RuntimeException e) {
+                if (ResilientExecutor.retryable(e)) {
+                    throw e;
+                }
+                deadLetter(batch, rows, e);
+                cursor.advance(rows.size());
+                continue;
+            }
+            cursor.advance(rows.size());
+            sent += rows.size();
+            MilvusPlusMetrics.add(MilvusPlusMetrics.SPOOL_REPLAYED_ROWS, rows.size());
+        }
+        return sent;
+    }
+
+    private void deadLetter(Batch batch, List<JsonObject> rows, RuntimeException cause) throws IOException {
+        JsonObject record = new JsonObject();
+        record.addProperty("collection", batch.collectionName());
+        record.addProperty("partition", batch.partitionName());
+        record.addProperty("operation", batch.type().name());
+        record.addProperty("primaryKey", batch.primaryKey());
+        record.addProperty("error", cause.getMessage());
+        JsonArray array = new JsonArray(rows.size());
+        rows.forEach(array::add);
+        record.add("rows", array);
+        Files.writeString(deadLetterFile(), record + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        deadLettered.addAndGet(rows.size());
+        MilvusPlusMetrics.add(MilvusPlusMetrics.SPOOL_DEAD_LETTER_ROWS, rows.size());
+        log.error("Moved {} spooled {} rows of {} to {} after a non-retryable replay failure: {}", rows.size(), batch.type(),
+                batch.collectionName(), deadLetterFile(), cause.getMessage());
+    }
+
+    private static String string(JsonObject record, String name) {
+        JsonElement element = record.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    private static Path offsetOf(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + OFFSET);
+    }
+
+    private static Path segmentOf(Path offset) {
+        String name = offset.getFileName().toString();
+        return offset.resolveSibling(name.substring(0, name.length() - OFFSET.length()));
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 段的回放进度：已写入或转入死信的行数，持久化在进度文件中
+     */
+    private static final class Cursor {
+        private final Path file;
+        private long rows;
+
+        Cursor(Path file) throws IOException {
+            this.file = file;
+            this.rows = Files.exists(file) ? Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()) : 0L;
+        }
+
+        void advance(int count) throws IOException {
+            rows += count;
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, Long.toString(rows), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private record Batch(String collectionName, String partitionName, OperationType type, String primaryKey,
+                         List<JsonObject> rows) {
+        boolean sameTarget(Batch other) {
+            return Objects.equals(collectionName, other.collectionName) && Objects.equals(partitionName, other.partitionName)
+                    && type == other.type && Objects.equals(primaryKey, other.primaryKey);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.xermaor.milvus.plus.core.tenant;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * 当前租户，作用域绑定当前线程，可嵌套。
+ * <p>
+ * 在作用域内创建的构建器按实体类声明的 {@link TenantStrategy} 改写请求，准入控制按该租户计数。
+ * 并行执行的分片、分区写入会把租户传递到工作线程；自行切换线程时用 {@link #propagate(Callable)} 包装任务。
+ * <pre>{@code
+ * try (TenantContext ignored = TenantContext.open("acme")) {
+ *     mapper.insert(doc);
+ * }
+ * }</pre>
+ */
+public final class TenantContext implements AutoCloseable {
+
+    private static final ThreadLocal<TenantContext> CURRENT = new ThreadLocal<>();
+
+    private final String tenant;
+    private final TenantContext previous;
+    private boolean closed;
+
+    private TenantContext(String tenant, TenantContext previous) {
+        this.tenant = tenant;
+        this.previous = previous;
+    }
+
+    /**
+     * 在当前线程开启租户作用域
+     *
+     * @param tenant 租户标识，为 null 时作用域内不区分租户
+     */
+    public static TenantContext open(String tenant) {
+        TenantContext context = new TenantContext(tenant, CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    /**
+     * 当前线程的租户
+     *
+     * @return 不在租户作用域内时返回 null
+     */
+    public static String current() {
+        TenantContext context = CURRENT.get();
+        return context == null ? null : context.tenant;
+    }
+
+    /**
+     * 包装任务，使其在执行线程上使用提交时的租户
+     */
+    public static <V> Callable<V> propagate(Callable<V> task) {
+        String tenant = current();
+        if (tenant == null) {
+            return task;
+        }
+        return () -> {
+            try (TenantContext ignored = open(tenant)) {
+                return task.call();
+            }
+        };
+    }
+
+    /**
+     * 包装任务，使其在执行线程上使用提交时的租户
+     */
+    public static Runnable propagate(Runnable task) {
+        String tenant = current();
+        if (tenant == null) {
+            return task;
+        }
+        return () -> {
+            try (TenantContext ignored = open(tenant)) {
+                task.run();
+            }
+        };
+    }
+
+    /**
+     * 包装函数，使其在执行线程上使用提交时的租户
+     */
+    public static <A, R> Function<A, R> propagate(Function<A, R> task) {
+        String tenant = current();
+        if (tenant == null) {
+            return task;
+        }
+        return argument -> {
+            try (TenantContext ignored = open(tenant)) {
+                return task.apply(argument);
+            }
+        };
+    }
+
+    public String tenant() {
+        return tenant;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
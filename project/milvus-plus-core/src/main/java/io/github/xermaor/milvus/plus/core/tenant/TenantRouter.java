@@ -0,0 +1,147 @@
+package io.github.xermaor.milvus.plus.core.tenant;
+
+import io.github.xermaor.milvus.plus.cache.ConversionCache;
+import io.github.xermaor.milvus.plus.core.partition.PartitionManager;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import io.github.xermaor.milvus.plus.model.MilvusEntity;
+import io.github.xermaor.milvus.plus.util.SingleFlight;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.collection.request.HasCollectionReq;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 把当前租户解析为请求的改写目标。
+ * <p>
+ * 解析结果按客户端、集合和租户缓存；按租户分区或集合隔离时，首次解析确保分区或集合存在，
+ * 同一租户的并发首次解析只创建一次。
+ */
+public final class TenantRouter {
+
+    private final static Logger log = LoggerFactory.getLogger(TenantRouter.class);
+
+    private static final Map<MilvusClientV2, Consumer<MilvusEntity>> CREATORS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<MilvusClientV2, Map<String, TenantTarget>> TARGETS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final SingleFlight<String, TenantTarget> RESOLVING = new SingleFlight<>();
+
+    private TenantRouter() {
+    }
+
+    /**
+     * 登记客户端创建租户集合的方式，通常为 {@code ICMService::createCollection}
+     */
+    public static void register(MilvusClientV2 client, Consumer<MilvusEntity> creator) {
+        CREATORS.put(client, creator);
+    }
+
+    /**
+     * 解析实体在当前租户下的改写目标，租户隔离方式取自注册表中的实体元数据
+     *
+     * @return 实体未声明租户隔离时返回 null
+     * @throws MilvusPlusException 实体声明了租户隔离但当前线程没有租户
+     */
+    public static TenantTarget resolve(MilvusClientV2 client, ConversionCache conversionCache) {
+        if (conversionCache.tenancy() == TenantStrategy.NONE) {
+            return null;
+        }
+        String baseName = conversionCache.collectionName();
+        String tenant = TenantContext.current();
+        if (StringUtils.isEmpty(tenant)) {
+            throw new MilvusPlusException("No tenant bound for multi-tenant collection " + baseName);
+        }
+        Map<String, TenantTarget> targets;
+        synchronized (TARGETS) {
+            targets = TARGETS.computeIfAbsent(client, c -> new ConcurrentHashMap<>());
+        }
+        String key = baseName + "/" + tenant;
+        TenantTarget target = targets.get(key);
+        if (target != null) {
+            return target;
+        }
+        return RESOLVING.execute(System.identityHashCode(client) + "/" + key, () -> {
+            TenantTarget resolved = targets.get(key);
+            if (resolved == null) {
+                resolved = create(client, conversionCache, tenant);
+                targets.put(key, resolved);
+            }
+            return resolved;
+        });
+    }
+
+    /**
+     * 清除客户端缓存的租户解析结果，租户的分区或集合被删除后调用
+     */
+    public static void forget(MilvusClientV2 client, String tenant) {
+        Map<String, TenantTarget> targets = TARGETS.get(client);
+        if (targets != null) {
+            targets.values().removeIf(target -> target.tenant().equals(tenant));
+        }
+    }
+
+    private static TenantTarget create(MilvusClientV2 client, ConversionCache conversionCache, String tenant) {
+        MilvusEntity entity = conversionCache.milvusEntity();
+        String baseName = entity.collectionName();
+        return switch (conversionCache.tenancy()) {
+            case PARTITION_KEY -> {
+                if (StringUtils.isBlank(conversionCache.tenantField())) {
+                    throw new MilvusPlusException("Collection " + baseName + " uses PARTITION_KEY tenancy without a tenantField");
+                }
+                yield new TenantTarget(tenant, baseName, null, conversionCache.tenantField());
+            }
+            case PARTITION -> {
+                String partitionName = "tenant_" + sanitize(tenant);
+                PartitionManager.ensure(client, baseName, partitionName);
+                yield new TenantTarget(tenant, baseName, partitionName, null);
+            }
+            case COLLECTION -> {
+                String collectionName = baseName + "_" + sanitize(tenant);
+                ensureCollection(client, entity, collectionName);
+                yield new TenantTarget(tenant, collectionName, null, null);
+            }
+            case NONE -> throw new IllegalStateException("NONE has no tenant target");
+        };
+    }
+
+    private static void ensureCollection(MilvusClientV2 client, MilvusEntity entity, String collectionName) {
+        if (Boolean.TRUE.equals(client.hasCollection(HasCollectionReq.builder().collectionName(collectionName).build()))) {
+            return;
+        }
+        Consumer<MilvusEntity> creator = CREATORS.get(client);
+        if (creator == null) {
+            throw new MilvusPlusException("Tenant collection " + collectionName + " does not exist and no creator is registered");
+        }
+        creator.accept(entity.rename(collectionName));
+        MilvusPlusMetrics.increment(MilvusPlusMetrics.TENANT_COLLECTION_CREATED);
+        log.info("Created tenant collection {}", collectionName);
+    }
+
+    /**
+     * 把租户标识编码为分区名或集合名的一部分：字母、数字和下划线保留，其他字符按 UTF-8 字节写为 {@code _xHH}，
+     * 后面紧跟字母 x 的下划线同样转义，使输出中的 {@code _x} 总是转义的开头。
+     * 编码是单射的，UUID、带连字符或邮箱形式的租户可以直接使用，且不同租户（如 a-b 与 a_x2db）不会映射到同一分区或集合
+     */
+    private static String sanitize(String tenant) {
+        byte[] bytes = tenant.getBytes(StandardCharsets.UTF_8);
+        StringBuilder encoded = new StringBuilder(bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xff;
+            boolean plain = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+                    || (b == '_' && (i + 1 == bytes.length || bytes[i + 1] != 'x'));
+            if (plain) {
+                encoded.append((char) b);
+            } else {
+                encoded.append("_x").append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+        }
+        return encoded.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.xermaor.milvus.plus.core.tenant;
+
+/**
+ * 多租户隔离策略
+ */
+public enum TenantStrategy {
+    /**
+     * 不区分租户
+     */
+    NONE,
+    /**
+     * 所有租户共用集合，按分区键字段隔离：写入时填充租户字段，读取、更新、删除时追加租户过滤条件
+     */
+    PARTITION_KEY,
+    /**
+     * 每个租户一个分区 {@code tenant_<租户>}，分区在首次写入时创建；租户名只能包含字母、数字和下划线
+     */
+    PARTITION,
+    /**
+     * 每个租户一个集合 {@code <集合名>_<租户>}，集合在首次访问时创建；租户名只能包含字母、数字和下划线
+     */
+    COLLECTION
+}
@@ -0,0 +1,12 @@
+package io.github.xermaor.milvus.plus.core.tenant;
+
+/**
+ * 租户请求的改写目标
+ *
+ * @param tenant         租户标识
+ * @param collectionName 请求发往的集合
+ * @param partitionName  请求限定的分区，为 null 时不限定
+ * @param field          租户字段，为 null 时不追加过滤条件也不填充字段
+ */
+public record TenantTarget(String tenant, String collectionName, String partitionName, String field) {
+}
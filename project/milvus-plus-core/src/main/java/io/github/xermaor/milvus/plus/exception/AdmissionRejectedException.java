@@ -0,0 +1,10 @@
+package io.github.xermaor.milvus.plus.exception;
+
+/**
+ * 超出客户端限流或并发配额，调用未被放行
+ */
+public class AdmissionRejectedException extends MilvusPlusException {
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
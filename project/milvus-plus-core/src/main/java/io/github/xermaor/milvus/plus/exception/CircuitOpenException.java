@@ -0,0 +1,10 @@
+package io.github.xermaor.milvus.plus.exception;
+
+/**
+ * 端点熔断中，调用被拒绝
+ */
+public class CircuitOpenException extends MilvusPlusException {
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
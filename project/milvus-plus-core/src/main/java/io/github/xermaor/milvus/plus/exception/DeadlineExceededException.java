@@ -0,0 +1,10 @@
+package io.github.xermaor.milvus.plus.exception;
+
+/**
+ * 调用超过截止时间
+ */
+public class DeadlineExceededException extends MilvusPlusException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.xermaor.milvus.plus.exception;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按集合、分区分组写入时部分分组失败。成功分组的数据已经提交，重试时应只重写失败分组的行
+ */
+public class PartialInsertException extends MilvusPlusException {
+    private final List<Object> primaryKeys;
+    private final Map<String, Throwable> failures;
+
+    /**
+     * @param primaryKeys 与输入行一一对应的主键，失败分组中的行为 null
+     * @param failures    失败的写入目标（集合或 集合.分区）及其异常，至少包含一项
+     */
+    public PartialInsertException(List<Object> primaryKeys, Map<String, Throwable> failures) {
+        super("Insert into " + failures.keySet() + " failed, other targets were committed: "
+                + failures.values().iterator().next().getMessage(), failures.values().iterator().next());
+        this.primaryKeys = Collections.unmodifiableList(primaryKeys);
+        this.failures = Collections.unmodifiableMap(failures);
+        failures.values().stream().skip(1).forEach(this::addSuppressed);
+    }
+
+    /**
+     * 与输入行一一对应的主键，已提交的行为其主键，失败分组中的行为 null
+     */
+    public List<Object> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    /**
+     * 失败的写入目标（集合或 集合.分区）及其异常，按分组顺序排列
+     */
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+}
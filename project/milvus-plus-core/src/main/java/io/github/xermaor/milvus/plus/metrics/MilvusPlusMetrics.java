@@ -0,0 +1,163 @@
+package io.github.xermaor.milvus.plus.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内计数器，用于观察框架内部行为（如查询规划的分区裁剪）。
+ * <p>
+ * 计数器按名称懒创建，基于 {@link LongAdder}，高并发下累加开销很小；
+ * 可通过 {@link #snapshot()} 定期采集后接入外部监控系统。
+ */
+public final class MilvusPlusMetrics {
+
+    /**
+     * 经过查询规划的请求数
+     */
+    public static final String PLANNER_PLANS = "planner.plans";
+    /**
+     * 根据分区映射字段自动裁剪了分区的请求数
+     */
+    public static final String PLANNER_PARTITION_PRUNED = "planner.partition.pruned";
+    /**
+     * 条件限定了 Partition Key 字段、由服务端裁剪分区的请求数
+     */
+    public static final String PLANNER_PARTITION_KEY_PINNED = "planner.partition_key.pinned";
+    /**
+     * 调整了过滤条件顺序的请求数
+     */
+    public static final String PLANNER_PREDICATES_REORDERED = "planner.predicates.reordered";
+
+    /**
+     * 按需加载的集合或分区数
+     */
+    public static final String LOAD_LOADS = "load.loads";
+    /**
+     * 因超出加载预算而释放的集合或分区数
+     */
+    public static final String LOAD_RELEASES = "load.releases";
+
+    /**
+     * 容错层发起的重试次数
+     */
+    public static final String RESILIENCE_RETRIES = "resilience.retries";
+    /**
+     * 发出的对冲请求数
+     */
+    public static final String RESILIENCE_HEDGES = "resilience.hedges";
+    /**
+     * 超过截止时间的调用数
+     */
+    public static final String RESILIENCE_TIMEOUTS = "resilience.timeouts";
+    /**
+     * 熔断器打开次数
+     */
+    public static final String RESILIENCE_BREAKER_OPENED = "resilience.breaker.opened";
+    /**
+     * 因熔断被拒绝的调用数
+     */
+    public static final String RESILIENCE_REJECTED = "resilience.breaker.rejected";
+
+    /**
+     * 准入控制放行的调用数
+     */
+    public static final String ADMISSION_ADMITTED = "admission.admitted";
+    /**
+     * 准入控制拒绝的调用数
+     */
+    public static final String ADMISSION_REJECTED = "admission.rejected";
+    /**
+     * 放行前累计等待的时间（纳秒）
+     */
+    public static final String ADMISSION_WAIT_NANOS = "admission.wait.nanos";
+
+    /**
+     * 写缓冲发出的批量插入次数
+     */
+    public static final String WRITE_BEHIND_FLUSHES = "write_behind.flushes";
+    /**
+     * 写缓冲写入的行数
+     */
+    public static final String WRITE_BEHIND_ROWS = "write_behind.rows";
+    /**
+     * 写缓冲已满、提交方需要等待的次数
+     */
+    public static final String WRITE_BEHIND_BACKPRESSURE = "write_behind.backpressure";
+
+    /**
+     * 写入本地暂存的行数
+     */
+    public static final String SPOOL_APPENDED_ROWS = "spool.appended.rows";
+    /**
+     * 从本地暂存回放到集群的行数
+     */
+    public static final String SPOOL_REPLAYED_ROWS = "spool.replayed.rows";
+    /**
+     * 后台回放失败的次数
+     */
+    public static final String SPOOL_REPLAY_FAILURES = "spool.replay.failures";
+    /**
+     * 回放时因不可重试的错误转入死信文件的行数
+     */
+    public static final String SPOOL_DEAD_LETTER_ROWS = "spool.dead_letter.rows";
+
+    /**
+     * 插入时按需创建的分区数
+     */
+    public static final String PARTITION_CREATED = "partition.created";
+    /**
+     * 创建的滚动周期集合数
+     */
+    public static final String ROLLING_CREATED = "rolling.created";
+    /**
+     * 超出保留数后删除的滚动周期集合数
+     */
+    public static final String ROLLING_DROPPED = "rolling.dropped";
+    /**
+     * 首次访问时创建的租户集合数
+     */
+    public static final String TENANT_COLLECTION_CREATED = "tenant.collection.created";
+    /**
+     * 分块清除删除的行数
+     */
+    public static final String PURGE_DELETED_ROWS = "purge.deleted.rows";
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+
+    private MilvusPlusMetrics() {
+    }
+
+    public static void increment(String name) {
+        add(name, 1L);
+    }
+
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 获取计数器当前值，不存在时返回 0
+     */
+    public static long get(String name) {
+        LongAdder adder = COUNTERS.get(name);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * 获取全部计数器的快照，按名称排序
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        COUNTERS.forEach((name, adder) -> snapshot.put(name, adder.sum()));
+        return snapshot;
+    }
+
+    /**
+     * 清零全部计数器
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+}
@@ -6,6 +6,7 @@ import io.milvus.v2.service.collection.request.AddFieldReq;
 import io.milvus.v2.service.collection.request.CreateCollectionReq;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author xermao
@@ -19,6 +20,28 @@ public record MilvusEntity(
         List<String> partitionName,
         ConsistencyLevel consistencyLevel,
         Boolean enableDynamicField,
-        List<CreateCollectionReq.Function> functions
+        List<CreateCollectionReq.Function> functions,
+        Map<String, String> properties
 ) {
+
+    public MilvusEntity {
+        properties = properties == null ? Map.of() : Map.copyOf(properties);
+    }
+
+    public MilvusEntity(String collectionName, String description, List<String> alias, List<IndexParam> indexParams,
+                        List<AddFieldReq> milvusFields, List<String> partitionName, ConsistencyLevel consistencyLevel,
+                        Boolean enableDynamicField, List<CreateCollectionReq.Function> functions) {
+        this(collectionName, description, alias, indexParams, milvusFields, partitionName, consistencyLevel,
+                enableDynamicField, functions, Map.of());
+    }
+
+    /**
+     * 以相同定义创建另一个集合，不带别名
+     *
+     * @param collectionName 新集合名
+     */
+    public MilvusEntity rename(String collectionName) {
+        return new MilvusEntity(collectionName, description, List.of(), indexParams, milvusFields, partitionName,
+                consistencyLevel, enableDynamicField, functions, properties);
+    }
 }
@@ -0,0 +1,64 @@
+package io.github.xermaor.milvus.plus.model;
+
+import io.milvus.v2.common.IndexParam;
+
+/**
+ * 搜索得分的排序方向。
+ * <p>
+ * L2、HAMMING、JACCARD 等距离类度量越小越相似（升序），
+ * IP、COSINE、BM25 以及混合检索的 ranker 得分越大越相似（降序）。
+ */
+public enum ScoreOrder {
+    /**
+     * 得分越小越好
+     */
+    ASC,
+    /**
+     * 得分越大越好
+     */
+    DESC;
+
+    /**
+     * 判断得分 a 是否优于得分 b
+     */
+    public boolean isBetter(float a, float b) {
+        return this == ASC ? a < b : a > b;
+    }
+
+    /**
+     * 比较两个得分，更优的得分排在前面
+     */
+    public int compare(float a, float b) {
+        return this == ASC ? Float.compare(a, b) : Float.compare(b, a);
+    }
+
+    /**
+     * 根据度量类型获取排序方向
+     */
+    public static ScoreOrder of(IndexParam.MetricType metricType) {
+        if (metricType == null) {
+            return DESC;
+        }
+        return switch (metricType) {
+            case L2, HAMMING, JACCARD -> ASC;
+            default -> DESC;
+        };
+    }
+
+    /**
+     * 根据度量类型名称获取排序方向，无法识别时按降序处理
+     */
+    public static ScoreOrder of(Object metricType) {
+        if (metricType instanceof IndexParam.MetricType type) {
+            return of(type);
+        }
+        if (metricType == null) {
+            return DESC;
+        }
+        try {
+            return of(IndexParam.MetricType.valueOf(metricType.toString().trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return DESC;
+        }
+    }
+}
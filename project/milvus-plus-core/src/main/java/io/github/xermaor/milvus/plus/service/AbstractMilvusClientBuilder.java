@@ -3,7 +3,24 @@ package io.github.xermaor.milvus.plus.service;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
 import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
-import io.github.xermaor.milvus.plus.converter.MilvusConverter;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.capability.ServerCapabilities;
+import io.github.xermaor.milvus.plus.core.expiry.ExpiryConfig;
+import io.github.xermaor.milvus.plus.core.expiry.ExpiryManager;
+import io.github.xermaor.milvus.plus.core.expiry.ExpirySpec;
+import io.github.xermaor.milvus.plus.core.load.LoadBudget;
+import io.github.xermaor.milvus.plus.core.load.LoadManager;
+import io.github.xermaor.milvus.plus.core.resilience.ResiliencePolicy;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.rolling.RollingManager;
+import io.github.xermaor.milvus.plus.core.rolling.RollingPeriod;
+import io.github.xermaor.milvus.plus.core.rolling.RollingSpec;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.core.spool.SpoolConfig;
+import io.github.xermaor.milvus.plus.core.spool.WriteSpool;
+import io.github.xermaor.milvus.plus.core.tenant.TenantRouter;
+import io.github.xermaor.milvus.plus.core.tenant.TenantStrategy;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import io.github.xermaor.milvus.plus.model.MilvusEntity;
 import io.milvus.v2.client.MilvusClientV2;
@@ -22,7 +39,45 @@ public abstract class AbstractMilvusClientBuilder implements MilvusClientBuilder
     private final static Logger log = LoggerFactory.getLogger(AbstractMilvusClientBuilder.class);
 
     protected String[] packages;
+    /**
+     * 数据源名称，只初始化 {@link MilvusCollection#datasource()} 与之相同的实体集合
+     */
+    protected String datasource = MilvusDatasources.DEFAULT;
     protected MilvusClientV2 client;
+    protected final EntityMetadataRegistry metadataRegistry = new EntityMetadataRegistry();
+    /**
+     * 加载预算，设置后集合和分区改为首次访问时加载，并在超出预算时释放
+     */
+    protected LoadBudget loadBudget;
+    /**
+     * 固定加载的集合或分区，格式为 {@code collection} 或 {@code collection:partition}
+     */
+    protected List<String> pinned = List.of();
+    /**
+     * 读客户端，设置后查询构建器的读请求发往这些客户端
+     */
+    protected List<MilvusClientV2> readClients = List.of();
+    /**
+     * 写客户端，设置后插入、更新、删除请求发往这些客户端
+     */
+    protected List<MilvusClientV2> writeClients = List.of();
+    /**
+     * 读、写操作的容错策略，设置后数据操作经由 {@link ResilientExecutor} 执行
+     */
+    protected ResiliencePolicy readPolicy;
+    protected ResiliencePolicy writePolicy;
+    /**
+     * 准入控制，设置后数据操作在发出前按规则限速和限制并发
+     */
+    protected AdmissionController admissionController;
+    /**
+     * 写入暂存，设置后插入和更新在集群不可用时写入本地磁盘，恢复后回放
+     */
+    protected SpoolConfig spoolConfig;
+    /**
+     * 行级过期任务配置，用于声明了 {@link MilvusCollection#ttlField()} 的集合
+     */
+    protected ExpiryConfig expiryConfig = ExpiryConfig.DEFAULT;
 
     @Override
     public void initialize() {
@@ -30,11 +85,37 @@ public abstract class AbstractMilvusClientBuilder implements MilvusClientBuilder
     }
 
     public void handler() {
-        List<Class<?>> classes = getClass(packages);
+        ServerCapabilities.detect(client);
+        if (!readClients.isEmpty() || !writeClients.isEmpty()) {
+            ReadWriteRouter.register(client, readClients, writeClients);
+        }
+        if (admissionController != null) {
+            AdmissionController.register(client, admissionController);
+        }
+        if (readPolicy != null || writePolicy != null) {
+            ResilientExecutor.register(client, readPolicy, writePolicy);
+        }
+        if (spoolConfig != null) {
+            WriteSpool.register(client, spoolConfig);
+        }
+        List<Class<?>> classes = getClass(packages).stream()
+                .filter(c -> datasource.equals(c.getAnnotation(MilvusCollection.class).datasource()))
+                .toList();
         if (classes.isEmpty()) {
             log.warn("no any collections have been initialized, see if the [packages] parameter is configured correctly. :( !");
             return;
         }
+        if (loadBudget != null) {
+            LoadManager loadManager = LoadManager.register(client, loadBudget);
+            for (String unit : pinned) {
+                String[] parts = unit.split(":", 2);
+                if (parts.length == 2) {
+                    loadManager.pin(parts[0], parts[1]);
+                } else {
+                    loadManager.pin(parts[0]);
+                }
+            }
+        }
         performBusinessLogic(classes);
     }
 
@@ -43,6 +124,15 @@ public abstract class AbstractMilvusClientBuilder implements MilvusClientBuilder
         return client;
     }
 
+    @Override
+    public EntityMetadataRegistry getMetadataRegistry() {
+        return metadataRegistry;
+    }
+
+    public String getDatasource() {
+        return datasource;
+    }
+
     // 获取指定包下实体类
     private List<Class<?>> getClass(String... packages) {
         if (packages == null || packages.length == 0) {
@@ -72,9 +162,25 @@ public abstract class AbstractMilvusClientBuilder implements MilvusClientBuilder
     // 缓存 + 是否构建集合
     public void performBusinessLogic(List<Class<?>> annotatedClasses) {
         for (Class<?> milvusClass : annotatedClasses) {
-            MilvusEntity milvusEntity = MilvusConverter.convert(milvusClass);
+            MilvusEntity milvusEntity = metadataRegistry.get(milvusClass).milvusEntity();
+            MilvusCollection collection = milvusClass.getAnnotation(MilvusCollection.class);
+            if (collection.rolling() != RollingPeriod.NONE) {
+                // 滚动集合不创建基础集合，集合名作为指向当前周期集合的别名
+                RollingManager.register(client, this::createCollection).manage(new RollingSpec(milvusEntity.collectionName(),
+                        collection.rolling(), collection.retention(), collection.timeField(), milvusEntity));
+                continue;
+            }
+            if (collection.tenancy() == TenantStrategy.COLLECTION) {
+                // 每个租户的集合在首次访问时创建
+                TenantRouter.register(client, this::createCollection);
+                continue;
+            }
             createCollection(milvusEntity);
             aliasProcess(milvusEntity);
+            if (collection.ttl() > 0 && StringUtils.isNotBlank(collection.ttlField())) {
+                ExpiryManager.register(client, expiryConfig).manage(new ExpirySpec(milvusEntity.collectionName(),
+                        metadataRegistry.get(milvusClass).primaryKey(), collection.ttlField(), collection.ttl()));
+            }
         }
     }
 
@@ -95,7 +201,7 @@ public abstract class AbstractMilvusClientBuilder implements MilvusClientBuilder
                             milvusEntity.collectionName(), milvusEntity.description(),
                             aliasList, milvusEntity.indexParams(), milvusEntity.milvusFields(),
                             milvusEntity.partitionName(), milvusEntity.consistencyLevel(),
-                            milvusEntity.enableDynamicField(), milvusEntity.functions()
+                            milvusEntity.enableDynamicField(), milvusEntity.functions(), milvusEntity.properties()
                     ));
                 });
     }
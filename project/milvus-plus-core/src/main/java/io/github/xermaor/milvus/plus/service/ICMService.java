@@ -1,8 +1,11 @@
 package io.github.xermaor.milvus.plus.service;
 
 import io.github.xermaor.milvus.plus.builder.CollectionSchemaBuilder;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.converter.MilvusConverter;
+import io.github.xermaor.milvus.plus.core.load.LoadManager;
 import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.core.partition.PartitionManager;
 import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import io.github.xermaor.milvus.plus.model.MilvusEntity;
 import io.milvus.exception.MilvusException;
@@ -30,8 +33,17 @@ public interface ICMService {
 
     MilvusClientV2 getClient();
 
+    /**
+     * 获取解析实体时使用的元数据注册表，默认使用共享注册表，可由持有构建器的实现覆盖
+     *
+     * @return EntityMetadataRegistry
+     */
+    default EntityMetadataRegistry getMetadataRegistry() {
+        return EntityMetadataRegistry.shared();
+    }
+
     default void createCollection(Class<?> milvusClass) {
-        MilvusEntity milvusEntity = MilvusConverter.convert(milvusClass);
+        MilvusEntity milvusEntity = MilvusConverter.convert(milvusClass, getMetadataRegistry());
         createCollection(milvusEntity);
     }
 
@@ -50,9 +62,18 @@ public interface ICMService {
             if (!collectionExists) {
                 // 创建新集合
                 MilvusConverter.create(milvusEntity, client);
+            } else {
+                // 补建缺失的标量索引，同步集合属性
+                MilvusConverter.reconcileScalarIndexes(milvusEntity, client);
+                MilvusConverter.reconcileProperties(milvusEntity, client);
+            }
+            if (LoadManager.get(client) == null) {
+                //加载集合
+                MilvusConverter.loadStatus(milvusEntity, client);
+            } else {
+                // 由加载管理器在首次访问时加载
+                MilvusConverter.ensurePartitions(milvusEntity, client);
             }
-            //加载集合
-            MilvusConverter.loadStatus(milvusEntity, client);
         } catch (MilvusException e) {
             throw new MilvusPlusException("Error handling Milvus collection", e);
         }
@@ -124,6 +145,7 @@ public interface ICMService {
                 .collectionName(collectionName)
                 .build();
         client.dropCollection(dropCollectionReq);
+        PartitionManager.forget(client, collectionName);
     }
 
     /**
@@ -356,6 +378,7 @@ public interface ICMService {
                 .partitionName(partitionName)
                 .build();
         client.dropPartition(dropPartitionReq);
+        PartitionManager.forget(client, collectionName);
     }
 
     /**
@@ -451,7 +474,7 @@ public interface ICMService {
     }
 
     default void createAlias(Class<?> milvusClass) {
-        MilvusEntity milvusEntity = MilvusConverter.convert(milvusClass);
+        MilvusEntity milvusEntity = MilvusConverter.convert(milvusClass, getMetadataRegistry());
         createAlias(milvusEntity);
     }
 
@@ -1,6 +1,8 @@
 package io.github.xermaor.milvus.plus.service;
 
 import com.google.gson.JsonObject;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
 import io.milvus.exception.MilvusException;
 import io.milvus.v2.client.MilvusClientV2;
 import io.milvus.v2.common.ConsistencyLevel;
@@ -42,7 +44,7 @@ public interface IVecMService {
             o.filter(filter);
         }
         DeleteReq deleteReq = o.build();
-        return client.delete(deleteReq);
+        return ResilientExecutor.execute(client, OperationType.DELETE, collectionName, writer -> writer.delete(deleteReq));
     }
 
     /**
@@ -89,7 +91,7 @@ public interface IVecMService {
                 .ids(ids)
                 .outputFields(outputFields)
                 .build();
-        return client.get(getReq);
+        return ResilientExecutor.execute(client, OperationType.GET, collectionName, reader -> reader.get(getReq));
     }
 
     /**
@@ -126,7 +128,7 @@ public interface IVecMService {
                 .data(data)
                 .partitionName(partitionName)
                 .build();
-        return client.insert(insertReq);
+        return ResilientExecutor.execute(client, OperationType.INSERT, collectionName, writer -> writer.insert(insertReq));
     }
 
     /**
@@ -174,7 +176,7 @@ public interface IVecMService {
                 .offset(offset)
                 .limit(limit)
                 .build();
-        return client.query(queryReq);
+        return ResilientExecutor.execute(client, OperationType.QUERY, collectionName, reader -> reader.query(queryReq));
     }
 
     /**
@@ -254,7 +256,7 @@ public interface IVecMService {
                 .consistencyLevel(consistencyLevel)
                 .ignoreGrowing(ignoreGrowing)
                 .build();
-        return client.search(searchReq);
+        return ResilientExecutor.execute(client, OperationType.SEARCH, collectionName, reader -> reader.search(searchReq));
     }
 
     /**
@@ -287,7 +289,7 @@ public interface IVecMService {
                 .partitionName(partitionName)
                 .data(data)
                 .build();
-        return client.upsert(upsertReq);
+        return ResilientExecutor.execute(client, OperationType.UPSERT, collectionName, writer -> writer.upsert(upsertReq));
     }
 
     /**
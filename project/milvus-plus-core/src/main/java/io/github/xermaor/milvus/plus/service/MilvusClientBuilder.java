@@ -1,5 +1,6 @@
 package io.github.xermaor.milvus.plus.service;
 
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.milvus.v2.client.MilvusClientV2;
 
 public interface MilvusClientBuilder {
@@ -14,4 +15,13 @@ public interface MilvusClientBuilder {
      * @return MilvusClientV2
      */
     MilvusClientV2 getClient();
+
+    /**
+     * 获取实体元数据注册表
+     *
+     * @return EntityMetadataRegistry
+     */
+    default EntityMetadataRegistry getMetadataRegistry() {
+        return EntityMetadataRegistry.shared();
+    }
 }
\ No newline at end of file
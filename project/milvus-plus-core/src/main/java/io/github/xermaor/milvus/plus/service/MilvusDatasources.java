@@ -0,0 +1,67 @@
+package io.github.xermaor.milvus.plus.service;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.core.shard.SearchShard;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+
+import java.util.*;
+
+/**
+ * 命名数据源集合，按 {@link MilvusCollection#datasource()} 把实体路由到对应集群的客户端。
+ * <p>
+ * 默认数据源的名称为空字符串；每个数据源拥有独立的客户端（连接池）和元数据注册表。
+ */
+public class MilvusDatasources {
+
+    public static final String DEFAULT = "";
+
+    private final Map<String, MilvusClientBuilder> builders;
+
+    /**
+     * @param builders 数据源名称到客户端构建器的映射
+     */
+    public MilvusDatasources(Map<String, ? extends MilvusClientBuilder> builders) {
+        this.builders = Collections.unmodifiableMap(new LinkedHashMap<>(builders));
+    }
+
+    /**
+     * 获取数据源的客户端构建器
+     *
+     * @param name 数据源名称，为空时返回默认数据源
+     */
+    public MilvusClientBuilder get(String name) {
+        MilvusClientBuilder builder = builders.get(name == null ? DEFAULT : name);
+        if (builder == null) {
+            throw new MilvusPlusException("Unknown milvus datasource: " + name);
+        }
+        return builder;
+    }
+
+    public MilvusClientV2 client(String name) {
+        return get(name).getClient();
+    }
+
+    /**
+     * 获取实体所属数据源的客户端构建器
+     */
+    public MilvusClientBuilder route(Class<?> entityType) {
+        MilvusCollection annotation = entityType.getAnnotation(MilvusCollection.class);
+        return get(annotation == null ? DEFAULT : annotation.datasource());
+    }
+
+    /**
+     * 构建指向指定数据源的搜索分片，用于跨集群搜索并合并结果
+     *
+     * @param datasource     数据源名称
+     * @param collectionName 集合名或别名
+     * @param partitionNames 分区名
+     */
+    public SearchShard shard(String datasource, String collectionName, String... partitionNames) {
+        return new SearchShard(collectionName, List.of(partitionNames), client(datasource));
+    }
+
+    public Set<String> names() {
+        return builders.keySet();
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.xermaor.milvus.plus.service;
+
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.expiry.ExpiryConfig;
+import io.github.xermaor.milvus.plus.core.load.LoadBudget;
+import io.github.xermaor.milvus.plus.core.resilience.ResiliencePolicy;
+import io.github.xermaor.milvus.plus.core.spool.SpoolConfig;
+import io.milvus.v2.client.MilvusClientV2;
+
+import java.util.List;
+
+/**
+ * 命名数据源的客户端构建器，只初始化 {@code datasource} 与之相同的实体集合。
+ * <p>
+ * 读写分离、容错、准入控制、写入暂存和过期任务与默认数据源一样按客户端注册，需在 {@link #initialize()} 之前设置
+ */
+public class NamedMilvusClientBuilder extends AbstractMilvusClientBuilder {
+
+    public NamedMilvusClientBuilder(String datasource, MilvusClientV2 client, String[] packages,
+                                    LoadBudget loadBudget, List<String> pinned) {
+        this.datasource = datasource;
+        this.client = client;
+        this.packages = packages;
+        this.loadBudget = loadBudget;
+        this.pinned = pinned == null ? List.of() : pinned;
+    }
+
+    /**
+     * 设置读写分离的读、写客户端，均为空时读写都使用主连接
+     */
+    public NamedMilvusClientBuilder readWrite(List<MilvusClientV2> readClients, List<MilvusClientV2> writeClients) {
+        this.readClients = readClients == null ? List.of() : readClients;
+        this.writeClients = writeClients == null ? List.of() : writeClients;
+        return this;
+    }
+
+    /**
+     * 设置读、写操作的容错策略，为 null 时不启用
+     */
+    public NamedMilvusClientBuilder resilience(ResiliencePolicy readPolicy, ResiliencePolicy writePolicy) {
+        this.readPolicy = readPolicy;
+        this.writePolicy = writePolicy;
+        return this;
+    }
+
+    /**
+     * 设置准入控制，为 null 时不启用
+     */
+    public NamedMilvusClientBuilder admission(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+        return this;
+    }
+
+    /**
+     * 设置写入暂存，为 null 时不启用；暂存目录不能与其他数据源共用
+     */
+    public NamedMilvusClientBuilder spool(SpoolConfig spoolConfig) {
+        this.spoolConfig = spoolConfig;
+        return this;
+    }
+
+    /**
+     * 设置行级过期任务配置，为 null 时使用默认配置
+     */
+    public NamedMilvusClientBuilder expiry(ExpiryConfig expiryConfig) {
+        this.expiryConfig = expiryConfig == null ? ExpiryConfig.DEFAULT : expiryConfig;
+        return this;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.xermaor.milvus.plus.util;
+
+import java.util.Arrays;
+
+/**
+ * long 到 int 下标的开放寻址哈希表，用于大批量 int64 主键的定位，避免装箱。
+ * <p>
+ * 只支持插入和查询，重复插入同一键时保留第一次的值。
+ */
+public final class LongIndexMap {
+
+    private static final int ABSENT = -1;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+    private int size;
+
+    /**
+     * @param expectedSize 预计的键数量，装载因子保持在 0.5 以下
+     */
+    public LongIndexMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(values, ABSENT);
+    }
+
+    /**
+     * 插入键值，键已存在时不覆盖
+     *
+     * @param key   键
+     * @param value 非负下标
+     * @return 插入成功返回 true
+     */
+    public boolean putIfAbsent(long key, int value) {
+        if (size * 2 >= keys.length) {
+            throw new IllegalStateException("LongIndexMap capacity exceeded");
+        }
+        int slot = slot(key);
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * 查询键对应的下标
+     *
+     * @return 下标，不存在时返回 -1
+     */
+    public int get(long key) {
+        int slot = slot(key);
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
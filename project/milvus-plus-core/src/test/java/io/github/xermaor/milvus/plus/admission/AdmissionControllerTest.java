@@ -0,0 +1,82 @@
+package io.github.xermaor.milvus.plus.admission;
+
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionPolicy;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionRule;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.exception.AdmissionRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    @Test
+    void testInFlightLimitPerCollectionAndOperation() {
+        AdmissionController controller = new AdmissionController(
+                List.of(new AdmissionRule("*", OperationType.INSERT, 0, 0, 1, false)),
+                AdmissionPolicy.FAIL_FAST, null);
+
+        AdmissionController.Permit permit = controller.acquire("docs", OperationType.INSERT);
+        assertThrows(AdmissionRejectedException.class, () -> controller.acquire("docs", OperationType.INSERT));
+        // 其他集合和不匹配的操作不受影响
+        controller.acquire("other", OperationType.INSERT).close();
+        controller.acquire("docs", OperationType.SEARCH).close();
+        permit.close();
+        controller.acquire("docs", OperationType.INSERT).close();
+    }
+
+    @Test
+    void testRateLimitWithTimeout() {
+        AdmissionController controller = new AdmissionController(
+                List.of(new AdmissionRule("docs", null, 10, 1, 0, false)),
+                AdmissionPolicy.TIMEOUT, Duration.ofMillis(500));
+
+        controller.acquire("docs", OperationType.QUERY).close();
+        long start = System.nanoTime();
+        controller.acquire("docs", OperationType.SEARCH).close();
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+
+        AdmissionController strict = new AdmissionController(
+                List.of(new AdmissionRule("docs", null, 1, 1, 0, false)),
+                AdmissionPolicy.TIMEOUT, Duration.ofMillis(50));
+        strict.acquire("docs", OperationType.QUERY).close();
+        assertThrows(AdmissionRejectedException.class, () -> strict.acquire("docs", OperationType.QUERY));
+    }
+
+    @Test
+    void testPerTenantQuota() {
+        AtomicReference<String> tenant = new AtomicReference<>("a");
+        AdmissionController controller = new AdmissionController(
+                List.of(new AdmissionRule(null, null, 0, 0, 1, true)),
+                AdmissionPolicy.FAIL_FAST, null).tenantResolver(tenant::get);
+
+        AdmissionController.Permit permit = controller.acquire("docs", OperationType.QUERY);
+        assertThrows(AdmissionRejectedException.class, () -> controller.acquire("docs", OperationType.QUERY));
+        tenant.set("b");
+        controller.acquire("docs", OperationType.QUERY).close();
+        permit.close();
+    }
+
+    @Test
+    void testIdleLimitersAreSwept() {
+        AdmissionController controller = new AdmissionController(
+                List.of(new AdmissionRule("*", null, 0, 0, 1, false)),
+                AdmissionPolicy.FAIL_FAST, null);
+
+        AdmissionController.Permit permit = controller.acquire("docs", OperationType.INSERT);
+        for (int i = 0; i < 5000; i++) {
+            controller.acquire("docs_" + i, OperationType.INSERT).close();
+        }
+
+        assertTrue(controller.limiterCount() <= 1025);
+        // 持有许可的限流器不会被清理
+        assertThrows(AdmissionRejectedException.class, () -> controller.acquire("docs", OperationType.INSERT));
+        permit.close();
+        controller.acquire("docs", OperationType.INSERT).close();
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.xermaor.milvus.plus.buffer;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.buffer.WriteBehindBuffer;
+import io.github.xermaor.milvus.plus.core.buffer.WriteBehindConfig;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.response.InsertResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WriteBehindBufferTest {
+
+    @MilvusCollection(name = "buffered_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        Doc(Long id) {
+            this.id = id;
+            this.vector = List.of(0.1f, 0.2f);
+        }
+    }
+
+    private static MilvusClientV2 client() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.insert(any())).thenAnswer(invocation -> {
+            InsertReq request = invocation.getArgument(0);
+            List<Object> keys = new ArrayList<>();
+            request.getData().forEach(row -> keys.add(row.get("doc_id").getAsLong()));
+            return InsertResp.builder().InsertCnt(keys.size()).primaryKeys(keys).build();
+        });
+        return client;
+    }
+
+    private static LambdaInsertWrapper<Doc> wrapper(MilvusClientV2 client) {
+        LambdaInsertWrapper<Doc> wrapper = new LambdaInsertWrapper<>();
+        wrapper.init("buffered_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+        return wrapper;
+    }
+
+    @Test
+    void testRowThresholdBatchesIntoSingleInsert() throws Exception {
+        MilvusClientV2 client = client();
+        WriteBehindConfig config = new WriteBehindConfig(4, 0, Duration.ZERO, 100, null);
+        try (WriteBehindBuffer<Doc> buffer = new WriteBehindBuffer<>(() -> wrapper(client), config)) {
+            List<CompletableFuture<Object>> futures = IntStream.range(0, 4)
+                    .mapToObj(i -> buffer.submit(new Doc((long) i)))
+                    .toList();
+            for (int i = 0; i < 4; i++) {
+                assertEquals((long) i, futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+        }
+        ArgumentCaptor<InsertReq> captor = ArgumentCaptor.forClass(InsertReq.class);
+        verify(client, times(1)).insert(captor.capture());
+        assertEquals(4, captor.getValue().getData().size());
+    }
+
+    @Test
+    void testLingerFlushesPartialBatchPerPartition() throws Exception {
+        MilvusClientV2 client = client();
+        WriteBehindConfig config = new WriteBehindConfig(1000, 0, Duration.ofMillis(20), 1000, null);
+        try (WriteBehindBuffer<Doc> buffer = new WriteBehindBuffer<>(() -> wrapper(client), config)) {
+            CompletableFuture<Object> a = buffer.submit("p1", new Doc(1L));
+            CompletableFuture<Object> b = buffer.submit("p2", new Doc(2L));
+            assertEquals(1L, a.get(5, TimeUnit.SECONDS));
+            assertEquals(2L, b.get(5, TimeUnit.SECONDS));
+            assertEquals(0, buffer.pending());
+        }
+        ArgumentCaptor<InsertReq> captor = ArgumentCaptor.forClass(InsertReq.class);
+        verify(client, times(2)).insert(captor.capture());
+        assertEquals(List.of("p1", "p2"), captor.getAllValues().stream().map(InsertReq::getPartitionName).sorted().toList());
+    }
+
+    @Test
+    void testCloseFlushesRemainingAndFailuresCompleteExceptionally() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.insert(any())).thenThrow(new IllegalStateException("down"));
+        WriteBehindConfig config = new WriteBehindConfig(100, 0, Duration.ZERO, 100, null);
+        CompletableFuture<Object> future;
+        try (WriteBehindBuffer<Doc> buffer = new WriteBehindBuffer<>(() -> wrapper(client), config)) {
+            future = buffer.submit(new Doc(1L));
+            assertFalse(future.isDone());
+        }
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testSubmitRacingCloseNeverLeavesFutureIncomplete() throws Exception {
+        MilvusClientV2 client = client();
+        WriteBehindConfig config = new WriteBehindConfig(1000, 0, Duration.ZERO, 100_000, null);
+        WriteBehindBuffer<Doc> buffer = new WriteBehindBuffer<>(() -> wrapper(client), config);
+        ConcurrentLinkedQueue<CompletableFuture<Object>> futures = new ConcurrentLinkedQueue<>();
+        List<Thread> submitters = IntStream.range(0, 4).mapToObj(t -> Thread.ofPlatform().start(() -> {
+            try {
+                for (long i = 0; ; i++) {
+                    futures.add(buffer.submit(new Doc(i)));
+                }
+            } catch (MilvusPlusException e) {
+                // 关闭后提交被拒绝
+            }
+        })).toList();
+        while (futures.size() < 100) {
+            Thread.onSpinWait();
+        }
+        buffer.close();
+        for (Thread submitter : submitters) {
+            submitter.join(5000);
+        }
+
+        assertTrue(futures.stream().allMatch(CompletableFuture::isDone));
+        assertEquals(0, buffer.pending());
+    }
+}
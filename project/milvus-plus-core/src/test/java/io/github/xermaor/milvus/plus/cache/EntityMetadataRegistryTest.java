@@ -0,0 +1,72 @@
+package io.github.xermaor.milvus.plus.cache;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.converter.MilvusConverter;
+import io.github.xermaor.milvus.plus.core.FieldFunction;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.common.DataType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityMetadataRegistryTest {
+
+    @MilvusCollection(name = "registry_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    @Test
+    void testMetadataIsCachedPerClass() {
+        EntityMetadataRegistry registry = new EntityMetadataRegistry();
+        ConversionCache metadata = registry.get(Doc.class);
+        assertSame(metadata, registry.get(Doc.class));
+        assertEquals("registry_docs", metadata.collectionName());
+        assertEquals("doc_id", metadata.primaryKey());
+        assertEquals(List.of("doc_id", "vector"), List.copyOf(metadata.propertyCache().functionToPropertyMap.values()));
+    }
+
+    @Test
+    void testPropertyCacheIsFrozen() {
+        PropertyCache propertyCache = new EntityMetadataRegistry().get(Doc.class).propertyCache();
+        assertThrows(UnsupportedOperationException.class,
+                () -> propertyCache.functionToPropertyMap.put("other", "other"));
+    }
+
+    @Test
+    void testNonEntityIsRejected() {
+        EntityMetadataRegistry registry = new EntityMetadataRegistry();
+        assertTrue(registry.find(String.class).isEmpty());
+        assertThrows(MilvusPlusException.class, () -> registry.get(String.class));
+    }
+
+    @Test
+    void testFieldFunctionUsesMetadata() {
+        FieldFunction<Doc, Long> fn = Doc::getId;
+        assertEquals("doc_id", fn.getFieldName(fn));
+        assertEquals("doc_id", fn.getFieldName(fn));
+    }
+
+    @Test
+    void testConvertersUseGivenRegistry() {
+        EntityMetadataRegistry registry = new EntityMetadataRegistry();
+        ConversionCache metadata = registry.get(Doc.class);
+        assertSame(metadata.milvusEntity(), MilvusConverter.convert(Doc.class, registry));
+        assertNotSame(metadata.milvusEntity(), MilvusConverter.convert(Doc.class));
+
+        FieldFunction<Doc, Long> fn = Doc::getId;
+        assertEquals("doc_id", fn.getFieldName(fn, metadata));
+    }
+}
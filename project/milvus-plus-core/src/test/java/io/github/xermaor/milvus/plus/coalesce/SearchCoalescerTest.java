@@ -0,0 +1,100 @@
+package io.github.xermaor.milvus.plus.coalesce;
+
+import io.github.xermaor.milvus.plus.core.coalesce.CoalesceConfig;
+import io.github.xermaor.milvus.plus.core.coalesce.SearchCoalescer;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.request.data.BaseVector;
+import io.milvus.v2.service.vector.request.data.FloatVec;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SearchCoalescerTest {
+
+    private static SearchReq request(float value) {
+        return SearchReq.builder()
+                .collectionName("docs")
+                .filter("age > 1")
+                .topK(5)
+                .data(List.of(new FloatVec(List.of(value, value))))
+                .build();
+    }
+
+    /**
+     * 模拟服务端：每个查询向量返回一条以向量首元素为得分的结果
+     */
+    private static SearchResp answer(SearchReq req) {
+        List<List<SearchResp.SearchResult>> results = new ArrayList<>();
+        for (BaseVector vector : req.getData()) {
+            @SuppressWarnings("unchecked")
+            float score = ((List<Float>) vector.getData()).getFirst();
+            results.add(List.of(SearchResp.SearchResult.builder().score(score).id((long) score).build()));
+        }
+        return SearchResp.builder().searchResults(results).build();
+    }
+
+    @Test
+    void testConcurrentSearchesAreMergedAndSplit() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.search(any())).thenAnswer(invocation -> answer(invocation.getArgument(0)));
+        try (SearchCoalescer coalescer = new SearchCoalescer(client)) {
+            coalescer.configure("docs", new CoalesceConfig(Duration.ofSeconds(5), 3));
+            List<CompletableFuture<SearchResp>> futures = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                float value = i;
+                futures.add(CompletableFuture.supplyAsync(() -> coalescer.search(request(value))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                List<List<SearchResp.SearchResult>> results = futures.get(i).join().getSearchResults();
+                assertEquals(1, results.size());
+                assertEquals(i + 1f, results.getFirst().getFirst().getScore());
+            }
+            verify(client, times(1)).search(any());
+        }
+    }
+
+    @Test
+    void testWindowFlushesPartialBatch() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.search(any())).thenAnswer(invocation -> answer(invocation.getArgument(0)));
+        try (SearchCoalescer coalescer = new SearchCoalescer(client)) {
+            coalescer.defaultConfig(new CoalesceConfig(Duration.ofMillis(5), 16));
+            SearchResp resp = coalescer.search(request(7f));
+            assertEquals(7f, resp.getSearchResults().getFirst().getFirst().getScore());
+        }
+    }
+
+    @Test
+    void testDifferentGuaranteeTimestampsAreNotMerged() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.search(any())).thenAnswer(invocation -> answer(invocation.getArgument(0)));
+        try (SearchCoalescer coalescer = new SearchCoalescer(client)) {
+            coalescer.configure("docs", new CoalesceConfig(Duration.ofMillis(200), 2));
+            List<CompletableFuture<SearchResp>> futures = new ArrayList<>();
+            for (int i = 1; i <= 2; i++) {
+                SearchReq req = request(i);
+                req.setGuaranteeTimestamp(i * 100L);
+                futures.add(CompletableFuture.supplyAsync(() -> coalescer.search(req)));
+            }
+            futures.forEach(CompletableFuture::join);
+            ArgumentCaptor<SearchReq> sent = ArgumentCaptor.forClass(SearchReq.class);
+            verify(client, times(2)).search(sent.capture());
+            for (SearchReq req : sent.getAllValues()) {
+                assertEquals(1, req.getData().size());
+                @SuppressWarnings("unchecked")
+                float value = ((List<Float>) req.getData().getFirst().getData()).getFirst();
+                assertEquals((long) value * 100L, req.getGuaranteeTimestamp());
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.xermaor.milvus.plus.conditions;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.capability.ServerCapabilities;
+import io.github.xermaor.milvus.plus.core.conditions.CompiledQuery;
+import io.github.xermaor.milvus.plus.core.conditions.CompiledSearch;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Param;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CompiledSearchTest {
+
+    @MilvusCollection(name = "faces")
+    static class Face {
+        @MilvusField(name = "face_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(name = "age", dataType = DataType.Int64)
+        private Long age;
+        @MilvusField(name = "name", dataType = DataType.VarChar)
+        private String name;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+    }
+
+    @Test
+    void testCompiledSearchBindsParamsPerExecutionAndIgnoresLaterChanges() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.search(any())).thenReturn(SearchResp.builder().searchResults(List.of(List.of())).build());
+        LambdaQueryWrapper<Face> wrapper = wrapper(client);
+        CompiledSearch<Face> compiled = wrapper.annsField("vector").topK(5)
+                .gt("age", Param.of("age")).ne("name", "{age}")
+                .compileSearch();
+        wrapper.eq("name", "later").topK(50);
+
+        compiled.search(List.of(0.1f, 0.2f), Map.of("age", 18));
+        compiled.search(List.of(0.3f, 0.4f), Map.of("age", 30));
+
+        ArgumentCaptor<SearchReq> captor = ArgumentCaptor.forClass(SearchReq.class);
+        verify(client, times(2)).search(captor.capture());
+        SearchReq first = captor.getAllValues().get(0);
+        assertEquals("age > 18 && name != \"{age}\"", first.getFilter());
+        assertEquals("age > 30 && name != \"{age}\"", captor.getAllValues().get(1).getFilter());
+        assertEquals(5, first.getTopK());
+        assertEquals(4, first.getOutputFields().size());
+        assertThrows(MilvusPlusException.class, () -> compiled.search(List.of(0.1f, 0.2f), Map.of()));
+    }
+
+    @Test
+    void testServerFilterTemplateSendsParamsSeparately() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.getServerVersion()).thenReturn("v2.5.4");
+        ServerCapabilities.detect(client);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        CompiledQuery<Face> compiled = wrapper(client).in("face_id", Param.of("ids")).gt("age", 3).compileQuery();
+
+        compiled.query(Map.of("ids", List.of(1L, 2L)));
+
+        ArgumentCaptor<QueryReq> captor = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client).query(captor.capture());
+        assertEquals("face_id in {ids} && age > 3", captor.getValue().getFilter());
+        assertEquals(Map.of("ids", List.of(1L, 2L)), captor.getValue().getFilterTemplateValues());
+    }
+
+    private static LambdaQueryWrapper<Face> wrapper(MilvusClientV2 client) {
+        LambdaQueryWrapper<Face> wrapper = new LambdaQueryWrapper<>();
+        wrapper.init("faces", client, EntityMetadataRegistry.shared().get(Face.class), Face.class);
+        return wrapper;
+    }
+}
@@ -2,11 +2,14 @@ package io.github.xermaor.milvus.plus.conditions;
 
 import io.github.xermaor.milvus.plus.core.FieldFunction;
 import io.github.xermaor.milvus.plus.core.conditions.ConditionBuilder;
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -1470,7 +1473,7 @@ class ConditionBuilderTest {
 
         builder1.and(builder2 -> builder2.ne("status", "inactive"));
 
-        assertEquals("(age == 25 && status != \"inactive\")", builder1.build());
+        assertEquals("age == 25 && status != \"inactive\"", builder1.build());
     }
 
     @Test
@@ -1490,7 +1493,7 @@ class ConditionBuilderTest {
         builder.eq("name", "John");
         builder.and(b -> b.gt("score", 85));
 
-        assertEquals("(name == \"John\" && score > 85)", builder.build());
+        assertEquals("name == \"John\" && score > 85", builder.build());
     }
 
     @Test
@@ -1501,10 +1504,91 @@ class ConditionBuilderTest {
         assertTrue(builder.build().isEmpty());
     }
 
+    @Test
+    void testOrOfEqualitiesMergesIntoIn() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.eq("age", 1).or(b -> b.eq("age", 2)).or(b -> b.in("age", List.of(2, 3)));
+        assertEquals("age in [1, 2, 3]", builder.build());
+    }
+
+    @Test
+    void testOverlappingRangesAreIntersected() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.gt("age", 10).ge("age", 18).between("age", 0, 30).lt("age", 40);
+        assertEquals("age >= 18 && age <= 30", builder.build());
+    }
+
+    @Test
+    void testInIntersectionAndRangeFiltering() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.in("age", List.of(1, 5, 9)).in("age", List.of(5, 9, 12)).lt("age", 8);
+        assertEquals("age in [5]", builder.build());
+    }
+
+    @Test
+    void testContradictionIsRejectedAtBuild() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.eq("age", 1).eq("age", 2);
+        assertEquals(Expr.FALSE, builder.condition());
+        assertThrows(MilvusPlusException.class, builder::build);
+    }
+
+    @Test
+    void testAddFilterInvalidatesRenderedFilter() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.eq("age", 1);
+        assertEquals("age == 1", builder.build());
+        builder.custom(new Expr.Compare("status", Expr.Op.EQ, "a"));
+        assertEquals("age == 1 && status == \"a\"", builder.build());
+    }
+
+    @Test
+    void testConstantFoldingInsideOr() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.eq("status", "a").or(b -> b.gt("age", 5).lt("age", 3));
+        assertEquals("status == \"a\"", builder.build());
+    }
+
+    @Test
+    void testDuplicateConditionsAreRemoved() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.like("name", "jo").ne("status", "x").like("name", "jo").not(b -> b.not(c -> c.ne("status", "x")));
+        assertEquals("name like \"%jo%\" && status != \"x\"", builder.build());
+    }
+
+    @Test
+    void testNestedOrInsideAndKeepsParentheses() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.eq("a", 1).or(b -> b.eq("b", 2)).and(b -> b.eq("c", 3));
+        assertEquals("(a == 1 || b == 2) && c == 3", builder.build());
+    }
+
+    @Test
+    void testMixedIntegerAndLongValuesIntersect() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.in("id", List.of(1, 2, 3)).in("id", List.of(2L, 3L, 4L));
+        assertEquals("id in [2, 3]", builder.build());
+
+        TestConditionBuilder eq = createBuilderInstance();
+        eq.eq("id", 1).eq("id", 1L);
+        assertEquals("id == 1", eq.build());
+    }
+
+    @Test
+    void testMixedIntegerAndLongValuesUnion() {
+        TestConditionBuilder builder = createBuilderInstance();
+        builder.eq("id", 1).or(b -> b.eq("id", 1L)).or(b -> b.in("id", List.of(2, 2L)));
+        assertEquals("id in [1, 2]", builder.build());
+    }
+
     static class TestConditionBuilder extends ConditionBuilder<Object, TestConditionBuilder> {
         @Override
         protected TestConditionBuilder createNewInstance() {
             return new TestConditionBuilder();
         }
+
+        TestConditionBuilder custom(Expr expr) {
+            return addFilter(expr);
+        }
     }
 }
\ No newline at end of file
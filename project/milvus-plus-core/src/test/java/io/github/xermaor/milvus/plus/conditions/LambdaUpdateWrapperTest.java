@@ -0,0 +1,77 @@
+package io.github.xermaor.milvus.plus.conditions;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.capability.ServerCapabilities;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaUpdateWrapper;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.UpsertResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LambdaUpdateWrapperTest {
+
+    @MilvusCollection(name = "updated_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dataType = DataType.VarChar)
+        private String title;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        Doc(Long id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+    @Test
+    void testUpdateByIdReadsOnlyMissingFieldsInOneQuery() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of(
+                QueryResp.QueryResult.builder().entity(Map.of("doc_id", 1L, "vector", List.of(1f, 2f))).build(),
+                QueryResp.QueryResult.builder().entity(Map.of("doc_id", 2L, "vector", List.of(3f, 4f))).build()
+        )).build());
+        when(client.upsert(any())).thenReturn(UpsertResp.builder().upsertCnt(2).build());
+
+        LambdaUpdateWrapper<Doc> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.init("updated_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+        wrapper.updateById(new Doc(1L, "a"), new Doc(2L, "b"));
+
+        ArgumentCaptor<QueryReq> query = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client, times(1)).query(query.capture());
+        assertEquals("doc_id in [1,2]", query.getValue().getFilter());
+        assertEquals(List.of("vector", "doc_id"), query.getValue().getOutputFields());
+
+        ArgumentCaptor<UpsertReq> upsert = ArgumentCaptor.forClass(UpsertReq.class);
+        verify(client).upsert(upsert.capture());
+        assertEquals(2, upsert.getValue().getData().size());
+        assertEquals("b", upsert.getValue().getData().get(1).get("title").getAsString());
+        assertEquals(3f, upsert.getValue().getData().get(1).getAsJsonArray("vector").get(0).getAsFloat());
+    }
+
+    @Test
+    void testServerVersionParsing() {
+        ServerCapabilities capabilities = ServerCapabilities.parse("v2.6.1");
+        assertEquals(2, capabilities.major());
+        assertEquals(6, capabilities.minor());
+        assertTrue(capabilities.filterTemplate());
+        assertFalse(ServerCapabilities.parse("2.4.9").filterTemplate());
+        assertFalse(ServerCapabilities.parse(null).filterTemplate());
+    }
+}
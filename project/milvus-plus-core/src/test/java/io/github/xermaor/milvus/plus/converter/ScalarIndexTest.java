@@ -0,0 +1,127 @@
+package io.github.xermaor.milvus.plus.converter;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.annotation.ScalarIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.MilvusEntity;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.common.IndexParam;
+import io.milvus.v2.service.index.request.CreateIndexReq;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ScalarIndexTest {
+
+    @MilvusCollection(name = "scalar_index_docs")
+    static class Doc {
+        @MilvusField(dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex(indexType = IndexParam.IndexType.HNSW, metricType = IndexParam.MetricType.COSINE)
+        private List<Float> vector;
+        @MilvusField(dataType = DataType.VarChar, maxLength = 64)
+        @ScalarIndex(indexType = IndexParam.IndexType.BITMAP)
+        private String tag;
+        @MilvusField(dataType = DataType.Int64)
+        @ScalarIndex(indexType = IndexParam.IndexType.STL_SORT)
+        private Long createdAt;
+        @MilvusField(dataType = DataType.JSON)
+        @ScalarIndex(jsonPath = "meta[\"tenant\"]", jsonCastType = "varchar")
+        @ScalarIndex(jsonPath = "meta[\"score\"]", jsonCastType = "double")
+        private Map<String, Object> meta;
+    }
+
+    @MilvusCollection(name = "multi_index_docs")
+    static class MultiIndexDoc {
+        @MilvusField(dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+        @MilvusField(dataType = DataType.VarChar, maxLength = 64)
+        @ScalarIndex
+        @ScalarIndex(indexType = IndexParam.IndexType.BITMAP)
+        private String tag;
+    }
+
+    @MilvusCollection(name = "duplicate_index_docs")
+    static class DuplicateIndexDoc {
+        @MilvusField(dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+        @MilvusField(dataType = DataType.VarChar, maxLength = 64)
+        @ScalarIndex(indexName = "tag_idx")
+        private String tag;
+        @MilvusField(dataType = DataType.VarChar, maxLength = 64)
+        @ScalarIndex(indexName = "tag_idx")
+        private String label;
+    }
+
+    private static List<IndexParam> scalarIndexes(MilvusEntity entity) {
+        return entity.indexParams().stream().filter(MilvusConverter::isScalarIndex).toList();
+    }
+
+    @Test
+    void testConvertScalarIndexes() {
+        List<IndexParam> indexes = scalarIndexes(MilvusConverter.convert(Doc.class));
+        assertEquals(List.of("tag", "createdAt", "meta_tenant", "meta_score"),
+                indexes.stream().map(IndexParam::getIndexName).toList());
+        assertEquals(IndexParam.IndexType.BITMAP, indexes.getFirst().getIndexType());
+        IndexParam tenant = indexes.get(2);
+        assertEquals("meta", tenant.getFieldName());
+        assertEquals("meta[\"tenant\"]", tenant.getExtraParams().get("json_path"));
+        assertEquals("varchar", tenant.getExtraParams().get("json_cast_type"));
+    }
+
+    @Test
+    void testReconcileCreatesOnlyMissing() {
+        MilvusEntity entity = MilvusConverter.convert(Doc.class);
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listIndexes(any())).thenReturn(List.of("vector", "tag", "meta_tenant"));
+
+        MilvusConverter.reconcileScalarIndexes(entity, client);
+
+        ArgumentCaptor<CreateIndexReq> captor = ArgumentCaptor.forClass(CreateIndexReq.class);
+        verify(client).createIndex(captor.capture());
+        assertEquals(List.of("createdAt", "meta_score"),
+                captor.getValue().getIndexParams().stream().map(IndexParam::getIndexName).toList());
+    }
+
+    @Test
+    void testReconcileNoopWhenComplete() {
+        MilvusEntity entity = MilvusConverter.convert(Doc.class);
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listIndexes(any())).thenReturn(List.of("vector", "tag", "createdAt", "meta_tenant", "meta_score"));
+
+        MilvusConverter.reconcileScalarIndexes(entity, client);
+
+        verify(client, never()).createIndex(any());
+    }
+
+    @Test
+    void testRepeatedScalarIndexesGetDistinctNames() {
+        List<IndexParam> indexes = scalarIndexes(MilvusConverter.convert(MultiIndexDoc.class));
+        assertEquals(List.of("tag_inverted", "tag_bitmap"), indexes.stream().map(IndexParam::getIndexName).toList());
+        assertTrue(indexes.stream().allMatch(index -> "tag".equals(index.getFieldName())));
+    }
+
+    @Test
+    void testDuplicateIndexNameIsRejected() {
+        MilvusPlusException e = assertThrows(MilvusPlusException.class,
+                () -> MilvusConverter.convert(DuplicateIndexDoc.class, new EntityMetadataRegistry()));
+        assertTrue(e.getMessage().contains("tag_idx"));
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.xermaor.milvus.plus.expiry;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.converter.MilvusConverter;
+import io.github.xermaor.milvus.plus.core.expiry.ExpiryConfig;
+import io.github.xermaor.milvus.plus.core.expiry.ExpiryManager;
+import io.github.xermaor.milvus.plus.core.expiry.ExpirySpec;
+import io.github.xermaor.milvus.plus.core.purge.PurgeProgress;
+import io.milvus.orm.iterator.QueryIterator;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.collection.request.DropCollectionPropertiesReq;
+import io.milvus.v2.service.collection.response.DescribeCollectionResp;
+import io.milvus.v2.service.utility.response.CompactResp;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ExpiryTest {
+
+    @MilvusCollection(name = "ttl_docs", ttl = 3600)
+    static class TtlDoc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+    }
+
+    @MilvusCollection(name = "expiring_docs", ttl = 3600, ttlField = "ts")
+    static class ExpiringDoc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(name = "ts", dataType = DataType.Int64)
+        private Long ts;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+    }
+
+    @Test
+    void testCollectionTtlBecomesPropertyOnlyWithoutTtlField() {
+        assertEquals(Map.of("collection.ttl.seconds", "3600"), MilvusConverter.convert(TtlDoc.class).properties());
+        assertTrue(MilvusConverter.convert(ExpiringDoc.class).properties().isEmpty());
+    }
+
+    @MilvusCollection(name = "ttl_docs")
+    static class TtlRemovedDoc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+    }
+
+    @Test
+    void testRemovedTtlIsDroppedFromExistingCollection() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.describeCollection(any())).thenReturn(DescribeCollectionResp.builder()
+                .properties(Map.of("collection.ttl.seconds", "3600")).build());
+
+        MilvusConverter.reconcileProperties(MilvusConverter.convert(TtlDoc.class), client);
+        verify(client).alterCollectionProperties(any());
+        verify(client, never()).dropCollectionProperties(any());
+
+        MilvusConverter.reconcileProperties(MilvusConverter.convert(TtlRemovedDoc.class), client);
+        ArgumentCaptor<DropCollectionPropertiesReq> dropped = ArgumentCaptor.forClass(DropCollectionPropertiesReq.class);
+        verify(client).dropCollectionProperties(dropped.capture());
+        assertEquals("ttl_docs", dropped.getValue().getCollectionName());
+        assertEquals(List.of("collection.ttl.seconds"), dropped.getValue().getPropertyKeys());
+    }
+
+    @Test
+    void testExpireDeletesRowsOlderThanTtlAndCompacts() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        QueryIterator iterator = mock(QueryIterator.class);
+        when(iterator.next()).thenReturn(rows(1, 2, 3), List.of());
+        when(client.queryIterator(any())).thenReturn(iterator);
+        when(client.delete(any())).thenAnswer(invocation ->
+                DeleteResp.builder().deleteCnt(((DeleteReq) invocation.getArgument(0)).getIds().size()).build());
+        when(client.compact(any())).thenReturn(CompactResp.builder().compactionID(7L).build());
+        ExpiryConfig config = new ExpiryConfig(Duration.ofHours(1), 2, 0, true);
+        try (ExpiryManager manager = ExpiryManager.register(client, config)) {
+            long before = System.currentTimeMillis() - 3600_000L;
+            PurgeProgress progress = manager.expire(new ExpirySpec("expiring_docs", "doc_id", "ts", 3600));
+
+            assertEquals(3, progress.deleted());
+            assertEquals(7L, progress.compactionId());
+            ArgumentCaptor<QueryIteratorReq> scan = ArgumentCaptor.forClass(QueryIteratorReq.class);
+            verify(client).queryIterator(scan.capture());
+            String expr = scan.getValue().getExpr();
+            assertTrue(expr.startsWith("ts < "), expr);
+            assertTrue(Long.parseLong(expr.substring("ts < ".length())) >= before, expr);
+            verify(client, times(2)).delete(any());
+        }
+    }
+
+    private static List<QueryResultsWrapper.RowRecord> rows(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            QueryResultsWrapper.RowRecord row = new QueryResultsWrapper.RowRecord();
+            row.put("doc_id", id);
+            return row;
+        }).toList();
+    }
+}
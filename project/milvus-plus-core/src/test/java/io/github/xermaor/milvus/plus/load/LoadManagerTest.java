@@ -0,0 +1,122 @@
+package io.github.xermaor.milvus.plus.load;
+
+import io.github.xermaor.milvus.plus.core.load.LoadBudget;
+import io.github.xermaor.milvus.plus.core.load.LoadManager;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.partition.request.LoadPartitionsReq;
+import io.milvus.v2.service.partition.request.ReleasePartitionsReq;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoadManagerTest {
+
+    private static List<String> partitions(LoadManager manager) {
+        return manager.loadedUnits().stream().map(LoadManager.LoadUnit::partitionName).toList();
+    }
+
+    @Test
+    void testEvictLeastRecentlyUsed() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        LoadManager manager = new LoadManager(client, LoadBudget.ofCount(2));
+
+        manager.ensureLoaded("docs", List.of("t1"));
+        manager.ensureLoaded("docs", List.of("t2"));
+        manager.ensureLoaded("docs", List.of("t1"));
+        manager.ensureLoaded("docs", List.of("t3"));
+
+        verify(client, times(3)).loadPartitions(any());
+        ArgumentCaptor<ReleasePartitionsReq> captor = ArgumentCaptor.forClass(ReleasePartitionsReq.class);
+        verify(client).releasePartitions(captor.capture());
+        assertEquals(List.of("t2"), captor.getValue().getPartitionNames());
+        assertEquals(List.of("t1", "t3"), partitions(manager));
+    }
+
+    @Test
+    void testPinnedIsNeverReleased() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        LoadManager manager = new LoadManager(client, LoadBudget.ofCount(1)).pin("docs", "hot");
+
+        manager.ensureLoaded("docs", List.of("hot"));
+        manager.ensureLoaded("docs", List.of("cold"));
+        manager.ensureLoaded("docs", List.of("other"));
+
+        ArgumentCaptor<ReleasePartitionsReq> captor = ArgumentCaptor.forClass(ReleasePartitionsReq.class);
+        verify(client).releasePartitions(captor.capture());
+        assertEquals(List.of("cold"), captor.getValue().getPartitionNames());
+        assertEquals(List.of("hot", "other"), partitions(manager));
+    }
+
+    @Test
+    void testConcurrentFirstAccessLoadsOnce() throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(client).loadPartitions(any(LoadPartitionsReq.class));
+        LoadManager manager = new LoadManager(client, LoadBudget.UNBOUNDED);
+
+        List<CompletableFuture<Void>> futures = List.of(
+                CompletableFuture.runAsync(() -> manager.ensureLoaded("docs", List.of("t1"))),
+                CompletableFuture.runAsync(() -> manager.ensureLoaded("docs", List.of("t1"))),
+                CompletableFuture.runAsync(() -> manager.ensureLoaded("docs", List.of("t1"))));
+        Thread.sleep(200);
+        release.countDown();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        verify(client, times(1)).loadPartitions(any());
+    }
+
+    @Test
+    void testCollectionLoadAbsorbsPartitions() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        LoadManager manager = new LoadManager(client, LoadBudget.UNBOUNDED);
+
+        manager.ensureLoaded("docs", List.of("t1"));
+        manager.ensureLoaded("docs", List.of());
+        manager.ensureLoaded("docs", List.of("t2"));
+
+        verify(client, times(1)).loadPartitions(any());
+        verify(client, times(1)).loadCollection(any());
+        assertEquals(1, manager.loadedUnits().size());
+    }
+
+    @Test
+    void testLeasedUnitIsNotReleasedAndReleaseRunsOutsideLock() throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        CountDownLatch releaseStarted = new CountDownLatch(1);
+        CountDownLatch finishRelease = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            releaseStarted.countDown();
+            finishRelease.await();
+            return null;
+        }).when(client).releasePartitions(any(ReleasePartitionsReq.class));
+        LoadManager manager = new LoadManager(client, LoadBudget.ofCount(1));
+
+        LoadManager.Lease lease = manager.acquire("docs", List.of("t1"));
+        manager.ensureLoaded("docs", List.of("t2"));
+        verify(client, never()).releasePartitions(any());
+        assertEquals(List.of("t1", "t2"), partitions(manager));
+        lease.close();
+
+        CompletableFuture<Void> evicting = CompletableFuture.runAsync(() -> manager.ensureLoaded("docs", List.of("t3")));
+        assertTrue(releaseStarted.await(5, TimeUnit.SECONDS));
+        // 释放请求进行中时，管理器的锁仍可获取
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertEquals(List.of("t3"), partitions(manager)));
+        finishRelease.countDown();
+        evicting.join();
+        verify(client, times(2)).releasePartitions(any());
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.xermaor.milvus.plus.partition;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.annotation.PartitionRoute;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
+import io.github.xermaor.milvus.plus.core.partition.PartitionManager;
+import io.github.xermaor.milvus.plus.exception.PartialInsertException;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.partition.request.CreatePartitionReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.response.InsertResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PartitionRoutingTest {
+
+    @MilvusCollection(name = "routed_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @PartitionRoute(prefix = "m_", pattern = "yyyyMM")
+        private LocalDate day;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        Doc(Long id, LocalDate day) {
+            this.id = id;
+            this.day = day;
+            this.vector = List.of(0.1f, 0.2f);
+        }
+    }
+
+    @Test
+    void testMixedBatchIsSplitPerPartitionAndKeysKeepInputOrder() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.hasPartition(any())).thenReturn(false);
+        when(client.insert(any())).thenAnswer(invocation -> {
+            InsertReq request = invocation.getArgument(0);
+            List<Object> keys = new ArrayList<>();
+            request.getData().forEach(row -> keys.add(row.get("doc_id").getAsLong()));
+            return InsertResp.builder().InsertCnt(keys.size()).primaryKeys(keys).build();
+        });
+        LambdaInsertWrapper<Doc> wrapper = new LambdaInsertWrapper<>();
+        wrapper.init("routed_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+
+        MilvusResp<InsertResp> resp = wrapper.insert(
+                new Doc(1L, LocalDate.of(2026, 1, 5)),
+                new Doc(2L, LocalDate.of(2026, 2, 5)),
+                new Doc(3L, LocalDate.of(2026, 1, 20)));
+
+        assertEquals(3, resp.data().getInsertCnt());
+        assertEquals(List.of(1L, 2L, 3L), resp.data().getPrimaryKeys());
+        ArgumentCaptor<InsertReq> captor = ArgumentCaptor.forClass(InsertReq.class);
+        verify(client, times(2)).insert(captor.capture());
+        InsertReq january = captor.getAllValues().stream().filter(r -> "m_202601".equals(r.getPartitionName())).findFirst().orElseThrow();
+        assertEquals(2, january.getData().size());
+        verify(client, times(2)).createPartition(any(CreatePartitionReq.class));
+    }
+
+    @Test
+    void testFailedGroupReportsCommittedKeysAndFailedTargets() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.hasPartition(any())).thenReturn(true);
+        when(client.insert(any())).thenAnswer(invocation -> {
+            InsertReq request = invocation.getArgument(0);
+            if ("m_202602".equals(request.getPartitionName())) {
+                throw new IllegalStateException("partition not loaded");
+            }
+            List<Object> keys = new ArrayList<>();
+            request.getData().forEach(row -> keys.add(row.get("doc_id").getAsLong()));
+            return InsertResp.builder().InsertCnt(keys.size()).primaryKeys(keys).build();
+        });
+        LambdaInsertWrapper<Doc> wrapper = new LambdaInsertWrapper<>();
+        wrapper.init("routed_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+
+        PartialInsertException e = assertThrows(PartialInsertException.class, () -> wrapper.insert(
+                new Doc(1L, LocalDate.of(2026, 1, 5)),
+                new Doc(2L, LocalDate.of(2026, 2, 5)),
+                new Doc(3L, LocalDate.of(2026, 1, 20))));
+
+        assertEquals(Arrays.asList(1L, null, 3L), e.getPrimaryKeys());
+        assertEquals(List.of("routed_docs.m_202602"), List.copyOf(e.getFailures().keySet()));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testGroupedInsertsAreBoundedByParallelism() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.hasPartition(any())).thenReturn(true);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(client.insert(any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inFlight.decrementAndGet();
+            InsertReq request = invocation.getArgument(0);
+            return InsertResp.builder().InsertCnt(request.getData().size()).primaryKeys(List.of()).build();
+        });
+        LambdaInsertWrapper<Doc> wrapper = new LambdaInsertWrapper<>();
+        wrapper.init("routed_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+
+        List<Doc> docs = new ArrayList<>();
+        for (int month = 1; month <= 6; month++) {
+            docs.add(new Doc((long) month, LocalDate.of(2026, month, 1)));
+        }
+        assertEquals(6, wrapper.insertParallelism(2).insert(docs).data().getInsertCnt());
+        verify(client, times(6)).insert(any());
+        assertEquals(2, peak.get());
+    }
+
+    @Test
+    void testConcurrentEnsureCreatesOnce() throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        when(client.hasPartition(any())).thenAnswer(invocation -> {
+            entered.countDown();
+            Thread.sleep(100);
+            return false;
+        });
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> PartitionManager.ensure(client, "routed_docs", "p1"));
+            }
+            entered.await();
+        }
+        verify(client, times(1)).hasPartition(any());
+        verify(client, times(1)).createPartition(any(CreatePartitionReq.class));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.xermaor.milvus.plus.plan;
+
+import io.github.xermaor.milvus.plus.core.conditions.expr.Expr;
+import io.github.xermaor.milvus.plus.core.plan.PlanContext;
+import io.github.xermaor.milvus.plus.core.plan.QueryPlan;
+import io.github.xermaor.milvus.plus.core.plan.QueryPlanner;
+import io.github.xermaor.milvus.plus.metrics.MilvusPlusMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlannerTest {
+
+    private static final PlanContext CONTEXT = new PlanContext("id", "tenant", Set.of("status"),
+            "region", "p_", Set.of("p_cn", "p_us"));
+
+    @Test
+    void testDerivePartitionsFromMappedField() {
+        long before = MilvusPlusMetrics.get(MilvusPlusMetrics.PLANNER_PARTITION_PRUNED);
+        Expr condition = Expr.and(List.of(
+                new Expr.Compare("age", Expr.Op.GT, 18),
+                new Expr.In("region", List.of("cn", "us"))));
+        QueryPlan plan = QueryPlanner.plan(condition, CONTEXT, List.of());
+        assertTrue(plan.pruned());
+        assertEquals(List.of("p_cn", "p_us"), plan.partitionNames());
+        assertEquals(before + 1, MilvusPlusMetrics.get(MilvusPlusMetrics.PLANNER_PARTITION_PRUNED));
+    }
+
+    @Test
+    void testUndeclaredPartitionIsNotPruned() {
+        Expr condition = new Expr.Compare("region", Expr.Op.EQ, "eu");
+        QueryPlan plan = QueryPlanner.plan(condition, CONTEXT, List.of());
+        assertFalse(plan.pruned());
+        assertTrue(plan.partitionNames().isEmpty());
+    }
+
+    @Test
+    void testIntersectWithRequestedPartitions() {
+        Expr condition = new Expr.Compare("region", Expr.Op.EQ, "cn");
+        QueryPlan plan = QueryPlanner.plan(condition, CONTEXT, List.of("p_cn", "p_us"));
+        assertEquals(List.of("p_cn"), plan.partitionNames());
+    }
+
+    @Test
+    void testReorderByCost() {
+        Expr like = new Expr.Predicate("name", "name like \"a%\"");
+        Expr range = new Expr.Compare("age", Expr.Op.GT, 18);
+        Expr indexed = new Expr.Compare("status", Expr.Op.EQ, "active");
+        Expr key = new Expr.Compare("tenant", Expr.Op.EQ, 7);
+        QueryPlan plan = QueryPlanner.plan(Expr.and(List.of(like, range, indexed, key)), CONTEXT, List.of());
+        assertEquals(Expr.and(List.of(key, indexed, range, like)), plan.filter());
+        assertTrue(plan.partitionKeyPinned());
+        assertTrue(plan.partitionNames().isEmpty());
+    }
+}
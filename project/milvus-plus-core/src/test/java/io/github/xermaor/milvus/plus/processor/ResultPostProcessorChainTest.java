@@ -0,0 +1,101 @@
+package io.github.xermaor.milvus.plus.processor;
+
+import io.github.xermaor.milvus.plus.core.processor.*;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResultPostProcessorChainTest {
+
+    record Doc(String group, List<Float> vector) {
+    }
+
+    private static MilvusResult<Doc> result(long id, float score, String group, Float... vector) {
+        return new MilvusResult<>(new Doc(group, List.of(vector)), score, id, null);
+    }
+
+    private static List<Object> ids(List<MilvusResult<Doc>> results) {
+        List<Object> ids = new ArrayList<>();
+        results.forEach(r -> ids.add(r.id()));
+        return ids;
+    }
+
+    @Test
+    void testTopKDescending() {
+        float[] scores = {0.1f, 0.9f, 0.5f, 0.9f, 0.3f};
+        assertArrayEquals(new int[]{1, 3, 2}, ScoreArrays.topK(scores, 3, ScoreOrder.DESC));
+    }
+
+    @Test
+    void testTopKAscending() {
+        float[] scores = new float[100];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = (i * 37) % 100;
+        }
+        int[] head = ScoreArrays.topK(scores, 5, ScoreOrder.ASC);
+        for (int i = 0; i < head.length; i++) {
+            assertEquals(i, scores[head[i]]);
+        }
+    }
+
+    @Test
+    void testFetchSizeIsCapped() {
+        ResultPostProcessorChain<Doc> chain = new ResultPostProcessorChain<>();
+        assertEquals(10, chain.fetchSize(10));
+        chain.add(new FieldDedupPostProcessor<>(Doc::group)).add(new MmrPostProcessor<>(Doc::vector, 0.5));
+        assertEquals(60, chain.fetchSize(10));
+        assertEquals(ResultPostProcessorChain.MAX_FETCH_SIZE, chain.fetchSize(10000));
+    }
+
+    @Test
+    void testDedupThenTrim() {
+        ResultPostProcessorChain<Doc> chain = new ResultPostProcessorChain<Doc>()
+                .add(new FieldDedupPostProcessor<>(Doc::group));
+        List<MilvusResult<Doc>> results = List.of(
+                result(1, 0.9f, "a"), result(2, 0.8f, "a"), result(3, 0.7f, "b"), result(4, 0.6f, "c"));
+        assertEquals(List.of(1L, 3L), ids(chain.apply(results, 2, ScoreOrder.DESC)));
+    }
+
+    @Test
+    void testScoreThresholdFollowsMetric() {
+        ResultPostProcessorChain<Doc> chain = new ResultPostProcessorChain<Doc>()
+                .add(new ScoreThresholdPostProcessor<>(0.5f));
+        List<MilvusResult<Doc>> results = List.of(result(1, 0.2f, "a"), result(2, 0.5f, "b"), result(3, 0.8f, "c"));
+        assertEquals(List.of(1L, 2L), ids(chain.apply(results, 0, ScoreOrder.ASC)));
+        assertEquals(List.of(2L, 3L), ids(chain.apply(results, 0, ScoreOrder.DESC)));
+    }
+
+    @Test
+    void testMmrPrefersDiverseResults() {
+        ResultPostProcessorChain<Doc> chain = new ResultPostProcessorChain<Doc>()
+                .add(new MmrPostProcessor<>(Doc::vector, 0.5));
+        List<MilvusResult<Doc>> results = List.of(
+                result(1, 0.95f, "a", 1f, 0f),
+                result(2, 0.94f, "a", 1f, 0.01f),
+                result(3, 0.80f, "b", 0f, 1f));
+        assertEquals(List.of(1L, 3L), ids(chain.apply(results, 2, ScoreOrder.DESC)));
+    }
+
+    @Test
+    void testRerankReplacesScores() {
+        ResultPostProcessorChain<Doc> chain = new ResultPostProcessorChain<Doc>()
+                .add(new RerankPostProcessor<>(docs -> {
+                    float[] scores = new float[docs.size()];
+                    for (int i = 0; i < scores.length; i++) {
+                        scores[i] = i;
+                    }
+                    return scores;
+                }))
+                .add(new ScoreThresholdPostProcessor<>(1f));
+        List<MilvusResult<Doc>> results = List.of(result(1, 0.1f, "a"), result(2, 0.2f, "b"), result(3, 0.3f, "c"));
+        List<MilvusResult<Doc>> processed = chain.apply(results, 3, ScoreOrder.ASC);
+        assertEquals(List.of(3L, 2L), ids(processed));
+        assertEquals(2f, processed.getFirst().distance());
+    }
+}
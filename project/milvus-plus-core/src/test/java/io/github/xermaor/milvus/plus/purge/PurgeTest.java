@@ -0,0 +1,79 @@
+package io.github.xermaor.milvus.plus.purge;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaDeleteWrapper;
+import io.github.xermaor.milvus.plus.core.purge.PurgeOptions;
+import io.github.xermaor.milvus.plus.core.purge.PurgeProgress;
+import io.milvus.orm.iterator.QueryIterator;
+import io.milvus.response.QueryResultsWrapper;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.utility.response.CompactResp;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.QueryIteratorReq;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PurgeTest {
+
+    @MilvusCollection(name = "purge_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(name = "tenant_id", dataType = DataType.VarChar)
+        private String tenantId;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+    }
+
+    @Test
+    void testPurgeDeletesScannedKeysInChunksAndResumes() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        QueryIterator iterator = mock(QueryIterator.class);
+        when(iterator.next()).thenReturn(rows(4, 5, 6), rows(7, 8), List.of());
+        when(client.queryIterator(any())).thenReturn(iterator);
+        when(client.delete(any())).thenAnswer(invocation ->
+                DeleteResp.builder().deleteCnt(((DeleteReq) invocation.getArgument(0)).getIds().size()).build());
+        when(client.compact(any())).thenReturn(CompactResp.builder().compactionID(42L).build());
+        List<PurgeProgress> reported = new CopyOnWriteArrayList<>();
+        LambdaDeleteWrapper<Doc> wrapper = new LambdaDeleteWrapper<>();
+        wrapper.init("purge_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+
+        PurgeOptions options = new PurgeOptions(2, 100, 0, true, null, reported::add).resumeAfter(3L);
+        PurgeProgress progress = wrapper.eq("tenant_id", "gone").purge(options).data();
+
+        assertEquals(5, progress.deleted());
+        assertEquals(8L, progress.lastPrimaryKey());
+        assertEquals(42L, progress.compactionId());
+        assertEquals(List.of(5L, 7L, 8L), reported.stream().map(PurgeProgress::lastPrimaryKey).toList());
+        ArgumentCaptor<QueryIteratorReq> scan = ArgumentCaptor.forClass(QueryIteratorReq.class);
+        verify(client).queryIterator(scan.capture());
+        assertTrue(scan.getValue().getExpr().contains("doc_id > 3"), scan.getValue().getExpr());
+        assertTrue(scan.getValue().getExpr().contains("tenant_id == \"gone\""), scan.getValue().getExpr());
+        ArgumentCaptor<DeleteReq> deletes = ArgumentCaptor.forClass(DeleteReq.class);
+        verify(client, times(3)).delete(deletes.capture());
+        assertEquals(List.of(4L, 5L), deletes.getAllValues().getFirst().getIds());
+        verify(iterator).close();
+    }
+
+    private static List<QueryResultsWrapper.RowRecord> rows(long... ids) {
+        return LongStream.of(ids).mapToObj(id -> {
+            QueryResultsWrapper.RowRecord row = new QueryResultsWrapper.RowRecord();
+            row.put("doc_id", id);
+            return row;
+        }).toList();
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.xermaor.milvus.plus.resilience;
+
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResiliencePolicy;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.exception.CircuitOpenException;
+import io.github.xermaor.milvus.plus.exception.DeadlineExceededException;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.exception.ErrorCode;
+import io.milvus.v2.exception.MilvusClientException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ResilientExecutorTest {
+
+    private static ResiliencePolicy retries(int attempts) {
+        return new ResiliencePolicy(null, attempts, Duration.ZERO, Duration.ZERO, false, Duration.ZERO, 0, Duration.ZERO);
+    }
+
+    @Test
+    void testRetriesOnlyIdempotentTransientFailures() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        ResilientExecutor.register(client, retries(3), retries(3));
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = ResilientExecutor.execute(client, OperationType.QUERY, "docs", c -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new MilvusClientException(ErrorCode.RPC_ERROR, "unavailable");
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+
+        calls.set(0);
+        assertThrows(MilvusClientException.class, () -> ResilientExecutor.execute(client, OperationType.INSERT, "docs", c -> {
+            calls.incrementAndGet();
+            throw new MilvusClientException(ErrorCode.RPC_ERROR, "unavailable");
+        }));
+        assertEquals(1, calls.get());
+
+        calls.set(0);
+        assertThrows(MilvusClientException.class, () -> ResilientExecutor.execute(client, OperationType.QUERY, "docs", c -> {
+            calls.incrementAndGet();
+            throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "bad filter");
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testDeadlineExceeded() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        ResilientExecutor.register(client, new ResiliencePolicy(Duration.ofMillis(50), 1, Duration.ZERO, Duration.ZERO,
+                false, Duration.ZERO, 0, Duration.ZERO), null);
+        assertThrows(DeadlineExceededException.class, () -> ResilientExecutor.execute(client, OperationType.SEARCH, "docs", c -> {
+            sleep(2000);
+            return "late";
+        }));
+    }
+
+    @Test
+    void testHedgedReadUsesFasterEndpoint() {
+        MilvusClientV2 primary = mock(MilvusClientV2.class);
+        MilvusClientV2 slow = mock(MilvusClientV2.class);
+        MilvusClientV2 fast = mock(MilvusClientV2.class);
+        ReadWriteRouter.register(primary, List.of(slow, fast), List.of());
+        ResilientExecutor.register(primary, new ResiliencePolicy(Duration.ofSeconds(5), 1, Duration.ZERO, Duration.ZERO,
+                true, Duration.ofMillis(20), 0, Duration.ZERO), null);
+
+        long start = System.nanoTime();
+        String result = ResilientExecutor.execute(primary, OperationType.SEARCH, "docs", c -> {
+            if (c == slow) {
+                sleep(3000);
+                return "slow";
+            }
+            return "fast";
+        });
+        assertEquals("fast", result);
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void testCircuitBreakerOpensAfterConsecutiveFailures() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        ResilientExecutor.register(client, new ResiliencePolicy(null, 1, Duration.ZERO, Duration.ZERO,
+                false, Duration.ZERO, 2, Duration.ofMinutes(1)), null);
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(MilvusClientException.class, () -> ResilientExecutor.execute(client, OperationType.GET, "docs", c -> {
+                calls.incrementAndGet();
+                throw new MilvusClientException(ErrorCode.TIMEOUT, "timeout");
+            }));
+        }
+        assertThrows(CircuitOpenException.class, () -> ResilientExecutor.execute(client, OperationType.GET, "docs", c -> {
+            calls.incrementAndGet();
+            return "ok";
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testNonRetryableProbeFailureClosesHalfOpenBreaker() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        ResilientExecutor.register(client, new ResiliencePolicy(null, 1, Duration.ZERO, Duration.ZERO,
+                false, Duration.ZERO, 1, Duration.ofMillis(50)), null);
+        assertThrows(MilvusClientException.class, () -> ResilientExecutor.execute(client, OperationType.GET, "docs", c -> {
+            throw new MilvusClientException(ErrorCode.TIMEOUT, "timeout");
+        }));
+        assertThrows(CircuitOpenException.class, () -> ResilientExecutor.execute(client, OperationType.GET, "docs", c -> "ok"));
+        sleep(80);
+
+        // 半开探测因参数错误失败，端点可达，熔断器应关闭
+        MilvusClientException e = assertThrows(MilvusClientException.class,
+                () -> ResilientExecutor.execute(client, OperationType.GET, "docs", c -> {
+                    throw new MilvusClientException(ErrorCode.INVALID_PARAMS, "bad filter");
+                }));
+        assertEquals(ErrorCode.INVALID_PARAMS, e.getErrorCode());
+        assertEquals("ok", ResilientExecutor.execute(client, OperationType.GET, "docs", c -> "ok"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
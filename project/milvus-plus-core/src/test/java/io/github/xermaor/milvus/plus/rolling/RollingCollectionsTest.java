@@ -0,0 +1,186 @@
+package io.github.xermaor.milvus.plus.rolling;
+
+import com.google.gson.JsonObject;
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
+import io.github.xermaor.milvus.plus.core.rolling.RollingManager;
+import io.github.xermaor.milvus.plus.core.rolling.RollingPeriod;
+import io.github.xermaor.milvus.plus.core.rolling.RollingSpec;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.MilvusEntity;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.collection.request.DropCollectionReq;
+import io.milvus.v2.service.collection.response.ListCollectionsResp;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RollingCollectionsTest {
+
+    private static final long JAN_1 = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @MilvusCollection(name = "events", rolling = RollingPeriod.DAILY, timeField = "ts")
+    static class Event {
+        @MilvusField(name = "event_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(name = "ts", dataType = DataType.Int64)
+        private Long ts;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        Event(Long id, Long ts) {
+            this.id = id;
+            this.ts = ts;
+            this.vector = List.of(0.1f, 0.2f);
+        }
+    }
+
+    @Test
+    void testPeriodSuffixAndRetention() {
+        assertEquals("events_2026010123", RollingPeriod.HOURLY.collectionName("events", JAN_1 + 23 * 3600_000L + 5));
+        assertEquals(JAN_1 + DAY, RollingPeriod.DAILY.parse("20260102"));
+        assertEquals(JAN_1 + 31 * DAY, RollingPeriod.MONTHLY.next(JAN_1 + 3 * DAY));
+        assertNull(RollingPeriod.DAILY.parse("v2_20260102"));
+
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listCollections()).thenReturn(ListCollectionsResp.builder()
+                .collectionNames(List.of("events_20260101", "events_20260102", "events_20260103", "other")).build());
+        List<String> created = new CopyOnWriteArrayList<>();
+        try (RollingManager manager = RollingManager.register(client, entity -> created.add(entity.collectionName()))) {
+            manager.manage(spec(2));
+
+            long now = System.currentTimeMillis();
+            assertEquals(List.of(RollingPeriod.DAILY.collectionName("events", now),
+                    RollingPeriod.DAILY.collectionName("events", now + DAY)), created);
+            ArgumentCaptor<DropCollectionReq> dropped = ArgumentCaptor.forClass(DropCollectionReq.class);
+            verify(client, times(2)).dropCollection(dropped.capture());
+            assertEquals(List.of("events_20260102", "events_20260101"),
+                    dropped.getAllValues().stream().map(DropCollectionReq::getCollectionName).toList());
+            assertTrue(manager.collectionsBetween("events", JAN_1, JAN_1 + 3 * DAY).contains("events_20260103"));
+        }
+    }
+
+    @Test
+    void testInsertRoutesRowsToPeriodCollections() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listCollections()).thenReturn(ListCollectionsResp.builder().collectionNames(List.of("events_20260101")).build());
+        when(client.insert(any())).thenAnswer(invocation -> {
+            InsertReq request = invocation.getArgument(0);
+            List<Object> keys = new ArrayList<>();
+            request.getData().forEach(row -> keys.add(row.get("event_id").getAsLong()));
+            return InsertResp.builder().InsertCnt(keys.size()).primaryKeys(keys).build();
+        });
+        List<String> created = new CopyOnWriteArrayList<>();
+        try (RollingManager manager = RollingManager.register(client, entity -> created.add(entity.collectionName()))) {
+            manager.manage(spec(0));
+            LambdaInsertWrapper<Event> wrapper = new LambdaInsertWrapper<>();
+            wrapper.init("events", client, EntityMetadataRegistry.shared().get(Event.class), Event.class);
+
+            InsertResp resp = wrapper.insert(new Event(1L, JAN_1 + 10), new Event(2L, JAN_1 + 40 * DAY), new Event(3L, JAN_1 + 20)).data();
+
+            assertEquals(List.of(1L, 2L, 3L), resp.getPrimaryKeys());
+            ArgumentCaptor<InsertReq> captor = ArgumentCaptor.forClass(InsertReq.class);
+            verify(client, times(2)).insert(captor.capture());
+            InsertReq january = captor.getAllValues().stream()
+                    .filter(r -> "events_20260101".equals(r.getCollectionName())).findFirst().orElseThrow();
+            assertEquals(2, january.getData().size());
+            assertTrue(created.contains("events_20260210"));
+            assertFalse(created.contains("events_20260101"));
+        }
+    }
+
+    @Test
+    void testIsoTimeStringsAreRouted() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listCollections()).thenReturn(ListCollectionsResp.builder().collectionNames(List.of("events_20260101")).build());
+        when(client.insert(any())).thenAnswer(invocation -> {
+            InsertReq request = invocation.getArgument(0);
+            return InsertResp.builder().InsertCnt(request.getData().size()).primaryKeys(List.of()).build();
+        });
+        try (RollingManager manager = RollingManager.register(client, entity -> {
+        })) {
+            manager.manage(spec(0));
+            LambdaInsertWrapper<Event> wrapper = new LambdaInsertWrapper<>();
+            wrapper.init("events", client, EntityMetadataRegistry.shared().get(Event.class), Event.class);
+
+            wrapper.insertRows(List.of(row(1L, "2026-01-01T00:00:10Z"), row(2L, "2026-01-02T02:00:00+08:00"),
+                    row(3L, "2026-01-01"), row(4L, String.valueOf(JAN_1 + 2 * DAY))));
+
+            ArgumentCaptor<InsertReq> captor = ArgumentCaptor.forClass(InsertReq.class);
+            verify(client, times(2)).insert(captor.capture());
+            assertEquals(List.of("events_20260101", "events_20260103"),
+                    captor.getAllValues().stream().map(InsertReq::getCollectionName).sorted().toList());
+            assertThrows(MilvusPlusException.class, () -> wrapper.insertRows(List.of(row(5L, "yesterday"))));
+        }
+    }
+
+    private static JsonObject row(long id, String ts) {
+        JsonObject row = new JsonObject();
+        row.addProperty("event_id", id);
+        row.addProperty("ts", ts);
+        return row;
+    }
+
+    @Test
+    void testTimeRangeQueryFansOutToOverlappingCollections() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listCollections()).thenReturn(ListCollectionsResp.builder()
+                .collectionNames(List.of("events_20260101", "events_20260102", "events_20260103")).build());
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        try (RollingManager manager = RollingManager.register(client, entity -> {
+        })) {
+            manager.manage(spec(0));
+            LambdaQueryWrapper<Event> wrapper = new LambdaQueryWrapper<>();
+            wrapper.init("events", client, EntityMetadataRegistry.shared().get(Event.class), Event.class);
+
+            wrapper.ge("ts", JAN_1 + DAY + 10).le("ts", JAN_1 + 2 * DAY + 10).query();
+
+            ArgumentCaptor<QueryReq> captor = ArgumentCaptor.forClass(QueryReq.class);
+            verify(client, times(2)).query(captor.capture());
+            assertEquals(List.of("events_20260102", "events_20260103"),
+                    captor.getAllValues().stream().map(QueryReq::getCollectionName).sorted().toList());
+        }
+    }
+
+    @Test
+    void testRowsOutsideWritablePeriodsAreRejected() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.listCollections()).thenReturn(ListCollectionsResp.builder().collectionNames(List.of()).build());
+        List<String> created = new CopyOnWriteArrayList<>();
+        try (RollingManager manager = RollingManager.register(client, entity -> created.add(entity.collectionName()))) {
+            manager.manage(spec(2));
+            long now = System.currentTimeMillis();
+
+            assertEquals(RollingPeriod.DAILY.collectionName("events", now - DAY), manager.collectionFor("events", now - DAY));
+            assertEquals(RollingPeriod.DAILY.collectionName("events", now + DAY), manager.collectionFor("events", now + DAY));
+            assertThrows(MilvusPlusException.class, () -> manager.collectionFor("events", now - 2 * DAY));
+            assertThrows(MilvusPlusException.class, () -> manager.collectionFor("events", now + 2 * DAY));
+            assertThrows(MilvusPlusException.class, () -> manager.collectionFor("events", 0L));
+            assertEquals(3, created.size());
+        }
+    }
+
+    private static RollingSpec spec(int retention) {
+        MilvusEntity template = EntityMetadataRegistry.shared().get(Event.class).milvusEntity();
+        return new RollingSpec("events", RollingPeriod.DAILY, retention, "ts", template);
+    }
+}
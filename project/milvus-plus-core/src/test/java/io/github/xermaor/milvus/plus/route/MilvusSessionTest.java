@@ -0,0 +1,146 @@
+package io.github.xermaor.milvus.plus.route;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
+import io.github.xermaor.milvus.plus.core.route.MilvusSession;
+import io.milvus.common.utils.GTsDict;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.response.QueryResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MilvusSessionTest {
+
+    @MilvusCollection(name = "session_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    @Test
+    void testNestedScopesAndToken() {
+        GTsDict.getInstance().updateCollectionTs("session_nested", 7L);
+        assertNull(MilvusSession.current());
+        try (MilvusSession outer = MilvusSession.open()) {
+            try (MilvusSession inner = MilvusSession.open()) {
+                MilvusSession.recordWrite("session_nested");
+                assertEquals(7L, inner.timestamp("session_nested"));
+                assertEquals(0L, outer.timestamp("session_nested"));
+            }
+            assertSame(outer, MilvusSession.current());
+            assertEquals(7L, MilvusSession.writeTimestamp("session_nested"));
+            try (MilvusSession other = MilvusSession.open(outer.token())) {
+                assertEquals(7L, other.timestamp("session_nested"));
+            }
+        }
+        assertNull(MilvusSession.current());
+        assertEquals(0L, MilvusSession.writeTimestamp("session_nested"));
+    }
+
+    @Test
+    void testReadsInSessionUseSessionConsistency() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        GTsDict.getInstance().updateCollectionTs("session_docs", 11L);
+
+        query(client);
+        try (MilvusSession session = MilvusSession.open(Map.of())) {
+            query(client);
+            MilvusSession.recordWrite("session_docs");
+            query(client);
+        }
+
+        ArgumentCaptor<QueryReq> captor = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client, times(3)).query(captor.capture());
+        assertNotEquals(ConsistencyLevel.SESSION, captor.getAllValues().get(0).getConsistencyLevel());
+        assertNotEquals(ConsistencyLevel.SESSION, captor.getAllValues().get(1).getConsistencyLevel());
+        assertEquals(ConsistencyLevel.SESSION, captor.getAllValues().get(2).getConsistencyLevel());
+    }
+
+    @Test
+    void testSingleFlightDoesNotJoinReadStartedBeforeSessionWrite() throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.query(any())).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                entered.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return QueryResp.builder().queryResults(List.of()).build();
+        });
+
+        CompletableFuture<Void> earlier = CompletableFuture.runAsync(() -> {
+            try (MilvusSession ignored = MilvusSession.open(Map.of("session_docs", 5L))) {
+                query(client, true);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        // 写入之后的读请求不能共享写入之前发起的请求
+        try (MilvusSession ignored = MilvusSession.open(Map.of("session_docs", 11L))) {
+            query(client, true);
+        }
+        release.countDown();
+        earlier.get(5, TimeUnit.SECONDS);
+
+        verify(client, times(2)).query(any());
+    }
+
+    @Test
+    void testShardReadsUseEachShardsWriteTimestamp() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+
+        try (MilvusSession ignored = MilvusSession.open(Map.of("session_docs_a", 5L))) {
+            LambdaQueryWrapper<Doc> wrapper = new LambdaQueryWrapper<>();
+            wrapper.init("session_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+            wrapper.shards(List.of("session_docs_a", "session_docs_b")).eq(Doc::getId, 1L).query();
+        }
+
+        ArgumentCaptor<QueryReq> captor = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client, times(2)).query(captor.capture());
+        Map<String, ConsistencyLevel> levels = new HashMap<>();
+        captor.getAllValues().forEach(req -> levels.put(req.getCollectionName(), req.getConsistencyLevel()));
+        assertEquals(ConsistencyLevel.SESSION, levels.get("session_docs_a"));
+        assertNotEquals(ConsistencyLevel.SESSION, levels.get("session_docs_b"));
+    }
+
+    private static void query(MilvusClientV2 client) {
+        query(client, false);
+    }
+
+    private static void query(MilvusClientV2 client, boolean singleFlight) {
+        LambdaQueryWrapper<Doc> wrapper = new LambdaQueryWrapper<>();
+        wrapper.init("session_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+        if (singleFlight) {
+            wrapper.singleFlight();
+        }
+        wrapper.eq(Doc::getId, 1L).query();
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.xermaor.milvus.plus.route;
+
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.milvus.common.utils.GTsDict;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.ConsistencyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+class ReadWriteRouterTest {
+
+    @Test
+    void testReadsRoundRobinAndWritesFallBackToPrimary() {
+        MilvusClientV2 primary = mock(MilvusClientV2.class);
+        MilvusClientV2 r1 = mock(MilvusClientV2.class);
+        MilvusClientV2 r2 = mock(MilvusClientV2.class);
+        ReadWriteRouter.register(primary, List.of(r1, r2), List.of());
+
+        assertSame(r1, ReadWriteRouter.reader(primary));
+        assertSame(r2, ReadWriteRouter.reader(primary));
+        assertSame(r1, ReadWriteRouter.reader(primary));
+        assertSame(primary, ReadWriteRouter.writer(primary));
+    }
+
+    @Test
+    void testUnregisteredClientIsUsedDirectly() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        assertSame(client, ReadWriteRouter.reader(client));
+        assertSame(client, ReadWriteRouter.writer(client));
+    }
+
+    @Test
+    void testReadTimestampFollowsConsistencyLevel() {
+        GTsDict.getInstance().updateCollectionTs("rw_docs", 42L);
+        assertEquals(42L, ReadWriteRouter.readTimestamp(ConsistencyLevel.SESSION, "rw_docs"));
+        assertEquals(42L, ReadWriteRouter.readTimestamp(ConsistencyLevel.STRONG, "rw_docs"));
+        assertEquals(0L, ReadWriteRouter.readTimestamp(ConsistencyLevel.BOUNDED, "rw_docs"));
+        assertEquals(0L, ReadWriteRouter.readTimestamp(ConsistencyLevel.SESSION, "rw_unwritten"));
+    }
+}
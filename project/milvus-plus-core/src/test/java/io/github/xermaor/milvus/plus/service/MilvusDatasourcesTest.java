@@ -0,0 +1,75 @@
+package io.github.xermaor.milvus.plus.service;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionPolicy;
+import io.github.xermaor.milvus.plus.core.resilience.ResiliencePolicy;
+import io.github.xermaor.milvus.plus.core.resilience.ResilientExecutor;
+import io.github.xermaor.milvus.plus.core.route.ReadWriteRouter;
+import io.github.xermaor.milvus.plus.core.shard.SearchShard;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MilvusDatasourcesTest {
+
+    @MilvusCollection(name = "hot_docs")
+    static class HotDoc {
+    }
+
+    @MilvusCollection(name = "cold_docs", datasource = "cold")
+    static class ColdDoc {
+    }
+
+    private final MilvusClientV2 hotClient = mock(MilvusClientV2.class);
+    private final MilvusClientV2 coldClient = mock(MilvusClientV2.class);
+    private final MilvusDatasources datasources = new MilvusDatasources(Map.of(
+            MilvusDatasources.DEFAULT, new NamedMilvusClientBuilder(MilvusDatasources.DEFAULT, hotClient, null, null, null),
+            "cold", new NamedMilvusClientBuilder("cold", coldClient, null, null, null)));
+
+    @Test
+    void testRouteByAnnotation() {
+        assertSame(hotClient, datasources.route(HotDoc.class).getClient());
+        assertSame(coldClient, datasources.route(ColdDoc.class).getClient());
+        assertSame(hotClient, datasources.client(null));
+    }
+
+    @Test
+    void testNamedDatasourceRegistersItsOwnPolicies() {
+        MilvusClientV2 primary = mock(MilvusClientV2.class);
+        MilvusClientV2 reader = mock(MilvusClientV2.class);
+        ResiliencePolicy policy = new ResiliencePolicy(null, 3, Duration.ofMillis(10), Duration.ofMillis(100),
+                false, Duration.ofMillis(20), 5, Duration.ofSeconds(1));
+        AdmissionController admission = new AdmissionController(List.of(), AdmissionPolicy.FAIL_FAST, Duration.ZERO);
+        new NamedMilvusClientBuilder("cold", primary, new String[]{"io.github.xermaor.milvus.plus.service.none"}, null, null)
+                .readWrite(List.of(reader), List.of())
+                .resilience(policy, policy)
+                .admission(admission)
+                .initialize();
+
+        assertSame(reader, ReadWriteRouter.reader(primary));
+        assertSame(primary, ReadWriteRouter.writer(primary));
+        assertSame(admission, AdmissionController.get(primary));
+        assertNotNull(ResilientExecutor.get(primary));
+    }
+
+    @Test
+    void testUnknownDatasourceIsRejected() {
+        assertThrows(MilvusPlusException.class, () -> datasources.get("archive"));
+    }
+
+    @Test
+    void testShardCarriesClient() {
+        SearchShard shard = datasources.shard("cold", "cold_docs", "2023");
+        assertSame(coldClient, shard.client());
+        assertEquals(List.of("2023"), shard.partitionNames());
+        assertNull(SearchShard.of("hot_docs").client());
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.xermaor.milvus.plus.shard;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
+import io.github.xermaor.milvus.plus.core.shard.PartialResultPolicy;
+import io.github.xermaor.milvus.plus.core.shard.ScatterGather;
+import io.github.xermaor.milvus.plus.core.shard.SearchShard;
+import io.github.xermaor.milvus.plus.core.shard.ShardResultMerger;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.ScoreOrder;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResult;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ShardResultMergerTest {
+
+    @MilvusCollection(name = "docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        private List<Float> vector;
+    }
+
+    private static MilvusResult<String> result(long id, float score) {
+        return new MilvusResult<>("e" + id, score, id, null);
+    }
+
+    private static List<Object> ids(List<MilvusResult<String>> results) {
+        return results.stream().map(MilvusResult::id).toList();
+    }
+
+    @Test
+    void testMergeRespectsMetricDirection() {
+        List<List<List<MilvusResult<String>>>> shards = List.of(
+                List.of(List.of(result(1, 0.1f), result(2, 0.4f)), List.of(result(5, 0.3f))),
+                List.of(List.of(result(3, 0.2f), result(4, 0.9f)), List.of(result(6, 0.6f))));
+
+        List<List<MilvusResult<String>>> asc = ShardResultMerger.merge(shards, 3, ScoreOrder.ASC);
+        assertEquals(List.of(1L, 3L, 2L), ids(asc.get(0)));
+        assertEquals(List.of(5L, 6L), ids(asc.get(1)));
+
+        List<List<MilvusResult<String>>> desc = ShardResultMerger.merge(shards, 2, ScoreOrder.DESC);
+        assertEquals(List.of(4L, 2L), ids(desc.get(0)));
+        assertEquals(List.of(6L, 5L), ids(desc.get(1)));
+    }
+
+    @Test
+    void testPartialResultPolicy() {
+        List<SearchShard> shards = List.of(SearchShard.of("a"), SearchShard.of("b"), SearchShard.of("c"));
+        List<String> partial = ScatterGather.execute(shards, shard -> {
+            if (shard.collectionName().equals("b")) {
+                throw new IllegalStateException("down");
+            }
+            if (shard.collectionName().equals("c")) {
+                sleep(2000);
+            }
+            return shard.collectionName();
+        }, null, Duration.ofMillis(200), PartialResultPolicy.PARTIAL);
+        assertEquals(List.of("a"), partial);
+
+        assertThrows(MilvusPlusException.class, () -> ScatterGather.execute(shards, shard -> {
+            if (shard.collectionName().equals("b")) {
+                throw new IllegalStateException("down");
+            }
+            return shard.collectionName();
+        }, null, null, PartialResultPolicy.FAIL));
+    }
+
+    @Test
+    void testOffsetIsAppliedAfterMerge() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.search(any())).thenAnswer(invocation -> {
+            boolean first = ((SearchReq) invocation.getArgument(0)).getCollectionName().equals("docs_a");
+            return SearchResp.builder().searchResults(List.of(first
+                    ? List.of(hit(1, 0.9f), hit(2, 0.7f), hit(3, 0.5f), hit(4, 0.3f))
+                    : List.of(hit(5, 0.8f), hit(6, 0.6f), hit(7, 0.4f), hit(8, 0.2f)))).build();
+        });
+        when(client.query(any())).thenAnswer(invocation -> {
+            long base = ((QueryReq) invocation.getArgument(0)).getCollectionName().equals("docs_a") ? 0 : 3;
+            return QueryResp.builder().queryResults(List.of(row(base + 1), row(base + 2), row(base + 3))).build();
+        });
+
+        List<MilvusResult<Doc>> page = wrapper(client).metricType("IP").vector("vector", List.of(0.1f, 0.2f))
+                .topK(2).offset(2L).query().data();
+        assertEquals(List.of(2L, 6L), page.stream().map(MilvusResult::id).toList());
+        ArgumentCaptor<SearchReq> search = ArgumentCaptor.forClass(SearchReq.class);
+        verify(client, times(2)).search(search.capture());
+        search.getAllValues().forEach(req -> {
+            assertEquals(4, req.getTopK());
+            assertEquals(0L, req.getOffset());
+        });
+
+        List<MilvusResult<Doc>> rows = wrapper(client).limit(2L).offset(2L).query().data();
+        assertEquals(List.of(3L, 4L), rows.stream().map(row -> row.entity().id).toList());
+        ArgumentCaptor<QueryReq> query = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client, times(2)).query(query.capture());
+        query.getAllValues().forEach(req -> {
+            assertEquals(4L, req.getLimit());
+            assertEquals(0L, req.getOffset());
+        });
+    }
+
+    private static LambdaQueryWrapper<Doc> wrapper(MilvusClientV2 client) {
+        LambdaQueryWrapper<Doc> wrapper = new LambdaQueryWrapper<>();
+        wrapper.init("docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+        return wrapper.shards(List.of("docs_a", "docs_b"));
+    }
+
+    private static SearchResp.SearchResult hit(long id, float score) {
+        return SearchResp.SearchResult.builder().id(id).score(score).entity(Map.of("doc_id", id)).build();
+    }
+
+    private static QueryResp.QueryResult row(long id) {
+        return QueryResp.QueryResult.builder().entity(Map.of("doc_id", id)).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.xermaor.milvus.plus.spool;
+
+import com.google.gson.JsonObject;
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
+import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.spool.FsyncPolicy;
+import io.github.xermaor.milvus.plus.core.spool.SpoolConfig;
+import io.github.xermaor.milvus.plus.core.spool.WriteSpool;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.github.xermaor.milvus.plus.model.vo.MilvusResp;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.exception.ErrorCode;
+import io.milvus.v2.exception.MilvusClientException;
+import io.milvus.v2.service.vector.request.UpsertReq;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.UpsertResp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class WriteSpoolTest {
+
+    @MilvusCollection(name = "spooled_docs")
+    static class Doc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        Doc(Long id) {
+            this.id = id;
+            this.vector = List.of(0.1f, 0.2f);
+        }
+    }
+
+    private static SpoolConfig config(Path dir) {
+        return new SpoolConfig(dir, 4096, FsyncPolicy.ALWAYS, null, 0, Duration.ofHours(1));
+    }
+
+    private static JsonObject row(long id) {
+        JsonObject row = new JsonObject();
+        row.addProperty("doc_id", id);
+        return row;
+    }
+
+    @Test
+    void testSpoolDirectoryCannotBeSharedByTwoClients(@TempDir Path dir) {
+        MilvusClientV2 hot = mock(MilvusClientV2.class);
+        MilvusClientV2 cold = mock(MilvusClientV2.class);
+        WriteSpool spool = WriteSpool.register(hot, config(dir));
+        try {
+            assertThrows(MilvusPlusException.class, () -> WriteSpool.register(cold, config(dir.resolve("."))));
+            assertNull(WriteSpool.get(cold));
+            WriteSpool.register(cold, config(dir.resolve("cold"))).close();
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void testFailedInsertIsSpooledAndReplayedAsUpsert(@TempDir Path dir) {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.insert(any())).thenThrow(new MilvusClientException(ErrorCode.RPC_ERROR, "unavailable"));
+        when(client.upsert(any())).thenReturn(UpsertResp.builder().upsertCnt(2).build());
+        WriteSpool spool = WriteSpool.register(client, config(dir));
+        try {
+            LambdaInsertWrapper<Doc> wrapper = new LambdaInsertWrapper<>();
+            wrapper.init("spooled_docs", client, EntityMetadataRegistry.shared().get(Doc.class), Doc.class);
+            MilvusResp<InsertResp> resp = wrapper.insert(new Doc(1L), new Doc(2L));
+            assertEquals(List.of(1L, 2L), resp.data().getPrimaryKeys());
+            assertTrue(spool.backlogged());
+
+            // 有积压时新写入直接进入暂存，保持顺序
+            wrapper.insert(new Doc(3L));
+            verify(client, times(1)).insert(any());
+
+            assertEquals(3, spool.drain());
+            assertFalse(spool.backlogged());
+            ArgumentCaptor<UpsertReq> captor = ArgumentCaptor.forClass(UpsertReq.class);
+            verify(client, times(1)).upsert(captor.capture());
+            assertEquals("spooled_docs", captor.getValue().getCollectionName());
+            assertEquals(3, captor.getValue().getData().size());
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void testRecoversSegmentsAndStopsAtCorruptRecord(@TempDir Path dir) throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        WriteSpool first = new WriteSpool(client, config(dir));
+        first.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(1L)));
+        first.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(2L)));
+        first.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // 第一条记录之后的第二条记录内容，破坏其校验和
+            int firstLength = file.readInt();
+            long secondPayload = 8L + firstLength + 8L;
+            file.seek(secondPayload);
+            file.writeByte(file.readByte() ^ 0x7f);
+        }
+
+        when(client.upsert(any())).thenReturn(UpsertResp.builder().upsertCnt(1).build());
+        WriteSpool recovered = new WriteSpool(client, config(dir));
+        try {
+            assertTrue(recovered.backlogged());
+            assertEquals(1, recovered.drain());
+            assertFalse(recovered.backlogged());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    void testPoisonRecordIsDeadLetteredAndDrainContinues(@TempDir Path dir) throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.upsert(any())).thenAnswer(invocation -> {
+            UpsertReq request = invocation.getArgument(0);
+            if ("dropped_docs".equals(request.getCollectionName())) {
+                throw new MilvusClientException(ErrorCode.COLLECTION_NOT_FOUND, "collection not found");
+            }
+            return UpsertResp.builder().upsertCnt(request.getData().size()).build();
+        });
+        WriteSpool spool = new WriteSpool(client, config(dir));
+        try {
+            spool.append("dropped_docs", null, OperationType.UPSERT, "doc_id", List.of(row(1L)));
+            spool.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(2L), row(3L)));
+
+            assertEquals(2, spool.drain());
+            assertFalse(spool.backlogged());
+            assertEquals(1, spool.deadLetteredRows());
+            List<String> deadLetters = Files.readAllLines(spool.deadLetterFile());
+            assertEquals(1, deadLetters.size());
+            assertTrue(deadLetters.getFirst().contains("\"collection\":\"dropped_docs\""), deadLetters.getFirst());
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void testResumedSegmentDoesNotDeadLetterTwice(@TempDir Path dir) throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        AtomicBoolean available = new AtomicBoolean(false);
+        when(client.upsert(any())).thenAnswer(invocation -> {
+            UpsertReq request = invocation.getArgument(0);
+            if ("dropped_docs".equals(request.getCollectionName())) {
+                throw new MilvusClientException(ErrorCode.COLLECTION_NOT_FOUND, "collection not found");
+            }
+            if (!available.get()) {
+                throw new MilvusClientException(ErrorCode.RPC_ERROR, "unavailable");
+            }
+            return UpsertResp.builder().upsertCnt(request.getData().size()).build();
+        });
+        WriteSpool spool = new WriteSpool(client, config(dir));
+        try {
+            spool.append("dropped_docs", null, OperationType.UPSERT, "doc_id", List.of(row(1L)));
+            spool.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(2L), row(3L)));
+
+            assertThrows(MilvusClientException.class, spool::drain);
+            assertEquals(1, spool.deadLetteredRows());
+
+            available.set(true);
+            assertEquals(2, spool.drain());
+            assertFalse(spool.backlogged());
+            assertEquals(1, spool.deadLetteredRows());
+            assertEquals(1, Files.readAllLines(spool.deadLetterFile()).size());
+            try (Stream<Path> files = Files.list(dir)) {
+                assertEquals(List.of(spool.deadLetterFile()), files.toList());
+            }
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void testFinalDrainRoundDoesNotHoldAppenders(@TempDir Path dir) throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        WriteSpool spool = new WriteSpool(client, config(dir));
+        CountDownLatch finalRound = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        when(client.upsert(any())).thenAnswer(invocation -> {
+            // 前两轮回放期间不断有新写入，迫使回放进入最后一轮
+            if (calls.incrementAndGet() < 3) {
+                spool.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(10L + calls.get())));
+            } else {
+                finalRound.countDown();
+                release.await();
+            }
+            UpsertReq request = invocation.getArgument(0);
+            return UpsertResp.builder().upsertCnt(request.getData().size()).build();
+        });
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            spool.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(1L)));
+            Future<Integer> drained = executor.submit(spool::drain);
+            assertTrue(finalRound.await(5, TimeUnit.SECONDS));
+
+            assertTrue(executor.submit(spool::backlogged).get(500, TimeUnit.MILLISECONDS));
+            executor.submit(() -> spool.append("spooled_docs", null, OperationType.UPSERT, "doc_id", List.of(row(20L))))
+                    .get(5, TimeUnit.SECONDS);
+
+            release.countDown();
+            assertEquals(3, drained.get(5, TimeUnit.SECONDS));
+            assertTrue(spool.backlogged());
+        } finally {
+            release.countDown();
+            spool.close();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.xermaor.milvus.plus.tenant;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusIndex;
+import io.github.xermaor.milvus.plus.core.mapper.BaseMilvusMapper;
+import io.github.xermaor.milvus.plus.core.tenant.TenantContext;
+import io.github.xermaor.milvus.plus.core.tenant.TenantRouter;
+import io.github.xermaor.milvus.plus.core.tenant.TenantStrategy;
+import io.github.xermaor.milvus.plus.exception.MilvusPlusException;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.common.DataType;
+import io.milvus.v2.service.vector.request.DeleteReq;
+import io.milvus.v2.service.vector.request.InsertReq;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.response.DeleteResp;
+import io.milvus.v2.service.vector.response.InsertResp;
+import io.milvus.v2.service.vector.response.QueryResp;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TenantIsolationTest {
+
+    @MilvusCollection(name = "shared_docs", tenancy = TenantStrategy.PARTITION_KEY, tenantField = "tenant_id")
+    static class SharedDoc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(name = "tenant_id", dataType = DataType.VarChar, isPartitionKey = true)
+        private String tenantId;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+
+        SharedDoc(Long id) {
+            this.id = id;
+            this.vector = List.of(0.1f, 0.2f);
+        }
+    }
+
+    @MilvusCollection(name = "own_docs", tenancy = TenantStrategy.COLLECTION)
+    static class OwnDoc {
+        @MilvusField(name = "doc_id", dataType = DataType.Int64, isPrimaryKey = true)
+        private Long id;
+        @MilvusField(dimension = 2)
+        @MilvusIndex
+        private List<Float> vector;
+    }
+
+    static class SharedMapper extends BaseMilvusMapper<SharedDoc> {
+        private final MilvusClientV2 client;
+
+        SharedMapper(MilvusClientV2 client) {
+            this.client = client;
+        }
+
+        @Override
+        public MilvusClientV2 getClient() {
+            return client;
+        }
+    }
+
+    static class OwnMapper extends BaseMilvusMapper<OwnDoc> {
+        private final MilvusClientV2 client;
+
+        OwnMapper(MilvusClientV2 client) {
+            this.client = client;
+        }
+
+        @Override
+        public MilvusClientV2 getClient() {
+            return client;
+        }
+    }
+
+    @Test
+    void testPartitionKeyTenancyStampsRowsAndFiltersReads() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.insert(any())).thenReturn(InsertResp.builder().InsertCnt(1L).primaryKeys(List.of(1L)).build());
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        when(client.delete(any())).thenReturn(DeleteResp.builder().deleteCnt(1L).build());
+        SharedMapper mapper = new SharedMapper(client);
+
+        try (TenantContext ignored = TenantContext.open("acme")) {
+            mapper.insert(new SharedDoc(1L));
+            mapper.queryWrapper().eq("doc_id", 1L).query();
+            mapper.removeById(1L);
+        }
+
+        ArgumentCaptor<InsertReq> insert = ArgumentCaptor.forClass(InsertReq.class);
+        verify(client).insert(insert.capture());
+        assertEquals("acme", insert.getValue().getData().getFirst().get("tenant_id").getAsString());
+        ArgumentCaptor<QueryReq> query = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client).query(query.capture());
+        assertTrue(query.getValue().getFilter().contains("tenant_id == \"acme\""), query.getValue().getFilter());
+        ArgumentCaptor<DeleteReq> delete = ArgumentCaptor.forClass(DeleteReq.class);
+        verify(client).delete(delete.capture());
+        assertTrue(delete.getValue().getIds() == null || delete.getValue().getIds().isEmpty());
+        assertTrue(delete.getValue().getFilter().contains("tenant_id == \"acme\""), delete.getValue().getFilter());
+        assertThrows(MilvusPlusException.class, mapper::queryWrapper);
+    }
+
+    @Test
+    void testTenantConditionWrapsOrGroups() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        when(client.delete(any())).thenReturn(DeleteResp.builder().deleteCnt(1L).build());
+        SharedMapper mapper = new SharedMapper(client);
+
+        try (TenantContext ignored = TenantContext.open("acme")) {
+            mapper.deleteWrapper().eq("doc_id", 1L).or(w -> w.eq("doc_id", 2L)).remove();
+            mapper.queryWrapper().eq("doc_id", 3L).or(w -> w.eq("doc_id", 4L)).not().query();
+        }
+
+        ArgumentCaptor<DeleteReq> delete = ArgumentCaptor.forClass(DeleteReq.class);
+        verify(client).delete(delete.capture());
+        assertEquals("tenant_id == \"acme\" && doc_id in [1, 2]", delete.getValue().getFilter());
+        ArgumentCaptor<QueryReq> query = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client).query(query.capture());
+        assertTrue(query.getValue().getFilter().startsWith("tenant_id == \"acme\" && not ("), query.getValue().getFilter());
+    }
+
+    @Test
+    void testCollectionTenancyCreatesCollectionOnceAndPropagatesTenant() throws Exception {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        List<String> created = new CopyOnWriteArrayList<>();
+        TenantRouter.register(client, entity -> created.add(entity.collectionName()));
+        OwnMapper mapper = new OwnMapper(client);
+
+        try (TenantContext ignored = TenantContext.open("acme_eu")) {
+            mapper.queryWrapper().eq("doc_id", 1L).query();
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                executor.submit(TenantContext.propagate(() -> mapper.queryWrapper().eq("doc_id", 2L).query())).get();
+            }
+        }
+
+        assertEquals(List.of("own_docs_acme_eu"), created);
+        ArgumentCaptor<QueryReq> query = ArgumentCaptor.forClass(QueryReq.class);
+        verify(client, times(2)).query(query.capture());
+        query.getAllValues().forEach(request -> assertEquals("own_docs_acme_eu", request.getCollectionName()));
+    }
+
+    @Test
+    void testTenantIdsAreEncodedWithoutCollisions() {
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        List<String> created = new CopyOnWriteArrayList<>();
+        TenantRouter.register(client, entity -> created.add(entity.collectionName()));
+        OwnMapper mapper = new OwnMapper(client);
+
+        for (String tenant : List.of("a_b", "a-b", "a.b", "a_x2db", "ann@example.com", "3f2b0c1e-9d4a-4c1b-8e2f-7a6b5c4d3e2f")) {
+            try (TenantContext ignored = TenantContext.open(tenant)) {
+                mapper.queryWrapper().eq("doc_id", 1L).query();
+            }
+        }
+
+        assertEquals(List.of("own_docs_a_b", "own_docs_a_x2db", "own_docs_a_x2eb", "own_docs_a_x5fx2db",
+                "own_docs_ann_x40example_x2ecom", "own_docs_3f2b0c1e_x2d9d4a_x2d4c1b_x2d8e2f_x2d7a6b5c4d3e2f"), created);
+    }
+}
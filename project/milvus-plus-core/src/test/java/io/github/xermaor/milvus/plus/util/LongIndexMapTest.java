@@ -0,0 +1,30 @@
+package io.github.xermaor.milvus.plus.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIndexMapTest {
+
+    @Test
+    void testPutAndGet() {
+        int n = 50_000;
+        LongIndexMap map = new LongIndexMap(n);
+        for (int i = 0; i < n; i++) {
+            assertTrue(map.putIfAbsent(i * 7919L - 100_000L, i));
+        }
+        assertEquals(n, map.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, map.get(i * 7919L - 100_000L));
+        }
+        assertEquals(-1, map.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testFirstValueWins() {
+        LongIndexMap map = new LongIndexMap(4);
+        assertTrue(map.putIfAbsent(0L, 3));
+        assertFalse(map.putIfAbsent(0L, 5));
+        assertEquals(3, map.get(0L));
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.xermaor.milvus.plus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<String, List<String>> flight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<String>> leader = CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return List.of("v");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<List<String>>> followers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            followers.add(CompletableFuture.supplyAsync(() -> flight.execute("k", () -> {
+                calls.incrementAndGet();
+                return List.of("other");
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        List<String> shared = leader.get(5, TimeUnit.SECONDS);
+        for (CompletableFuture<List<String>> follower : followers) {
+            assertSame(shared, follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    void testFailureIsPropagatedAndNotCached() {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        assertThrows(IllegalStateException.class, () -> flight.execute("k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", flight.execute("k", () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
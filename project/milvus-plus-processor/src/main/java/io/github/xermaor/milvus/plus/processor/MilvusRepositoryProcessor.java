@@ -0,0 +1,424 @@
+package io.github.xermaor.milvus.plus.processor;
+
+import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+import io.github.xermaor.milvus.plus.annotation.MilvusField;
+import io.github.xermaor.milvus.plus.annotation.MilvusRepository;
+import io.github.xermaor.milvus.plus.core.repository.MilvusRepositories;
+import io.github.xermaor.milvus.plus.core.rolling.RollingPeriod;
+import io.github.xermaor.milvus.plus.core.tenant.TenantStrategy;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 为 {@link MilvusRepository} 接口生成实现类。
+ * <p>
+ * 生成的实现类继承 {@code MilvusRepositorySupport}，集合名、输出字段和各方法的过滤模板均为常量，
+ * 结果按字段逐个调用转换方法和 setter 解码；全部仓库写入 {@link MilvusRepositories#INDEX}，供启动时注册。
+ * 增量编译只处理部分源文件，索引中已有的、本次未编译但仍然存在的仓库会被保留。
+ */
+@SupportedAnnotationTypes("io.github.xermaor.milvus.plus.annotation.MilvusRepository")
+public class MilvusRepositoryProcessor extends AbstractProcessor {
+
+    private static final String GENERATED = "javax.annotation.processing.Generated";
+    private static final String BASE_VECTOR = "io.milvus.v2.service.vector.request.data.BaseVector";
+    private static final String MILVUS_RESULT = "io.github.xermaor.milvus.plus.model.vo.MilvusResult";
+
+    /**
+     * 本次编译生成的仓库，接口的二进制名到实现类名
+     */
+    private final Map<String, String> index = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(MilvusRepository.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@MilvusRepository can only be placed on interfaces");
+                continue;
+            }
+            TypeElement repository = (TypeElement) element;
+            try {
+                generate(repository);
+            } catch (InvalidRepositoryException e) {
+                error(e.element == null ? repository : e.element, e.getMessage());
+            } catch (IOException e) {
+                error(repository, "Failed to write repository implementation: " + e.getMessage());
+            }
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) {
+            writeIndex();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement repository) throws IOException {
+        TypeElement entity = entityType(repository);
+        MilvusCollection collection = entity.getAnnotation(MilvusCollection.class);
+        if (collection == null) {
+            throw new InvalidRepositoryException(repository, entity.getQualifiedName() + " is not annotated with @MilvusCollection");
+        }
+        if (collection.tenancy() != TenantStrategy.NONE || collection.rolling() != RollingPeriod.NONE) {
+            throw new InvalidRepositoryException(repository,
+                    "Multi-tenant and rolling collections are not supported by generated repositories: " + entity.getQualifiedName());
+        }
+        Map<String, EntityField> fields = fields(entity);
+        if (fields.isEmpty()) {
+            throw new InvalidRepositoryException(repository, entity.getQualifiedName() + " has no @MilvusField fields");
+        }
+        RepositoryWriter writer = new RepositoryWriter(processingEnv.getTypeUtils(), repository, entity, collection.name(), fields,
+                processingEnv.getElementUtils().getTypeElement(GENERATED) != null);
+        // 逐个方法报告错误，任一方法无效时不生成实现
+        boolean valid = true;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(repository))) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            try {
+                writer.add(method, resolve(method, entity, fields));
+            } catch (InvalidRepositoryException e) {
+                error(e.element == null ? method : e.element, e.getMessage());
+                valid = false;
+            }
+        }
+        if (!valid) {
+            return;
+        }
+        String implementation = writer.qualifiedName();
+        JavaFileObject source = processingEnv.getFiler().createSourceFile(implementation, repository);
+        try (Writer out = source.openWriter()) {
+            out.write(writer.write());
+        }
+        index.put(processingEnv.getElementUtils().getBinaryName(repository).toString(), implementation);
+    }
+
+    /**
+     * 读取注解中的实体类；处理器中直接访问 Class 取值会抛出 MirroredTypeException，因此从注解镜像读取
+     */
+    private TypeElement entityType(TypeElement repository) {
+        for (AnnotationMirror mirror : repository.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!type.getQualifiedName().contentEquals(MilvusRepository.class.getName())) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")
+                        && entry.getValue().getValue() instanceof DeclaredType declared) {
+                    return (TypeElement) declared.asElement();
+                }
+            }
+        }
+        throw new InvalidRepositoryException(repository, "@MilvusRepository of " + repository.getQualifiedName() + " has no entity type");
+    }
+
+    /**
+     * 实体及其父类中带 {@link MilvusField} 的字段，父类字段在前
+     */
+    private Map<String, EntityField> fields(TypeElement entity) {
+        Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        TypeElement current = entity;
+        while (current != null && !current.getQualifiedName().contentEquals(Object.class.getName())) {
+            hierarchy.push(current);
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+        Map<String, EntityField> fields = new LinkedHashMap<>();
+        for (TypeElement type : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                MilvusField annotation = field.getAnnotation(MilvusField.class);
+                if (annotation == null || field.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                String property = field.getSimpleName().toString();
+                String column = annotation.name().isEmpty() ? property : annotation.name();
+                boolean direct = field.getModifiers().contains(Modifier.PUBLIC) && !field.getModifiers().contains(Modifier.FINAL);
+                fields.put(property, new EntityField(property, column, field.asType(), direct));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * 解析方法名并校验参数和返回类型
+     */
+    private RepositoryWriter.Plan resolve(ExecutableElement method, TypeElement entity, Map<String, EntityField> fields) {
+        String name = method.getSimpleName().toString();
+        if (!method.getTypeParameters().isEmpty()) {
+            throw new InvalidRepositoryException(method, "Generic repository method " + name + " is not supported");
+        }
+        RepositoryMethod parsed;
+        try {
+            parsed = RepositoryMethod.parse(name, fields.keySet());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRepositoryException(method, e.getMessage());
+        }
+        List<? extends VariableElement> parameters = method.getParameters();
+        int criteria = parsed.criteria().size();
+        TypeMirror returnType = method.getReturnType();
+        return switch (parsed.kind()) {
+            case SEARCH -> {
+                if (parameters.size() != criteria + 2) {
+                    throw new InvalidRepositoryException(method, name + " must take the query vector, " + criteria + " condition value(s) and topK");
+                }
+                if (!isVector(parameters.getFirst().asType())) {
+                    throw new InvalidRepositoryException(method, "Query vector of " + name + " must be float[], List<Float> or BaseVector");
+                }
+                if (!isInteger(parameters.getLast().asType(), false)) {
+                    throw new InvalidRepositoryException(method, "topK of " + name + " must be an int");
+                }
+                boolean scored;
+                if (isListOf(returnType, entity)) {
+                    scored = false;
+                } else if (isListOfResults(returnType, entity)) {
+                    scored = true;
+                } else {
+                    throw new InvalidRepositoryException(method, name + " must return List<" + entity.getSimpleName()
+                            + "> or List<MilvusResult<" + entity.getSimpleName() + ">>");
+                }
+                checkCriteria(method, parsed, fields, 1);
+                yield new RepositoryWriter.Plan(parsed, fields.get(parsed.vectorProperty()).column(), scored, false);
+            }
+            case FIND -> {
+                boolean limited = parameters.size() == criteria + 1;
+                if (parameters.size() != criteria && !limited) {
+                    throw new InvalidRepositoryException(method, name + " must take " + criteria + " condition value(s) and an optional limit");
+                }
+                if (limited && !isInteger(parameters.getLast().asType(), true)) {
+                    throw new InvalidRepositoryException(method, "limit of " + name + " must be an int or a long");
+                }
+                if (!isListOf(returnType, entity)) {
+                    throw new InvalidRepositoryException(method, name + " must return List<" + entity.getSimpleName() + ">");
+                }
+                checkCriteria(method, parsed, fields, 0);
+                yield new RepositoryWriter.Plan(parsed, null, false, limited);
+            }
+            case COUNT -> {
+                if (parameters.size() != criteria) {
+                    throw new InvalidRepositoryException(method, name + " must take " + criteria + " condition value(s)");
+                }
+                String type = returnType.toString();
+                if (!type.equals("long") && !type.equals(Long.class.getName())) {
+                    throw new InvalidRepositoryException(method, name + " must return long");
+                }
+                checkCriteria(method, parsed, fields, 0);
+                yield new RepositoryWriter.Plan(parsed, null, false, false);
+            }
+        };
+    }
+
+    /**
+     * 校验条件参数与实体字段的类型：In、NotIn 需要元素类型匹配的集合，其余运算需要与字段类型匹配的值
+     *
+     * @param offset 第一个条件参数的位置
+     */
+    private void checkCriteria(ExecutableElement method, RepositoryMethod parsed, Map<String, EntityField> fields, int offset) {
+        for (int i = 0; i < parsed.criteria().size(); i++) {
+            RepositoryMethod.Criterion criterion = parsed.criteria().get(i);
+            VariableElement parameter = method.getParameters().get(i + offset);
+            EntityField field = fields.get(criterion.property());
+            TypeMirror type = parameter.asType();
+            boolean multiple = criterion.operator() == RepositoryMethod.Operator.IN
+                    || criterion.operator() == RepositoryMethod.Operator.NOT_IN;
+            if (multiple) {
+                if (!isCollection(type)) {
+                    throw new InvalidRepositoryException(parameter, "Parameter " + parameter.getSimpleName() + " of "
+                            + method.getSimpleName() + " must be a collection of " + field.type() + " values");
+                }
+                type = collectionElement(type);
+                if (type == null) {
+                    continue;
+                }
+            }
+            if (!compatible(type, field.type())) {
+                throw new InvalidRepositoryException(parameter, "Parameter " + parameter.getSimpleName() + " of "
+                        + method.getSimpleName() + " has type " + parameter.asType() + ", which does not match "
+                        + field.type() + " of property " + field.property());
+            }
+        }
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        TypeElement collection = processingEnv.getElementUtils().getTypeElement(Collection.class.getName());
+        return type.getKind() == TypeKind.DECLARED
+                && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type),
+                processingEnv.getTypeUtils().erasure(collection.asType()));
+    }
+
+    /**
+     * 集合参数的元素类型，原始类型或无法确定时返回 null
+     */
+    private TypeMirror collectionElement(TypeMirror type) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() != 1) {
+            return null;
+        }
+        TypeMirror element = arguments.getFirst();
+        if (element.getKind() == TypeKind.WILDCARD) {
+            return ((WildcardType) element).getExtendsBound();
+        }
+        return element.getKind() == TypeKind.DECLARED ? element : null;
+    }
+
+    /**
+     * 参数值能否用于字段的条件：数值之间可以互用，字符串、布尔值要求同类，其余类型要求可赋值
+     */
+    private boolean compatible(TypeMirror parameter, TypeMirror field) {
+        ValueKind fieldKind = ValueKind.of(boxed(field));
+        if (fieldKind != null) {
+            return fieldKind == ValueKind.of(boxed(parameter));
+        }
+        return processingEnv.getTypeUtils().isAssignable(boxed(parameter), boxed(field));
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        return type.getKind().isPrimitive()
+                ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).asType() : type;
+    }
+
+    private enum ValueKind {
+        NUMBER, STRING, BOOLEAN;
+
+        static ValueKind of(TypeMirror type) {
+            return switch (type.toString()) {
+                case "java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long",
+                     "java.lang.Float", "java.lang.Double", "java.lang.Number" -> NUMBER;
+                case "java.lang.String" -> STRING;
+                case "java.lang.Boolean" -> BOOLEAN;
+                default -> null;
+            };
+        }
+    }
+
+    private boolean isVector(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return type.toString().equals("float[]");
+        }
+        TypeElement baseVector = processingEnv.getElementUtils().getTypeElement(BASE_VECTOR);
+        if (baseVector != null && processingEnv.getTypeUtils().isAssignable(type, baseVector.asType())) {
+            return true;
+        }
+        return erasure(type).equals(List.class.getName());
+    }
+
+    private boolean isInteger(TypeMirror type, boolean allowLong) {
+        return switch (type.toString()) {
+            case "int", "java.lang.Integer" -> true;
+            case "long", "java.lang.Long" -> allowLong;
+            default -> false;
+        };
+    }
+
+    private boolean isListOf(TypeMirror type, TypeElement entity) {
+        TypeMirror element = listElement(type);
+        return element != null && processingEnv.getTypeUtils().isSameType(element, entity.asType());
+    }
+
+    private boolean isListOfResults(TypeMirror type, TypeElement entity) {
+        TypeMirror element = listElement(type);
+        if (element == null || !erasure(element).equals(MILVUS_RESULT)) {
+            return false;
+        }
+        List<? extends TypeMirror> arguments = ((DeclaredType) element).getTypeArguments();
+        return arguments.size() == 1 && processingEnv.getTypeUtils().isSameType(arguments.getFirst(), entity.asType());
+    }
+
+    private TypeMirror listElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED || !erasure(type).equals(List.class.getName())) {
+            return null;
+        }
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        return arguments.size() == 1 ? arguments.getFirst() : null;
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private void writeIndex() {
+        Map<String, String> entries = new TreeMap<>(previousIndex());
+        entries.putAll(index);
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", MilvusRepositories.INDEX);
+            try (Writer out = resource.openWriter()) {
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    out.write(entry.getKey() + "=" + entry.getValue());
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + MilvusRepositories.INDEX + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 读取输出目录中已有的索引，只保留接口仍然存在且仍带 {@link MilvusRepository} 的条目
+     */
+    private Map<String, String> previousIndex() {
+        Map<String, String> entries = new HashMap<>();
+        String content;
+        try {
+            content = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", MilvusRepositories.INDEX)
+                    .getCharContent(true).toString();
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译时还没有索引
+            return entries;
+        }
+        for (String line : content.split("\n")) {
+            line = line.trim();
+            int separator = line.indexOf('=');
+            if (line.isEmpty() || line.startsWith("#") || separator < 0) {
+                continue;
+            }
+            String repository = line.substring(0, separator);
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(repository.replace('$', '.'));
+            if (type != null && type.getAnnotation(MilvusRepository.class) != null) {
+                entries.put(repository, line.substring(separator + 1));
+            }
+        }
+        return entries;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * 实体中带 {@link MilvusField} 的字段
+     *
+     * @param property 属性名
+     * @param column   Milvus 字段名
+     * @param type     字段类型
+     * @param direct   是否可以直接赋值（public 且非 final），否则调用 setter
+     */
+    record EntityField(String property, String column, TypeMirror type, boolean direct) {
+    }
+
+    private static final class InvalidRepositoryException extends RuntimeException {
+        private final Element element;
+
+        private InvalidRepositoryException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
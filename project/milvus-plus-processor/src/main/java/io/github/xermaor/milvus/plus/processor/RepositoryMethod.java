@@ -0,0 +1,128 @@
+package io.github.xermaor.milvus.plus.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 仓库方法名的解析结果。
+ *
+ * @param kind           方法种类
+ * @param vectorProperty 搜索的向量属性，非搜索方法为 null
+ * @param criteria       过滤条件，按参数顺序排列
+ */
+record RepositoryMethod(Kind kind, String vectorProperty, List<Criterion> criteria) {
+
+    enum Kind {
+        SEARCH("searchBy"),
+        FIND("findBy"),
+        COUNT("countBy");
+
+        private final String prefix;
+
+        Kind(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    /**
+     * 运算后缀，按长度从长到短匹配
+     */
+    enum Operator {
+        GREATER_THAN_EQUAL("GreaterThanEqual", ">="),
+        LESS_THAN_EQUAL("LessThanEqual", "<="),
+        GREATER_THAN("GreaterThan", ">"),
+        LESS_THAN("LessThan", "<"),
+        NOT_IN("NotIn", "not in"),
+        IN("In", "in"),
+        NOT("Not", "!="),
+        EQUALS("", "==");
+
+        private final String suffix;
+        private final String symbol;
+
+        Operator(String suffix, String symbol) {
+            this.suffix = suffix;
+            this.symbol = symbol;
+        }
+    }
+
+    /**
+     * @param property 实体属性名
+     * @param operator 运算
+     */
+    record Criterion(String property, Operator operator) {
+    }
+
+    /**
+     * 解析方法名
+     *
+     * @param name       方法名
+     * @param properties 实体的属性名，用于区分属性名结尾与运算后缀（如 {@code loggedIn}）
+     * @throws IllegalArgumentException 方法名不符合约定或引用了未知属性（不支持 Or）
+     */
+    static RepositoryMethod parse(String name, Set<String> properties) {
+        for (Kind kind : Kind.values()) {
+            if (!name.startsWith(kind.prefix) || name.length() == kind.prefix.length()) {
+                continue;
+            }
+            String body = name.substring(kind.prefix.length());
+            String[] parts = body.split("And(?=[A-Z])");
+            String vectorProperty = null;
+            List<Criterion> criteria = new ArrayList<>(parts.length);
+            for (int i = 0; i < parts.length; i++) {
+                if (kind == Kind.SEARCH && i == 0) {
+                    vectorProperty = property(parts[0], properties, name);
+                } else {
+                    criteria.add(criterion(parts[i], properties, name));
+                }
+            }
+            return new RepositoryMethod(kind, vectorProperty, List.copyOf(criteria));
+        }
+        throw new IllegalArgumentException("Repository method " + name + " must start with searchBy, findBy or countBy");
+    }
+
+    /**
+     * 过滤模板，条件以 {@code &&} 连接，第 i 个条件的占位符为 {@code {pi}}
+     *
+     * @param columns 属性名到 Milvus 字段名的映射
+     */
+    String filter(Function<String, String> columns) {
+        List<String> parts = new ArrayList<>(criteria.size());
+        for (int i = 0; i < criteria.size(); i++) {
+            Criterion criterion = criteria.get(i);
+            parts.add(columns.apply(criterion.property()) + " " + criterion.operator().symbol + " {" + placeholder(i) + "}");
+        }
+        return String.join(" && ", parts);
+    }
+
+    static String placeholder(int index) {
+        return "p" + index;
+    }
+
+    private static Criterion criterion(String part, Set<String> properties, String name) {
+        for (Operator operator : Operator.values()) {
+            if (!part.endsWith(operator.suffix) || part.length() == operator.suffix.length()) {
+                continue;
+            }
+            String property = decapitalize(part.substring(0, part.length() - operator.suffix.length()));
+            if (properties.contains(property)) {
+                return new Criterion(property, operator);
+            }
+        }
+        throw new IllegalArgumentException("Unknown property in " + part + " of repository method " + name);
+    }
+
+    private static String property(String part, Set<String> properties, String name) {
+        String property = decapitalize(part);
+        if (!properties.contains(property)) {
+            throw new IllegalArgumentException("Unknown property " + property + " in repository method " + name);
+        }
+        return property;
+    }
+
+    private static String decapitalize(String part) {
+        return Character.toLowerCase(part.charAt(0)) + part.substring(1);
+    }
+}
@@ -0,0 +1,229 @@
+package io.github.xermaor.milvus.plus.processor;
+
+import io.github.xermaor.milvus.plus.processor.MilvusRepositoryProcessor.EntityField;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import java.util.*;
+
+/**
+ * 生成一个仓库接口的实现类源码。
+ */
+final class RepositoryWriter {
+
+    /**
+     * 一个仓库方法的生成计划
+     *
+     * @param method    解析后的方法名
+     * @param annsField 搜索的向量字段名，非搜索方法为 null
+     * @param scored    搜索是否返回 {@code MilvusResult}
+     * @param limited   查询的最后一个参数是否为 limit
+     */
+    record Plan(RepositoryMethod method, String annsField, boolean scored, boolean limited) {
+    }
+
+    private final Types types;
+    private final TypeElement repository;
+    private final TypeElement entity;
+    private final String collectionName;
+    private final Map<String, EntityField> fields;
+    private final boolean generatedAnnotation;
+    private final String packageName;
+    private final String simpleName;
+    private final Map<String, String> filters = new LinkedHashMap<>();
+    private final StringBuilder methods = new StringBuilder();
+
+    RepositoryWriter(Types types, TypeElement repository, TypeElement entity, String collectionName,
+                     Map<String, EntityField> fields, boolean generatedAnnotation) {
+        this.types = types;
+        this.repository = repository;
+        this.entity = entity;
+        this.collectionName = collectionName;
+        this.fields = fields;
+        this.generatedAnnotation = generatedAnnotation;
+        // 嵌套接口 Outer.FaceRepository 生成顶层类 Outer_FaceRepositoryImpl
+        Deque<String> names = new ArrayDeque<>();
+        Element current = repository;
+        while (current.getKind() != ElementKind.PACKAGE) {
+            names.push(current.getSimpleName().toString());
+            current = current.getEnclosingElement();
+        }
+        this.packageName = ((PackageElement) current).getQualifiedName().toString();
+        this.simpleName = String.join("_", names) + "Impl";
+    }
+
+    String qualifiedName() {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    void add(ExecutableElement method, Plan plan) {
+        String name = method.getSimpleName().toString();
+        String filter = filterConstant(name, plan.method());
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<String> names = new ArrayList<>(parameters.size());
+        StringJoiner signature = new StringJoiner(", ");
+        for (VariableElement parameter : parameters) {
+            names.add(parameter.getSimpleName().toString());
+            signature.add(parameter.asType() + " " + parameter.getSimpleName());
+        }
+        int offset = plan.method().kind() == RepositoryMethod.Kind.SEARCH ? 1 : 0;
+        StringJoiner params = new StringJoiner(", ", "params(", ")");
+        for (int i = 0; i < plan.method().criteria().size(); i++) {
+            params.add(literal(RepositoryMethod.placeholder(i))).add(names.get(i + offset));
+        }
+        String call = switch (plan.method().kind()) {
+            case SEARCH -> (plan.scored() ? "searchResults(" : "searchEntities(") + literal(plan.annsField()) + ", " + filter
+                    + ", " + params + ", vector(" + names.getFirst() + "), " + names.getLast() + ", OUTPUT_FIELDS)";
+            case FIND -> "queryEntities(" + filter + ", " + params + ", " + (plan.limited() ? names.getLast() : "0L")
+                    + ", OUTPUT_FIELDS)";
+            case COUNT -> "count(" + filter + ", " + params + ")";
+        };
+        methods.append("\n")
+                .append("    @Override\n")
+                .append("    public ").append(method.getReturnType()).append(' ').append(name).append('(').append(signature).append(") {\n")
+                .append("        return ").append(call).append(";\n")
+                .append("    }\n");
+    }
+
+    String write() {
+        String entityName = entity.getQualifiedName().toString();
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import io.github.xermaor.milvus.plus.core.conditions.FilterTemplate;\n")
+                .append("import io.github.xermaor.milvus.plus.core.repository.MilvusRepositorySupport;\n")
+                .append("import io.milvus.v2.client.MilvusClientV2;\n\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n\n");
+        if (generatedAnnotation) {
+            source.append("@javax.annotation.processing.Generated(")
+                    .append(literal(MilvusRepositoryProcessor.class.getName())).append(")\n");
+        }
+        source.append("public final class ").append(simpleName)
+                .append(" extends MilvusRepositorySupport<").append(entityName).append(">")
+                .append(" implements ").append(repository.getQualifiedName()).append(" {\n\n");
+        StringJoiner columns = new StringJoiner(", ", "List.of(", ")");
+        fields.values().forEach(field -> columns.add(literal(field.column())));
+        source.append("    private static final List<String> OUTPUT_FIELDS = ").append(columns).append(";\n");
+        filters.forEach((constant, initializer) ->
+                source.append("    private static final FilterTemplate ").append(constant).append(" = ").append(initializer).append(";\n"));
+        source.append("\n")
+                .append("    public ").append(simpleName).append("(MilvusClientV2 client) {\n")
+                .append("        super(client, ").append(literal(collectionName)).append(");\n")
+                .append("    }\n")
+                .append(methods)
+                .append("\n");
+        appendDecode(source, entityName);
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private void appendDecode(StringBuilder source, String entityName) {
+        StringBuilder body = new StringBuilder();
+        boolean unchecked = false;
+        for (EntityField field : fields.values()) {
+            String decoder = decoder(field.type());
+            unchecked |= decoder.startsWith("(") && field.type().getKind() == TypeKind.DECLARED
+                    && !((DeclaredType) field.type()).getTypeArguments().isEmpty();
+            body.append("        if ((value = row.get(").append(literal(field.column())).append(")) != null) {\n");
+            if (field.direct()) {
+                body.append("            entity.").append(field.property()).append(" = ").append(decoder).append(";\n");
+            } else {
+                body.append("            entity.set").append(Character.toUpperCase(field.property().charAt(0)))
+                        .append(field.property().substring(1)).append('(').append(decoder).append(");\n");
+            }
+            body.append("        }\n");
+        }
+        source.append("    @Override\n");
+        if (unchecked) {
+            source.append("    @SuppressWarnings(\"unchecked\")\n");
+        }
+        source.append("    protected ").append(entityName).append(" decode(Map<String, Object> row) {\n")
+                .append("        ").append(entityName).append(" entity = new ").append(entityName).append("();\n")
+                .append("        Object value;\n")
+                .append(body)
+                .append("        return entity;\n")
+                .append("    }\n");
+    }
+
+    /**
+     * 把结果中的取值转换为字段类型的表达式，取值变量为 {@code value}
+     */
+    private String decoder(TypeMirror type) {
+        switch (type.getKind()) {
+            case LONG:
+                return "asLong(value)";
+            case INT:
+                return "asInteger(value)";
+            case SHORT:
+                return "asShort(value)";
+            case FLOAT:
+                return "asFloat(value)";
+            case DOUBLE:
+                return "asDouble(value)";
+            case BOOLEAN:
+                return "asBoolean(value)";
+            case ARRAY:
+                if (type.toString().equals("float[]")) {
+                    return "asFloatArray(value)";
+                }
+                break;
+            case DECLARED:
+                String erasure = types.erasure(type).toString();
+                switch (erasure) {
+                    case "java.lang.Long":
+                        return "asLong(value)";
+                    case "java.lang.Integer":
+                        return "asInteger(value)";
+                    case "java.lang.Short":
+                        return "asShort(value)";
+                    case "java.lang.Float":
+                        return "asFloat(value)";
+                    case "java.lang.Double":
+                        return "asDouble(value)";
+                    case "java.lang.Boolean":
+                        return "asBoolean(value)";
+                    case "java.lang.String":
+                        return "asString(value)";
+                    case "java.util.List":
+                        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+                        if (arguments.size() == 1 && arguments.getFirst().toString().equals("java.lang.Float")) {
+                            return "asFloatList(value)";
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                break;
+            default:
+                break;
+        }
+        return "(" + type + ") value";
+    }
+
+    private String filterConstant(String method, RepositoryMethod parsed) {
+        String constant = method.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+        if (!filters.containsKey(constant)) {
+            String text = parsed.filter(property -> fields.get(property).column());
+            if (text.isEmpty()) {
+                filters.put(constant, "FilterTemplate.EMPTY");
+            } else {
+                StringJoiner initializer = new StringJoiner(", ", "FilterTemplate.of(", ")");
+                initializer.add(literal(text));
+                for (int i = 0; i < parsed.criteria().size(); i++) {
+                    initializer.add(literal(RepositoryMethod.placeholder(i)));
+                }
+                filters.put(constant, initializer.toString());
+            }
+        }
+        return constant;
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
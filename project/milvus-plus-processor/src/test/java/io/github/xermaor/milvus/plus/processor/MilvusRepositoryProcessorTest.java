@@ -0,0 +1,207 @@
+package io.github.xermaor.milvus.plus.processor;
+
+import io.github.xermaor.milvus.plus.core.repository.MilvusRepositories;
+import io.github.xermaor.milvus.plus.core.repository.MilvusRepositorySupport;
+import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.service.vector.request.QueryReq;
+import io.milvus.v2.service.vector.request.SearchReq;
+import io.milvus.v2.service.vector.response.QueryResp;
+import io.milvus.v2.service.vector.response.SearchResp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+
+import javax.tools.*;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MilvusRepositoryProcessorTest {
+
+    private static final String FACE = """
+            package demo;
+
+            import io.github.xermaor.milvus.plus.annotation.MilvusCollection;
+            import io.github.xermaor.milvus.plus.annotation.MilvusField;
+            import io.milvus.v2.common.DataType;
+            import java.util.List;
+
+            @MilvusCollection(name = "faces")
+            public class Face {
+                @MilvusField(name = "face_id", dataType = DataType.Int64, isPrimaryKey = true)
+                private Long id;
+                @MilvusField(dataType = DataType.Int64)
+                private long age;
+                @MilvusField(dataType = DataType.VarChar)
+                public String name;
+                @MilvusField(dimension = 2)
+                private List<Float> vector;
+
+                public Long getId() { return id; }
+                public void setId(Long id) { this.id = id; }
+                public long getAge() { return age; }
+                public void setAge(long age) { this.age = age; }
+                public void setVector(List<Float> vector) { this.vector = vector; }
+            }
+            """;
+
+    private static final String REPOSITORY = """
+            package demo;
+
+            import io.github.xermaor.milvus.plus.annotation.MilvusRepository;
+            import java.util.List;
+
+            @MilvusRepository(Face.class)
+            public interface FaceRepository {
+                List<Face> searchByVectorAndAgeGreaterThan(float[] vector, int age, int topK);
+
+                List<Face> findByIdInAndNameNot(List<Long> ids, String name, int limit);
+
+                long countByAgeLessThanEqual(long age);
+            }
+            """;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void testGeneratedRepositoryBuildsRequestsAndDecodesRows() throws Exception {
+        assertTrue(compile(REPOSITORY).isEmpty());
+        assertEquals("demo.FaceRepository=demo.FaceRepositoryImpl",
+                Files.readString(output.resolve(MilvusRepositories.INDEX)).trim());
+
+        MilvusClientV2 client = mock(MilvusClientV2.class);
+        when(client.search(any())).thenReturn(SearchResp.builder().searchResults(List.of(List.of(
+                SearchResp.SearchResult.builder().id(7L).score(0.9f)
+                        .entity(Map.of("face_id", 7L, "age", 30L, "name", "ann")).build()))).build());
+        when(client.query(any())).thenReturn(QueryResp.builder().queryResults(List.of()).build());
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{output.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> repository = loader.loadClass("demo.FaceRepository");
+            Map<Class<?>, Class<?>> discovered = MilvusRepositories.discover(loader);
+            Object instance = MilvusRepositories.create(repository, discovered.get(repository), client);
+            assertInstanceOf(MilvusRepositorySupport.class, instance);
+
+            List<?> faces = (List<?>) repository.getMethod("searchByVectorAndAgeGreaterThan", float[].class, int.class, int.class)
+                    .invoke(instance, new float[]{0.1f, 0.2f}, 18, 5);
+            repository.getMethod("findByIdInAndNameNot", List.class, String.class, int.class)
+                    .invoke(instance, List.of(1L, 2L), "bob", 10);
+
+            ArgumentCaptor<SearchReq> search = ArgumentCaptor.forClass(SearchReq.class);
+            verify(client).search(search.capture());
+            assertEquals("age > 18", search.getValue().getFilter());
+            assertEquals("vector", search.getValue().getAnnsField());
+            assertEquals(5, search.getValue().getTopK());
+            assertEquals(List.of("face_id", "age", "name", "vector"), search.getValue().getOutputFields());
+            ArgumentCaptor<QueryReq> query = ArgumentCaptor.forClass(QueryReq.class);
+            verify(client).query(query.capture());
+            assertEquals("face_id in [1, 2] && name != \"bob\"", query.getValue().getFilter());
+            assertEquals(10L, query.getValue().getLimit());
+
+            Object face = faces.getFirst();
+            assertEquals(7L, face.getClass().getMethod("getId").invoke(face));
+            assertEquals(30L, face.getClass().getMethod("getAge").invoke(face));
+            assertEquals("ann", face.getClass().getField("name").get(face));
+        }
+    }
+
+    @Test
+    void testInvalidMethodIsReportedAtCompileTime() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("""
+                package demo;
+
+                import io.github.xermaor.milvus.plus.annotation.MilvusRepository;
+                import java.util.List;
+
+                @MilvusRepository(Face.class)
+                public interface FaceRepository {
+                    List<Face> findByHeightGreaterThan(int height);
+                }
+                """);
+
+        assertEquals(1, errors.size());
+        assertTrue(errors.getFirst().getMessage(null).contains("Unknown property in HeightGreaterThan"));
+    }
+
+    @Test
+    void testParameterTypesAreCheckedAgainstFields() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile("""
+                package demo;
+
+                import io.github.xermaor.milvus.plus.annotation.MilvusRepository;
+                import java.util.List;
+                import java.util.Set;
+
+                @MilvusRepository(Face.class)
+                public interface FaceRepository {
+                    List<Face> findByAge(String age);
+
+                    List<Face> findByIdIn(Long id);
+
+                    List<Face> findByNameNotIn(List<Integer> names);
+
+                    long countByAgeInAndName(Set<? extends Number> ages, String name);
+                }
+                """);
+
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).getMessage(null).contains("Parameter age of findByAge has type java.lang.String"));
+        assertTrue(errors.get(1).getMessage(null).contains("Parameter id of findByIdIn must be a collection"));
+        assertTrue(errors.get(2).getMessage(null).contains("Parameter names of findByNameNotIn"));
+    }
+
+    @Test
+    void testIncrementalCompileKeepsOtherRepositoriesInIndex() throws Exception {
+        assertTrue(compile(REPOSITORY).isEmpty());
+        Path sources = output.resolve("src/demo");
+        Files.writeString(sources.resolve("AdultRepository.java"), """
+                package demo;
+
+                import io.github.xermaor.milvus.plus.annotation.MilvusRepository;
+
+                @MilvusRepository(Face.class)
+                public interface AdultRepository {
+                    long countByAgeGreaterThanEqual(int age);
+                }
+                """);
+
+        assertTrue(compile(List.of(sources.resolve("AdultRepository.java"))).isEmpty());
+        assertEquals(List.of("demo.AdultRepository=demo.AdultRepositoryImpl", "demo.FaceRepository=demo.FaceRepositoryImpl"),
+                Files.readAllLines(output.resolve(MilvusRepositories.INDEX)));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String repository) throws Exception {
+        Path sources = Files.createDirectories(output.resolve("src/demo"));
+        Files.writeString(sources.resolve("Face.java"), FACE);
+        Files.writeString(sources.resolve("FaceRepository.java"), repository);
+        return compile(List.of(sources.resolve("Face.java"), sources.resolve("FaceRepository.java")));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(List<Path> sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            files.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+            files.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(Files.createDirectories(output.resolve("generated"))));
+            files.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of(output, location(MilvusRepositorySupport.class),
+                    location(MilvusClientV2.class), location(Logger.class)));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, List.of("-Xlint:none"),
+                    null, files.getJavaFileObjectsFromPaths(sources));
+            task.setProcessors(List.of(new MilvusRepositoryProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR).toList();
+    }
+
+    private static Path location(Class<?> type) throws Exception {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toPath();
+    }
+}
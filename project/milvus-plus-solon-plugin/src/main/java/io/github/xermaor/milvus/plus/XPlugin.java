@@ -1,14 +1,24 @@
 package io.github.xermaor.milvus.plus;
 
+import io.github.xermaor.milvus.plus.core.repository.MilvusRepositories;
 import io.github.xermaor.milvus.plus.entity.MilvusConfigurationProperties;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
 import io.github.xermaor.milvus.plus.service.MilvusInit;
 import org.noear.solon.core.AppContext;
 import org.noear.solon.core.Plugin;
 
+import java.util.Map;
+
 public class XPlugin implements Plugin {
 
     public void start(AppContext context) throws Throwable {
         context.beanMake(MilvusConfigurationProperties.class);
         context.beanMake(MilvusInit.class);
+        // 构建期生成的仓库，数据源就绪后按仓库接口注册
+        Map<Class<?>, Class<?>> repositories = MilvusRepositories.discover(context.getClassLoader());
+        if (!repositories.isEmpty()) {
+            context.getBeanAsync(MilvusDatasources.class, datasources -> repositories.forEach((repository, implementation) ->
+                    context.wrapAndPut(repository, MilvusRepositories.create(repository, implementation, datasources))));
+        }
     }
 }
@@ -1,12 +1,22 @@
 package io.github.xermaor.milvus.plus.entity;
 
+import io.github.xermaor.milvus.plus.core.admission.AdmissionController;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionPolicy;
+import io.github.xermaor.milvus.plus.core.admission.AdmissionRule;
+import io.github.xermaor.milvus.plus.core.load.LoadBudget;
+import io.github.xermaor.milvus.plus.core.resilience.OperationType;
+import io.github.xermaor.milvus.plus.core.resilience.ResiliencePolicy;
+import io.github.xermaor.milvus.plus.core.spool.FsyncPolicy;
 import io.milvus.v2.client.ConnectConfig;
 import io.milvus.v2.client.RetryConfig;
 import lombok.Data;
 import org.noear.solon.annotation.Configuration;
 import org.noear.solon.annotation.Inject;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author xermao
@@ -22,4 +32,190 @@ public class MilvusConfigurationProperties {
     private String logLevel;
     private boolean banner = true;
     private RetryConfig retryConfig = RetryConfig.builder().build();
+    private LoadConfig load = new LoadConfig();
+    /**
+     * 命名数据源，实体通过 {@code @MilvusCollection(datasource = "...")} 指定所属数据源
+     */
+    private Map<String, DatasourceConfig> datasources = Map.of();
+    private ReadWriteConfig readWrite = new ReadWriteConfig();
+    private ResilienceConfig resilience = new ResilienceConfig();
+    private AdmissionConfig admission = new AdmissionConfig();
+    private SpoolConfig spool = new SpoolConfig();
+    private ExpiryConfig expiry = new ExpiryConfig();
+
+    /**
+     * 按需加载配置，启用后集合和分区在首次查询时加载，超出预算时释放最久未访问的
+     */
+    @Data
+    public static class LoadConfig {
+        private boolean enable;
+        private int maxLoaded;
+        private long maxMemoryBytes;
+        private long bytesPerRow;
+        /**
+         * 固定加载的集合或分区，格式为 collection 或 collection:partition
+         */
+        private List<String> pinned = List.of();
+
+        public LoadBudget toLoadBudget() {
+            return enable ? new LoadBudget(maxLoaded, maxMemoryBytes, bytesPerRow) : null;
+        }
+    }
+
+    /**
+     * 读写分离配置，查询请求发往读端点，插入、更新、删除发往写端点，为空时使用主连接
+     */
+    @Data
+    public static class ReadWriteConfig {
+        private List<ConnectConfig> readers = List.of();
+        private List<ConnectConfig> writers = List.of();
+    }
+
+    /**
+     * 容错配置，作用于查询构建器的终端操作和 IVecMService 的数据操作
+     */
+    @Data
+    public static class ResilienceConfig {
+        private boolean enable;
+        /**
+         * 读、写操作截止时间（毫秒），不大于 0 时不限制
+         */
+        private long readDeadlineMs;
+        private long writeDeadlineMs;
+        private int maxAttempts = 3;
+        private long backoffMs = 50L;
+        private long maxBackoffMs = 1000L;
+        /**
+         * 读操作是否启用对冲
+         */
+        private boolean hedge;
+        private long hedgeMinDelayMs = 20L;
+        /**
+         * 端点连续失败多少次后熔断，不大于 0 时不熔断
+         */
+        private int breakerFailureThreshold = 5;
+        private long breakerOpenMs = 10000L;
+
+        public ResiliencePolicy toReadPolicy() {
+            return enable ? toPolicy(readDeadlineMs, hedge) : null;
+        }
+
+        public ResiliencePolicy toWritePolicy() {
+            return enable ? toPolicy(writeDeadlineMs, false) : null;
+        }
+
+        private ResiliencePolicy toPolicy(long deadlineMs, boolean hedge) {
+            return new ResiliencePolicy(deadlineMs > 0 ? Duration.ofMillis(deadlineMs) : null, maxAttempts,
+                    Duration.ofMillis(backoffMs), Duration.ofMillis(maxBackoffMs),
+                    hedge, Duration.ofMillis(hedgeMinDelayMs),
+                    breakerFailureThreshold, Duration.ofMillis(breakerOpenMs));
+        }
+    }
+
+    /**
+     * 准入控制配置，按集合、操作类型和租户做令牌桶限速和并发限制
+     */
+    @Data
+    public static class AdmissionConfig {
+        private boolean enable;
+        /**
+         * 超出配额时的处理方式：BLOCK、TIMEOUT、FAIL_FAST
+         */
+        private AdmissionPolicy policy = AdmissionPolicy.TIMEOUT;
+        /**
+         * TIMEOUT 策略下的最长等待时间（毫秒）
+         */
+        private long timeoutMs = 1000L;
+        private List<AdmissionRuleConfig> rules = List.of();
+
+        public AdmissionController toAdmissionController() {
+            if (!enable || rules.isEmpty()) {
+                return null;
+            }
+            return new AdmissionController(rules.stream().map(AdmissionRuleConfig::toRule).toList(),
+                    policy, Duration.ofMillis(timeoutMs));
+        }
+    }
+
+    /**
+     * 写入暂存配置，集群不可用时插入和更新写入本地磁盘，恢复后回放
+     */
+    @Data
+    public static class SpoolConfig {
+        private boolean enable;
+        private String directory = "milvus-plus-spool";
+        private int segmentBytes = 64 * 1024 * 1024;
+        /**
+         * 刷盘策略：ALWAYS、INTERVAL、NEVER
+         */
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+        private long fsyncIntervalMs = 1000L;
+        private int drainBatchRows = 5000;
+        private long drainIntervalMs = 5000L;
+
+        public io.github.xermaor.milvus.plus.core.spool.SpoolConfig toSpoolConfig() {
+            if (!enable) {
+                return null;
+            }
+            return new io.github.xermaor.milvus.plus.core.spool.SpoolConfig(Path.of(directory), segmentBytes,
+                    fsyncPolicy, Duration.ofMillis(fsyncIntervalMs), drainBatchRows, Duration.ofMillis(drainIntervalMs));
+        }
+    }
+
+    /**
+     * 行级过期任务配置，用于声明了 ttlField 的集合
+     */
+    @Data
+    public static class ExpiryConfig {
+        private long intervalMs = 60_000L;
+        private int chunkSize = 1000;
+        /**
+         * 每秒最多删除的行数，0 表示不限速
+         */
+        private double rowsPerSecond = 1000D;
+        private boolean compact = true;
+
+        public io.github.xermaor.milvus.plus.core.expiry.ExpiryConfig toExpiryConfig() {
+            return new io.github.xermaor.milvus.plus.core.expiry.ExpiryConfig(Duration.ofMillis(intervalMs), chunkSize,
+                    rowsPerSecond, compact);
+        }
+    }
+
+    @Data
+    public static class AdmissionRuleConfig {
+        /**
+         * 集合名，为空或 * 时匹配所有集合
+         */
+        private String collection;
+        /**
+         * 操作类型，为空时匹配所有操作
+         */
+        private OperationType operation;
+        private double permitsPerSecond;
+        private int burst;
+        private int maxInFlight;
+        private boolean perTenant;
+
+        public AdmissionRule toRule() {
+            return new AdmissionRule(collection, operation, permitsPerSecond, burst, maxInFlight, perTenant);
+        }
+    }
+
+    /**
+     * 命名数据源配置。读写分离、容错、准入控制、写入暂存和过期任务的含义与默认数据源的同名配置相同，
+     * 只作用于该数据源，未配置时不启用（过期任务使用默认配置）；按需加载沿用全局的 load 配置
+     */
+    @Data
+    public static class DatasourceConfig {
+        private ConnectConfig connectConfig;
+        private RetryConfig retryConfig = RetryConfig.builder().build();
+        private ReadWriteConfig readWrite = new ReadWriteConfig();
+        private ResilienceConfig resilience = new ResilienceConfig();
+        private AdmissionConfig admission = new AdmissionConfig();
+        /**
+         * 暂存目录不能与其他数据源相同
+         */
+        private SpoolConfig spool = new SpoolConfig();
+        private ExpiryConfig expiry = new ExpiryConfig();
+    }
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package io.github.xermaor.milvus.plus.mapper;
 
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.core.mapper.BaseMilvusMapper;
+import io.github.xermaor.milvus.plus.service.MilvusDatasources;
+import io.github.xermaor.milvus.plus.service.MilvusInit;
 import io.milvus.v2.client.MilvusClientV2;
 import org.noear.solon.Solon;
 
 public class MilvusMapper<T> extends BaseMilvusMapper<T> {
 
     private MilvusClientV2 client;
+    private EntityMetadataRegistry metadataRegistry;
+    private MilvusDatasources datasources;
 
     @Override
     public MilvusClientV2 getClient() {
@@ -15,4 +20,20 @@ public class MilvusMapper<T> extends BaseMilvusMapper<T> {
         }
         return client;
     }
+
+    @Override
+    public EntityMetadataRegistry getMetadataRegistry() {
+        if (metadataRegistry == null) {
+            metadataRegistry = Solon.context().getBean(MilvusInit.class).getMetadataRegistry();
+        }
+        return metadataRegistry;
+    }
+
+    @Override
+    public MilvusDatasources getDatasources() {
+        if (datasources == null) {
+            datasources = Solon.context().getBean(MilvusDatasources.class);
+        }
+        return datasources;
+    }
 }
@@ -2,11 +2,17 @@ package io.github.xermaor.milvus.plus.service;
 
 import io.github.xermaor.milvus.plus.entity.MilvusConfigurationProperties;
 import io.github.xermaor.milvus.plus.logger.LogLevelController;
+import io.milvus.v2.client.ConnectConfig;
 import io.milvus.v2.client.MilvusClientV2;
+import io.milvus.v2.client.RetryConfig;
 import org.noear.solon.annotation.Bean;
 import org.noear.solon.annotation.Configuration;
 import org.noear.solon.core.bean.LifecycleBean;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Configuration
 public class MilvusInit extends AbstractMilvusClientBuilder implements LifecycleBean {
 
@@ -21,14 +27,54 @@ public class MilvusInit extends AbstractMilvusClientBuilder implements Lifecycle
                 milvusConfigurationProperties.isOpenLog(),
                 milvusConfigurationProperties.getLogLevel());
         this.packages = milvusConfigurationProperties.getPackages().toArray(new String[0]);
+        this.loadBudget = milvusConfigurationProperties.getLoad().toLoadBudget();
+        this.pinned = milvusConfigurationProperties.getLoad().getPinned();
+        this.readClients = createClients(milvusConfigurationProperties.getReadWrite().getReaders(),
+                milvusConfigurationProperties.getRetryConfig());
+        this.writeClients = createClients(milvusConfigurationProperties.getReadWrite().getWriters(),
+                milvusConfigurationProperties.getRetryConfig());
+        this.readPolicy = milvusConfigurationProperties.getResilience().toReadPolicy();
+        this.writePolicy = milvusConfigurationProperties.getResilience().toWritePolicy();
+        this.admissionController = milvusConfigurationProperties.getAdmission().toAdmissionController();
+        this.spoolConfig = milvusConfigurationProperties.getSpool().toSpoolConfig();
+        this.expiryConfig = milvusConfigurationProperties.getExpiry().toExpiryConfig();
         this.initClient();
         super.initialize();
         return getClient();
     }
 
+    @Bean
+    public MilvusDatasources datasources(MilvusClientV2 milvusClientV2) {
+        Map<String, MilvusClientBuilder> builders = new LinkedHashMap<>();
+        builders.put(MilvusDatasources.DEFAULT, this);
+        properties.getDatasources().forEach((name, config) -> {
+            NamedMilvusClientBuilder builder = new NamedMilvusClientBuilder(name,
+                    createClient(config.getConnectConfig(), config.getRetryConfig()), packages,
+                    properties.getLoad().toLoadBudget(), properties.getLoad().getPinned())
+                    .readWrite(createClients(config.getReadWrite().getReaders(), config.getRetryConfig()),
+                            createClients(config.getReadWrite().getWriters(), config.getRetryConfig()))
+                    .resilience(config.getResilience().toReadPolicy(), config.getResilience().toWritePolicy())
+                    .admission(config.getAdmission().toAdmissionController())
+                    .spool(config.getSpool().toSpoolConfig())
+                    .expiry(config.getExpiry().toExpiryConfig());
+            builder.initialize();
+            builders.put(name, builder);
+        });
+        return new MilvusDatasources(builders);
+    }
+
     private void initClient() {
-        this.client = new MilvusClientV2(properties.getConnectConfig());
-        this.client.retryConfig(properties.getRetryConfig());
+        this.client = createClient(properties.getConnectConfig(), properties.getRetryConfig());
+    }
+
+    private static List<MilvusClientV2> createClients(List<ConnectConfig> configs, RetryConfig retryConfig) {
+        return configs.stream().map(config -> createClient(config, retryConfig)).toList();
+    }
+
+    private static MilvusClientV2 createClient(ConnectConfig config, RetryConfig retryConfig) {
+        MilvusClientV2 milvusClient = new MilvusClientV2(config);
+        milvusClient.retryConfig(retryConfig);
+        return milvusClient;
     }
 
     public void start() throws Throwable {
@@ -1,5 +1,6 @@
 package io.github.xermaor.milvus.plus.service;
 
+import io.github.xermaor.milvus.plus.cache.EntityMetadataRegistry;
 import io.github.xermaor.milvus.plus.core.conditions.LambdaDeleteWrapper;
 import io.github.xermaor.milvus.plus.core.conditions.LambdaInsertWrapper;
 import io.github.xermaor.milvus.plus.core.conditions.LambdaQueryWrapper;
@@ -31,6 +32,11 @@ public class MilvusService implements IAMService, ICMService, IVecMService {
         return client;
     }
 
+    @Override
+    public EntityMetadataRegistry getMetadataRegistry() {
+        return Solon.context().getBean(MilvusInit.class).getMetadataRegistry();
+    }
+
     public <T> MilvusResp<List<MilvusResult<T>>> getById(Class<T> entityClass, Serializable... ids) {
         BaseMilvusMapper<T> mapper = getBaseMilvusMapper();
         LambdaQueryWrapper<T> lambda = mapper.lambda(entityClass, new LambdaQueryWrapper<>());
@@ -102,6 +108,16 @@ public class MilvusService implements IAMService, ICMService, IVecMService {
             public MilvusClientV2 getClient() {
                 return client;
             }
+
+            @Override
+            public EntityMetadataRegistry getMetadataRegistry() {
+                return MilvusService.this.getMetadataRegistry();
+            }
+
+            @Override
+            public MilvusDatasources getDatasources() {
+                return Solon.context().getBean(MilvusDatasources.class);
+            }
         };
     }
 